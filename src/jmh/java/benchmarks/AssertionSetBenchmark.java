@@ -0,0 +1,86 @@
+package benchmarks;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.response.ValidatableResponse;
+import org.hamcrest.Matcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.AssertionSet;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * The {@code getUser.testGetUsersWithQueryParameters} assertions on the ReqRes users page:
+ * separate {@code response.then().body(...)} calls, one chained {@code then()}, and an
+ * {@link AssertionSet}. Comparing {@code assertions=1} with {@code assertions=6} gives the
+ * fixed cost per response and the cost of each additional assertion.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AssertionSetBenchmark {
+    private static final String[] PATHS = {
+        "data", "data[2].id", "data[2].email", "data[2].first_name", "data[2].last_name", "data[2].avatar"};
+    private static final Matcher<?>[] MATCHERS = {
+        hasSize(6), is(9), is("tobias.funke@reqres.in"), is("Tobias"), is("Funke"), is("https://reqres.in/img/faces/9-image.jpg")};
+
+    @Param({"1", "6"})
+    private int assertions;
+
+    private Response response;
+    private AssertionSet set;
+
+    @Setup
+    public void createResponse() throws IOException {
+        response = new ResponseBuilder()
+                .setStatusCode(200)
+                .setContentType(ContentType.JSON)
+                .setBody(Files.readAllBytes(Paths.get("Resources/TestData/usersPage.json")))
+                .build();
+        AssertionSet.Builder builder = AssertionSet.builder();
+        for (int i = 0; i < assertions; i++) {
+            builder.body(PATHS[i], MATCHERS[i]);
+        }
+        set = builder.build();
+    }
+
+    @Benchmark
+    public void separateThenBody() {
+        for (int i = 0; i < assertions; i++) {
+            response.then().body(PATHS[i], MATCHERS[i]);
+        }
+    }
+
+    @Benchmark
+    public void chainedThenBody() {
+        ValidatableResponse then = response.then();
+        for (int i = 0; i < assertions; i++) {
+            then = then.body(PATHS[i], MATCHERS[i]);
+        }
+    }
+
+    @Benchmark
+    public void assertionSet() {
+        set.verify(response);
+    }
+}
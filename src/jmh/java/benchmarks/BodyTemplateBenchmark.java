@@ -0,0 +1,67 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.BodyTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building a create-user body per request: reading the file and replacing placeholders in a
+ * String (what {@code postUser} did), replacing in a String kept in memory, and {@link BodyTemplate}
+ * rendering into a new array or a reused buffer. Run with {@code -prof gc} for bytes per body.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BodyTemplateBenchmark {
+    private final Path file = Paths.get("Resources/TestData/createUserTemplate.json");
+    private final BodyTemplate template = BodyTemplate.load(file);
+    private final ByteBuffer buffer = ByteBuffer.allocate(4096);
+    private final CharSequence[] values = {"morpheus", "leader"};
+    private String text;
+
+    @Setup
+    public void readText() throws IOException {
+        text = Files.readString(file);
+    }
+
+    @Benchmark
+    public byte[] readFileAndReplace() throws IOException {
+        return Files.readString(file).replace("{{name}}", "morpheus").replace("{{job}}", "leader")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] replaceInString() {
+        return text.replace("{{name}}", "morpheus").replace("{{job}}", "leader").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] templateRender() {
+        return template.render(values);
+    }
+
+    @Benchmark
+    public int templateRenderIntoBuffer() {
+        buffer.clear();
+        return template.render(buffer, values);
+    }
+}
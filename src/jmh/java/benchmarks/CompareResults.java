@@ -0,0 +1,70 @@
+package benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Prints the score change of every benchmark between two JMH JSON result files.
+ *
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=benchmarks.CompareResults -Dexec.args="baseline.json target/jmh-result.json"
+ * </pre>
+ *
+ * Changes within the combined 99.9% error of both runs are marked as noise.
+ */
+public class CompareResults {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: CompareResults <baseline.json> <current.json>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = read(args[0]);
+        Map<String, JsonNode> current = read(args[1]);
+        System.out.printf("%-70s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        current.forEach((name, result) -> {
+            JsonNode before = baseline.get(name);
+            JsonNode metric = result.path("primaryMetric");
+            String unit = metric.path("scoreUnit").asText();
+            double score = metric.path("score").asDouble();
+            if (before == null) {
+                System.out.printf("%-70s %14s %14s %9s%n", name, "-", format(score, unit), "new");
+                return;
+            }
+            JsonNode beforeMetric = before.path("primaryMetric");
+            double beforeScore = beforeMetric.path("score").asDouble();
+            double change = (score - beforeScore) / beforeScore * 100;
+            double noise = error(metric) + error(beforeMetric);
+            System.out.printf("%-70s %14s %14s %+8.1f%%%s%n", name, format(beforeScore, unit), format(score, unit),
+                    change, Math.abs(score - beforeScore) <= noise ? " (noise)" : "");
+        });
+        baseline.keySet().stream().filter(name -> !current.containsKey(name))
+                .forEach(name -> System.out.printf("%-70s %14s %14s %9s%n", name, "", "-", "removed"));
+    }
+
+    private static Map<String, JsonNode> read(String file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(new File(file))) {
+            StringBuilder name = new StringBuilder(result.path("benchmark").asText());
+            result.path("params").fields().forEachRemaining(param ->
+                    name.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            results.put(name.toString(), result);
+        }
+        return results;
+    }
+
+    private static double error(JsonNode metric) {
+        double error = metric.path("scoreError").asDouble();
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    private static String format(double score, String unit) {
+        return String.format("%.3f %s", score, unit);
+    }
+}
@@ -0,0 +1,146 @@
+package benchmarks;
+
+import core.VirtualThreadExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testng.internal.DynamicGraph;
+import org.testng.internal.thread.graph.GraphThreadPoolExecutor;
+import org.testng.thread.IThreadWorkerFactory;
+import org.testng.thread.ITestNGThreadPoolExecutor;
+import org.testng.thread.IWorker;
+import stub.StubServer;
+import utils.VirtualThreads;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * One {@code <test>} of {@code invocations} independent methods, each a blocking GET to the local
+ * stub with {@code latencyMs} of server latency, scheduled the way TestNG runs parallel methods:
+ * on its own pool ({@code platform:<thread-count>}) or on {@link VirtualThreadExecutor}
+ * ({@code virtual:<permits>}). The score is the time for the whole test, so throughput is
+ * {@code invocations / score}. The virtual mode needs Java 21:
+ * {@code JAVA_HOME=<jdk21> mvn -Pbenchmarks verify -Djmh.args="ExecutionMode"}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@State(Scope.Benchmark)
+public class ExecutionModeBenchmark {
+    @Param({"platform:32", "platform:256", "virtual:1000"})
+    public String executor;
+
+    @Param({"1000"})
+    public int invocations;
+
+    @Param({"50"})
+    public long latencyMs;
+
+    private StubServer server;
+    private HttpClient client;
+    private HttpRequest request;
+
+    // One test method invocation: a request that mostly waits for the server
+    private class Invocation implements IWorker<Integer> {
+        private final int node;
+        private final LongAdder passed;
+
+        Invocation(int node, LongAdder passed) {
+            this.node = node;
+            this.passed = passed;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.ofByteArray()).statusCode() == 200) {
+                    passed.increment();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public List<Integer> getTasks() {
+            return List.of(node);
+        }
+
+        @Override
+        public long getTimeOut() {
+            return 0;
+        }
+
+        @Override
+        public int getPriority() {
+            return 0;
+        }
+
+        @Override
+        public int compareTo(IWorker<Integer> other) {
+            return 0;
+        }
+    }
+
+    @Setup
+    public void startServer() throws IOException {
+        if (executor.startsWith("virtual") && !VirtualThreads.isAvailable()) {
+            throw new IllegalStateException(VirtualThreads.unavailableReason());
+        }
+        server = new StubServer(0, 4).start();
+        server.setLatency(latencyMs, 0);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create(server.getBaseUrl() + "/users/1")).build();
+    }
+
+    @TearDown
+    public void stopServer() {
+        server.stop();
+    }
+
+    @Benchmark
+    public long runTest() throws InterruptedException {
+        DynamicGraph<Integer> graph = new DynamicGraph<>();
+        for (int i = 0; i < invocations; i++) {
+            graph.addNode(i);
+        }
+        LongAdder passed = new LongAdder();
+        IThreadWorkerFactory<Integer> workers = nodes -> nodes.stream()
+                .map(node -> (IWorker<Integer>) new Invocation(node, passed))
+                .collect(Collectors.toList());
+        int size = Integer.parseInt(executor.substring(executor.indexOf(':') + 1));
+        ITestNGThreadPoolExecutor pool = executor.startsWith("virtual")
+                ? new VirtualThreadExecutor<>("benchmark", graph, workers, null, new Semaphore(size))
+                : new GraphThreadPoolExecutor<>("benchmark", graph, workers, size, size, 0, TimeUnit.MILLISECONDS,
+                        new LinkedBlockingQueue<>(), null);
+        pool.run();
+        if (!pool.awaitTermination(5, TimeUnit.MINUTES) || passed.sum() != invocations) {
+            throw new IllegalStateException(passed.sum() + " of " + invocations + " invocations passed");
+        }
+        return passed.sum();
+    }
+}
@@ -0,0 +1,113 @@
+package benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.RestAssured;
+import io.restassured.config.ObjectMapperConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pojo.CityRequest;
+import pojo.ImmutablePostRequestBody;
+import pojo.PostRequestBody;
+import utils.JsonBodies;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request bodies per second: RestAssured's default object mapping (a new mapper per body), the
+ * same with {@link JsonBodies#objectMapperConfig()}, cached writers and readers used directly,
+ * and a body prepared once and sent as bytes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBodiesBenchmark {
+    private final RestAssuredConfig defaultConfig = RestAssuredConfig.config().objectMapperConfig(new ObjectMapperConfig());
+    private final RestAssuredConfig sharedConfig = RestAssuredConfig.config().objectMapperConfig(JsonBodies.objectMapperConfig());
+    private PostRequestBody postRequestBody;
+    private ImmutablePostRequestBody immutableBody;
+    private JsonBodies.Prepared prepared;
+    private byte[] json;
+
+    @Setup
+    public void createBodies() {
+        postRequestBody = new PostRequestBody();
+        postRequestBody.setName("caro");
+        postRequestBody.setJob("leader");
+        postRequestBody.setLanguages(Arrays.asList("Java", "JavaFX", "Python"));
+        postRequestBody.setCityRequestBody(Arrays.asList(city("Paris", "18"), city("Lisbon", "22")));
+        immutableBody = ImmutablePostRequestBody.builder().name("caro").job("leader")
+                .languages("Java", "JavaFX", "Python").city("Paris", "18").city("Lisbon", "22").build();
+        prepared = JsonBodies.prepare(immutableBody);
+        json = prepared.getBytes();
+    }
+
+    private static CityRequest city(String name, String temperature) {
+        CityRequest city = new CityRequest();
+        city.setName(name);
+        city.setTemperature(temperature);
+        return city;
+    }
+
+    @Benchmark
+    public RequestSpecification restAssuredDefaultMapping() {
+        return RestAssured.given().config(defaultConfig).contentType(ContentType.JSON).body(postRequestBody);
+    }
+
+    @Benchmark
+    public RequestSpecification restAssuredSharedMapper() {
+        return RestAssured.given().config(sharedConfig).contentType(ContentType.JSON).body(postRequestBody);
+    }
+
+    @Benchmark
+    public RequestSpecification restAssuredPreparedBytes() {
+        return RestAssured.given().config(defaultConfig).contentType(ContentType.JSON).body(prepared.getBytes());
+    }
+
+    @Benchmark
+    public byte[] writeDefaultMapper() throws JsonProcessingException {
+        // what RestAssured's default Jackson factory does for every body
+        return new ObjectMapper().findAndRegisterModules().writeValueAsBytes(postRequestBody);
+    }
+
+    @Benchmark
+    public byte[] writeCachedWriter() {
+        return JsonBodies.toBytes(postRequestBody);
+    }
+
+    @Benchmark
+    public byte[] writeCachedWriterImmutable() {
+        return JsonBodies.toBytes(immutableBody);
+    }
+
+    @Benchmark
+    public PostRequestBody readDefaultMapper() throws IOException {
+        return new ObjectMapper().findAndRegisterModules().readValue(json, PostRequestBody.class);
+    }
+
+    @Benchmark
+    public PostRequestBody readCachedReader() {
+        return JsonBodies.fromBytes(json, PostRequestBody.class);
+    }
+
+    @Benchmark
+    public ImmutablePostRequestBody readCachedReaderImmutable() {
+        return JsonBodies.fromBytes(json, ImmutablePostRequestBody.class);
+    }
+}
@@ -0,0 +1,68 @@
+package benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code response.jsonPath().getList("")} on a 500-element array, the shape of the
+ * JSONPlaceholder {@code /comments?_limit=500} style responses, against plain Jackson parsing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonPathBenchmark {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private Response response;
+    private byte[] body;
+
+    @Setup
+    public void createResponse() throws IOException {
+        ArrayNode comments = mapper.createArrayNode();
+        for (int id = 1; id <= 500; id++) {
+            ObjectNode comment = comments.addObject();
+            comment.put("postId", (id - 1) / 5 + 1);
+            comment.put("id", id);
+            comment.put("name", "comment " + id + " id labore ex et quam laborum");
+            comment.put("email", "user" + id + "@example.biz");
+            comment.put("body", "laudantium enim quasi est quidem magnam voluptate ipsam eos comment " + id);
+        }
+        body = mapper.writeValueAsBytes(comments);
+        response = new ResponseBuilder()
+                .setStatusCode(200)
+                .setContentType(ContentType.JSON)
+                .setBody(body)
+                .build();
+    }
+
+    @Benchmark
+    public List<Object> jsonPathGetList() {
+        return response.jsonPath().getList("");
+    }
+
+    @Benchmark
+    public JsonNode jacksonReadTree() throws IOException {
+        return mapper.readTree(body);
+    }
+}
@@ -0,0 +1,44 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.JsonReader;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JsonReader} lookups on {@code testdata.json}, served from the parsed-file cache
+ * and with the cache cleared before every lookup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonReaderBenchmark {
+
+    @Benchmark
+    public String cachedTestData() throws IOException {
+        return JsonReader.getTestData("username");
+    }
+
+    @Benchmark
+    public Object cachedArrayElement() throws IOException {
+        return JsonReader.getJsonArrayData("languages", 1);
+    }
+
+    @Benchmark
+    public String uncachedTestData() throws IOException {
+        JsonReader.clearCache();
+        return JsonReader.getTestData("username");
+    }
+}
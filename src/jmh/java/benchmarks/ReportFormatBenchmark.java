@@ -0,0 +1,77 @@
+package benchmarks;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.JsonlReporter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A whole report of {@code tests} nodes with four steps each, written by the Spark reporter and by
+ * {@link JsonlReporter}. Spark keeps every node in memory and renders the page once at the end,
+ * so its cost per event grows with the run; run with {@code -prof gc} to compare allocations.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@State(Scope.Benchmark)
+public class ReportFormatBenchmark {
+    @Param({"2000"})
+    public int tests;
+
+    private Path directory;
+    private int run;
+
+    @Setup
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("report-format");
+    }
+
+    @Benchmark
+    public ExtentReports spark() {
+        ExtentReports report = new ExtentReports();
+        report.attachReporter(new ExtentSparkReporter(directory.resolve("spark-" + run++ + ".html").toString()));
+        for (int i = 0; i < tests; i++) {
+            ExtentTest test = report.createTest("testGetUser[" + i + "]", "GET /users/{id}");
+            test.log(Status.INFO, "Request: GET /api/users/" + i);
+            test.log(Status.INFO, "Response time: 12 ms");
+            test.log(Status.PASS, "Validated status code 200");
+            test.log(Status.PASS, "Test Case: testGetUser is passed");
+        }
+        report.flush();
+        return report;
+    }
+
+    @Benchmark
+    public long jsonl() throws IOException {
+        try (JsonlReporter report = new JsonlReporter(directory.resolve("results-" + run++ + ".jsonl"), 1000)) {
+            for (int i = 0; i < tests; i++) {
+                long test = report.startTest("testGetUser[" + i + "]", "GET /users/{id}");
+                report.log(test, Status.INFO, "Request: GET /api/users/" + i);
+                report.log(test, Status.INFO, "Response time: 12 ms");
+                report.log(test, Status.PASS, "Validated status code 200");
+                report.log(test, Status.PASS, "Test Case: testGetUser is passed");
+            }
+            report.flush();
+            return report.getEventCount();
+        }
+    }
+}
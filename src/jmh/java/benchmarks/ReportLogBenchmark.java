@@ -0,0 +1,42 @@
+package benchmarks;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code ExtentTest.log} on a report without reporters attached, i.e. the in-memory cost of
+ * a log step. A fresh report is created every iteration so logged steps do not pile up.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@State(Scope.Benchmark)
+public class ReportLogBenchmark {
+    private ExtentTest test;
+
+    @Setup(Level.Iteration)
+    public void createTest() {
+        test = new ExtentReports().createTest("benchmark", "ExtentTest.log");
+    }
+
+    @Benchmark
+    public ExtentTest logStep() {
+        return test.log(Status.INFO, "Validated status code 200 for GET /posts/1");
+    }
+}
@@ -0,0 +1,45 @@
+package benchmarks;
+
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building request specifications, before anything is sent.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestSpecBenchmark {
+
+    @Benchmark
+    public RequestSpecification emptyGiven() {
+        return RestAssured.given();
+    }
+
+    @Benchmark
+    public RequestSpecification typicalSpec() {
+        return RestAssured.given()
+                .baseUri("http://localhost:8080")
+                .basePath("/api")
+                .contentType(ContentType.JSON)
+                .header("Accept", "application/json")
+                .header("x-api-key", "benchmark")
+                .queryParam("page", 2)
+                .body("{\"name\":\"caro\",\"job\":\"leader\"}");
+    }
+}
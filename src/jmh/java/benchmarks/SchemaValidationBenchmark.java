@@ -0,0 +1,67 @@
+package benchmarks;
+
+import io.restassured.module.jsv.JsonSchemaValidator;
+import org.hamcrest.Matcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.SchemaRegistry;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.module.jsv.JsonSchemaValidator.matchesJsonSchema;
+
+/**
+ * Validating the ReqRes users page fixture against {@code ExpectedSquema.json}: RestAssured's
+ * matcher created per call and reused (both compile the schema on every match), and the
+ * precompiled {@link SchemaRegistry} schema.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SchemaValidationBenchmark {
+    private final File schema = new File("Resources/ExpectedSquema.json");
+    private String body;
+    private JsonSchemaValidator matcher;
+    private Matcher<String> registryMatcher;
+
+    @Setup
+    public void loadFixture() throws IOException {
+        body = new String(Files.readAllBytes(Paths.get("Resources/TestData/usersPage.json")), StandardCharsets.UTF_8);
+        matcher = matchesJsonSchema(schema);
+        if (!matcher.matches(body)) {
+            throw new IllegalStateException("usersPage.json does not match ExpectedSquema.json");
+        }
+        registryMatcher = SchemaRegistry.matchesSchema(schema);
+    }
+
+    @Benchmark
+    public boolean matcherPerCall() {
+        return matchesJsonSchema(schema).matches(body);
+    }
+
+    @Benchmark
+    public boolean reusedMatcher() {
+        return matcher.matches(body);
+    }
+
+    @Benchmark
+    public boolean registryMatcher() {
+        return registryMatcher.matches(body);
+    }
+}
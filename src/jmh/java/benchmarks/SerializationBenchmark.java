@@ -0,0 +1,75 @@
+package benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pojo.CityRequest;
+import pojo.PostRequestBody;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing the request POJOs, with a shared Jackson mapper and through
+ * {@code given().body(pojo)}, which is how the tests serialize them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private PostRequestBody postRequestBody;
+    private CityRequest cityRequest;
+
+    @Setup
+    public void createBodies() {
+        cityRequest = city("Paris", "18");
+        postRequestBody = new PostRequestBody();
+        postRequestBody.setName("caro");
+        postRequestBody.setJob("leader");
+        postRequestBody.setLanguages(Arrays.asList("Java", "JavaFX", "Python"));
+        postRequestBody.setCityRequestBody(Arrays.asList(cityRequest, city("Lisbon", "22")));
+    }
+
+    private static CityRequest city(String name, String temperature) {
+        CityRequest city = new CityRequest();
+        city.setName(name);
+        city.setTemperature(temperature);
+        return city;
+    }
+
+    @Benchmark
+    public byte[] postRequestBodyJackson() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(postRequestBody);
+    }
+
+    @Benchmark
+    public byte[] cityRequestJackson() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(cityRequest);
+    }
+
+    @Benchmark
+    public RequestSpecification postRequestBodyRestAssured() {
+        return RestAssured.given().contentType(ContentType.JSON).body(postRequestBody);
+    }
+
+    @Benchmark
+    public RequestSpecification cityRequestRestAssured() {
+        return RestAssured.given().contentType(ContentType.JSON).body(cityRequest);
+    }
+}
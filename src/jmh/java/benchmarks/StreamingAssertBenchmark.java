@@ -0,0 +1,96 @@
+package benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.StreamingJsonAssert;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.greaterThan;
+
+/**
+ * Counting a comments array and finding its last element with {@code jsonPath().getList("")},
+ * as {@code getUser} and {@code performanceTests} used to, against {@link StreamingJsonAssert}.
+ * 10,000 comments are about 2 MB. Run with {@code -prof gc} to compare allocation per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StreamingAssertBenchmark {
+    @Param({"500", "10000"})
+    private int elements;
+
+    private Response response;
+    private String lastEmail;
+
+    @Setup
+    public void createResponse() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        ArrayNode comments = mapper.createArrayNode();
+        for (int id = 1; id <= elements; id++) {
+            ObjectNode comment = comments.addObject();
+            comment.put("postId", (id - 1) / 5 + 1);
+            comment.put("id", id);
+            comment.put("name", "comment " + id + " id labore ex et quam laborum");
+            comment.put("email", "user" + id + "@example.biz");
+            comment.put("body", "laudantium enim quasi est quidem magnam voluptate ipsam eos comment " + id
+                    + "\nnostrum est dolor sed voluptas quia necessitatibus accusantium harum");
+        }
+        lastEmail = "user" + elements + "@example.biz";
+        response = new ResponseBuilder()
+                .setStatusCode(200)
+                .setContentType(ContentType.JSON)
+                .setBody(mapper.writeValueAsBytes(comments))
+                .build();
+    }
+
+    @Benchmark
+    public int jsonPathSize() {
+        return response.jsonPath().getList("").size();
+    }
+
+    @Benchmark
+    public int streamingSize() {
+        return StreamingJsonAssert.assertThatJson(response).hasSize(elements).verify();
+    }
+
+    @Benchmark
+    public boolean jsonPathFindLast() {
+        List<Map<String, Object>> comments = response.jsonPath().getList("");
+        return comments.stream().anyMatch(comment -> lastEmail.equals(comment.get("email")));
+    }
+
+    @Benchmark
+    public int streamingFindLast() {
+        return StreamingJsonAssert.assertThatJson(response).hasItem("email", lastEmail).verify();
+    }
+
+    @Benchmark
+    public int streamingAllChecks() {
+        return StreamingJsonAssert.assertThatJson(response)
+                .hasSize(elements)
+                .hasItem("email", lastEmail)
+                .everyItem("postId", greaterThan(0))
+                .verify();
+    }
+}
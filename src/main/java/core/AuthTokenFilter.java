@@ -0,0 +1,65 @@
+package core;
+
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Adds {@code Authorization: Bearer <token>} from a {@link TokenProvider} to every request.
+ *
+ * A 401 answer means the server no longer accepts the cached token (revoked, or expired earlier
+ * than announced): the filter invalidates it and sends the request once more with a fresh token.
+ * The retry goes through {@link FilterChain#resend}, so the rate limiter, cassette and timing
+ * filters see both attempts, and a recording replays the 401 followed by the retried answer.
+ * <pre>
+ * private static final AuthTokenFilter auth = new AuthTokenFilter(
+ *         TokenProvider.forLoginEndpoint(APIEndpoints.getBookstoreUrl("/Account/v1/GenerateToken")),
+ *         new TokenProvider.Credentials("caro", "Test@123"));
+ *
+ * given().filter(auth).body(book).post(APIEndpoints.getBookstoreUrl("/BookStore/v1/Books"));
+ * </pre>
+ */
+public class AuthTokenFilter implements OrderedFilter {
+    // Set while a request is resent, which runs this filter again; a second 401 is returned as is
+    private static final ThreadLocal<Boolean> retrying = ThreadLocal.withInitial(() -> false);
+
+    private final TokenProvider provider;
+    private final TokenProvider.Credentials credentials;
+
+    public AuthTokenFilter(TokenProvider provider, TokenProvider.Credentials credentials) {
+        this.provider = provider;
+        this.credentials = credentials;
+    }
+
+    /**
+     * Runs before the cassette and logging filters, so they see the header that is sent.
+     */
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification request, FilterableResponseSpecification response,
+                           FilterContext context) {
+        String token = provider.getToken(credentials);
+        request.replaceHeader("Authorization", "Bearer " + token);
+        Response actual = context.next(request, response);
+        if (actual.getStatusCode() != 401 || retrying.get()) {
+            return actual;
+        }
+        provider.invalidate(credentials, token);
+        retrying.set(true);
+        try {
+            return FilterChain.resend(this, request, response, context);
+        } finally {
+            retrying.set(false);
+        }
+    }
+
+    public TokenProvider getProvider() {
+        return provider;
+    }
+}
@@ -2,24 +2,46 @@ package core;
 
 import com.aventstack.extentreports.Status;
 import helper.BaseTestHelper;
-import org.testng.ITestResult;
-import org.testng.annotations.AfterMethod;
+import io.restassured.RestAssured;
 import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeSuite;
+import org.testng.annotations.Listeners;
+import perf.RegressionDetector;
+import perf.TimingFilter;
+import perf.TimingHistory;
+import stub.CassetteFilter;
+import utils.AsyncApiClient;
+import utils.Config;
 import utils.ExtentReport;
+import utils.HttpClientPool;
+import utils.JsonBodies;
+import utils.RateLimiter;
+import utils.ReportContext;
+import utils.SchemaRegistry;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Base test class that provides common setup and teardown functionality for all API tests.
  * This class handles ExtentReport initialization, test result logging, and cleanup operations.
- * 
+ *
  * All test classes should extend this class to inherit the reporting and lifecycle management capabilities.
- * 
+ *
+ * Each test method invocation gets its own reporting context, opened and closed by
+ * {@link ReportContextListener}. Tests create their report node with
+ * {@link ExtentReport#createTest(String, String)}, which makes the class safe to run
+ * with {@code parallel="methods"}.
+ *
+ * {@link ShardListener} runs only this fork's share of the suite when {@code shard.count} is set,
+ * see {@link ShardRunner}.
+ *
  * @author API Automation Team
  * @version 2.0
  * @since 1.0
  */
+@Listeners({ReportContextListener.class, SuiteConfigListener.class, ShardListener.class, TimingListener.class})
 public class BaseTest {
     /**
      * Configures the test environment before the entire test suite execution.
@@ -27,7 +49,19 @@ public class BaseTest {
      * - Creates timestamped report directory
      * - Initializes ExtentReport with HTML report configuration
      * - Sets up system information for reporting
-     * 
+     * - Routes every RestAssured request through the shared {@link HttpClientPool}
+     *   (disable with {@code http.pool.enabled=false})
+     * - Records or replays every request through the shared {@link CassetteFilter} when
+     *   {@code cassette.mode} is {@code record} or {@code replay}
+     * - Paces requests per host through the shared {@link RateLimiter} and adapts to 429 answers
+     *   (disable with {@code rate.limit.enabled=false}; off while cassettes are replayed)
+     * - Hedges slow idempotent requests and retries failed ones through the shared
+     *   {@link ResilienceFilter} when {@code resilience.enabled} is true and no cassette is used
+     * - Times every request and test method into the shared {@link TimingHistory}
+     *   (disable with {@code timing.history.enabled=false})
+     * - Maps request and response bodies with the shared Jackson mapper of {@link JsonBodies}
+     *   (disable with {@code json.mapper.shared=false})
+     *
      * @throws IOException if report directory creation or ExtentReport initialization fails
      * @see ExtentReport#initialize(String)
      * @see BaseTestHelper#Timestamp()
@@ -37,41 +71,28 @@ public class BaseTest {
         String subfolderpath = System.getProperty("user.dir") + "/reports/" + BaseTestHelper.Timestamp();
         BaseTestHelper.CreateFolder(subfolderpath);
         ExtentReport.initialize(subfolderpath + "/" + "rest-assured-api-automation-report.html");
-    }
-
-    /**
-     * Processes and logs test execution results after each test method.
-     * This method runs after every test method and performs the following:
-     * - Captures test execution status (PASS/FAIL/SKIP)
-     * - Logs appropriate messages to ExtentReport
-     * - Handles error details for failed tests
-     * - Provides graceful error handling for logging failures
-     * 
-     * Error Handling: If ExtentReport logging fails, errors are logged to System.err 
-     * to ensure test execution continues without interruption.
-     * 
-     * @param result the TestNG ITestResult containing test execution details
-     *               including status, name, and throwable information
-     * @see ITestResult#getStatus()
-     * @see ITestResult#getName()
-     * @see ITestResult#getThrowable()
-     */
-    @AfterMethod(alwaysRun = true)
-    public void getResult(ITestResult result) {
-        try {
-            if (ExtentReport.extentlog != null) {
-                if (result.getStatus() == ITestResult.SUCCESS) {
-                    ExtentReport.extentlog.log(Status.PASS, "Test Case: " + result.getName() + " is passed");
-                } else if (result.getStatus() == ITestResult.FAILURE) {
-                    ExtentReport.extentlog.log(Status.FAIL, "Test case: " + result.getName() + " is failed");
-                    String errorMessage = result.getThrowable() != null ? result.getThrowable().getMessage() : "Unknown error";
-                    ExtentReport.extentlog.log(Status.FAIL, "Test case failed due to: " + errorMessage);
-                } else if (result.getStatus() == ITestResult.SKIP) {
-                    ExtentReport.extentlog.log(Status.SKIP, "Test case is skipped: " + result.getName());
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Error logging test result: " + e.getMessage());
+        if (Config.get().getBoolean("http.pool.enabled", true)) {
+            RestAssured.config = RestAssured.config().httpClient(HttpClientPool.shared().httpClientConfig());
+        }
+        if (Config.get().getBoolean("json.mapper.shared", true)) {
+            RestAssured.config = RestAssured.config().objectMapperConfig(JsonBodies.objectMapperConfig());
+        }
+        CassetteFilter cassette = CassetteFilter.shared();
+        if (cassette != null && !RestAssured.filters().contains(cassette)) {
+            RestAssured.filters(cassette);
+        }
+        boolean replaying = cassette != null && cassette.getMode() == CassetteFilter.Mode.REPLAY;
+        RateLimiter limiter = replaying ? null : RateLimiter.shared();
+        if (limiter != null && RestAssured.filters().stream().noneMatch(RateLimitFilter.class::isInstance)) {
+            RestAssured.filters(new RateLimitFilter(limiter, Config.get().getInt("rate.limit.max.retries", 2)));
+        }
+        if (cassette == null && Config.get().getBoolean("resilience.enabled", false)
+                && !RestAssured.filters().contains(ResilienceFilter.shared())) {
+            RestAssured.filters(ResilienceFilter.shared());
+        }
+        TimingHistory history = TimingHistory.shared();
+        if (history != null && RestAssured.filters().stream().noneMatch(TimingFilter.class::isInstance)) {
+            RestAssured.filters(new TimingFilter(history));
         }
     }
 
@@ -81,14 +102,80 @@ public class BaseTest {
      * - All test results are written to the HTML report
      * - Report resources are properly released
      * - Final report generation is completed
-     * 
-     * Note: This method is critical for report generation. 
+     * - Connection pool, async client, rate limiter, hedging/retry and virtual thread statistics are
+     *   added to the report's system information
+     * - A recording cassette is written to disk
+     * - The run's timings are compared with the timing history and appended to it; significant
+     *   slowdowns get a "Performance regressions" report node and, with
+     *   {@code timing.regression.fail=true}, fail the suite
+     *
+     * Note: This method is critical for report generation.
      * Without calling flush(), the HTML report may be incomplete or corrupted.
-     * 
+     *
      * @see ExtentReport#flush()
      */
     @AfterSuite(alwaysRun = true)
     public void endReport() {
+        HttpClientPool pool = HttpClientPool.current();
+        if (pool != null) {
+            ExtentReport.setSystemInfo("HTTP Pool", pool.toString());
+        }
+        VirtualThreadExecutorFactory virtualThreads = VirtualThreadExecutorFactory.current();
+        if (virtualThreads != null) {
+            ExtentReport.setSystemInfo("Execution Mode", virtualThreads.toString());
+        }
+        AsyncApiClient async = AsyncApiClient.current();
+        if (async != null) {
+            ExtentReport.setSystemInfo("Async Client", async.toString());
+        }
+        RateLimiter limiter = RateLimiter.current();
+        if (limiter != null && limiter.summary() != null) {
+            ExtentReport.setSystemInfo("Rate Limiter", limiter.summary());
+        }
+        ResilienceFilter resilience = ResilienceFilter.current();
+        if (resilience != null && resilience.getRequests() > 0) {
+            ExtentReport.setSystemInfo("Hedging and Retries", resilience.toString());
+        }
+        CassetteFilter cassette = CassetteFilter.current();
+        if (cassette != null) {
+            cassette.close();
+            ExtentReport.setSystemInfo("Cassette", cassette.toString());
+        }
+        if (!SchemaRegistry.getEntries().isEmpty()) {
+            ExtentReport.setSystemInfo("JSON Schemas", SchemaRegistry.summary());
+        }
+        List<RegressionDetector.Regression> regressions = timingRegressions();
         ExtentReport.flush();
+        if (!regressions.isEmpty() && Config.get().getBoolean("timing.regression.fail", false)) {
+            throw new AssertionError(regressions.size() + " performance regressions:\n  "
+                    + regressions.stream().map(Object::toString).collect(Collectors.joining("\n  ")));
+        }
+    }
+
+    // Error Handling: a history that cannot be written is reported on System.err and never fails the run
+    private static List<RegressionDetector.Regression> timingRegressions() {
+        TimingHistory history = TimingHistory.current();
+        if (history == null) {
+            return List.of();
+        }
+        List<RegressionDetector.Regression> regressions;
+        try {
+            regressions = history.finish();
+        } catch (IOException e) {
+            System.err.println("Failed to update timing history " + history.getFile() + ": " + e);
+            return List.of();
+        }
+        ExtentReport.setSystemInfo("Timing History", history.toString());
+        if (!regressions.isEmpty()) {
+            ReportContext.open("Performance regressions", null);
+            try {
+                ExtentReport.createTest("Performance regressions",
+                        "Significantly slower than the last runs of the same profile");
+                regressions.forEach(regression -> ExtentReport.log(Status.FAIL, regression.toString()));
+            } finally {
+                ReportContext.close();
+            }
+        }
+        return regressions;
     }
 }
@@ -0,0 +1,91 @@
+package core;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import io.restassured.specification.RequestSender;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Sends a request again from inside a filter, so the filters ordered after it see the new attempt.
+ *
+ * In RestAssured 5.4 a second {@link FilterContext#next} sends nothing, and {@link FilterContext#send}
+ * starts a new chain that ends at RestAssured's own send filter, whose order is
+ * {@link OrderedFilter#DEFAULT_PRECEDENCE}: filters up to that order (such as {@link AuthTokenFilter})
+ * run again, later ones (rate limiter, cassette, timing) are skipped. {@link #resend} runs those later
+ * filters itself and then calls {@code send}, so every filter sees every attempt once; the filters up to
+ * {@code DEFAULT_PRECEDENCE} run last, nearest to the wire.
+ */
+final class FilterChain {
+
+    private FilterChain() {
+    }
+
+    static Response resend(Filter caller, FilterableRequestSpecification request,
+                           FilterableResponseSpecification response, FilterContext context) {
+        // sorted like RestAssured sorts them: a stable sort on the order
+        List<Filter> filters = new ArrayList<>(request.getDefinedFilters());
+        filters.sort(Comparator.comparingInt(FilterChain::order));
+        int position = filters.indexOf(caller);
+        List<Filter> after = filters.subList(position + 1, filters.size()).stream()
+                .filter(filter -> order(filter) > OrderedFilter.DEFAULT_PRECEDENCE)
+                .collect(Collectors.toList());
+        return new Resend(after.iterator(), context).next(request, response);
+    }
+
+    private static int order(Filter filter) {
+        return filter instanceof OrderedFilter ? ((OrderedFilter) filter).getOrder() : OrderedFilter.DEFAULT_PRECEDENCE;
+    }
+
+    // Walks the remaining filters, then hands the request to RestAssured; values go to the original context
+    private static final class Resend implements FilterContext {
+        private final Iterator<Filter> filters;
+        private final FilterContext context;
+
+        Resend(Iterator<Filter> filters, FilterContext context) {
+            this.filters = filters;
+            this.context = context;
+        }
+
+        @Override
+        public Response next(FilterableRequestSpecification request, FilterableResponseSpecification response) {
+            if (filters.hasNext()) {
+                return filters.next().filter(request, response, this);
+            }
+            return context.send(request);
+        }
+
+        @Override
+        public Response send(RequestSender requestSender) {
+            return context.send(requestSender);
+        }
+
+        @Override
+        public void setValue(String name, Object value) {
+            context.setValue(name, value);
+        }
+
+        @Override
+        public <T> T getValue(String name) {
+            return context.getValue(name);
+        }
+
+        @Override
+        public boolean hasValue(String name) {
+            return context.hasValue(name);
+        }
+
+        @Override
+        public boolean hasValue(String name, Object value) {
+            return context.hasValue(name, value);
+        }
+    }
+}
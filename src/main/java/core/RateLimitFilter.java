@@ -0,0 +1,60 @@
+package core;
+
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import utils.RateLimiter;
+
+/**
+ * Paces every RestAssured request through a {@link RateLimiter} and feeds the responses back
+ * into it, so each host's rate follows its {@code 429} and {@code Retry-After} answers.
+ *
+ * A throttled request was not processed by the server, so it is sent again, up to
+ * {@code maxRetries} times. Each retry first waits for a new permit, which holds it back until the
+ * {@code Retry-After} has passed, and goes through {@link FilterChain#resend}, so the timing filter
+ * sees it like the first attempt; RestAssured also applies filters such as {@link AuthTokenFilter}
+ * again. The last answer is returned as is, so a host that keeps throttling still fails the test.
+ * Installed by {@link BaseTest} unless {@code rate.limit.enabled} is false or cassettes are replayed.
+ */
+public class RateLimitFilter implements OrderedFilter {
+    private final RateLimiter limiter;
+    private final int maxRetries;
+
+    public RateLimitFilter(RateLimiter limiter, int maxRetries) {
+        this.limiter = limiter;
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * Runs after the cassette, which therefore records only the answer to the last attempt, and
+     * before timing, so waiting for a permit is not counted as latency.
+     */
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE - 1;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification request, FilterableResponseSpecification response,
+                           FilterContext context) {
+        String url = request.getURI();
+        limiter.acquire(url);
+        Response actual = context.next(request, response);
+        for (int attempt = 0; attempt < maxRetries && isThrottled(url, actual); attempt++) {
+            limiter.acquire(url);
+            actual = FilterChain.resend(this, request, response, context);
+        }
+        return actual;
+    }
+
+    // Reports the answer to the limiter, which also decides whether it was throttled
+    private boolean isThrottled(String url, Response actual) {
+        return limiter.onResponse(url, actual.getStatusCode(), actual.getHeader("Retry-After"));
+    }
+
+    public RateLimiter getLimiter() {
+        return limiter;
+    }
+}
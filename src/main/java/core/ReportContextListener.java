@@ -0,0 +1,84 @@
+package core;
+
+import com.aventstack.extentreports.Status;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import utils.ExtentReport;
+import utils.ReportContext;
+
+import java.util.Arrays;
+
+/**
+ * TestNG listener that gives every test method invocation its own reporting context.
+ * The context is opened on the thread that runs the invocation before the test body executes,
+ * and closed once the outcome is logged, so parallel invocations never share an ExtentTest node.
+ *
+ * Registered on {@link BaseTest}, which makes it active for any suite containing a BaseTest subclass.
+ *
+ * @see ReportContext
+ */
+public class ReportContextListener implements ITestListener {
+    private static final String CONTEXT_ATTRIBUTE = "reportContext";
+
+    @Override
+    public void onTestStart(ITestResult result) {
+        ReportContext context = ReportContext.open(defaultName(result), result.getMethod().getDescription());
+        result.setAttribute(CONTEXT_ATTRIBUTE, context);
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        close(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        close(result);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        close(result);
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        close(result);
+    }
+
+    /**
+     * Logs the invocation outcome into its own report node and unbinds the context.
+     * Error Handling: logging failures are written to System.err so they never fail the test run.
+     */
+    private void close(ITestResult result) {
+        try {
+            ReportContext context = (ReportContext) result.getAttribute(CONTEXT_ATTRIBUTE);
+            if (context == null) {
+                // skipped before it started, e.g. because of a failed dependency
+                context = ReportContext.open(defaultName(result), result.getMethod().getDescription());
+            }
+            if (result.getStatus() == ITestResult.SUCCESS) {
+                ExtentReport.log(context, Status.PASS, "Test Case: " + result.getName() + " is passed");
+            } else if (result.getStatus() == ITestResult.FAILURE) {
+                ExtentReport.log(context, Status.FAIL, "Test case: " + result.getName() + " is failed");
+                String errorMessage = result.getThrowable() != null ? result.getThrowable().getMessage() : "Unknown error";
+                ExtentReport.log(context, Status.FAIL, "Test case failed due to: " + errorMessage);
+            } else if (result.getStatus() == ITestResult.SKIP) {
+                ExtentReport.log(context, Status.SKIP, "Test case is skipped: " + result.getName());
+            }
+        } catch (Exception e) {
+            System.err.println("Error logging test result: " + e.getMessage());
+        } finally {
+            result.removeAttribute(CONTEXT_ATTRIBUTE);
+            ReportContext.close();
+        }
+    }
+
+    private static String defaultName(ITestResult result) {
+        Object[] parameters = result.getParameters();
+        if (parameters == null || parameters.length == 0) {
+            return result.getName();
+        }
+        return result.getName() + Arrays.toString(parameters);
+    }
+}
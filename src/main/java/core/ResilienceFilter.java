@@ -0,0 +1,469 @@
+package core;
+
+import io.restassured.authentication.ExplicitNoAuthScheme;
+import io.restassured.authentication.NoAuthScheme;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.http.Header;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import perf.LatencyRecorder;
+import perf.TimingHistory;
+import stub.Cassette;
+import utils.AsyncApiClient;
+import utils.AsyncResponse;
+import utils.Config;
+import utils.RetryBudget;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Cuts the tail latency of idempotent requests ({@code GET}, {@code HEAD}, {@code OPTIONS}
+ * without a body) with hedging and retries. Other requests pass through untouched.
+ *
+ * Hedging: the request runs on a worker thread while the test thread waits for the recent
+ * {@code hedgePercentile} latency of its endpoint (the last {@code window} responses of, e.g.,
+ * {@code GET host/posts/{id}}). If it has not answered by then, the same request is sent once more
+ * through an {@link AsyncApiClient}, and whichever response arrives first is returned. A winning
+ * hedge carries the time the test waited in a {@value #HEDGE_TIME_HEADER} header, since
+ * RestAssured's {@code getTime()} is not available for a built response. A losing hedge is
+ * cancelled; a losing original cannot be aborted through RestAssured, so it finishes in the
+ * background and its response is dropped. On the way it still runs the later filters on the shared
+ * request specification and context, so its latency is recorded and the rate limiter counts it.
+ * Worker threads do not inherit the test's {@link utils.ReportContext}, so nothing it logs lands
+ * under a later test's report node. Until an endpoint has {@code minSamples} latencies,
+ * hedges start after {@code initialDelay}. Requests with a RestAssured authentication scheme or a
+ * proxy are not hedged, since the hedge only copies the headers and cookies.
+ *
+ * Retries: a connection failure or a {@code 502}, {@code 503} or {@code 504} answer is sent
+ * again through {@link FilterChain#resend}, up to {@code maxRetries} times, after a "full jitter"
+ * backoff: a random wait up to {@code backoffBase * 2^attempt}, capped at {@code backoffMax}.
+ * A hedge only wins with an answer that needs no retry; when both attempts fail, the later
+ * outcome is retried once the original has finished, so no two attempts share the filter context.
+ *
+ * Every hedge and retry takes a token from a {@link RetryBudget}, which only refills as a share of
+ * the original requests, so a struggling API never gets more than that share in extra traffic.
+ * Installed by {@link BaseTest} with {@code resilience.enabled=true}; runs before the rate limiter,
+ * so the original request and its retries wait for permits and are timed. Hedges go through the
+ * {@link AsyncApiClient}, which takes its permits from the client's own limiter.
+ */
+public class ResilienceFilter implements OrderedFilter {
+    /**
+     * Header of a response returned by a winning hedge: milliseconds the test waited, hedge delay included.
+     */
+    public static final String HEDGE_TIME_HEADER = "X-Hedge-Time-Ms";
+    private static final Set<String> IDEMPOTENT = Set.of("GET", "HEAD", "OPTIONS");
+    private static final Set<Integer> RETRYABLE = Set.of(502, 503, 504);
+    // Headers the JDK client sets itself and refuses to take from callers
+    private static final Set<String> RESTRICTED = Set.of("connection", "content-length", "expect", "host", "upgrade");
+    private static volatile ResilienceFilter shared;
+
+    private final double hedgePercentile;
+    private final int window;
+    private final int minSamples;
+    private final long initialDelayNanos;
+    private final long minDelayNanos;
+    private final int maxRetries;
+    private final long backoffBaseMillis;
+    private final long backoffMaxMillis;
+    private final RetryBudget budget;
+    private final AsyncApiClient client;
+    private final ExecutorService attempts;
+    private final Map<String, RecentLatencies> latencies = new ConcurrentHashMap<>();
+    private final LatencyRecorder observed = new LatencyRecorder("idempotent requests", false);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hedged = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+
+    private ResilienceFilter(Builder builder) {
+        this.hedgePercentile = builder.hedgePercentile;
+        this.window = builder.window;
+        this.minSamples = builder.minSamples;
+        this.initialDelayNanos = builder.initialDelay.toNanos();
+        this.minDelayNanos = builder.minDelay.toNanos();
+        this.maxRetries = builder.maxRetries;
+        this.backoffBaseMillis = builder.backoffBase.toMillis();
+        this.backoffMaxMillis = builder.backoffMax.toMillis();
+        this.budget = builder.budget;
+        this.client = builder.client;
+        AtomicInteger count = new AtomicInteger();
+        // threads start from test threads; they must not inherit the test's ReportContext
+        this.attempts = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(null, runnable, "resilience-" + count.incrementAndGet(), 0, false);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private double hedgePercentile = 95;
+        private int window = 100;
+        private int minSamples = 20;
+        private Duration initialDelay = Duration.ofSeconds(1);
+        private Duration minDelay = Duration.ofMillis(50);
+        private int maxRetries = 2;
+        private Duration backoffBase = Duration.ofMillis(100);
+        private Duration backoffMax = Duration.ofSeconds(2);
+        private RetryBudget budget = new RetryBudget(0.1, 20);
+        private AsyncApiClient client;
+
+        private Builder() {
+        }
+
+        /**
+         * Hedges a request once it is slower than {@code percentile} of the last {@code window}
+         * responses of its endpoint, counted once there are {@code minSamples} of them.
+         */
+        public Builder hedgeAfter(double percentile, int window, int minSamples) {
+            if (percentile <= 0 || percentile > 100 || window < 1 || minSamples < 1 || minSamples > window) {
+                throw new IllegalArgumentException("Expected 0 < percentile <= 100 and 1 <= minSamples <= window");
+            }
+            this.hedgePercentile = percentile;
+            this.window = window;
+            this.minSamples = minSamples;
+            return this;
+        }
+
+        /**
+         * Hedge delay of an endpoint with too few samples, and the shortest delay ever used.
+         */
+        public Builder hedgeDelay(Duration initialDelay, Duration minDelay) {
+            this.initialDelay = initialDelay;
+            this.minDelay = minDelay;
+            return this;
+        }
+
+        public Builder retries(int maxRetries, Duration backoffBase, Duration backoffMax) {
+            this.maxRetries = maxRetries;
+            this.backoffBase = backoffBase;
+            this.backoffMax = backoffMax;
+            return this;
+        }
+
+        public Builder budget(RetryBudget budget) {
+            this.budget = budget;
+            return this;
+        }
+
+        /**
+         * Client that sends the hedges; without one, requests are only retried.
+         */
+        public Builder client(AsyncApiClient client) {
+            this.client = client;
+            return this;
+        }
+
+        public ResilienceFilter build() {
+            return new ResilienceFilter(this);
+        }
+    }
+
+    /**
+     * Returns the suite-wide filter configured by the {@code resilience.*} keys, hedging through
+     * the shared {@link AsyncApiClient}. It is created whether or not {@code resilience.enabled} is
+     * set, so single tests can opt in with {@code given().filter(ResilienceFilter.shared())}.
+     */
+    public static ResilienceFilter shared() {
+        if (shared == null) {
+            synchronized (ResilienceFilter.class) {
+                if (shared == null) {
+                    Config config = Config.get();
+                    shared = builder()
+                            .hedgeAfter(config.getDouble("resilience.hedge.percentile", 95),
+                                    config.getInt("resilience.hedge.window", 100),
+                                    config.getInt("resilience.hedge.min.samples", 20))
+                            .hedgeDelay(Duration.ofMillis(config.getLong("resilience.hedge.initial.delay.ms", 1000)),
+                                    Duration.ofMillis(config.getLong("resilience.hedge.min.delay.ms", 50)))
+                            .retries(config.getInt("resilience.retry.max", 2),
+                                    Duration.ofMillis(config.getLong("resilience.retry.backoff.base.ms", 100)),
+                                    Duration.ofMillis(config.getLong("resilience.retry.backoff.max.ms", 2000)))
+                            .budget(new RetryBudget(config.getDouble("resilience.budget.ratio", 0.1),
+                                    config.getInt("resilience.budget.max", 20)))
+                            .client(AsyncApiClient.shared())
+                            .build();
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Returns the suite-wide filter if it has been created, without creating it.
+     */
+    public static ResilienceFilter current() {
+        return shared;
+    }
+
+    // The last latencies of one endpoint, overwritten in a ring
+    private static final class RecentLatencies {
+        private final AtomicLongArray nanos;
+        private final AtomicInteger count = new AtomicInteger();
+
+        RecentLatencies(int size) {
+            nanos = new AtomicLongArray(size);
+        }
+
+        void record(long value) {
+            int slot = count.getAndIncrement();
+            nanos.set(Math.floorMod(slot, nanos.length()), value);
+        }
+
+        // -1 until there are minSamples latencies
+        long percentile(double percentile, int minSamples) {
+            int size = Math.min(Math.max(count.get(), 0), nanos.length());
+            if (size < minSamples) {
+                return -1;
+            }
+            long[] values = new long[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = nanos.get(i);
+            }
+            Arrays.sort(values);
+            return values[Math.max(0, (int) Math.ceil(percentile / 100 * size) - 1)];
+        }
+    }
+
+    /**
+     * Runs after authentication, so hedges copy its header, and before the rate limiter.
+     */
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE - 3;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification request, FilterableResponseSpecification response,
+                           FilterContext context) {
+        if (!IDEMPOTENT.contains(request.getMethod()) || request.getBody() != null
+                || !request.getMultiPartParams().isEmpty()) {
+            return context.next(request, response);
+        }
+        requests.increment();
+        budget.onRequest();
+        RecentLatencies endpoint = latencies.computeIfAbsent(
+                TimingHistory.requestKey(request.getMethod(), request.getURI()), key -> new RecentLatencies(window));
+        long start = System.nanoTime();
+        try {
+            for (int attempt = 0; ; attempt++) {
+                Response actual;
+                try {
+                    actual = attempt(request, response, context, attempt == 0, endpoint);
+                    if (!RETRYABLE.contains(actual.getStatusCode())) {
+                        return actual;
+                    }
+                } catch (Exception e) {
+                    if (attempt >= maxRetries || !budget.tryWithdraw() || !backoff(attempt)) {
+                        throw rethrow(e);
+                    }
+                    retried.increment();
+                    continue;
+                }
+                if (attempt >= maxRetries || !budget.tryWithdraw() || !backoff(attempt)) {
+                    return actual;
+                }
+                retried.increment();
+            }
+        } finally {
+            observed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Sends the request once, hedged when the endpoint's recent latencies allow it
+    private Response attempt(FilterableRequestSpecification request, FilterableResponseSpecification response,
+                             FilterContext context, boolean first, RecentLatencies endpoint) throws Exception {
+        long start = System.nanoTime();
+        if (!isHedgeable(request)) {
+            Response actual = send(request, response, context, first);
+            endpoint.record(System.nanoTime() - start);
+            return actual;
+        }
+        long recent = endpoint.percentile(hedgePercentile, minSamples);
+        long delay = Math.max(minDelayNanos, recent < 0 ? initialDelayNanos : recent);
+        CompletableFuture<Response> original = CompletableFuture.supplyAsync(
+                () -> send(request, response, context, first), attempts);
+        original.thenRun(() -> endpoint.record(System.nanoTime() - start));
+        try {
+            return original.get(delay, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException slow) {
+            // hedge below
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+        if (!budget.tryWithdraw()) {
+            return await(original);
+        }
+        hedged.increment();
+        long hedgeStart = System.nanoTime();
+        CompletableFuture<AsyncResponse> hedge = hedgeOf(request).send();
+        hedge.thenRun(() -> endpoint.record(System.nanoTime() - hedgeStart));
+        Object winner = await(firstSettled(original, hedge));
+        if (winner instanceof Response) {
+            hedge.cancel(true);
+            return (Response) winner;
+        }
+        if (settles(winner)) {
+            hedgesWon.increment();
+        }
+        return toResponse((AsyncResponse) winner, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    // The first attempt continues the chain; retries pass through the filters after this one again
+    private Response send(FilterableRequestSpecification request, FilterableResponseSpecification response,
+                          FilterContext context, boolean first) {
+        return first ? context.next(request, response) : FilterChain.resend(this, request, response, context);
+    }
+
+    private boolean isHedgeable(FilterableRequestSpecification request) {
+        return client != null
+                && (request.getAuthenticationScheme() instanceof NoAuthScheme
+                    || request.getAuthenticationScheme() instanceof ExplicitNoAuthScheme)
+                && request.getProxySpecification() == null
+                && request.getURI().toLowerCase(Locale.ROOT).startsWith("http");
+    }
+
+    private AsyncApiClient.Request hedgeOf(FilterableRequestSpecification request) {
+        AsyncApiClient.Request hedge = client.request(request.getMethod(), request.getURI());
+        for (Header header : request.getHeaders()) {
+            if (!RESTRICTED.contains(header.getName().toLowerCase(Locale.ROOT))) {
+                hedge.header(header.getName(), header.getValue());
+            }
+        }
+        if (request.getCookies().exist()) {
+            hedge.header("Cookie", request.getCookies().asList().stream()
+                    .map(cookie -> cookie.getName() + "=" + cookie.getValue())
+                    .collect(Collectors.joining("; ")));
+        }
+        return hedge;
+    }
+
+    // Completes with the first answer that needs no retry, or with the later outcome when neither settles
+    private static CompletableFuture<Object> firstSettled(CompletableFuture<?> a, CompletableFuture<?> b) {
+        CompletableFuture<Object> first = new CompletableFuture<>();
+        AtomicInteger unsettled = new AtomicInteger();
+        BiConsumer<Object, Throwable> race = (value, error) -> {
+            if (error == null && settles(value)) {
+                first.complete(value);
+            } else if (unsettled.incrementAndGet() == 2) {
+                if (error == null) {
+                    first.complete(value);
+                } else {
+                    first.completeExceptionally(error);
+                }
+            }
+        };
+        a.whenComplete(race);
+        b.whenComplete(race);
+        return first;
+    }
+
+    private static boolean settles(Object answer) {
+        int status = answer instanceof Response
+                ? ((Response) answer).getStatusCode()
+                : ((AsyncResponse) answer).getStatusCode();
+        return !RETRYABLE.contains(status);
+    }
+
+    // Built with RestAssured's ResponseBuilder like a replayed recording, which sets the content type and cookies
+    private static Response toResponse(AsyncResponse hedge, long elapsedMillis) {
+        List<Header> headers = new ArrayList<>();
+        hedge.getHeaders().map().forEach((name, values) ->
+                values.forEach(value -> headers.add(new Header(name, value))));
+        headers.add(new Header(HEDGE_TIME_HEADER, Long.toString(elapsedMillis)));
+        return new Cassette.Interaction(hedge.getStatusCode(), null, headers, hedge.asByteArray()).toResponse();
+    }
+
+    // Full jitter: a random wait up to base * 2^attempt, capped; false when interrupted
+    private boolean backoff(int attempt) {
+        long cap = Math.min(backoffMaxMillis, backoffBaseMillis << Math.min(attempt, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(cap + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    // Rethrows errors; returns exceptions, including the checked ones RestAssured throws undeclared
+    private static Exception unwrap(Throwable cause) {
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return (Exception) cause;
+    }
+
+    // RestAssured throws checked exceptions such as ConnectException undeclared; pass them on the same way
+    @SuppressWarnings("unchecked")
+    private static <T extends Throwable> RuntimeException rethrow(Throwable throwable) throws T {
+        throw (T) throwable;
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getHedged() {
+        return hedged.sum();
+    }
+
+    /**
+     * Hedges that answered before the original request.
+     */
+    public long getHedgesWon() {
+        return hedgesWon.sum();
+    }
+
+    public long getRetried() {
+        return retried.sum();
+    }
+
+    public RetryBudget getBudget() {
+        return budget;
+    }
+
+    /**
+     * Latencies of idempotent requests as the tests saw them, hedges and retries included.
+     */
+    public LatencyRecorder getLatency() {
+        return observed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d requests, %d hedged (%d won), %d retried, budget %s, p99 %.1f ms",
+                getRequests(), getHedged(), getHedgesWon(), getRetried(), budget, observed.getPercentileMillis(99));
+    }
+}
@@ -0,0 +1,145 @@
+package core;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+import utils.Config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs only this fork's share of the suite and records how long each test method took.
+ *
+ * With {@code shard.count=N} and {@code shard.index=i} (usually passed as system properties by
+ * {@link ShardRunner}), every {@code <test>} of the suite is split into N balanced
+ * {@link ShardPlan shards} using the durations in {@code shard.durations.file}, and only the
+ * methods of shard {@code i} are run; the split is logged with {@link Reporter#log}. By default whole
+ * classes are assigned ({@code shard.unit=class}), which keeps {@code @BeforeClass} setup and
+ * {@code dependsOnMethods} within one fork; {@code shard.unit=method} balances more finely. Methods
+ * without a recorded duration count as {@code shard.default.duration.ms}.
+ *
+ * Measured method durations are written to {@code shard.durations.output} when the suite finishes.
+ *
+ * Registered on {@link BaseTest}, so sharding covers every class in a suite containing a BaseTest subclass.
+ */
+public class ShardListener implements IMethodInterceptor, ITestListener, ISuiteListener {
+    private static volatile Map<String, Long> history;
+
+    private final Map<String, LongAdder> measured = new ConcurrentHashMap<>();
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        Config config = Config.get();
+        int count = config.getInt("shard.count", 1);
+        int index = config.getInt("shard.index", 0);
+        if (count <= 1) {
+            return methods;
+        }
+        if (index < 0 || index >= count) {
+            throw new IllegalArgumentException("shard.index must be between 0 and " + (count - 1) + ": " + index);
+        }
+        boolean byClass = !"method".equalsIgnoreCase(config.getString("shard.unit", "class"));
+        long defaultMillis = config.getLong("shard.default.duration.ms", 1000);
+        Map<String, Long> durations = history();
+
+        Map<String, Long> units = new LinkedHashMap<>();
+        for (IMethodInstance method : methods) {
+            String key = key(method.getMethod());
+            units.merge(byClass ? method.getMethod().getRealClass().getName() : key,
+                    durations.getOrDefault(key, defaultMillis), Long::sum);
+        }
+        ShardPlan plan = ShardPlan.of(units, count, context.getName().hashCode());
+        Set<String> assigned = new HashSet<>(plan.getUnits(index));
+        List<IMethodInstance> selected = new ArrayList<>();
+        for (IMethodInstance method : methods) {
+            if (assigned.contains(byClass ? method.getMethod().getRealClass().getName() : key(method.getMethod()))) {
+                selected.add(method);
+            }
+        }
+        Reporter.log(String.format("Shard %d/%d of '%s': %d of %d methods, %.1f s of %.1f s expected",
+                index + 1, count, context.getName(), selected.size(), methods.size(),
+                plan.getLoad(index) / 1000.0, units.values().stream().mapToLong(Long::longValue).sum() / 1000.0));
+        return selected;
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        record(result);
+    }
+
+    // Data provider rows add up to one duration for the method
+    private void record(ITestResult result) {
+        measured.computeIfAbsent(key(result.getMethod()), k -> new LongAdder())
+                .add(Math.max(0, result.getEndMillis() - result.getStartMillis()));
+    }
+
+    /**
+     * Writes the durations measured so far. Error Handling: write failures are reported on
+     * System.err so they never fail the test run.
+     */
+    @Override
+    public void onFinish(ISuite suite) {
+        if (measured.isEmpty()) {
+            return;
+        }
+        Path output = Paths.get(Config.get().getString("shard.durations.output", "target/test-durations.json"));
+        Map<String, Long> durations = new TreeMap<>();
+        measured.forEach((key, millis) -> durations.put(key, millis.sum()));
+        try {
+            ShardPlan.writeDurations(output, durations);
+        } catch (IOException e) {
+            System.err.println("Failed to write test durations to " + output + ": " + e);
+        }
+    }
+
+    /**
+     * Durations key of a test method: {@code fully.qualified.Class#method}.
+     */
+    public static String key(ITestNGMethod method) {
+        return method.getRealClass().getName() + "#" + method.getMethodName();
+    }
+
+    private static Map<String, Long> history() {
+        if (history == null) {
+            synchronized (ShardListener.class) {
+                if (history == null) {
+                    Path file = Paths.get(Config.get().getString("shard.durations.file", "Resources/Timings/test-durations.json"));
+                    try {
+                        history = ShardPlan.readDurations(file);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Cannot read test durations " + file, e);
+                    }
+                }
+            }
+        }
+        return history;
+    }
+}
@@ -0,0 +1,133 @@
+package core;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Splits test units (classes or methods) into balanced shards by their expected duration.
+ *
+ * Uses longest-processing-time assignment: units are taken from longest to shortest and each goes
+ * to the shard with the least work so far. The result is never worse than 4/3 of the best possible
+ * split and is deterministic, so every fork computes the same plan from the same durations file
+ * without talking to the others.
+ *
+ * Durations are kept in a JSON object of {@code "class#method": milliseconds}, written by
+ * {@link ShardListener} and merged by {@link ShardRunner}.
+ */
+public class ShardPlan {
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final List<List<String>> shards;
+    private final long[] loads;
+
+    private ShardPlan(List<List<String>> shards, long[] loads) {
+        this.shards = shards;
+        this.loads = loads;
+    }
+
+    /**
+     * Assigns every unit to one of {@code count} shards.
+     *
+     * @param durations expected milliseconds per unit
+     * @param count     number of shards
+     * @param offset    shard that receives the first unit when loads are equal; vary it between
+     *                  independent plans so small ones do not all land on shard 0
+     */
+    public static ShardPlan of(Map<String, Long> durations, int count, int offset) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1: " + count);
+        }
+        List<Map.Entry<String, Long>> units = new ArrayList<>(durations.entrySet());
+        units.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()));
+        List<List<String>> shards = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            shards.add(new ArrayList<>());
+        }
+        long[] loads = new long[count];
+        for (Map.Entry<String, Long> unit : units) {
+            int target = Math.floorMod(offset, count);
+            for (int i = 1; i < count; i++) {
+                int shard = Math.floorMod(offset + i, count);
+                if (loads[shard] < loads[target]) {
+                    target = shard;
+                }
+            }
+            shards.get(target).add(unit.getKey());
+            loads[target] += unit.getValue();
+        }
+        return new ShardPlan(shards, loads);
+    }
+
+    public int getCount() {
+        return shards.size();
+    }
+
+    /**
+     * Units assigned to {@code shard}, longest first.
+     */
+    public List<String> getUnits(int shard) {
+        return Collections.unmodifiableList(shards.get(shard));
+    }
+
+    /**
+     * Expected milliseconds of work assigned to {@code shard}.
+     */
+    public long getLoad(int shard) {
+        return loads[shard];
+    }
+
+    /**
+     * Expected wall-clock time when all shards run at once: the largest shard load.
+     */
+    public long getMakespan() {
+        long max = 0;
+        for (long load : loads) {
+            max = Math.max(max, load);
+        }
+        return max;
+    }
+
+    /**
+     * Reads a durations file; a missing file gives an empty map.
+     */
+    public static Map<String, Long> readDurations(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return new TreeMap<>();
+        }
+        return mapper.readValue(file.toFile(), new TypeReference<TreeMap<String, Long>>() {
+        });
+    }
+
+    /**
+     * Writes a durations file sorted by key, replacing it atomically so concurrent readers never
+     * see a partial file.
+     */
+    public static void writeDurations(Path file, Map<String, Long> durations) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = directory.resolve(file.getFileName() + ".tmp");
+        mapper.writeValue(temporary.toFile(), new TreeMap<>(durations));
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < shards.size(); i++) {
+            text.append(i == 0 ? "" : ", ").append(String.format("shard %d: %d units %.1f s", i, shards.get(i).size(), loads[i] / 1000.0));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,341 @@
+package core;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+import utils.Config;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a TestNG suite as N balanced shards in parallel JVMs and merges their results.
+ *
+ * Each fork runs the whole suite XML with {@code -Dshard.index=i -Dshard.count=N}; {@link ShardListener}
+ * keeps only its share. Afterwards the runner merges:
+ * <ul>
+ *   <li>the TestNG results into one pass/fail summary (the exit code is non-zero if anything failed),</li>
+ *   <li>each fork's Extent JSON archive into one HTML report,</li>
+ *   <li>the measured method durations with those of {@code shard.durations.file} into
+ *   {@code test-durations.json} in the output directory.</li>
+ * </ul>
+ * The tracked durations file is only replaced when {@code --update-durations} is given, so an ordinary
+ * run leaves the source tree alone.
+ *
+ * Locally: {@code mvn -Pshards verify -Dshards=4 -DsuiteXmlFile=Resources/TestSuites/ClassLevelSuite.xml}.
+ * Across machines, run {@code mvn test -Dshard.index=i -Dshard.count=N -Dreport.json.file=shard-i/extent.json
+ * -Dshard.durations.output=shard-i/durations.json -Dsurefire.reportsDirectory=shard-i/testng} on
+ * each machine, collect the {@code shard-i} directories and merge them with
+ * {@code ShardRunner --merge shard-0 shard-1 ...}; add {@code --update-durations} to refresh the plan input.
+ */
+public class ShardRunner {
+    private final List<String> suites;
+    private final int count;
+    private final Path output;
+    private final Path durationsFile;
+    private final List<String> jvmArgs;
+
+    /**
+     * Outcome of one shard.
+     */
+    public static final class Shard {
+        private final Path directory;
+        private final int exitCode;
+        private final long wallMillis;
+        private final Set<String> methods = new TreeSet<>();
+        private int passed;
+        private int failed;
+        private int skipped;
+
+        Shard(Path directory, int exitCode, long wallMillis) {
+            this.directory = directory;
+            this.exitCode = exitCode;
+            this.wallMillis = wallMillis;
+        }
+
+        public Path getDirectory() {
+            return directory;
+        }
+
+        public int getExitCode() {
+            return exitCode;
+        }
+
+        public long getWallMillis() {
+            return wallMillis;
+        }
+
+        /**
+         * Test methods that ran in this shard, as {@code class#method}.
+         */
+        public Set<String> getMethods() {
+            return Collections.unmodifiableSet(methods);
+        }
+
+        public int getPassed() {
+            return passed;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+
+        public int getSkipped() {
+            return skipped;
+        }
+    }
+
+    /**
+     * Merged outcome of all shards.
+     */
+    public static final class Result {
+        private final List<Shard> shards;
+        private final Path report;
+        private final Path durations;
+
+        Result(List<Shard> shards, Path report, Path durations) {
+            this.shards = shards;
+            this.report = report;
+            this.durations = durations;
+        }
+
+        public List<Shard> getShards() {
+            return Collections.unmodifiableList(shards);
+        }
+
+        public Path getReport() {
+            return report;
+        }
+
+        /**
+         * Previous durations merged with the measured ones, the input for the next plan.
+         */
+        public Path getDurations() {
+            return durations;
+        }
+
+        public int getPassed() {
+            return shards.stream().mapToInt(Shard::getPassed).sum();
+        }
+
+        public int getFailed() {
+            return shards.stream().mapToInt(Shard::getFailed).sum();
+        }
+
+        public int getSkipped() {
+            return shards.stream().mapToInt(Shard::getSkipped).sum();
+        }
+
+        public boolean isSuccessful() {
+            return getFailed() == 0 && shards.stream().allMatch(shard -> shard.exitCode == 0);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < shards.size(); i++) {
+                Shard shard = shards.get(i);
+                text.append(String.format("shard %d: %3d passed %3d failed %3d skipped  %6.1f s  exit %d%n",
+                        i, shard.passed, shard.failed, shard.skipped, shard.wallMillis / 1000.0, shard.exitCode));
+            }
+            text.append(String.format("total:   %3d passed %3d failed %3d skipped, report %s",
+                    getPassed(), getFailed(), getSkipped(), report));
+            return text.toString();
+        }
+    }
+
+    /**
+     * @param suites        suite XML files, run by every fork
+     * @param count         number of forks
+     * @param output        directory for the per-shard results and the merged report
+     * @param durationsFile durations read for planning
+     * @param jvmArgs       extra fork arguments such as {@code -Dstub.enabled=true}
+     */
+    public ShardRunner(List<String> suites, int count, Path output, Path durationsFile, List<String> jvmArgs) {
+        this.suites = suites;
+        this.count = count;
+        this.output = output;
+        this.durationsFile = durationsFile;
+        this.jvmArgs = jvmArgs;
+    }
+
+    /**
+     * Starts all forks, waits for them and merges their results.
+     */
+    public Result run() throws IOException, InterruptedException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        // under Surefire the JVM's own class path is only the booter jar
+        String classPath = System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"));
+        List<Process> processes = new ArrayList<>();
+        List<CompletableFuture<Long>> finished = new ArrayList<>();
+        List<Path> directories = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            Path directory = output.resolve("shard-" + i);
+            Files.createDirectories(directory);
+            Files.deleteIfExists(directory.resolve("extent.json"));
+            Files.deleteIfExists(directory.resolve("durations.json"));
+            Files.deleteIfExists(directory.resolve("testng").resolve("testng-results.xml"));
+            List<String> command = new ArrayList<>(Arrays.asList(java, "-cp", classPath,
+                    "-Dshard.index=" + i, "-Dshard.count=" + count,
+                    "-Dshard.durations.file=" + durationsFile,
+                    "-Dshard.durations.output=" + directory.resolve("durations.json"),
+                    "-Dreport.json.file=" + directory.resolve("extent.json")));
+            command.addAll(jvmArgs);
+            command.addAll(Arrays.asList("org.testng.TestNG", "-d", directory.resolve("testng").toString()));
+            command.addAll(suites);
+            Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                    .redirectOutput(directory.resolve("output.log").toFile()).start();
+            processes.add(process);
+            finished.add(process.onExit().thenApply(p -> System.nanoTime()));
+            directories.add(directory);
+        }
+        List<Shard> shards = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int exitCode = processes.get(i).waitFor();
+            long end = finished.get(i).join();
+            shards.add(new Shard(directories.get(i), exitCode, TimeUnit.NANOSECONDS.toMillis(end - start)));
+        }
+        return mergeShards(shards, output, durationsFile);
+    }
+
+    /**
+     * Merges shard directories produced elsewhere, e.g. on other machines.
+     */
+    public static Result merge(List<Path> directories, Path output, Path durationsFile) throws IOException {
+        List<Shard> shards = new ArrayList<>();
+        for (Path directory : directories) {
+            shards.add(new Shard(directory, 0, 0));
+        }
+        return mergeShards(shards, output, durationsFile);
+    }
+
+    private static Result mergeShards(List<Shard> shards, Path output, Path durationsFile) throws IOException {
+        Files.createDirectories(output);
+        Path report = output.resolve("rest-assured-api-automation-report.html");
+        Path merged = output.resolve("test-durations.json");
+        ExtentReports extent = new ExtentReports();
+        Map<String, Long> durations = ShardPlan.readDurations(durationsFile);
+        for (Shard shard : shards) {
+            readResults(shard);
+            Path archive = shard.directory.resolve("extent.json");
+            if (Files.exists(archive)) {
+                extent.createDomainFromJsonArchive(archive.toFile());
+            }
+            // the mean of the previous and the new value damps one-off slow runs
+            ShardPlan.readDurations(shard.directory.resolve("durations.json")).forEach((key, millis) ->
+                    durations.merge(key, millis, (previous, measured) -> (previous + measured) / 2));
+        }
+        ExtentSparkReporter spark = new ExtentSparkReporter(report.toFile());
+        spark.config().setDocumentTitle(Config.get().getString("report.title", "API Automation Test Report"));
+        spark.config().setReportName(Config.get().getString("report.name", "API Test Results") + " (" + shards.size() + " shards)");
+        extent.attachReporter(spark);
+        extent.flush();
+        if (!durations.isEmpty()) {
+            ShardPlan.writeDurations(merged, durations);
+        }
+        return new Result(shards, report, merged);
+    }
+
+    // Counts and method names from testng-results.xml, ignoring configuration methods
+    private static void readResults(Shard shard) throws IOException {
+        File results = shard.directory.resolve("testng").resolve("testng-results.xml").toFile();
+        if (!results.exists()) {
+            return;
+        }
+        try {
+            Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(results);
+            NodeList classes = document.getElementsByTagName("class");
+            for (int i = 0; i < classes.getLength(); i++) {
+                Element testClass = (Element) classes.item(i);
+                NodeList methods = testClass.getElementsByTagName("test-method");
+                for (int j = 0; j < methods.getLength(); j++) {
+                    Element method = (Element) methods.item(j);
+                    if ("true".equals(method.getAttribute("is-config"))) {
+                        continue;
+                    }
+                    shard.methods.add(testClass.getAttribute("name") + "#" + method.getAttribute("name"));
+                    switch (method.getAttribute("status")) {
+                        case "PASS":
+                            shard.passed++;
+                            break;
+                        case "FAIL":
+                            shard.failed++;
+                            break;
+                        default:
+                            shard.skipped++;
+                    }
+                }
+            }
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException("Cannot read " + results, e);
+        }
+    }
+
+    /**
+     * {@code ShardRunner [--shards N] [--out dir] [--update-durations] [-Dkey=value ...] suite.xml ...}
+     * or {@code ShardRunner --merge [--out dir] [--update-durations] shard-dir ...}.
+     */
+    public static void main(String[] args) throws Exception {
+        Config config = Config.get();
+        int count = config.getInt("shard.count", 2);
+        Path output = Paths.get("target/shards");
+        Path durationsFile = Paths.get(config.getString("shard.durations.file", "Resources/Timings/test-durations.json"));
+        boolean mergeOnly = false;
+        boolean updateDurations = false;
+        List<String> jvmArgs = new ArrayList<>();
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--shards")) {
+                count = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--out")) {
+                output = Paths.get(args[++i]);
+            } else if (args[i].equals("--merge")) {
+                mergeOnly = true;
+            } else if (args[i].equals("--update-durations")) {
+                updateDurations = true;
+            } else if (args[i].startsWith("-D")) {
+                jvmArgs.add(args[i]);
+            } else if (!args[i].trim().isEmpty()) {
+                paths.add(args[i]);
+            }
+        }
+        if (paths.isEmpty()) {
+            System.err.println("Usage: ShardRunner [--shards N] [--out dir] [--update-durations] [-Dkey=value ...] suite.xml ...");
+            System.err.println("       ShardRunner --merge [--out dir] [--update-durations] shard-dir ...");
+            System.exit(2);
+        }
+        Result result;
+        if (mergeOnly) {
+            List<Path> directories = new ArrayList<>();
+            paths.forEach(path -> directories.add(Paths.get(path)));
+            result = merge(directories, output.resolve("merged"), durationsFile);
+        } else {
+            result = new ShardRunner(paths, count, output, durationsFile, jvmArgs).run();
+        }
+        if (updateDurations && Files.exists(result.getDurations())) {
+            Files.createDirectories(durationsFile.toAbsolutePath().getParent());
+            Files.copy(result.getDurations(), durationsFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        System.out.println(result);
+        System.exit(result.isSuccessful() ? 0 : 1);
+    }
+}
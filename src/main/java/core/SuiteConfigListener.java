@@ -0,0 +1,54 @@
+package core;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.SuiteRunner;
+import org.testng.internal.IConfiguration;
+import utils.Config;
+
+import java.lang.invoke.MethodHandles;
+
+/**
+ * Applies suite-level execution settings from {@link Config} before a suite starts,
+ * so they can be tuned per run without editing the suite XML files.
+ *
+ * - {@code dataprovider.thread.count}: pool size for {@code @DataProvider(parallel = true)}; when
+ *   0 in {@code execution.mode=virtual} it becomes {@code virtual.threads.max.concurrent}, because
+ *   TestNG creates the data-provider pool itself and it cannot run on virtual threads
+ * - {@code execution.mode=virtual}: runs parallel test methods on virtual threads through
+ *   {@link VirtualThreadExecutorFactory}
+ */
+public class SuiteConfigListener implements ISuiteListener {
+
+    @Override
+    public void onStart(ISuite suite) {
+        int dataProviderThreads = Config.get().getInt("dataprovider.thread.count", 0);
+        if (dataProviderThreads <= 0 && VirtualThreadExecutorFactory.isVirtualMode()) {
+            dataProviderThreads = Config.get().getInt("virtual.threads.max.concurrent", 256);
+        }
+        if (dataProviderThreads > 0) {
+            suite.getXmlSuite().setDataProviderThreadCount(dataProviderThreads);
+        }
+        if ("virtual".equalsIgnoreCase(Config.get().getString("execution.mode", "platform"))) {
+            installExecutorFactory(suite);
+        }
+    }
+
+    // TestNG reads -threadpoolfactoryclass only from its command line, which Surefire does not use,
+    // so the factory goes into the configuration the suite shares with its test runners.
+    // Error Handling: on failure the suite runs on platform threads and the reason goes to System.err
+    private static void installExecutorFactory(ISuite suite) {
+        try {
+            // a method handle resolves just this field; reflection would load every field type, including Guice's
+            IConfiguration configuration = (IConfiguration) MethodHandles
+                    .privateLookupIn(SuiteRunner.class, MethodHandles.lookup())
+                    .findGetter(SuiteRunner.class, "configuration", IConfiguration.class)
+                    .invoke(suite);
+            if (!(configuration.getExecutorFactory() instanceof VirtualThreadExecutorFactory)) {
+                configuration.setExecutorFactory(new VirtualThreadExecutorFactory());
+            }
+        } catch (Throwable e) {
+            System.err.println("Cannot install virtual thread executor for suite " + suite.getName() + ": " + e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package core;
+
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import perf.TimingHistory;
+
+/**
+ * Records the duration of every passed test method invocation into the suite's {@link TimingHistory}.
+ * Failed invocations are left out: an early assertion failure is fast and would hide a slowdown.
+ *
+ * Registered on {@link BaseTest}; does nothing while {@code timing.history.enabled} is false.
+ */
+public class TimingListener implements ITestListener {
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        TimingHistory history = TimingHistory.current();
+        if (history != null) {
+            history.recordTest(ShardListener.key(result.getMethod()), result.getEndMillis() - result.getStartMillis());
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package core;
+
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import utils.Config;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Caches auth tokens per credential and refreshes them shortly before they expire.
+ *
+ * <ul>
+ *   <li>A valid token is returned from memory without a request.</li>
+ *   <li>Inside the {@code refreshAhead} window before expiry the current token is still returned
+ *       while one background refresh replaces it.</li>
+ *   <li>Once a token has expired (or was {@link #invalidate invalidated}) callers wait for a new one.</li>
+ * </ul>
+ *
+ * In both refresh cases only one request per credential is in flight: threads that find a
+ * refresh running wait for its result instead of sending their own (single-flight). Tests
+ * normally use the provider through {@link AuthTokenFilter}.
+ */
+public class TokenProvider {
+    private final TokenSource source;
+    private final Duration refreshAhead;
+    private final Clock clock;
+    private final Map<Credentials, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder fetches = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Fetches a new token for a credential, e.g. by calling a login endpoint.
+     */
+    public interface TokenSource {
+        Token fetch(Credentials credentials) throws Exception;
+    }
+
+    /**
+     * A username and password (or client id and secret); the cache key for tokens.
+     */
+    public static final class Credentials {
+        private final String username;
+        private final String password;
+
+        public Credentials(String username, String password) {
+            this.username = Objects.requireNonNull(username);
+            this.password = Objects.requireNonNull(password);
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Credentials && username.equals(((Credentials) other).username)
+                    && password.equals(((Credentials) other).password);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(username, password);
+        }
+
+        @Override
+        public String toString() {
+            return username;
+        }
+    }
+
+    /**
+     * A token value and the instant it stops being accepted.
+     */
+    public static final class Token {
+        private final String value;
+        private final Instant expiresAt;
+
+        public Token(String value, Instant expiresAt) {
+            this.value = Objects.requireNonNull(value, "token");
+            this.expiresAt = Objects.requireNonNull(expiresAt, "expiresAt");
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public Instant getExpiresAt() {
+            return expiresAt;
+        }
+
+        @Override
+        public String toString() {
+            return "token expiring " + expiresAt;
+        }
+    }
+
+    private static final class Entry {
+        volatile Token token;
+        final AtomicReference<CompletableFuture<Token>> refresh = new AtomicReference<>();
+    }
+
+    /**
+     * @param source        fetches new tokens
+     * @param refreshAhead  how long before expiry a background refresh starts
+     * @param clock         time source for expiry checks
+     */
+    public TokenProvider(TokenSource source, Duration refreshAhead, Clock clock) {
+        this.source = source;
+        this.refreshAhead = refreshAhead;
+        this.clock = clock;
+    }
+
+    /**
+     * Provider with {@code auth.token.refresh.ahead.ms} from the configuration.
+     */
+    public TokenProvider(TokenSource source) {
+        this(source, Duration.ofMillis(Config.get().getLong("auth.token.refresh.ahead.ms", 30000)), Clock.systemUTC());
+    }
+
+    /**
+     * Provider for login endpoints that take {@code {"userName": ..., "password": ...}} and answer
+     * with {@code token} and an ISO-8601 {@code expires} field, like the ToolsQA bookstore.
+     * Tokens without an expiry are kept for {@code auth.token.ttl.ms}.
+     */
+    public static TokenProvider forLoginEndpoint(String url) {
+        Duration ttl = Duration.ofMillis(Config.get().getLong("auth.token.ttl.ms", 300000));
+        return new TokenProvider(credentials -> {
+            Map<String, String> body = new LinkedHashMap<>();
+            body.put("userName", credentials.getUsername());
+            body.put("password", credentials.getPassword());
+            Response response = given().contentType(ContentType.JSON).body(body).post(url);
+            String token = response.path("token");
+            if (response.getStatusCode() != StatusCode.SUCCESS.code || token == null) {
+                throw new IllegalStateException("Token request for " + credentials + " failed with "
+                        + response.getStatusLine() + ": " + response.asString());
+            }
+            return new Token(token, expiry(response.path("expires"), ttl));
+        });
+    }
+
+    private static Instant expiry(Object expires, Duration ttl) {
+        if (expires != null) {
+            try {
+                return Instant.parse(expires.toString());
+            } catch (DateTimeParseException ignored) {
+                // fall back to the configured lifetime
+            }
+        }
+        return Instant.now().plus(ttl);
+    }
+
+    /**
+     * Returns a token for {@code credentials}, fetching or refreshing it as needed.
+     */
+    public String getToken(Credentials credentials) {
+        Entry entry = entries.computeIfAbsent(credentials, c -> new Entry());
+        Token token = entry.token;
+        Instant now = clock.instant();
+        if (token != null && now.isBefore(token.expiresAt)) {
+            hits.increment();
+            if (!now.isBefore(token.expiresAt.minus(refreshAhead))) {
+                refresh(credentials, entry, token, true);
+            }
+            return token.value;
+        }
+        return refresh(credentials, entry, token, false).value;
+    }
+
+    /**
+     * Drops {@code token} if it is still the cached one, e.g. after the server answered 401;
+     * the next call fetches a new token. A token that was already replaced is left alone.
+     */
+    public void invalidate(Credentials credentials, String token) {
+        Entry entry = entries.get(credentials);
+        if (entry != null) {
+            Token current = entry.token;
+            if (current != null && current.value.equals(token)) {
+                synchronized (entry) {
+                    if (entry.token == current) {
+                        entry.token = null;
+                    }
+                }
+            }
+        }
+    }
+
+    private Token refresh(Credentials credentials, Entry entry, Token stale, boolean background) {
+        CompletableFuture<Token> mine = new CompletableFuture<>();
+        CompletableFuture<Token> running = entry.refresh.compareAndExchange(null, mine);
+        if (running != null) {
+            return background ? stale : join(running);
+        }
+        // another refresh may have finished between reading the token and winning the slot
+        Token current = entry.token;
+        if (current != stale && current != null && clock.instant().isBefore(current.expiresAt.minus(refreshAhead))) {
+            entry.refresh.set(null);
+            mine.complete(current);
+            return current;
+        }
+        Runnable fetch = () -> {
+            try {
+                fetches.increment();
+                Token token = source.fetch(credentials);
+                synchronized (entry) {
+                    entry.token = token;
+                }
+                mine.complete(token);
+            } catch (Throwable e) {
+                failures.increment();
+                mine.completeExceptionally(e);
+            } finally {
+                entry.refresh.set(null);
+            }
+        };
+        if (background) {
+            CompletableFuture.runAsync(fetch);
+            return stale;
+        }
+        fetch.run();
+        return join(mine);
+    }
+
+    private static Token join(CompletableFuture<Token> refresh) {
+        try {
+            return refresh.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Token refresh failed: " + cause, cause);
+        }
+    }
+
+    /**
+     * Calls answered from the cache.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Token requests sent to the source.
+     */
+    public long getFetches() {
+        return fetches.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public Map<Credentials, Token> getTokens() {
+        Map<Credentials, Token> tokens = new HashMap<>();
+        entries.forEach((credentials, entry) -> {
+            if (entry.token != null) {
+                tokens.put(credentials, entry.token);
+            }
+        });
+        return Collections.unmodifiableMap(tokens);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d credentials, %d cache hits, %d token requests, %d failed",
+                entries.size(), hits.sum(), fetches.sum(), failures.sum());
+    }
+}
@@ -0,0 +1,182 @@
+package core;
+
+import org.testng.IDynamicGraph;
+import org.testng.TestNGException;
+import org.testng.thread.IThreadWorkerFactory;
+import org.testng.thread.ITestNGThreadPoolExecutor;
+import org.testng.thread.IWorker;
+import utils.VirtualThreads;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the test method graph of one {@code <test>} with a new virtual thread per TestNG worker.
+ *
+ * Scheduling follows TestNG's own {@code GraphThreadPoolExecutor}: free nodes (methods whose
+ * dependencies have finished) are started in comparator order, and every finished worker
+ * releases the nodes that depended on it. Instead of a pool size, concurrency is capped by a
+ * {@link Semaphore} that a thread acquires after it starts, so waiting invocations cost a parked
+ * virtual thread rather than a queued task or a platform thread. {@code testng.thread.affinity}
+ * is not supported.
+ *
+ * @param <T> graph node type, {@code ITestNGMethod} for TestNG
+ */
+public class VirtualThreadExecutor<T> extends AbstractExecutorService implements ITestNGThreadPoolExecutor {
+    private final IDynamicGraph<T> graph;
+    private final IThreadWorkerFactory<T> workerFactory;
+    private final Comparator<T> comparator;
+    private final Semaphore permits;
+    private final ThreadFactory threads;
+    private final Set<Thread> running = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger peakConcurrent = new AtomicInteger();
+    private final LongAdder workers = new LongAdder();
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    private volatile boolean shutdown;
+
+    /**
+     * @param permits shared by every executor of a run, so parallel {@code <test>} tags share one limit
+     */
+    public VirtualThreadExecutor(String name, IDynamicGraph<T> graph, IThreadWorkerFactory<T> workerFactory,
+                                 Comparator<T> comparator, Semaphore permits) {
+        if (graph.getFreeNodes().isEmpty()) {
+            throw new TestNGException("The graph of methods contains a cycle:" + graph.getNodesWithStatus(IDynamicGraph.Status.READY));
+        }
+        this.graph = graph;
+        this.workerFactory = workerFactory;
+        this.comparator = comparator;
+        this.permits = permits;
+        this.threads = VirtualThreads.factory("TestNG-" + name + "-virtual-");
+    }
+
+    @Override
+    public void run() {
+        synchronized (graph) {
+            runNodes(freeNodes());
+        }
+    }
+
+    private List<T> freeNodes() {
+        List<T> free = graph.getFreeNodes();
+        if (comparator != null) {
+            free.sort(comparator);
+        }
+        return free;
+    }
+
+    private void runNodes(List<T> nodes) {
+        for (IWorker<T> worker : workerFactory.createWorkers(nodes)) {
+            graph.setStatus(worker.getTasks(), IDynamicGraph.Status.RUNNING);
+            execute(worker);
+        }
+    }
+
+    // Called on the worker's own thread once it is done
+    private void finished(IWorker<T> worker) {
+        synchronized (graph) {
+            graph.setStatus(worker.getTasks(), IDynamicGraph.Status.FINISHED);
+            if (graph.getNodeCount() == graph.getNodeCountWithStatus(IDynamicGraph.Status.FINISHED)) {
+                shutdown();
+            } else if (!shutdown) {
+                runNodes(freeNodes());
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void execute(Runnable command) {
+        if (shutdown) {
+            throw new RejectedExecutionException("Executor has been shut down");
+        }
+        active.incrementAndGet();
+        workers.increment();
+        threads.newThread(() -> {
+            Thread thread = Thread.currentThread();
+            running.add(thread);
+            try {
+                permits.acquire();
+                try {
+                    peakConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                    command.run();
+                } finally {
+                    concurrent.decrementAndGet();
+                    permits.release();
+                }
+            } catch (InterruptedException e) {
+                thread.interrupt();
+            } finally {
+                running.remove(thread);
+                try {
+                    if (command instanceof IWorker) {
+                        finished((IWorker<T>) command);
+                    }
+                } finally {
+                    if (active.decrementAndGet() == 0 && shutdown) {
+                        terminated.countDown();
+                    }
+                }
+            }
+        }).start();
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        if (active.get() == 0) {
+            terminated.countDown();
+        }
+    }
+
+    /**
+     * Interrupts running and waiting invocations; nothing is queued, so the returned list is empty.
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown();
+        running.forEach(Thread::interrupt);
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return terminated.getCount() == 0;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return terminated.await(timeout, unit);
+    }
+
+    /**
+     * Workers started so far; one per method, or per instance for {@code parallel="instances"}.
+     */
+    public long getWorkers() {
+        return workers.sum();
+    }
+
+    /**
+     * Most workers that held a permit at the same time.
+     */
+    public int getPeakConcurrent() {
+        return peakConcurrent.get();
+    }
+}
@@ -0,0 +1,117 @@
+package core;
+
+import org.testng.IDynamicGraph;
+import org.testng.ISuite;
+import org.testng.ITestNGMethod;
+import org.testng.internal.thread.DefaultThreadPoolExecutorFactory;
+import org.testng.thread.IExecutorFactory;
+import org.testng.thread.IThreadWorkerFactory;
+import org.testng.thread.ITestNGThreadPoolExecutor;
+import utils.Config;
+import utils.VirtualThreads;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TestNG executor factory that switches parallel test methods to virtual threads with
+ * {@code execution.mode=virtual}.
+ *
+ * {@link SuiteConfigListener} installs it for every suite when virtual mode is configured; it can also
+ * be passed to TestNG's command line with {@code -threadpoolfactoryclass}. On runtimes without
+ * virtual threads it returns TestNG's own thread pools, sized by the suite's {@code thread-count}. In virtual mode the suite's
+ * {@code parallel} setting still decides what runs in parallel, while {@code thread-count} is
+ * replaced by one {@link Semaphore} of {@code virtual.threads.max.concurrent} permits for the whole
+ * run, see {@link VirtualThreadExecutor}. Suites themselves ({@code suite-thread-pool-size}) keep
+ * platform threads.
+ */
+public class VirtualThreadExecutorFactory implements IExecutorFactory {
+    private static volatile VirtualThreadExecutorFactory current;
+
+    private final IExecutorFactory platform = new DefaultThreadPoolExecutorFactory();
+    private final List<VirtualThreadExecutor<?>> executors = new CopyOnWriteArrayList<>();
+    private volatile Semaphore permits;
+    private volatile int maxConcurrent;
+
+    /**
+     * True when {@code execution.mode=virtual} is configured and the runtime has virtual threads.
+     */
+    public static boolean isVirtualMode() {
+        return "virtual".equalsIgnoreCase(Config.get().getString("execution.mode", "platform"))
+                && VirtualThreads.isAvailable();
+    }
+
+    /**
+     * Returns the factory that has run test methods on virtual threads in this JVM, or null.
+     */
+    public static VirtualThreadExecutorFactory current() {
+        return current;
+    }
+
+    @Override
+    public ITestNGThreadPoolExecutor newSuiteExecutor(String name, IDynamicGraph<ISuite> graph,
+                                                      IThreadWorkerFactory<ISuite> factory, int corePoolSize,
+                                                      int maxPoolSize, long keepAliveTime, TimeUnit unit,
+                                                      BlockingQueue<Runnable> workQueue, Comparator<ISuite> comparator) {
+        return platform.newSuiteExecutor(name, graph, factory, corePoolSize, maxPoolSize, keepAliveTime, unit,
+                workQueue, comparator);
+    }
+
+    @Override
+    public ITestNGThreadPoolExecutor newTestMethodExecutor(String name, IDynamicGraph<ITestNGMethod> graph,
+                                                           IThreadWorkerFactory<ITestNGMethod> factory,
+                                                           int corePoolSize, int maxPoolSize, long keepAliveTime,
+                                                           TimeUnit unit, BlockingQueue<Runnable> workQueue,
+                                                           Comparator<ITestNGMethod> comparator) {
+        if (!isVirtualMode()) {
+            if ("virtual".equalsIgnoreCase(Config.get().getString("execution.mode", "platform"))) {
+                System.err.println("execution.mode=virtual is not available (" + VirtualThreads.unavailableReason()
+                        + "), running " + name + " on " + corePoolSize + " platform threads");
+            }
+            return platform.newTestMethodExecutor(name, graph, factory, corePoolSize, maxPoolSize, keepAliveTime,
+                    unit, workQueue, comparator);
+        }
+        VirtualThreadExecutor<ITestNGMethod> executor = new VirtualThreadExecutor<>(name, graph, factory,
+                comparator, permits());
+        executors.add(executor);
+        current = this;
+        return executor;
+    }
+
+    private Semaphore permits() {
+        if (permits == null) {
+            synchronized (this) {
+                if (permits == null) {
+                    maxConcurrent = Config.get().getInt("virtual.threads.max.concurrent", 256);
+                    permits = new Semaphore(maxConcurrent);
+                }
+            }
+        }
+        return permits;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public long getWorkers() {
+        return executors.stream().mapToLong(VirtualThreadExecutor::getWorkers).sum();
+    }
+
+    /**
+     * Highest concurrency reached by any single {@code <test>}.
+     */
+    public int getPeakConcurrent() {
+        return executors.stream().mapToInt(VirtualThreadExecutor::getPeakConcurrent).max().orElse(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("virtual threads, %d workers, peak %d of %d permits", getWorkers(),
+                getPeakConcurrent(), maxConcurrent);
+    }
+}
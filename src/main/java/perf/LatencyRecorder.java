@@ -0,0 +1,199 @@
+package perf;
+
+import com.aventstack.extentreports.Status;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import utils.ExtentReport;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-safe latency capture backed by HdrHistogram.
+ *
+ * Values are recorded in microseconds into a wait-free {@link Recorder}, so any number of
+ * threads can record concurrently without locking; {@link #snapshot()} folds what was recorded
+ * so far into a cumulative histogram. Recorders can be merged, e.g. per-thread or per-fork
+ * recorders into one before asserting.
+ *
+ * Coordinated omission is corrected in two ways:
+ * <ul>
+ *   <li>As a {@link SampleListener} on a {@link LoadEngine}, latency is measured from the
+ *       request's <em>scheduled</em> start, so time spent waiting behind a slow response counts.</li>
+ *   <li>For closed loops that send one request after another, {@link #recordWithExpectedInterval}
+ *       back-fills the samples a stalled loop failed to send.</li>
+ * </ul>
+ *
+ * <pre>
+ * LatencyRecorder latency = new LatencyRecorder("posts");
+ * LoadEngine.builder().listener(latency)...build().run();
+ * latency.report();
+ * latency.sla().p50(100).p99(500).p999(1000).max(2000).verify();
+ * </pre>
+ */
+public class LatencyRecorder implements SampleListener {
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double[] REPORTED_PERCENTILES = {50, 90, 95, 99, 99.9};
+
+    private final String name;
+    private final boolean fromScheduledStart;
+    private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+    private final Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+    private final Map<String, LatencyRecorder> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a recorder that, as a {@link SampleListener}, measures from the scheduled start.
+     */
+    public LatencyRecorder(String name) {
+        this(name, true);
+    }
+
+    /**
+     * @param fromScheduledStart {@code true} to measure load-engine samples from the scheduled
+     *                           start (response time, corrected), {@code false} from the actual
+     *                           start (service time, uncorrected)
+     */
+    public LatencyRecorder(String name, boolean fromScheduledStart) {
+        this.name = name;
+        this.fromScheduledStart = fromScheduledStart;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void record(long value, TimeUnit unit) {
+        recorder.recordValue(Math.max(0, unit.toMicros(value)));
+    }
+
+    public void record(Duration latency) {
+        record(latency.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records a sample from a loop that intends to send one request every {@code expectedInterval};
+     * when the sample is longer than the interval, the requests that should have been sent
+     * in the meantime are added with linearly decreasing latencies.
+     */
+    public void recordWithExpectedInterval(long value, long expectedInterval, TimeUnit unit) {
+        recorder.recordValueWithExpectedInterval(Math.max(0, unit.toMicros(value)), Math.max(1, unit.toMicros(expectedInterval)));
+    }
+
+    @Override
+    public void onSample(String endpoint, long intendedStart, long start, long end, int statusCode, boolean warmUp) {
+        if (warmUp) {
+            return;
+        }
+        long latency = end - (fromScheduledStart ? intendedStart : start);
+        record(latency, TimeUnit.NANOSECONDS);
+        endpoints.computeIfAbsent(endpoint, key -> new LatencyRecorder(name + "/" + key, fromScheduledStart))
+                .record(latency, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Adds everything recorded by {@code other} to this recorder, endpoint breakdown included.
+     */
+    public LatencyRecorder merge(LatencyRecorder other) {
+        Histogram values = other.snapshot();
+        synchronized (this) {
+            total.add(values);
+        }
+        other.endpoints.forEach((endpoint, recorder) ->
+                endpoints.computeIfAbsent(endpoint, key -> new LatencyRecorder(name + "/" + key, fromScheduledStart))
+                        .merge(recorder));
+        return this;
+    }
+
+    /**
+     * Returns a copy of all values recorded so far, in microseconds.
+     */
+    public synchronized Histogram snapshot() {
+        total.add(recorder.getIntervalHistogram());
+        return total.copy();
+    }
+
+    /**
+     * Per-endpoint recorders filled when this recorder listens to a {@link LoadEngine}.
+     */
+    public Map<String, LatencyRecorder> getEndpoints() {
+        return new TreeMap<>(endpoints);
+    }
+
+    public long getCount() {
+        return snapshot().getTotalCount();
+    }
+
+    public double getPercentileMillis(double percentile) {
+        return snapshot().getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    public double getMaxMillis() {
+        return snapshot().getMaxValue() / 1000.0;
+    }
+
+    public double getMeanMillis() {
+        return snapshot().getMean() / 1000.0;
+    }
+
+    /**
+     * Starts a set of percentile limits to verify against the current snapshot.
+     */
+    public LatencySla sla() {
+        return new LatencySla(name, snapshot());
+    }
+
+    /**
+     * One-line percentile summary in milliseconds.
+     */
+    public String summary() {
+        return summary(name, snapshot());
+    }
+
+    /**
+     * Logs the percentile summary of this recorder and of each endpoint to the current report node.
+     */
+    public void report() {
+        StringBuilder table = new StringBuilder("<table class='table table-sm'><tr><th>latency (ms)</th><th>count</th>");
+        for (double percentile : REPORTED_PERCENTILES) {
+            table.append("<th>p").append(format(percentile)).append("</th>");
+        }
+        table.append("<th>max</th><th>mean</th></tr>");
+        appendRow(table, name, snapshot());
+        getEndpoints().forEach((endpoint, recorder) -> appendRow(table, recorder.name, recorder.snapshot()));
+        ExtentReport.log(Status.INFO, table.append("</table>").toString());
+    }
+
+    private static void appendRow(StringBuilder table, String label, Histogram histogram) {
+        table.append("<tr><td>").append(label).append("</td><td>").append(histogram.getTotalCount()).append("</td>");
+        for (double percentile : REPORTED_PERCENTILES) {
+            table.append("<td>").append(millis(histogram.getValueAtPercentile(percentile))).append("</td>");
+        }
+        table.append("<td>").append(millis(histogram.getMaxValue())).append("</td><td>")
+                .append(String.format("%.2f", histogram.getMean() / 1000)).append("</td></tr>");
+    }
+
+    static String summary(String label, Histogram histogram) {
+        StringBuilder summary = new StringBuilder(label).append(": ").append(histogram.getTotalCount()).append(" samples");
+        for (double percentile : REPORTED_PERCENTILES) {
+            summary.append(", p").append(format(percentile)).append(' ')
+                    .append(millis(histogram.getValueAtPercentile(percentile))).append(" ms");
+        }
+        return summary.append(", max ").append(millis(histogram.getMaxValue())).append(" ms").toString();
+    }
+
+    static String millis(long micros) {
+        return String.format("%.2f", micros / 1000.0);
+    }
+
+    static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+
+    @Override
+    public String toString() {
+        return summary();
+    }
+}
@@ -0,0 +1,81 @@
+package perf;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Percentile limits checked against a {@link LatencyRecorder} snapshot. Limits are in
+ * milliseconds; {@link #verify()} checks all of them and reports every violation in one
+ * {@link AssertionError}.
+ *
+ * <pre>
+ * recorder.sla().p50(200).p95(500).p99(800).p999(1500).max(3000).verify();
+ * </pre>
+ */
+public class LatencySla {
+    private final String name;
+    private final Histogram histogram;
+    private final List<String> violations = new ArrayList<>();
+    private long minSamples = 1;
+
+    LatencySla(String name, Histogram histogram) {
+        this.name = name;
+        this.histogram = histogram;
+    }
+
+    public LatencySla p50(double limitMillis) {
+        return percentile(50, limitMillis);
+    }
+
+    public LatencySla p95(double limitMillis) {
+        return percentile(95, limitMillis);
+    }
+
+    public LatencySla p99(double limitMillis) {
+        return percentile(99, limitMillis);
+    }
+
+    public LatencySla p999(double limitMillis) {
+        return percentile(99.9, limitMillis);
+    }
+
+    public LatencySla percentile(double percentile, double limitMillis) {
+        check("p" + LatencyRecorder.format(percentile), histogram.getValueAtPercentile(percentile), limitMillis);
+        return this;
+    }
+
+    public LatencySla max(double limitMillis) {
+        check("max", histogram.getMaxValue(), limitMillis);
+        return this;
+    }
+
+    /**
+     * Requires at least {@code count} samples, so an empty run cannot pass every limit.
+     */
+    public LatencySla minSamples(long count) {
+        this.minSamples = count;
+        return this;
+    }
+
+    /**
+     * @throws AssertionError listing every exceeded limit
+     */
+    public void verify() {
+        if (histogram.getTotalCount() < minSamples) {
+            violations.add(0, "expected at least " + minSamples + " samples but found " + histogram.getTotalCount());
+        }
+        if (!violations.isEmpty()) {
+            throw new AssertionError("Latency SLA violated for " + name + ": " + String.join("; ", violations)
+                    + " [" + LatencyRecorder.summary(name, histogram) + "]");
+        }
+    }
+
+    private void check(String label, long valueMicros, double limitMillis) {
+        // Histogram values are bucketed to 3 significant digits, so compare the bucket's lowest value
+        if (histogram.lowestEquivalentValue(valueMicros) > limitMillis * 1000) {
+            violations.add(label + " " + LatencyRecorder.millis(valueMicros) + " ms > " + limitMillis + " ms");
+        }
+    }
+}
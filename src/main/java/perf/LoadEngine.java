@@ -0,0 +1,331 @@
+package perf;
+
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import utils.Config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Open-model load generator for RestAssured requests.
+ *
+ * Requests arrive on a fixed schedule (constant rate, or a linear ramp between two rates)
+ * regardless of how fast the server answers: the dispatcher thread only waits for the next
+ * scheduled arrival, never for a response. Each arrival picks an endpoint from a weighted
+ * request mix and runs it on a worker pool bounded by {@code maxConcurrency}. When every
+ * worker is busy the arrival is counted as dropped instead of delaying the schedule, so slow
+ * responses show up as drops and latency rather than as a silently lower request rate.
+ *
+ * A run starts with an optional warm-up at the initial rate whose requests are executed but
+ * not counted, followed by the measured phase. Every request's scheduled and actual start
+ * times are passed to the registered {@link SampleListener}s.
+ *
+ * <pre>
+ * LoadResult result = LoadEngine.builder()
+ *         .ramp(50, 500, Duration.ofSeconds(10))
+ *         .warmUp(Duration.ofSeconds(2))
+ *         .duration(Duration.ofSeconds(30))
+ *         .maxConcurrency(256)
+ *         .endpoint("post", 3, () -&gt; given().get(APIEndpoints.getJsonPlaceholderUrl("/posts/1")))
+ *         .endpoint("users", 1, spec, Method.GET, APIEndpoints.getJsonPlaceholderUrl("/users"))
+ *         .build()
+ *         .run();
+ * </pre>
+ *
+ * Defaults come from the {@code load.*} keys of {@link Config}.
+ */
+public class LoadEngine {
+    private static final AtomicInteger runs = new AtomicInteger();
+
+    private final List<Endpoint> endpoints;
+    private final int totalWeight;
+    private final double startRate;
+    private final double endRate;
+    private final long rampNanos;
+    private final long warmUpNanos;
+    private final long durationNanos;
+    private final long drainTimeoutNanos;
+    private final int maxConcurrency;
+    private final List<SampleListener> listeners;
+
+    private LoadEngine(Builder builder) {
+        this.endpoints = new ArrayList<>(builder.endpoints);
+        this.totalWeight = endpoints.stream().mapToInt(endpoint -> endpoint.weight).sum();
+        this.startRate = builder.startRate;
+        this.endRate = builder.endRate;
+        this.rampNanos = builder.ramp.toNanos();
+        this.warmUpNanos = builder.warmUp.toNanos();
+        this.durationNanos = builder.duration.toNanos();
+        this.drainTimeoutNanos = builder.drainTimeout.toNanos();
+        this.maxConcurrency = builder.maxConcurrency;
+        this.listeners = new ArrayList<>(builder.listeners);
+    }
+
+    /**
+     * Creates a builder initialised from the {@code load.*} configuration keys.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Runs warm-up and measured phase on the calling thread, then waits up to the drain
+     * timeout for in-flight requests to finish. Requests still running after it are
+     * interrupted, and waited for once more for up to the drain timeout.
+     *
+     * @return counters of the measured phase
+     */
+    public LoadResult run() {
+        LoadResult result = new LoadResult();
+        endpoints.forEach(endpoint -> result.endpoints.put(endpoint.name, new LoadResult.EndpointStats()));
+        result.targetRate = endRate;
+        result.durationNanos = durationNanos;
+
+        int run = runs.incrementAndGet();
+        AtomicInteger threads = new AtomicInteger();
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), task -> {
+                    Thread thread = new Thread(task, "load-" + run + "-worker-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        Semaphore permits = new Semaphore(maxConcurrency);
+        AtomicInteger inFlight = new AtomicInteger();
+
+        long origin = System.nanoTime();
+        long measureStart = origin + warmUpNanos;
+        long end = measureStart + durationNanos;
+        // Kept as a double so sub-nanosecond interval remainders do not accumulate as drift
+        double next = origin;
+        try {
+            while (next < end) {
+                long intended = (long) next;
+                waitUntil(intended);
+                boolean warmUp = intended < measureStart;
+                if (!warmUp) {
+                    result.scheduled.increment();
+                }
+                if (permits.tryAcquire()) {
+                    long lag = System.nanoTime() - intended;
+                    int running = inFlight.incrementAndGet();
+                    if (!warmUp) {
+                        result.maxLagNanos = Math.max(result.maxLagNanos, lag);
+                        result.maxInFlight = Math.max(result.maxInFlight, running);
+                    }
+                    Endpoint endpoint = pick();
+                    workers.execute(() -> {
+                        try {
+                            execute(endpoint, intended, warmUp, result);
+                        } finally {
+                            inFlight.decrementAndGet();
+                            permits.release();
+                        }
+                    });
+                } else if (!warmUp) {
+                    result.dropped.increment();
+                }
+                next += 1e9 / rateAt(intended - measureStart);
+            }
+        } finally {
+            workers.shutdown();
+            try {
+                if (!workers.awaitTermination(drainTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                    // interrupted workers still record their samples; the result is read once they are done
+                    workers.shutdownNow();
+                    workers.awaitTermination(drainTimeoutNanos, TimeUnit.NANOSECONDS);
+                }
+            } catch (InterruptedException e) {
+                workers.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        return result;
+    }
+
+    private void execute(Endpoint endpoint, long intended, boolean warmUp, LoadResult result) {
+        long start = System.nanoTime();
+        int statusCode = -1;
+        try {
+            statusCode = endpoint.request.get().getStatusCode();
+        } catch (Throwable t) {
+            if (!warmUp && result.firstError == null) {
+                result.firstError = t;
+            }
+        }
+        long finish = System.nanoTime();
+        if (!warmUp) {
+            result.record(endpoint.name, start, finish, statusCode);
+        }
+        for (SampleListener listener : listeners) {
+            listener.onSample(endpoint.name, intended, start, finish, statusCode, warmUp);
+        }
+    }
+
+    private Endpoint pick() {
+        if (endpoints.size() == 1) {
+            return endpoints.get(0);
+        }
+        int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Endpoint endpoint : endpoints) {
+            ticket -= endpoint.weight;
+            if (ticket < 0) {
+                return endpoint;
+            }
+        }
+        return endpoints.get(endpoints.size() - 1);
+    }
+
+    /**
+     * Arrival rate in requests per second at {@code elapsed} nanoseconds into the measured
+     * phase; negative values are the warm-up, which runs at the initial rate.
+     */
+    private double rateAt(long elapsed) {
+        if (elapsed <= 0) {
+            return startRate;
+        }
+        if (elapsed >= rampNanos) {
+            return endRate;
+        }
+        return startRate + (endRate - startRate) * elapsed / rampNanos;
+    }
+
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static class Endpoint {
+        final String name;
+        final int weight;
+        final Supplier<Response> request;
+
+        Endpoint(String name, int weight, Supplier<Response> request) {
+            this.name = name;
+            this.weight = weight;
+            this.request = request;
+        }
+    }
+
+    /**
+     * Fluent configuration for a {@link LoadEngine}.
+     */
+    public static class Builder {
+        private final List<Endpoint> endpoints = new ArrayList<>();
+        private final List<SampleListener> listeners = new ArrayList<>();
+        private double startRate;
+        private double endRate;
+        private Duration ramp = Duration.ZERO;
+        private Duration warmUp;
+        private Duration duration;
+        private Duration drainTimeout;
+        private int maxConcurrency;
+
+        private Builder() {
+            Config config = Config.get();
+            startRate = endRate = config.getDouble("load.rate", 50);
+            warmUp = Duration.ofMillis(config.getLong("load.warmup.ms", 1000));
+            duration = Duration.ofMillis(config.getLong("load.duration.ms", 5000));
+            drainTimeout = Duration.ofMillis(config.getLong("load.drain.timeout.ms", 30000));
+            maxConcurrency = config.getInt("load.max.concurrency", 64);
+        }
+
+        /**
+         * Constant arrival rate in requests per second.
+         */
+        public Builder rate(double requestsPerSecond) {
+            return ramp(requestsPerSecond, requestsPerSecond, Duration.ZERO);
+        }
+
+        /**
+         * Linear ramp from {@code from} to {@code to} requests per second over the first
+         * {@code over} of the measured phase, then constant at {@code to}. Warm-up runs at {@code from}.
+         */
+        public Builder ramp(double from, double to, Duration over) {
+            if (from <= 0 || to <= 0) {
+                throw new IllegalArgumentException("Arrival rates must be positive: " + from + ", " + to);
+            }
+            this.startRate = from;
+            this.endRate = to;
+            this.ramp = over;
+            return this;
+        }
+
+        public Builder warmUp(Duration warmUp) {
+            this.warmUp = warmUp;
+            return this;
+        }
+
+        public Builder duration(Duration duration) {
+            this.duration = duration;
+            return this;
+        }
+
+        /**
+         * How long {@link LoadEngine#run()} waits for in-flight requests after the last arrival.
+         */
+        public Builder drainTimeout(Duration drainTimeout) {
+            this.drainTimeout = drainTimeout;
+            return this;
+        }
+
+        /**
+         * Upper bound on requests in flight; arrivals beyond it are dropped.
+         */
+        public Builder maxConcurrency(int maxConcurrency) {
+            if (maxConcurrency < 1) {
+                throw new IllegalArgumentException("maxConcurrency must be at least 1: " + maxConcurrency);
+            }
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * Adds an endpoint to the request mix; it is picked for an arrival with probability
+         * {@code weight} divided by the sum of all weights.
+         */
+        public Builder endpoint(String name, int weight, Supplier<Response> request) {
+            if (weight < 1) {
+                throw new IllegalArgumentException("Endpoint weight must be at least 1: " + name);
+            }
+            if (endpoints.stream().anyMatch(endpoint -> endpoint.name.equals(name))) {
+                throw new IllegalArgumentException("Duplicate endpoint name: " + name);
+            }
+            endpoints.add(new Endpoint(name, weight, request));
+            return this;
+        }
+
+        /**
+         * Adds an endpoint that sends {@code method} to {@code url} using a shared request specification.
+         */
+        public Builder endpoint(String name, int weight, RequestSpecification spec, Method method, String url) {
+            return endpoint(name, weight, () -> given().spec(spec).request(method, url));
+        }
+
+        public Builder listener(SampleListener listener) {
+            listeners.add(listener);
+            return this;
+        }
+
+        public LoadEngine build() {
+            if (endpoints.isEmpty()) {
+                throw new IllegalStateException("At least one endpoint is required");
+            }
+            return new LoadEngine(this);
+        }
+    }
+}
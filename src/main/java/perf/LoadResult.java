@@ -0,0 +1,159 @@
+package perf;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters collected by a {@link LoadEngine} run for the measured phase (warm-up excluded).
+ * Requests are "scheduled" by the arrival schedule, then either "dropped" because the
+ * concurrency limit was reached or "sent"; sent requests end as successes (status below 400)
+ * or failures.
+ */
+public class LoadResult {
+    final Map<String, EndpointStats> endpoints = new LinkedHashMap<>();
+    final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    final LongAdder scheduled = new LongAdder();
+    final LongAdder dropped = new LongAdder();
+    volatile long maxInFlight;
+    volatile long maxLagNanos;
+    volatile Throwable firstError;
+    volatile long durationNanos;
+    volatile double targetRate;
+
+    /**
+     * Per-endpoint counters.
+     */
+    public static class EndpointStats {
+        final LongAdder sent = new LongAdder();
+        final LongAdder succeeded = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+
+        public long getSent() {
+            return sent.sum();
+        }
+
+        public long getSucceeded() {
+            return succeeded.sum();
+        }
+
+        public long getFailed() {
+            return failed.sum();
+        }
+
+        public double getMeanMillis() {
+            long count = sent.sum();
+            return count == 0 ? 0 : totalNanos.sum() / (double) count / 1_000_000;
+        }
+    }
+
+    void record(String endpoint, long start, long end, int statusCode) {
+        EndpointStats stats = endpoints.get(endpoint);
+        stats.sent.increment();
+        stats.totalNanos.add(end - start);
+        if (statusCode > 0 && statusCode < 400) {
+            stats.succeeded.increment();
+        } else {
+            stats.failed.increment();
+        }
+        statuses.computeIfAbsent(statusCode, code -> new LongAdder()).increment();
+    }
+
+    public long getScheduled() {
+        return scheduled.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getSent() {
+        return endpoints.values().stream().mapToLong(EndpointStats::getSent).sum();
+    }
+
+    public long getSucceeded() {
+        return endpoints.values().stream().mapToLong(EndpointStats::getSucceeded).sum();
+    }
+
+    public long getFailed() {
+        return endpoints.values().stream().mapToLong(EndpointStats::getFailed).sum();
+    }
+
+    public long getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    /**
+     * Longest time the dispatcher sent a request after its scheduled time, in milliseconds.
+     * A large value means the load generator itself could not keep up with the schedule.
+     */
+    public double getMaxDispatchLagMillis() {
+        return maxLagNanos / 1_000_000.0;
+    }
+
+    /**
+     * First exception thrown by a request during the measured phase, or {@code null}.
+     */
+    public Throwable getFirstError() {
+        return firstError;
+    }
+
+    public long getDurationMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+    }
+
+    /**
+     * Scheduled arrivals per second over the measured phase.
+     */
+    public double getOfferedRate() {
+        return durationNanos == 0 ? 0 : scheduled.sum() * 1e9 / durationNanos;
+    }
+
+    /**
+     * Completed requests per second over the measured phase.
+     */
+    public double getThroughput() {
+        return durationNanos == 0 ? 0 : getSent() * 1e9 / durationNanos;
+    }
+
+    public Map<String, EndpointStats> getEndpoints() {
+        return Collections.unmodifiableMap(endpoints);
+    }
+
+    /**
+     * Response counts by status code; {@code -1} counts requests that failed without a response.
+     */
+    public Map<Integer, Long> getStatusCounts() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statuses.forEach((code, count) -> counts.put(code, count.sum()));
+        return counts;
+    }
+
+    /**
+     * One-line summary for logs and reports.
+     */
+    public String summary() {
+        StringBuilder summary = new StringBuilder(String.format(
+                "target %.1f req/s, offered %.1f req/s, throughput %.1f req/s over %d ms; scheduled %d, sent %d, "
+                        + "succeeded %d, failed %d, dropped %d, max in-flight %d, max dispatch lag %.1f ms",
+                targetRate, getOfferedRate(), getThroughput(), getDurationMillis(), getScheduled(), getSent(),
+                getSucceeded(), getFailed(), getDropped(), maxInFlight, getMaxDispatchLagMillis()));
+        endpoints.forEach((name, stats) -> summary.append(String.format("; %s: %d sent, %d failed, mean %.1f ms",
+                name, stats.getSent(), stats.getFailed(), stats.getMeanMillis())));
+        return summary.toString();
+    }
+
+    @Override
+    public String toString() {
+        return summary();
+    }
+}
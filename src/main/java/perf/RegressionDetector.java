@@ -0,0 +1,198 @@
+package perf;
+
+import java.util.Arrays;
+
+/**
+ * Decides whether the timings of one run are significantly slower than a baseline of earlier runs.
+ *
+ * Both tests are rank or median based, so a few outliers in the baseline (a GC pause, a cold
+ * connection) neither hide a real slowdown nor raise a false alarm:
+ * <ul>
+ *   <li>With at least 3 current samples, a one-sided Mann-Whitney U test: is a current sample
+ *       more likely to be slower than a baseline sample than the other way round?</li>
+ *   <li>With fewer, a robust z-score of the current median against the baseline median, scaled
+ *       by the median absolute deviation.</li>
+ * </ul>
+ * A significant result is only a regression when the median also grew by at least
+ * {@code minRatio} and {@code minDeltaMillis}, so tiny but consistent shifts are not reported.
+ */
+public class RegressionDetector {
+    private final double alpha;
+    private final double maxZ;
+    private final double minRatio;
+    private final double minDeltaMillis;
+    private final int minBaselineSamples;
+
+    /**
+     * Outcome of one comparison.
+     */
+    public static final class Regression {
+        private final String key;
+        private final double baselineMedian;
+        private final double currentMedian;
+        private final int baselineSamples;
+        private final int currentSamples;
+        private final String test;
+        private final double statistic;
+
+        Regression(String key, double baselineMedian, double currentMedian, int baselineSamples, int currentSamples,
+                   String test, double statistic) {
+            this.key = key;
+            this.baselineMedian = baselineMedian;
+            this.currentMedian = currentMedian;
+            this.baselineSamples = baselineSamples;
+            this.currentSamples = currentSamples;
+            this.test = test;
+            this.statistic = statistic;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public double getBaselineMedian() {
+            return baselineMedian;
+        }
+
+        public double getCurrentMedian() {
+            return currentMedian;
+        }
+
+        /**
+         * p-value of the Mann-Whitney test, or the robust z-score.
+         */
+        public double getStatistic() {
+            return statistic;
+        }
+
+        public String getTest() {
+            return test;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: median %.1f ms -> %.1f ms (%+.0f%%, %s %s, %d baseline / %d current samples)",
+                    key, baselineMedian, currentMedian, (currentMedian / baselineMedian - 1) * 100, test,
+                    test.equals("mann-whitney") ? String.format("p=%.2g", statistic) : String.format("z=%.1f", statistic),
+                    baselineSamples, currentSamples);
+        }
+    }
+
+    /**
+     * @param alpha              significance level of the Mann-Whitney test
+     * @param maxZ               robust z-score above which a small sample counts as slower
+     * @param minRatio           smallest median growth that is reported, e.g. 1.2 for 20 %
+     * @param minDeltaMillis     smallest median growth in milliseconds that is reported
+     * @param minBaselineSamples baselines with fewer samples are not judged
+     */
+    public RegressionDetector(double alpha, double maxZ, double minRatio, double minDeltaMillis, int minBaselineSamples) {
+        this.alpha = alpha;
+        this.maxZ = maxZ;
+        this.minRatio = minRatio;
+        this.minDeltaMillis = minDeltaMillis;
+        this.minBaselineSamples = minBaselineSamples;
+    }
+
+    /**
+     * Returns the regression, or null when {@code current} is not significantly slower than
+     * {@code baseline} or the baseline is too small to judge.
+     */
+    public Regression compare(String key, double[] baseline, double[] current) {
+        if (baseline.length < minBaselineSamples || current.length == 0) {
+            return null;
+        }
+        double baselineMedian = median(baseline);
+        double currentMedian = median(current);
+        if (currentMedian < baselineMedian * minRatio || currentMedian - baselineMedian < minDeltaMillis) {
+            return null;
+        }
+        if (current.length >= 3) {
+            double p = mannWhitneyGreater(baseline, current);
+            return p < alpha ? new Regression(key, baselineMedian, currentMedian, baseline.length, current.length,
+                    "mann-whitney", p) : null;
+        }
+        double z = robustZ(baseline, currentMedian);
+        return z > maxZ ? new Regression(key, baselineMedian, currentMedian, baseline.length, current.length,
+                "robust-z", z) : null;
+    }
+
+    /**
+     * One-sided p-value for "samples of {@code current} tend to be larger than samples of {@code baseline}",
+     * from the normal approximation of the U statistic with tie and continuity correction.
+     */
+    public static double mannWhitneyGreater(double[] baseline, double[] current) {
+        int n1 = baseline.length;
+        int n2 = current.length;
+        int n = n1 + n2;
+        double[] values = new double[n];
+        boolean[] isCurrent = new boolean[n];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = i < n1 ? baseline[i] : current[i - n1];
+            isCurrent[i] = i >= n1;
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+        double currentRanks = 0;
+        double ties = 0;
+        for (int i = 0; i < n; ) {
+            int j = i;
+            while (j + 1 < n && values[order[j + 1]] == values[order[i]]) {
+                j++;
+            }
+            double rank = (i + j) / 2.0 + 1;
+            for (int k = i; k <= j; k++) {
+                if (isCurrent[order[k]]) {
+                    currentRanks += rank;
+                }
+            }
+            double t = j - i + 1;
+            ties += t * t * t - t;
+            i = j + 1;
+        }
+        double u = currentRanks - n2 * (n2 + 1) / 2.0;
+        double mean = n1 * (double) n2 / 2;
+        double variance = n1 * (double) n2 / 12 * ((n + 1) - ties / (n * (double) (n - 1)));
+        if (variance <= 0) {
+            return 1;
+        }
+        double z = (u - mean - 0.5) / Math.sqrt(variance);
+        return 1 - normalCdf(z);
+    }
+
+    /**
+     * Distance of {@code value} from the baseline median in robust standard deviations
+     * (1.4826 times the median absolute deviation). A baseline without spread gives infinity
+     * for any larger value.
+     */
+    public static double robustZ(double[] baseline, double value) {
+        double median = median(baseline);
+        double[] deviations = new double[baseline.length];
+        for (int i = 0; i < baseline.length; i++) {
+            deviations[i] = Math.abs(baseline[i] - median);
+        }
+        double mad = median(deviations) * 1.4826;
+        if (mad == 0) {
+            return value > median ? Double.POSITIVE_INFINITY : 0;
+        }
+        return (value - median) / mad;
+    }
+
+    public static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    // Zelen and Severo's approximation (Abramowitz and Stegun 26.2.17), absolute error below 7.5e-8
+    static double normalCdf(double z) {
+        if (z < 0) {
+            return 1 - normalCdf(-z);
+        }
+        double t = 1 / (1 + 0.2316419 * z);
+        double density = Math.exp(-z * z / 2) / Math.sqrt(2 * Math.PI);
+        double tail = density * t * (0.319381530 + t * (-0.356563782 + t * (1.781477937 + t * (-1.821255978 + t * 1.330274429))));
+        return 1 - tail;
+    }
+}
@@ -0,0 +1,19 @@
+package perf;
+
+/**
+ * Receives every completed request of a {@link LoadEngine} run.
+ * Called on the worker thread that executed the request, so implementations must be thread-safe.
+ * Timestamps are {@link System#nanoTime()} values.
+ */
+@FunctionalInterface
+public interface SampleListener {
+    /**
+     * @param endpoint       name of the endpoint in the request mix
+     * @param intendedStart  when the arrival schedule wanted the request sent
+     * @param start          when the request was actually sent
+     * @param end            when the response (or error) was received
+     * @param statusCode     HTTP status code, or {@code -1} if the request failed without a response
+     * @param warmUp         {@code true} for requests sent during the warm-up phase
+     */
+    void onSample(String endpoint, long intendedStart, long start, long end, int statusCode, boolean warmUp);
+}
@@ -0,0 +1,39 @@
+package perf;
+
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Records the latency of every RestAssured request into a {@link TimingHistory}, keyed by
+ * {@link TimingHistory#requestKey method, host and path}. Installed by {@link core.BaseTest}
+ * while {@code timing.history.enabled} is true.
+ */
+public class TimingFilter implements OrderedFilter {
+    private final TimingHistory history;
+
+    public TimingFilter(TimingHistory history) {
+        this.history = history;
+    }
+
+    /**
+     * Runs after every other filter, so only the exchange with the server is counted as latency;
+     * replayed requests are not timed.
+     */
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification request, FilterableResponseSpecification response,
+                           FilterContext context) {
+        long start = System.nanoTime();
+        Response actual = context.next(request, response);
+        history.recordRequest(TimingHistory.requestKey(request.getMethod(), request.getURI()),
+                (System.nanoTime() - start) / 1_000_000.0);
+        return actual;
+    }
+}
@@ -0,0 +1,288 @@
+package perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import utils.Config;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Timing history of test methods and HTTP requests, one JSON line per run.
+ *
+ * During a run, test durations (from {@link core.TimingListener}) and request latencies (from
+ * {@link TimingFilter}) are collected in memory, at most {@code maxSamples} per key by reservoir
+ * sampling. {@link #finish()} compares every key with the pooled samples of the last
+ * {@code baselineRuns} runs of the same profile using a {@link RegressionDetector}, then appends
+ * the run to the history file and drops the oldest runs beyond {@code maxRuns}.
+ *
+ * The profile ({@code timing.profile}, by default the environment plus stub and cassette mode)
+ * keeps runs against the local stub from becoming the baseline of runs against the real APIs.
+ * Forks sharing one history file take turns through a lock file.
+ */
+public class TimingHistory {
+    private static final ObjectMapper mapper = new ObjectMapper();
+    // numeric ids, UUIDs and long hex tokens in request paths
+    private static final Pattern ID_SEGMENT = Pattern.compile("\\d+|[0-9a-fA-F-]{16,}");
+    private static volatile TimingHistory shared;
+
+    private final Path file;
+    private final String profile;
+    private final int baselineRuns;
+    private final int maxRuns;
+    private final int maxSamples;
+    private final RegressionDetector detector;
+    private final Map<String, Samples> tests = new ConcurrentHashMap<>();
+    private final Map<String, Samples> requests = new ConcurrentHashMap<>();
+    private volatile List<RegressionDetector.Regression> regressions;
+    private volatile int baselineSize;
+
+    // Reservoir of at most max samples, each sample kept with equal probability
+    private static final class Samples {
+        private final double[] values;
+        private long seen;
+
+        Samples(int max) {
+            values = new double[max];
+        }
+
+        synchronized void add(double value) {
+            if (seen < values.length) {
+                values[(int) seen] = value;
+            } else {
+                long slot = ThreadLocalRandom.current().nextLong(seen + 1);
+                if (slot < values.length) {
+                    values[(int) slot] = value;
+                }
+            }
+            seen++;
+        }
+
+        synchronized double[] get() {
+            double[] copy = new double[(int) Math.min(seen, values.length)];
+            System.arraycopy(values, 0, copy, 0, copy.length);
+            return copy;
+        }
+    }
+
+    public TimingHistory(Path file, String profile, int baselineRuns, int maxRuns, int maxSamples, RegressionDetector detector) {
+        this.file = file;
+        this.profile = profile;
+        this.baselineRuns = baselineRuns;
+        this.maxRuns = maxRuns;
+        this.maxSamples = maxSamples;
+        this.detector = detector;
+    }
+
+    /**
+     * Returns the suite-wide history configured by the {@code timing.*} keys, or null when
+     * {@code timing.history.enabled} is false.
+     */
+    public static TimingHistory shared() {
+        if (shared == null) {
+            synchronized (TimingHistory.class) {
+                if (shared == null) {
+                    Config config = Config.get();
+                    if (!config.getBoolean("timing.history.enabled", true)) {
+                        return null;
+                    }
+                    shared = new TimingHistory(
+                            Paths.get(config.getString("timing.history.file", "reports/timing-history.jsonl")),
+                            profile(config),
+                            config.getInt("timing.baseline.runs", 10),
+                            config.getInt("timing.history.max.runs", 100),
+                            config.getInt("timing.history.max.samples", 100),
+                            new RegressionDetector(
+                                    config.getDouble("timing.regression.alpha", 0.01),
+                                    config.getDouble("timing.regression.max.z", 3.5),
+                                    config.getDouble("timing.regression.min.ratio", 1.2),
+                                    config.getDouble("timing.regression.min.delta.ms", 5),
+                                    config.getInt("timing.baseline.min.samples", 5)));
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Returns the suite-wide history if it has been created, without creating it.
+     */
+    public static TimingHistory current() {
+        return shared;
+    }
+
+    private static String profile(Config config) {
+        String profile = config.getString("timing.profile", "").trim();
+        if (!profile.isEmpty()) {
+            return profile;
+        }
+        return config.getString("environment", "QA")
+                + (config.getBoolean("stub.enabled", false) ? "/stub" : "")
+                + (config.getString("cassette.mode", "off").equalsIgnoreCase("replay") ? "/replay" : "");
+    }
+
+    public void recordTest(String key, double millis) {
+        tests.computeIfAbsent(key, k -> new Samples(maxSamples)).add(millis);
+    }
+
+    public void recordRequest(String key, double millis) {
+        requests.computeIfAbsent(key, k -> new Samples(maxSamples)).add(millis);
+    }
+
+    /**
+     * Groups requests by method, host and path, with ids in the path replaced by {@code {id}}:
+     * {@code GET jsonplaceholder.typicode.com/posts/{id}}. The port is left out, because the
+     * local stub gets a new one every run.
+     */
+    public static String requestKey(String method, String uri) {
+        URI parsed = URI.create(uri);
+        StringBuilder key = new StringBuilder(method.toUpperCase(Locale.ROOT)).append(' ').append(parsed.getHost());
+        String path = parsed.getRawPath() == null ? "" : parsed.getRawPath();
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                key.append('/').append(ID_SEGMENT.matcher(segment).matches() ? "{id}" : segment);
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Compares this run with the baseline and appends it to the history file. Later calls return
+     * the first result without writing again.
+     *
+     * @return the regressions, slowest growth first
+     */
+    public synchronized List<RegressionDetector.Regression> finish() throws IOException {
+        if (regressions != null) {
+            return regressions;
+        }
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        try (FileChannel lockChannel = FileChannel.open(directory.resolve(file.getFileName() + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock lock = lockChannel.lock();
+            try {
+                append(directory);
+            } finally {
+                lock.release();
+            }
+        }
+        return regressions;
+    }
+
+    // Runs under the history lock
+    private void append(Path directory) throws IOException {
+        List<String> lines = Files.exists(file) ? Files.readAllLines(file, StandardCharsets.UTF_8) : new ArrayList<>();
+        List<JsonNode> baseline = baseline(lines);
+        baselineSize = baseline.size();
+        List<RegressionDetector.Regression> found = new ArrayList<>();
+        compare(baseline, "tests", tests, found);
+        compare(baseline, "requests", requests, found);
+        found.sort((a, b) -> Double.compare(b.getCurrentMedian() / b.getBaselineMedian(),
+                a.getCurrentMedian() / a.getBaselineMedian()));
+        regressions = Collections.unmodifiableList(found);
+
+        lines.add(mapper.writeValueAsString(toJson()));
+        if (lines.size() > maxRuns) {
+            Path temporary = directory.resolve(file.getFileName() + ".tmp");
+            Files.write(temporary, lines.subList(lines.size() - maxRuns, lines.size()), StandardCharsets.UTF_8);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } else {
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(lines.get(lines.size() - 1));
+                writer.newLine();
+            }
+        }
+    }
+
+    // The newest runs of this profile, skipping lines a killed run may have left half written
+    private List<JsonNode> baseline(List<String> lines) {
+        List<JsonNode> runs = new ArrayList<>();
+        for (int i = lines.size() - 1; i >= 0 && runs.size() < baselineRuns; i--) {
+            try {
+                JsonNode run = mapper.readTree(lines.get(i));
+                if (run != null && profile.equals(run.path("profile").asText())) {
+                    runs.add(run);
+                }
+            } catch (IOException e) {
+                // not a complete record
+            }
+        }
+        return runs;
+    }
+
+    private void compare(List<JsonNode> baseline, String section, Map<String, Samples> current,
+                         List<RegressionDetector.Regression> found) {
+        for (Map.Entry<String, Samples> entry : new TreeMap<>(current).entrySet()) {
+            List<Double> pooled = new ArrayList<>();
+            for (JsonNode run : baseline) {
+                for (JsonNode sample : run.path(section).path(entry.getKey())) {
+                    pooled.add(sample.asDouble());
+                }
+            }
+            double[] before = pooled.stream().mapToDouble(Double::doubleValue).toArray();
+            RegressionDetector.Regression regression = detector.compare(entry.getKey(), before, entry.getValue().get());
+            if (regression != null) {
+                found.add(regression);
+            }
+        }
+    }
+
+    private ObjectNode toJson() {
+        ObjectNode run = mapper.createObjectNode();
+        run.put("run", Instant.now().toString());
+        run.put("profile", profile);
+        section(run.putObject("tests"), tests);
+        section(run.putObject("requests"), requests);
+        return run;
+    }
+
+    private static void section(ObjectNode node, Map<String, Samples> samples) {
+        new TreeMap<>(samples).forEach((key, values) -> {
+            ArrayNode array = node.putArray(key);
+            for (double value : values.get()) {
+                array.add(Math.round(value * 100) / 100.0);
+            }
+        });
+    }
+
+    /**
+     * Regressions found by {@link #finish()}, or an empty list before it ran.
+     */
+    public List<RegressionDetector.Regression> getRegressions() {
+        List<RegressionDetector.Regression> found = regressions;
+        return found != null ? found : Collections.emptyList();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%s): %d tests, %d request keys, baseline %d runs, %d regressions",
+                file, profile, tests.size(), requests.size(), baselineSize, getRegressions().size());
+    }
+}
@@ -0,0 +1,53 @@
+package pojo;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+
+/**
+ * Immutable variant of {@link CityRequest} with the same JSON form, safe to share between
+ * threads and to serialize once with {@link utils.JsonBodies#prepare(Object)}.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class ImmutableCityRequest {
+    private final String name;
+    private final String temperature;
+
+    @JsonCreator
+    public ImmutableCityRequest(@JsonProperty("name") String name, @JsonProperty("temperature") String temperature) {
+        this.name = name;
+        this.temperature = temperature;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTemperature() {
+        return temperature;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ImmutableCityRequest)) {
+            return false;
+        }
+        ImmutableCityRequest city = (ImmutableCityRequest) other;
+        return Objects.equals(name, city.name) && Objects.equals(temperature, city.temperature);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, temperature);
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + temperature + ")";
+    }
+}
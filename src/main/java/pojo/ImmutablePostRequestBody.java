@@ -0,0 +1,117 @@
+package pojo;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable variant of {@link PostRequestBody} with the same JSON form. Lists are copied on
+ * construction, so an instance can be shared between threads and serialized once with
+ * {@link utils.JsonBodies#prepare(Object)}. Unknown fields, such as the {@code id} and
+ * {@code createdAt} a create call echoes back, are ignored when reading.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class ImmutablePostRequestBody {
+    private final String job;
+    private final String name;
+    private final List<String> languages;
+    private final List<ImmutableCityRequest> cityRequestBody;
+
+    @JsonCreator
+    public ImmutablePostRequestBody(@JsonProperty("job") String job,
+                                    @JsonProperty("name") String name,
+                                    @JsonProperty("languages") List<String> languages,
+                                    @JsonProperty("cityRequestBody") List<ImmutableCityRequest> cityRequestBody) {
+        this.job = job;
+        this.name = name;
+        this.languages = copy(languages);
+        this.cityRequestBody = copy(cityRequestBody);
+    }
+
+    private static <T> List<T> copy(List<T> list) {
+        return list == null ? null : Collections.unmodifiableList(new ArrayList<>(list));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private String job;
+        private String name;
+        private List<String> languages;
+        private final List<ImmutableCityRequest> cities = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder job(String job) {
+            this.job = job;
+            return this;
+        }
+
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder languages(String... languages) {
+            this.languages = Arrays.asList(languages);
+            return this;
+        }
+
+        public Builder city(String name, String temperature) {
+            cities.add(new ImmutableCityRequest(name, temperature));
+            return this;
+        }
+
+        public ImmutablePostRequestBody build() {
+            return new ImmutablePostRequestBody(job, name, languages, cities.isEmpty() ? null : cities);
+        }
+    }
+
+    public String getJob() {
+        return job;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getLanguages() {
+        return languages;
+    }
+
+    public List<ImmutableCityRequest> getCityRequestBody() {
+        return cityRequestBody;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ImmutablePostRequestBody)) {
+            return false;
+        }
+        ImmutablePostRequestBody body = (ImmutablePostRequestBody) other;
+        return Objects.equals(job, body.job) && Objects.equals(name, body.name)
+                && Objects.equals(languages, body.languages) && Objects.equals(cityRequestBody, body.cityRequestBody);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(job, name, languages, cityRequestBody);
+    }
+
+    @Override
+    public String toString() {
+        return "name=" + name + ", job=" + job + ", languages=" + languages + ", cities=" + cityRequestBody;
+    }
+}
@@ -0,0 +1,503 @@
+package stub;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Cookie;
+import io.restassured.http.Cookies;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpCookie;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Recorded HTTP interactions in one indexed binary file, replayed from a memory-mapped buffer.
+ *
+ * Layout (big-endian):
+ * <pre>
+ * header   "RACS" | version int | interaction count int | index offset long
+ * records  flags byte | status short | status line | header count short | (name | value)* | body
+ *          body = stored length int | raw length int | bytes (deflated when flags &amp; 1)
+ * index    (method | host | path | query | body hash | auth hash | record offset long)*
+ *          sorted by request, recordings of one request in recording order
+ * strings  UTF-8 length int | bytes
+ * </pre>
+ *
+ * Opening a cassette reads only the index and keys it by the request parts the chosen
+ * {@link Rule rules} select, so one recording can be replayed with stricter or looser matching.
+ * Record bodies stay in the mapped file until a lookup needs them. The n-th lookup of a key
+ * returns its n-th recording, then the last one again, so a test that creates a resource twice
+ * sees both recorded responses. Lookups are thread-safe.
+ */
+public class Cassette {
+    private static final int MAGIC = 0x52414353; // "RACS"
+    private static final int VERSION = 1;
+    private static final int DEFLATE_THRESHOLD = 512;
+    private static final int DEFLATED = 1;
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final Map<Request, long[]> recordings;
+    private final Map<String, long[]> index = new HashMap<>();
+    private final Set<Rule> rules;
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+    private final int count;
+
+    /**
+     * Parts of a request that select its recording.
+     */
+    public enum Rule {
+        /** HTTP method */
+        METHOD,
+        /** scheme, host and port */
+        HOST,
+        /** URL path */
+        PATH,
+        /** query parameters, in any order */
+        QUERY,
+        /** hash of the body, form parameters and multipart content */
+        BODY,
+        /** hash of the credentials and the Authorization header */
+        AUTH
+    }
+
+    /**
+     * A recorded request, one part per {@link Rule}; parts that do not apply are empty.
+     */
+    public static class Request implements Comparable<Request> {
+        private final String[] parts;
+
+        public Request(String method, String host, String path, String query, String bodyHash, String authHash) {
+            this.parts = new String[]{method, host, path, query, bodyHash, authHash};
+            for (int i = 0; i < parts.length; i++) {
+                parts[i] = parts[i] == null ? "" : parts[i];
+            }
+        }
+
+        /**
+         * The lookup key made of the parts {@code rules} select, e.g.
+         * {@code GET https://reqres.in/api/users?page=2 auth:1f0e...}.
+         */
+        public String key(Set<Rule> rules) {
+            StringBuilder key = new StringBuilder();
+            if (rules.contains(Rule.METHOD)) {
+                key.append(parts[Rule.METHOD.ordinal()]).append(' ');
+            }
+            if (rules.contains(Rule.HOST)) {
+                key.append(parts[Rule.HOST.ordinal()]);
+            }
+            if (rules.contains(Rule.PATH)) {
+                key.append(parts[Rule.PATH.ordinal()]);
+            }
+            if (rules.contains(Rule.QUERY) && !parts[Rule.QUERY.ordinal()].isEmpty()) {
+                key.append('?').append(parts[Rule.QUERY.ordinal()]);
+            }
+            if (rules.contains(Rule.BODY) && !parts[Rule.BODY.ordinal()].isEmpty()) {
+                key.append(" body:").append(parts[Rule.BODY.ordinal()]);
+            }
+            if (rules.contains(Rule.AUTH) && !parts[Rule.AUTH.ordinal()].isEmpty()) {
+                key.append(" auth:").append(parts[Rule.AUTH.ordinal()]);
+            }
+            return key.toString().trim();
+        }
+
+        @Override
+        public int compareTo(Request other) {
+            for (int i = 0; i < parts.length; i++) {
+                int compared = parts[i].compareTo(other.parts[i]);
+                if (compared != 0) {
+                    return compared;
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Request && Arrays.equals(parts, ((Request) other).parts);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(parts);
+        }
+
+        @Override
+        public String toString() {
+            return key(EnumSet.allOf(Rule.class));
+        }
+    }
+
+    /**
+     * One recorded response.
+     */
+    public static class Interaction {
+        private final int status;
+        private final String statusLine;
+        private final List<Header> headers;
+        private final byte[] body;
+
+        public Interaction(int status, String statusLine, List<Header> headers, byte[] body) {
+            this.status = status;
+            this.statusLine = statusLine;
+            this.headers = Collections.unmodifiableList(new ArrayList<>(headers));
+            this.body = body;
+        }
+
+        static Interaction of(Response response) {
+            return new Interaction(response.getStatusCode(), response.getStatusLine(),
+                    response.getHeaders().asList(), response.asByteArray());
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public List<Header> getHeaders() {
+            return headers;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        /**
+         * A RestAssured response with the recorded status, headers, cookies and body.
+         */
+        public Response toResponse() {
+            ResponseBuilder builder = new ResponseBuilder()
+                    .setStatusCode(status)
+                    .setHeaders(new Headers(headers))
+                    .setBody(body);
+            if (statusLine != null && !statusLine.isEmpty()) {
+                builder.setStatusLine(statusLine);
+            }
+            List<String> cookies = new ArrayList<>();
+            for (Header header : headers) {
+                if (header.getName().equalsIgnoreCase("Content-Type")) {
+                    builder.setContentType(header.getValue());
+                } else if (header.getName().equalsIgnoreCase("Set-Cookie")) {
+                    cookies.add(header.getValue());
+                }
+            }
+            if (!cookies.isEmpty()) {
+                builder.setCookies(cookies(cookies));
+            }
+            return builder.build();
+        }
+
+        // Set-Cookie values as RestAssured cookies; values that do not parse are left out
+        private static Cookies cookies(List<String> setCookies) {
+            List<Cookie> cookies = new ArrayList<>();
+            for (String setCookie : setCookies) {
+                List<HttpCookie> parsed;
+                try {
+                    parsed = HttpCookie.parse(setCookie);
+                } catch (IllegalArgumentException e) {
+                    continue;
+                }
+                for (HttpCookie cookie : parsed) {
+                    Cookie.Builder builder = new Cookie.Builder(cookie.getName(), cookie.getValue())
+                            .setSecured(cookie.getSecure())
+                            .setHttpOnly(cookie.isHttpOnly());
+                    if (cookie.getDomain() != null) {
+                        builder.setDomain(cookie.getDomain());
+                    }
+                    if (cookie.getPath() != null) {
+                        builder.setPath(cookie.getPath());
+                    }
+                    if (cookie.getMaxAge() >= 0) {
+                        builder.setMaxAge(cookie.getMaxAge());
+                    }
+                    cookies.add(builder.build());
+                }
+            }
+            return new Cookies(cookies);
+        }
+    }
+
+    private Cassette(Path file, ByteBuffer buffer, Map<Request, long[]> recordings, Set<Rule> rules, int count) {
+        this.file = file;
+        this.buffer = buffer;
+        this.recordings = recordings;
+        this.rules = rules.isEmpty() ? EnumSet.noneOf(Rule.class) : EnumSet.copyOf(rules);
+        this.count = count;
+        recordings.forEach((request, offsets) -> index.merge(request.key(this.rules), offsets, (a, b) -> {
+            long[] merged = Arrays.copyOf(a, a.length + b.length);
+            System.arraycopy(b, 0, merged, a.length, b.length);
+            return merged;
+        }));
+    }
+
+    /**
+     * Maps a cassette file and reads its index, matching requests on every {@link Rule}.
+     */
+    public static Cassette open(Path file) throws IOException {
+        return open(file, EnumSet.allOf(Rule.class));
+    }
+
+    /**
+     * Maps a cassette file and reads its index, matching requests on {@code rules}.
+     */
+    public static Cassette open(Path file, Set<Rule> rules) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Cassette larger than 2 GiB: " + file);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        return parse(file, buffer, rules);
+    }
+
+    /**
+     * Reads a cassette into the heap instead of mapping it, so the file can be replaced while the
+     * result is still referenced; Windows refuses to replace a mapped file, which recording does.
+     */
+    public static Cassette read(Path file, Set<Rule> rules) throws IOException {
+        return parse(file, ByteBuffer.wrap(Files.readAllBytes(file)), rules);
+    }
+
+    private static Cassette parse(Path file, ByteBuffer buffer, Set<Rule> rules) throws IOException {
+        if (buffer.remaining() < 20 || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a cassette file: " + file);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported cassette version " + buffer.getInt(4) + " in " + file);
+        }
+        int count = buffer.getInt(8);
+        ByteBuffer reader = seek(buffer, buffer.getLong(12));
+        Map<Request, List<Long>> offsets = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            Request request = new Request(readString(reader), readString(reader), readString(reader),
+                    readString(reader), readString(reader), readString(reader));
+            offsets.computeIfAbsent(request, k -> new ArrayList<>()).add(reader.getLong());
+        }
+        Map<Request, long[]> recordings = new LinkedHashMap<>();
+        offsets.forEach((request, list) -> recordings.put(request, list.stream().mapToLong(Long::longValue).toArray()));
+        return new Cassette(file, buffer, recordings, rules, count);
+    }
+
+    /**
+     * Returns the next recording matching {@code request}, or null when none was recorded.
+     */
+    public Interaction next(Request request) {
+        return next(request.key(rules));
+    }
+
+    /**
+     * Returns the next recording for a key built with this cassette's rules, or null.
+     */
+    public Interaction next(String key) {
+        long[] offsets = index.get(key);
+        if (offsets == null) {
+            return null;
+        }
+        int call = calls.computeIfAbsent(key, k -> new AtomicInteger()).getAndIncrement();
+        return read(offsets[Math.min(call, offsets.length - 1)]);
+    }
+
+    /**
+     * Every recording in the file, by key; used to merge a new recording with an existing one.
+     */
+    public Map<Request, List<Interaction>> readAll() {
+        Map<Request, List<Interaction>> all = new TreeMap<>();
+        recordings.forEach((request, offsets) -> {
+            List<Interaction> interactions = new ArrayList<>(offsets.length);
+            for (long offset : offsets) {
+                interactions.add(read(offset));
+            }
+            all.put(request, interactions);
+        });
+        return all;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Number of distinct requests recorded.
+     */
+    public int requests() {
+        return recordings.size();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    private Interaction read(long offset) {
+        ByteBuffer reader;
+        try {
+            reader = seek(buffer, offset);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int flags = reader.get();
+        int status = reader.getShort();
+        String statusLine = readString(reader);
+        int headerCount = reader.getShort() & 0xFFFF;
+        List<Header> headers = new ArrayList<>(headerCount);
+        for (int i = 0; i < headerCount; i++) {
+            headers.add(new Header(readString(reader), readString(reader)));
+        }
+        byte[] stored = new byte[reader.getInt()];
+        int rawLength = reader.getInt();
+        reader.get(stored);
+        return new Interaction(status, statusLine, headers, (flags & DEFLATED) != 0 ? inflate(stored, rawLength) : stored);
+    }
+
+    /**
+     * Writes all recordings to {@code file}, replacing it atomically.
+     */
+    public static void write(Path file, Map<Request, List<Interaction>> recordings) throws IOException {
+        Map<Request, List<Interaction>> sorted = new TreeMap<>(recordings);
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            ByteArrayOutputStream records = new ByteArrayOutputStream();
+            DataOutputStream data = new DataOutputStream(records);
+            ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+            DataOutputStream index = new DataOutputStream(indexBytes);
+            int count = 0;
+            for (Map.Entry<Request, List<Interaction>> entry : sorted.entrySet()) {
+                for (Interaction interaction : entry.getValue()) {
+                    for (String part : entry.getKey().parts) {
+                        writeString(index, part);
+                    }
+                    index.writeLong(20L + data.size());
+                    writeRecord(data, interaction);
+                    count++;
+                }
+            }
+            try (OutputStream out = Files.newOutputStream(temp);
+                 DataOutputStream header = new DataOutputStream(out)) {
+                header.writeInt(MAGIC);
+                header.writeInt(VERSION);
+                header.writeInt(count);
+                header.writeLong(20L + data.size());
+                records.writeTo(header);
+                indexBytes.writeTo(header);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Offsets are stored as longs, but a buffer ends before 2 GiB; one past its end is corrupt, not truncated
+    private static ByteBuffer seek(ByteBuffer buffer, long offset) throws IOException {
+        if (offset < 0 || offset > buffer.limit()) {
+            throw new IOException("Corrupt cassette: offset " + offset + " outside " + buffer.limit() + " bytes");
+        }
+        ByteBuffer reader = buffer.duplicate();
+        reader.position((int) offset);
+        return reader;
+    }
+
+    private static void writeRecord(DataOutputStream data, Interaction interaction) throws IOException {
+        byte[] body = interaction.body;
+        byte[] stored = body.length >= DEFLATE_THRESHOLD ? deflate(body) : body;
+        boolean deflated = stored.length < body.length;
+        data.writeByte(deflated ? DEFLATED : 0);
+        data.writeShort(interaction.status);
+        writeString(data, interaction.statusLine == null ? "" : interaction.statusLine);
+        data.writeShort(interaction.headers.size());
+        for (Header header : interaction.headers) {
+            writeString(data, header.getName());
+            writeString(data, header.getValue());
+        }
+        data.writeInt(deflated ? stored.length : body.length);
+        data.writeInt(body.length);
+        data.write(deflated ? stored : body);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] stored, int rawLength) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, read, rawLength - read);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += inflated;
+            }
+            if (read < rawLength) {
+                throw new IOException("Truncated cassette record: " + read + " of " + rawLength + " bytes");
+            }
+            return raw;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (DataFormatException e) {
+            throw new UncheckedIOException(new IOException("Corrupt cassette record", e));
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return file + ": " + count + " recordings of " + recordings.size() + " requests";
+    }
+}
@@ -0,0 +1,317 @@
+package stub;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.authentication.AuthenticationScheme;
+import io.restassured.authentication.BasicAuthScheme;
+import io.restassured.authentication.ExplicitNoAuthScheme;
+import io.restassured.authentication.NoAuthScheme;
+import io.restassured.authentication.PreemptiveBasicAuthScheme;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import io.restassured.specification.MultiPartSpecification;
+import utils.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records RestAssured traffic to a {@link Cassette} or replays it without touching the network.
+ *
+ * <ul>
+ *   <li>{@code record}: requests go to the server; every response is kept and written to the
+ *       cassette by {@link #close()}, merged with recordings of requests this run did not make.</li>
+ *   <li>{@code replay}: responses come from the memory-mapped cassette; a request that was never
+ *       recorded fails the test.</li>
+ * </ul>
+ *
+ * Requests are matched on the parts the configured {@link Cassette.Rule rules} select. Bodies and
+ * credentials only enter the key as a hash, so the index never contains secrets.
+ * {@link core.BaseTest} installs {@link #shared()} for every request when {@code cassette.mode}
+ * is set; tests can also add their own instance with {@code given().filter(cassette)}.
+ */
+public class CassetteFilter implements OrderedFilter {
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static volatile CassetteFilter shared;
+
+    public enum Mode {
+        RECORD, REPLAY
+    }
+
+    private final Path file;
+    private final Mode mode;
+    private final Set<Cassette.Rule> rules;
+    private final Cassette cassette;
+    private final Map<Cassette.Request, List<Cassette.Interaction>> recorded = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder lookupNanos = new LongAdder();
+
+    public CassetteFilter(Path file, Mode mode, Set<Cassette.Rule> rules) throws IOException {
+        this.file = file;
+        this.mode = mode;
+        this.rules = rules.isEmpty() ? EnumSet.noneOf(Cassette.Rule.class) : EnumSet.copyOf(rules);
+        // recording reads the old cassette only in close(), unmapped, so it can be replaced
+        this.cassette = mode == Mode.REPLAY && Files.exists(file) ? Cassette.open(file, this.rules) : null;
+        if (mode == Mode.REPLAY && cassette == null) {
+            throw new IOException("Cassette not found: " + file.toAbsolutePath() + "; record it with -Dcassette.mode=record");
+        }
+    }
+
+    /**
+     * Returns the suite-wide filter configured by the {@code cassette.*} keys, or null when
+     * {@code cassette.mode} is off.
+     */
+    public static CassetteFilter shared() {
+        if (shared == null) {
+            synchronized (CassetteFilter.class) {
+                if (shared == null) {
+                    Config config = Config.get();
+                    String mode = config.getString("cassette.mode", "off").trim().toUpperCase(Locale.ROOT);
+                    if (mode.equals("OFF") || mode.isEmpty()) {
+                        return null;
+                    }
+                    try {
+                        CassetteFilter filter = new CassetteFilter(
+                                Paths.get(config.getString("cassette.file", "Resources/Cassettes/suite.cassette")),
+                                Mode.valueOf(mode),
+                                parseRules(config.getString("cassette.match", "method,host,path,query,body,auth")));
+                        Runtime.getRuntime().addShutdownHook(new Thread(filter::close));
+                        shared = filter;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Returns the suite-wide filter if it has been created, without creating it.
+     */
+    public static CassetteFilter current() {
+        return shared;
+    }
+
+    /**
+     * Runs after authentication and hedging, so the recorded request is the one that would be sent,
+     * and before the rate limiter, so throttled attempts it retries are not recorded.
+     */
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE - 2;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification request, FilterableResponseSpecification response,
+                           FilterContext context) {
+        Cassette.Request recording = request(request);
+        if (mode == Mode.RECORD) {
+            Response actual = context.next(request, response);
+            recorded.computeIfAbsent(recording, k -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(Cassette.Interaction.of(actual));
+            return actual;
+        }
+        long start = System.nanoTime();
+        Cassette.Interaction interaction = cassette.next(recording);
+        lookupNanos.add(System.nanoTime() - start);
+        if (interaction == null) {
+            misses.increment();
+            throw new AssertionError("No recorded response for " + recording.key(rules) + " in " + file
+                    + "; record it with -Dcassette.mode=record");
+        }
+        hits.increment();
+        return interaction.toResponse();
+    }
+
+    /**
+     * The parts of a request that are recorded and matched.
+     */
+    public static Cassette.Request request(FilterableRequestSpecification request) {
+        URI uri = URI.create(request.getURI());
+        String query = null;
+        if (uri.getRawQuery() != null) {
+            String[] params = uri.getRawQuery().split("&");
+            Arrays.sort(params);
+            query = String.join("&", params);
+        }
+        return new Cassette.Request(
+                request.getMethod().toUpperCase(Locale.ROOT),
+                uri.getScheme() + "://" + uri.getHost() + (uri.getPort() == -1 ? "" : ":" + uri.getPort()),
+                uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath(),
+                query,
+                bodyHash(request),
+                authHash(request));
+    }
+
+    private static String bodyHash(FilterableRequestSpecification request) {
+        MessageDigest digest = sha256();
+        boolean any = false;
+        Object body = request.getBody();
+        if (body != null) {
+            digest.update(bytes(body));
+            any = true;
+        }
+        if (!request.getFormParams().isEmpty()) {
+            digest.update(new TreeMap<>(request.getFormParams()).toString().getBytes(StandardCharsets.UTF_8));
+            any = true;
+        }
+        for (MultiPartSpecification part : request.getMultiPartParams()) {
+            digest.update((part.getControlName() + "|" + part.getFileName() + "|" + part.getMimeType() + "|")
+                    .getBytes(StandardCharsets.UTF_8));
+            digest.update(bytes(part.getContent()));
+            any = true;
+        }
+        return any ? hex(digest.digest()) : null;
+    }
+
+    private static String authHash(FilterableRequestSpecification request) {
+        AuthenticationScheme scheme = request.getAuthenticationScheme();
+        String credentials = null;
+        if (scheme instanceof BasicAuthScheme) {
+            credentials = "basic:" + ((BasicAuthScheme) scheme).getUserName() + ":" + ((BasicAuthScheme) scheme).getPassword();
+        } else if (scheme instanceof PreemptiveBasicAuthScheme) {
+            credentials = "basic:" + ((PreemptiveBasicAuthScheme) scheme).getUserName() + ":"
+                    + ((PreemptiveBasicAuthScheme) scheme).getPassword();
+        } else if (scheme != null && !(scheme instanceof NoAuthScheme) && !(scheme instanceof ExplicitNoAuthScheme)) {
+            credentials = scheme.getClass().getSimpleName();
+        }
+        String header = request.getHeaders().getValue("Authorization");
+        if (header != null) {
+            credentials = (credentials == null ? "" : credentials) + "|header:" + header;
+        }
+        return credentials == null ? null : hex(sha256().digest(credentials.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static byte[] bytes(Object content) {
+        try {
+            if (content instanceof byte[]) {
+                return (byte[]) content;
+            }
+            if (content instanceof String) {
+                return ((String) content).getBytes(StandardCharsets.UTF_8);
+            }
+            if (content instanceof File) {
+                return Files.readAllBytes(((File) content).toPath());
+            }
+            if (content instanceof InputStream) {
+                // a stream can only be read once, by the request itself
+                return new byte[0];
+            }
+            return mapper.writeValueAsBytes(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // 64 bits of the hash keep keys short and collisions out of reach for a test suite
+    private static String hex(byte[] hash) {
+        StringBuilder hex = new StringBuilder(16);
+        for (int i = 0; i < 8; i++) {
+            hex.append(String.format("%02x", hash[i]));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * In record mode, writes this run's recordings plus earlier recordings of requests that were
+     * not repeated. Does nothing in replay mode or when nothing was recorded.
+     */
+    public synchronized void close() {
+        if (mode != Mode.RECORD || recorded.isEmpty()) {
+            return;
+        }
+        try {
+            Map<Cassette.Request, List<Cassette.Interaction>> all = Files.exists(file)
+                    ? Cassette.read(file, rules).readAll() : new TreeMap<>();
+            recorded.forEach((key, interactions) -> {
+                synchronized (interactions) {
+                    all.put(key, new ArrayList<>(interactions));
+                }
+            });
+            Cassette.write(file, all);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write cassette " + file, e);
+        }
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Requests recorded in this run.
+     */
+    public long getRecorded() {
+        return recorded.values().stream().mapToLong(List::size).sum();
+    }
+
+    /**
+     * Mean replay lookup time, including decompressing the body.
+     */
+    public double getMeanLookupMicros() {
+        long lookups = hits.sum() + misses.sum();
+        return lookups == 0 ? 0 : lookupNanos.sum() / 1000.0 / lookups;
+    }
+
+    /**
+     * Parses a comma-separated list of {@link Cassette.Rule} names, case-insensitive.
+     */
+    public static Set<Cassette.Rule> parseRules(String value) {
+        Set<Cassette.Rule> rules = EnumSet.noneOf(Cassette.Rule.class);
+        for (String rule : value.split(",")) {
+            if (!rule.trim().isEmpty()) {
+                rules.add(Cassette.Rule.valueOf(rule.trim().toUpperCase(Locale.ROOT)));
+            }
+        }
+        return rules;
+    }
+
+    @Override
+    public String toString() {
+        if (mode == Mode.RECORD) {
+            return String.format("record %s: %d requests recorded", file, getRecorded());
+        }
+        return String.format("replay %s: %d hits, %d misses, mean lookup %.1f us", file, hits.sum(), misses.sum(),
+                getMeanLookupMicros());
+    }
+}
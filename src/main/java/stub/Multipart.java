@@ -0,0 +1,67 @@
+package stub;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal multipart/form-data parser for the stub's {@code /post} echo.
+ * Parts with a filename are reported under {@code files}, the others under {@code form}, as HTTPBin does.
+ */
+class Multipart {
+
+    static void parse(byte[] body, String contentType, ObjectNode form, ObjectNode files) {
+        int boundaryAt = contentType.indexOf("boundary=");
+        if (boundaryAt < 0) {
+            return;
+        }
+        String boundary = contentType.substring(boundaryAt + "boundary=".length()).replace("\"", "").split(";")[0].trim();
+        // ISO-8859-1 maps every byte to one char, so offsets in the string are offsets in the body
+        String raw = new String(body, StandardCharsets.ISO_8859_1);
+        String delimiter = "--" + boundary;
+        int start = raw.indexOf(delimiter);
+        while (start >= 0) {
+            int partStart = start + delimiter.length();
+            if (raw.startsWith("--", partStart)) {
+                break;
+            }
+            int next = raw.indexOf(delimiter, partStart);
+            if (next < 0) {
+                break;
+            }
+            String part = raw.substring(partStart, next);
+            int headerEnd = part.indexOf("\r\n\r\n");
+            if (headerEnd >= 0) {
+                String headers = part.substring(0, headerEnd);
+                String content = part.substring(headerEnd + 4);
+                if (content.endsWith("\r\n")) {
+                    content = content.substring(0, content.length() - 2);
+                }
+                String value = new String(content.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8);
+                String name = attribute(headers, "name");
+                if (name != null) {
+                    if (attribute(headers, "filename") != null) {
+                        files.put(name, value);
+                    } else {
+                        form.put(name, value);
+                    }
+                }
+            }
+            start = next;
+        }
+    }
+
+    private static String attribute(String headers, String attribute) {
+        String marker = " " + attribute + "=\"";
+        int at = headers.indexOf(marker);
+        if (at < 0) {
+            marker = ";" + attribute + "=\"";
+            at = headers.indexOf(marker);
+        }
+        if (at < 0) {
+            return null;
+        }
+        int end = headers.indexOf('"', at + marker.length());
+        return end < 0 ? null : headers.substring(at + marker.length(), end);
+    }
+}
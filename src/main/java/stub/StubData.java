@@ -0,0 +1,156 @@
+package stub;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Deterministic fixtures served by {@link StubServer}.
+ * The records the suite asserts on (post titles, user names, the reqres page 2 users, ...)
+ * match the public APIs; the rest is generated filler of the same shape and size.
+ */
+class StubData {
+    static final ObjectMapper mapper = new ObjectMapper();
+
+    private static final String[] POST_TITLES = {
+        "sunt aut facere repellat provident occaecati excepturi optio reprehenderit",
+        "qui est esse",
+        "ea molestias quasi exercitationem repellat qui ipsa sit aut",
+        "eum et est occaecati",
+        "nesciunt quas odio"
+    };
+
+    private static final String[] PLACEHOLDER_USERS = {
+        "Leanne Graham", "Ervin Howell", "Clementine Bauch", "Patricia Lebsack", "Chelsey Dietrich",
+        "Mrs. Dennis Schulist", "Kurtis Weissnat", "Nicholas Runolfsdottir V", "Glenna Reichert", "Clementina DuBuque"
+    };
+
+    private static final String[][] REQRES_USERS = {
+        {"George", "Bluth"}, {"Janet", "Weaver"}, {"Emma", "Wong"}, {"Eve", "Holt"},
+        {"Charles", "Morris"}, {"Tracey", "Ramos"}, {"Michael", "Lawson"}, {"Lindsay", "Ferguson"},
+        {"Tobias", "Funke"}, {"Byron", "Fields"}, {"George", "Edwards"}, {"Rachel", "Howell"}
+    };
+
+    final ArrayNode posts = mapper.createArrayNode();
+    final ArrayNode comments = mapper.createArrayNode();
+    final ArrayNode users = mapper.createArrayNode();
+    final ArrayNode todos = mapper.createArrayNode();
+    final ArrayNode albums = mapper.createArrayNode();
+    final ArrayNode reqresUsers = mapper.createArrayNode();
+    final byte[] postsJson;
+    final byte[] commentsJson;
+    final byte[] usersJson;
+    final byte[] todosJson;
+    final byte[] albumsJson;
+    final byte[] slideshowJson;
+    final byte[] png;
+
+    StubData() {
+        for (int id = 1; id <= 100; id++) {
+            ObjectNode post = posts.addObject();
+            post.put("userId", (id - 1) / 10 + 1);
+            post.put("id", id);
+            post.put("title", id <= POST_TITLES.length ? POST_TITLES[id - 1] : "post " + id + " lorem ipsum dolor sit amet");
+            post.put("body", "quia et suscipit lorem ipsum dolor sit amet consectetur adipiscing elit post " + id);
+        }
+        for (int id = 1; id <= 500; id++) {
+            ObjectNode comment = comments.addObject();
+            comment.put("postId", (id - 1) / 5 + 1);
+            comment.put("id", id);
+            comment.put("name", "comment " + id + " id labore ex et quam laborum");
+            comment.put("email", id == 1 ? "Eliseo@gardner.biz" : "user" + id + "@example.biz");
+            comment.put("body", "laudantium enim quasi est quidem magnam voluptate ipsam eos comment " + id);
+        }
+        for (int id = 1; id <= PLACEHOLDER_USERS.length; id++) {
+            String name = PLACEHOLDER_USERS[id - 1];
+            ObjectNode user = users.addObject();
+            user.put("id", id);
+            user.put("name", name);
+            user.put("username", name.replaceAll("[^A-Za-z]", ""));
+            user.put("email", "user" + id + "@april.biz");
+            ObjectNode address = user.putObject("address");
+            address.put("street", "Kulas Light");
+            address.put("suite", "Apt. " + (500 + id));
+            address.put("city", "Gwenborough");
+            address.put("zipcode", "92998-3874");
+            ObjectNode geo = address.putObject("geo");
+            geo.put("lat", String.valueOf(-37.3159 + id));
+            geo.put("lng", String.valueOf(81.1496 - id));
+            user.put("phone", "1-770-736-8031 x5644" + id);
+            user.put("website", "hildegard.org");
+        }
+        for (int id = 1; id <= 200; id++) {
+            ObjectNode todo = todos.addObject();
+            todo.put("userId", (id - 1) / 20 + 1);
+            todo.put("id", id);
+            todo.put("title", id == 1 ? "delectus aut autem" : "todo " + id + " quis ut nam facilis et officia qui");
+            todo.put("completed", id % 3 == 0);
+        }
+        for (int id = 1; id <= 100; id++) {
+            ObjectNode album = albums.addObject();
+            album.put("userId", (id - 1) / 10 + 1);
+            album.put("id", id);
+            album.put("title", id == 1 ? "quidem molestiae enim" : "album " + id);
+        }
+        for (int id = 1; id <= REQRES_USERS.length; id++) {
+            String first = REQRES_USERS[id - 1][0];
+            String last = REQRES_USERS[id - 1][1];
+            ObjectNode user = reqresUsers.addObject();
+            user.put("id", id);
+            user.put("email", first.toLowerCase() + "." + last.toLowerCase() + "@reqres.in");
+            user.put("first_name", first);
+            user.put("last_name", last);
+            user.put("avatar", "https://reqres.in/img/faces/" + id + "-image.jpg");
+        }
+        postsJson = bytes(posts);
+        commentsJson = bytes(comments);
+        usersJson = bytes(users);
+        todosJson = bytes(todos);
+        albumsJson = bytes(albums);
+        slideshowJson = bytes(slideshow());
+        png = png();
+    }
+
+    static byte[] bytes(Object node) {
+        try {
+            return mapper.writeValueAsBytes(node);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ObjectNode slideshow() {
+        ObjectNode root = mapper.createObjectNode();
+        ObjectNode slideshow = root.putObject("slideshow");
+        slideshow.put("author", "Yours Truly");
+        slideshow.put("date", "date of publication");
+        slideshow.put("title", "Sample Slide Show");
+        ArrayNode slides = slideshow.putArray("slides");
+        slides.addObject().put("title", "Wake up to WonderWidgets!").put("type", "all");
+        ObjectNode overview = slides.addObject().put("title", "Overview").put("type", "all");
+        overview.putArray("items").add("Why <em>WonderWidgets</em> are great").add("Who <em>buys</em> WonderWidgets");
+        return root;
+    }
+
+    private static byte[] png() {
+        BufferedImage image = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < 100; x++) {
+            for (int y = 0; y < 100; y++) {
+                image.setRGB(x, y, (x * 2) << 16 | (y * 2) << 8 | 0x80);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
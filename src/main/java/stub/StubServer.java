@@ -0,0 +1,654 @@
+package stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import utils.Config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process HTTP server that emulates the parts of JSONPlaceholder, Reqres, HTTPBin and Postman Echo used by the suite.
+ *
+ * Routes:
+ * - JSONPlaceholder: {@code /posts}, {@code /users}, {@code /comments}, {@code /todos}, {@code /albums} (+ {@code /{id}}, query filters)
+ * - Reqres: the same users API under {@code /api/users}
+ * - HTTPBin: {@code /get}, {@code /post}, {@code /status/{code}}, {@code /delay/{n}}, {@code /bearer},
+ *   {@code /basic-auth/{user}/{passwd}}, {@code /image/png}, {@code /json}, {@code /cookies}, {@code /cookies/set},
+ *   {@code /stream-bytes/{n}} (without HTTPBin's 100 KB limit)
+ * - Postman Echo: {@code /basic-auth} (postman / password)
+ * - ToolsQA Bookstore: {@code /Account/v1/GenerateToken} and {@code /BookStore/v1/Books} (bearer token required)
+ * - Stub only: {@code /upload} answers with the size and SHA-256 of the request body, read as a stream
+ *
+ * An optional per-second quota ({@link #setRateLimit(int)}) answers {@code 429} with {@code Retry-After} like a public API would;
+ * {@link #slowDownNext(int, long)} and {@link #failNext(int, int)} inject slow responses and gateway errors.
+ *
+ * Request handlers never sleep: responses, including configured latency and {@code /delay/{n}},
+ * are completed from a scheduler, so a small handler pool can keep thousands of slow requests in flight.
+ *
+ * Enable it for the whole suite with {@code stub.enabled=true}; {@link utils.APIEndpoints} then points every base URL at it.
+ */
+public class StubServer {
+    private static StubServer shared;
+
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final ScheduledExecutorService scheduler;
+    private final StubData data = new StubData();
+    private final AtomicInteger createdIds = new AtomicInteger(100);
+    private final LongAdder requests = new LongAdder();
+    private final Map<String, Instant> tokens = new ConcurrentHashMap<>();
+    private final LongAdder tokensIssued = new LongAdder();
+    private volatile long tokenTtlMillis = TimeUnit.HOURS.toMillis(1);
+    private volatile long latencyMillis;
+    private volatile long jitterMillis;
+    private volatile int rateLimit;
+    private long rateWindow;
+    private int rateWindowCount;
+    private final LongAdder throttled = new LongAdder();
+    private final AtomicInteger slowRequests = new AtomicInteger();
+    // exchanges picked by slowDownNext; HttpExchange attributes are shared by the whole context
+    private final Set<HttpExchange> slowExchanges = ConcurrentHashMap.newKeySet();
+    private volatile long slowMillis;
+    private final AtomicInteger failingRequests = new AtomicInteger();
+    private volatile int failingStatus;
+
+    public StubServer(int port, int threads) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        handlers = Executors.newFixedThreadPool(threads, daemon("stub-handler"));
+        scheduler = Executors.newSingleThreadScheduledExecutor(daemon("stub-scheduler"));
+        server.setExecutor(handlers);
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * Returns the suite-wide server configured by {@code stub.port}, {@code stub.threads},
+     * {@code stub.latency.ms} and {@code stub.latency.jitter.ms}, starting it on first use.
+     */
+    public static synchronized StubServer shared() {
+        if (shared == null) {
+            Config config = Config.get();
+            try {
+                StubServer server = new StubServer(config.getInt("stub.port", 0), config.getInt("stub.threads", 8));
+                server.setLatency(config.getLong("stub.latency.ms", 0), config.getLong("stub.latency.jitter.ms", 0));
+                server.start();
+                Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+                shared = server;
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to start stub server", e);
+            }
+        }
+        return shared;
+    }
+
+    public StubServer start() {
+        server.start();
+        return this;
+    }
+
+    public void stop() {
+        server.stop(0);
+        scheduler.shutdownNow();
+        handlers.shutdownNow();
+    }
+
+    /**
+     * Adds a fixed delay, plus a random jitter up to {@code jitterMillis}, to every response.
+     */
+    public void setLatency(long latencyMillis, long jitterMillis) {
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+    }
+
+    /**
+     * Answers {@code 429} with {@code Retry-After} to every request beyond {@code requestsPerSecond}
+     * in the same wall-clock second, like a public API's quota; 0 turns the quota off.
+     */
+    public void setRateLimit(int requestsPerSecond) {
+        this.rateLimit = requestsPerSecond;
+    }
+
+    /**
+     * Delays the responses to the next {@code requests} requests by {@code delayMillis} more, like
+     * the occasional slow response of a public API.
+     */
+    public void slowDownNext(int requests, long delayMillis) {
+        this.slowMillis = delayMillis;
+        slowRequests.set(requests);
+    }
+
+    /**
+     * Answers the next {@code requests} requests with {@code status} and an empty body.
+     */
+    public void failNext(int requests, int status) {
+        this.failingStatus = status;
+        failingRequests.set(requests);
+    }
+
+    /**
+     * Requests answered with {@code 429} because of {@link #setRateLimit(int)}.
+     */
+    public long getThrottledCount() {
+        return throttled.sum();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + getPort();
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * Bookstore tokens handed out by {@code /Account/v1/GenerateToken}.
+     */
+    public long getTokensIssued() {
+        return tokensIssued.sum();
+    }
+
+    /**
+     * Lifetime announced in the {@code expires} field of new bookstore tokens.
+     */
+    public void setTokenTtl(long ttlMillis) {
+        this.tokenTtlMillis = ttlMillis;
+    }
+
+    /**
+     * Makes every bookstore token issued so far invalid, as a server-side logout would.
+     */
+    public void revokeTokens() {
+        tokens.clear();
+    }
+
+    private void handle(HttpExchange exchange) {
+        requests.increment();
+        try {
+            if (overQuota()) {
+                throttled.increment();
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                ObjectNode error = StubData.mapper.createObjectNode().put("error", "Too Many Requests");
+                send(exchange, 429, "application/json; charset=utf-8", StubData.bytes(error), 0);
+                return;
+            }
+            if (takeOne(slowRequests)) {
+                slowExchanges.add(exchange);
+            }
+            if (takeOne(failingRequests)) {
+                send(exchange, failingStatus, null, new byte[0], 0);
+                return;
+            }
+            route(exchange);
+        } catch (Exception e) {
+            ObjectNode error = StubData.mapper.createObjectNode().put("error", String.valueOf(e.getMessage()));
+            send(exchange, 500, "application/json; charset=utf-8", StubData.bytes(error), 0);
+        } finally {
+            // send() takes it out; streamed and upload answers write directly and never do
+            slowExchanges.remove(exchange);
+        }
+    }
+
+    private static boolean takeOne(AtomicInteger remaining) {
+        return remaining.getAndUpdate(count -> Math.max(0, count - 1)) > 0;
+    }
+
+    private boolean overQuota() {
+        int limit = rateLimit;
+        if (limit <= 0) {
+            return false;
+        }
+        long second = System.currentTimeMillis() / 1000;
+        synchronized (this) {
+            if (second != rateWindow) {
+                rateWindow = second;
+                rateWindowCount = 0;
+            }
+            return ++rateWindowCount > limit;
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String[] segments = path.replaceAll("^/+|/+$", "").split("/");
+        String root = segments[0];
+
+        if ("api".equals(root) && segments.length > 1 && "users".equals(segments[1])) {
+            reqresUsers(exchange, method, segments, query);
+            return;
+        }
+        switch (root) {
+            case "posts":
+                collection(exchange, method, segments, query, data.posts, data.postsJson);
+                return;
+            case "comments":
+                collection(exchange, method, segments, query, data.comments, data.commentsJson);
+                return;
+            case "users":
+                collection(exchange, method, segments, query, data.users, data.usersJson);
+                return;
+            case "todos":
+                collection(exchange, method, segments, query, data.todos, data.todosJson);
+                return;
+            case "albums":
+                collection(exchange, method, segments, query, data.albums, data.albumsJson);
+                return;
+            case "get":
+                json(exchange, 200, echo(exchange, query, null), 0);
+                return;
+            case "post":
+                json(exchange, 200, echo(exchange, query, readBody(exchange)), 0);
+                return;
+            case "status":
+                send(exchange, Integer.parseInt(segments[1]), null, new byte[0], 0);
+                return;
+            case "delay":
+                long seconds = Math.min(10, Long.parseLong(segments[1]));
+                json(exchange, 200, echo(exchange, query, null), TimeUnit.SECONDS.toMillis(seconds));
+                return;
+            case "bearer":
+                bearer(exchange);
+                return;
+            case "basic-auth":
+                basicAuth(exchange, segments.length >= 3 ? segments[1] : "postman", segments.length >= 3 ? segments[2] : "password");
+                return;
+            case "image":
+                send(exchange, 200, "image/png", data.png, 0);
+                return;
+            case "json":
+                send(exchange, 200, "application/json", data.slideshowJson, 0);
+                return;
+            case "stream-bytes":
+                streamBytes(exchange, Long.parseLong(segments[1]), query);
+                return;
+            case "upload":
+                digestUpload(exchange);
+                return;
+            case "Account":
+                generateToken(exchange);
+                return;
+            case "BookStore":
+                addBooks(exchange);
+                return;
+            case "cookies":
+                cookies(exchange, segments.length > 1 && segments[1].equals("set") ? query : Collections.emptyMap());
+                return;
+            default:
+                json(exchange, 404, StubData.mapper.createObjectNode(), 0);
+        }
+    }
+
+    // JSONPlaceholder style resources: list with field filters, lookup by id, and create
+    private void collection(HttpExchange exchange, String method, String[] segments, Map<String, String> query,
+                            ArrayNode items, byte[] allItems) throws IOException {
+        exchange.getResponseHeaders().set("Cache-Control", "max-age=43200");
+        if ("POST".equals(method) && segments.length == 1) {
+            ObjectNode created = readJsonObject(readBody(exchange));
+            created.put("id", items.size() + 1);
+            json(exchange, 201, created, 0);
+            return;
+        }
+        if (segments.length > 1) {
+            JsonNode item = findById(items, segments[1]);
+            json(exchange, item != null ? 200 : 404, item != null ? item : StubData.mapper.createObjectNode(), 0);
+            return;
+        }
+        if (query.isEmpty()) {
+            send(exchange, 200, "application/json; charset=utf-8", allItems, 0);
+            return;
+        }
+        ArrayNode filtered = StubData.mapper.createArrayNode();
+        for (JsonNode item : items) {
+            if (matches(item, query)) {
+                filtered.add(item);
+            }
+        }
+        json(exchange, 200, filtered, 0);
+    }
+
+    private static boolean matches(JsonNode item, Map<String, String> query) {
+        for (Map.Entry<String, String> filter : query.entrySet()) {
+            if ("q".equals(filter.getKey())) {
+                if (!item.toString().contains(filter.getValue())) {
+                    return false;
+                }
+            } else if (item.has(filter.getKey()) && !item.get(filter.getKey()).asText().equals(filter.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void reqresUsers(HttpExchange exchange, String method, String[] segments, Map<String, String> query)
+            throws IOException {
+        if (segments.length > 2) {
+            switch (method) {
+                case "DELETE":
+                    send(exchange, 204, null, new byte[0], 0);
+                    return;
+                case "PUT":
+                case "PATCH":
+                    ObjectNode updated = readRequestFields(exchange);
+                    updated.put("updatedAt", Instant.now().toString());
+                    json(exchange, 200, updated, 0);
+                    return;
+                default:
+                    JsonNode user = findById(data.reqresUsers, segments[2]);
+                    ObjectNode body = StubData.mapper.createObjectNode();
+                    if (user != null) {
+                        body.set("data", user);
+                    }
+                    json(exchange, user != null ? 200 : 404, body, 0);
+                    return;
+            }
+        }
+        if ("POST".equals(method)) {
+            ObjectNode created = readRequestFields(exchange);
+            created.put("id", String.valueOf(createdIds.incrementAndGet()));
+            created.put("createdAt", Instant.now().toString());
+            json(exchange, 201, created, 0);
+            return;
+        }
+        int page = Integer.parseInt(query.getOrDefault("page", "1"));
+        int perPage = Integer.parseInt(query.getOrDefault("per_page", "6"));
+        int total = data.reqresUsers.size();
+        ObjectNode body = StubData.mapper.createObjectNode();
+        body.put("page", page);
+        body.put("per_page", perPage);
+        body.put("total", total);
+        body.put("total_pages", (total + perPage - 1) / perPage);
+        ArrayNode users = body.putArray("data");
+        for (int i = (page - 1) * perPage; i < Math.min(total, page * perPage); i++) {
+            users.add(data.reqresUsers.get(i));
+        }
+        ObjectNode support = body.putObject("support");
+        support.put("url", "https://reqres.in/#support-heading");
+        support.put("text", "To keep ReqRes free, contributions towards server costs are appreciated!");
+        json(exchange, 200, body, 0);
+    }
+
+    // Echoes the request cookies; /cookies/set also sets the query parameters as cookies
+    private void cookies(HttpExchange exchange, Map<String, String> set) throws IOException {
+        ObjectNode cookies = StubData.mapper.createObjectNode();
+        String header = exchange.getRequestHeaders().getFirst("Cookie");
+        if (header != null) {
+            for (String cookie : header.split(";")) {
+                int separator = cookie.indexOf('=');
+                if (separator > 0) {
+                    cookies.put(cookie.substring(0, separator).trim(), cookie.substring(separator + 1).trim());
+                }
+            }
+        }
+        set.forEach((name, value) -> {
+            exchange.getResponseHeaders().add("Set-Cookie", name + "=" + value + "; Path=/");
+            cookies.put(name, value);
+        });
+        ObjectNode body = StubData.mapper.createObjectNode();
+        body.set("cookies", cookies);
+        json(exchange, 200, body, 0);
+    }
+
+    private void generateToken(HttpExchange exchange) throws IOException {
+        ObjectNode credentials = readJsonObject(readBody(exchange));
+        ObjectNode body = StubData.mapper.createObjectNode();
+        if (!credentials.hasNonNull("userName") || !credentials.hasNonNull("password")) {
+            body.put("code", "1200");
+            body.put("message", "UserName and Password required.");
+            json(exchange, 400, body, 0);
+            return;
+        }
+        String token = UUID.randomUUID().toString();
+        Instant expires = Instant.now().plusMillis(tokenTtlMillis);
+        tokens.put(token, expires);
+        tokensIssued.increment();
+        body.put("token", token);
+        body.put("expires", expires.toString());
+        body.put("status", "Success");
+        body.put("result", "User authorized successfully.");
+        json(exchange, 200, body, 0);
+    }
+
+    // Accepts the book list only with a token from generateToken that has not expired or been revoked
+    private void addBooks(HttpExchange exchange) throws IOException {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        Instant expires = authorization == null || !authorization.startsWith("Bearer ")
+                ? null : tokens.get(authorization.substring("Bearer ".length()));
+        if (expires == null || expires.isBefore(Instant.now())) {
+            ObjectNode body = StubData.mapper.createObjectNode();
+            body.put("code", "1200");
+            body.put("message", "User not authorized!");
+            json(exchange, 401, body, 0);
+            return;
+        }
+        ObjectNode body = StubData.mapper.createObjectNode();
+        body.set("books", readJsonObject(readBody(exchange)).path("collectionOfIsbns"));
+        json(exchange, 201, body, 0);
+    }
+
+    private void bearer(HttpExchange exchange) {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            send(exchange, 401, null, new byte[0], 0);
+            return;
+        }
+        ObjectNode body = StubData.mapper.createObjectNode();
+        body.put("authenticated", true);
+        body.put("token", authorization.substring("Bearer ".length()));
+        json(exchange, 200, body, 0);
+    }
+
+    private void basicAuth(HttpExchange exchange, String user, String password) {
+        String expected = "Basic " + Base64.getEncoder().encodeToString((user + ":" + password).getBytes(StandardCharsets.UTF_8));
+        if (!expected.equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+            exchange.getResponseHeaders().set("WWW-Authenticate", "Basic realm=\"Fake Realm\"");
+            send(exchange, 401, null, new byte[0], 0);
+            return;
+        }
+        ObjectNode body = StubData.mapper.createObjectNode();
+        body.put("authenticated", true);
+        body.put("user", user);
+        json(exchange, 200, body, 0);
+    }
+
+    // HTTPBin style echo of the request
+    private ObjectNode echo(HttpExchange exchange, Map<String, String> query, byte[] body) throws IOException {
+        ObjectNode echo = StubData.mapper.createObjectNode();
+        ObjectNode args = echo.putObject("args");
+        query.forEach(args::put);
+        ObjectNode headers = echo.putObject("headers");
+        exchange.getRequestHeaders().forEach((name, values) -> headers.put(name, String.join(",", values)));
+        echo.put("url", getBaseUrl() + exchange.getRequestURI());
+        if (body == null) {
+            return echo;
+        }
+        ObjectNode form = echo.putObject("form");
+        ObjectNode files = echo.putObject("files");
+        String contentType = String.valueOf(exchange.getRequestHeaders().getFirst("Content-Type"));
+        String text = new String(body, StandardCharsets.UTF_8);
+        if (contentType.startsWith("multipart/form-data")) {
+            Multipart.parse(body, contentType, form, files);
+            echo.put("data", "");
+        } else if (contentType.startsWith("application/x-www-form-urlencoded")) {
+            parseQuery(text).forEach(form::put);
+            echo.put("data", "");
+        } else {
+            echo.put("data", text);
+        }
+        try {
+            echo.set("json", StubData.mapper.readTree(text));
+        } catch (IOException e) {
+            echo.putNull("json");
+        }
+        return echo;
+    }
+
+    private ObjectNode readRequestFields(HttpExchange exchange) throws IOException {
+        byte[] body = readBody(exchange);
+        String contentType = String.valueOf(exchange.getRequestHeaders().getFirst("Content-Type"));
+        if (contentType.startsWith("application/x-www-form-urlencoded")) {
+            ObjectNode fields = StubData.mapper.createObjectNode();
+            parseQuery(new String(body, StandardCharsets.UTF_8)).forEach(fields::put);
+            return fields;
+        }
+        return readJsonObject(body);
+    }
+
+    private static ObjectNode readJsonObject(byte[] body) {
+        try {
+            JsonNode node = StubData.mapper.readTree(body);
+            return node instanceof ObjectNode ? (ObjectNode) node : StubData.mapper.createObjectNode();
+        } catch (IOException e) {
+            return StubData.mapper.createObjectNode();
+        }
+    }
+
+    private static JsonNode findById(ArrayNode items, String id) {
+        for (JsonNode item : items) {
+            if (item.get("id").asText().equals(id)) {
+                return item;
+            }
+        }
+        return null;
+    }
+
+    // HTTPBin's /stream-bytes: n bytes from Random(seed), sent in chunks without holding the body
+    private void streamBytes(HttpExchange exchange, long size, Map<String, String> query) throws IOException {
+        int chunkSize = Integer.parseInt(query.getOrDefault("chunk_size", "10240"));
+        if (chunkSize < 1) {
+            json(exchange, 400, StubData.mapper.createObjectNode().put("error", "chunk_size must be at least 1"), 0);
+            return;
+        }
+        Random random = new Random(Long.parseLong(query.getOrDefault("seed", "0")));
+        byte[] chunk = new byte[chunkSize];
+        exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream output = exchange.getResponseBody()) {
+            for (long left = size; left > 0; left -= chunk.length) {
+                random.nextBytes(chunk);
+                output.write(chunk, 0, (int) Math.min(chunk.length, left));
+            }
+        }
+    }
+
+    private void digestUpload(HttpExchange exchange) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[65536];
+        long size = 0;
+        try (InputStream input = exchange.getRequestBody()) {
+            for (int read; (read = input.read(buffer)) >= 0; ) {
+                digest.update(buffer, 0, read);
+                size += read;
+            }
+        }
+        StringBuilder sha256 = new StringBuilder();
+        for (byte b : digest.digest()) {
+            sha256.append(String.format("%02x", b));
+        }
+        json(exchange, 200, StubData.mapper.createObjectNode()
+                .put("size", size)
+                .put("sha256", sha256.toString())
+                .put("contentType", exchange.getRequestHeaders().getFirst("Content-Type")), 0);
+    }
+
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        try (InputStream input = exchange.getRequestBody()) {
+            return input.readAllBytes();
+        }
+    }
+
+    private void json(HttpExchange exchange, int status, JsonNode body, long extraDelayMillis) {
+        send(exchange, status, "application/json; charset=utf-8", StubData.bytes(body), extraDelayMillis);
+    }
+
+    // Completes the exchange now, or later from the scheduler when latency is configured
+    private void send(HttpExchange exchange, int status, String contentType, byte[] body, long extraDelayMillis) {
+        long delay = extraDelayMillis + latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0)
+                + (slowExchanges.remove(exchange) ? slowMillis : 0);
+        if (delay <= 0) {
+            write(exchange, status, contentType, body);
+        } else {
+            scheduler.schedule(() -> handlers.execute(() -> write(exchange, status, contentType, body)), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static void write(HttpExchange exchange, int status, String contentType, byte[] body) {
+        try {
+            Headers headers = exchange.getResponseHeaders();
+            if (contentType != null) {
+                headers.set("Content-Type", contentType);
+            }
+            boolean empty = body.length == 0 || status == 204 || "HEAD".equals(exchange.getRequestMethod());
+            exchange.sendResponseHeaders(status, empty ? -1 : body.length);
+            if (!empty) {
+                try (OutputStream output = exchange.getResponseBody()) {
+                    output.write(body);
+                }
+            }
+        } catch (IOException e) {
+            // client went away
+        } finally {
+            exchange.close();
+        }
+    }
+
+    static Map<String, String> parseQuery(String query) {
+        Map<String, String> values = new LinkedHashMap<>();
+        if (query == null || query.isEmpty()) {
+            return values;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq >= 0 ? pair.substring(0, eq) : pair;
+            String value = eq >= 0 ? pair.substring(eq + 1) : "";
+            values.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return values;
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
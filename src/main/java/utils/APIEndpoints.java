@@ -1,31 +1,29 @@
 package utils;
 
-import java.util.Properties;
-import java.io.IOException;
-import java.io.InputStream;
+import stub.StubServer;
+
+import java.util.List;
 
 /**
  * Centralized API endpoints configuration class.
  * Manages all API base URLs and endpoints used across the test framework.
+ * Base URLs come from the shared {@link Config} snapshot, so they follow system-property
+ * and environment overrides; the URL helper methods also follow hot reloads.
+ *
+ * With {@code stub.enabled=true} every base URL points at the in-process {@link StubServer}
+ * instead, so the suite runs offline with repeatable latency.
  */
 public class APIEndpoints {
-    private static final Properties properties = new Properties();
-    
-    static {
-        try (InputStream input = APIEndpoints.class.getClassLoader().getResourceAsStream("config.properties")) {
-            if (input != null) {
-                properties.load(input);
-            }
-        } catch (IOException e) {
-            System.err.println("Failed to load API endpoints configuration: " + e.getMessage());
-        }
-    }
-    
+    // Local stub base URL, or null when the public APIs are used
+    private static final String STUB_BASE_URL = Config.get().getBoolean("stub.enabled", false)
+            ? StubServer.shared().getBaseUrl() : null;
+
     // Base URLs
-    public static final String REQRES_BASE_URL = getProperty("reqres.base.url", "https://reqres.in/api");
-    public static final String JSONPLACEHOLDER_BASE_URL = getProperty("jsonplaceholder.base.url", "https://jsonplaceholder.typicode.com");
-    public static final String HTTPBIN_BASE_URL = getProperty("httpbin.base.url", "https://httpbin.org");
-    public static final String POSTMAN_ECHO_BASE_URL = getProperty("postman.echo.base.url", "https://postman-echo.com");
+    public static final String REQRES_BASE_URL = getBaseUrl("reqres.base.url", "https://reqres.in/api", "/api");
+    public static final String JSONPLACEHOLDER_BASE_URL = getBaseUrl("jsonplaceholder.base.url", "https://jsonplaceholder.typicode.com", "");
+    public static final String HTTPBIN_BASE_URL = getBaseUrl("httpbin.base.url", "https://httpbin.org", "");
+    public static final String POSTMAN_ECHO_BASE_URL = getBaseUrl("postman.echo.base.url", "https://postman-echo.com", "");
+    public static final String BOOKSTORE_BASE_URL = getBaseUrl("bookstore.base.url", "https://bookstore.toolsqa.com", "");
     
     // Common endpoints
     public static final String USERS_ENDPOINT = "/users";
@@ -35,35 +33,50 @@ public class APIEndpoints {
     public static final String BASIC_AUTH_ENDPOINT = "/basic-auth";
     public static final String BEARER_ENDPOINT = "/bearer";
     
-    private static String getProperty(String key, String defaultValue) {
-        return properties.getProperty(key, defaultValue);
+    private static String getBaseUrl(String key, String defaultValue, String stubPath) {
+        return STUB_BASE_URL != null ? STUB_BASE_URL + stubPath : Config.get().getString(key, defaultValue);
     }
     
     /**
      * Get full URL for Reqres API endpoint
      */
     public static String getReqresUrl(String endpoint) {
-        return REQRES_BASE_URL + endpoint;
+        return getBaseUrl("reqres.base.url", REQRES_BASE_URL, "/api") + endpoint;
     }
     
     /**
      * Get full URL for JSONPlaceholder API endpoint
      */
     public static String getJsonPlaceholderUrl(String endpoint) {
-        return JSONPLACEHOLDER_BASE_URL + endpoint;
+        return getBaseUrl("jsonplaceholder.base.url", JSONPLACEHOLDER_BASE_URL, "") + endpoint;
     }
     
     /**
      * Get full URL for HTTPBin API endpoint
      */
     public static String getHttpBinUrl(String endpoint) {
-        return HTTPBIN_BASE_URL + endpoint;
+        return getBaseUrl("httpbin.base.url", HTTPBIN_BASE_URL, "") + endpoint;
     }
     
     /**
      * Get full URL for Postman Echo API endpoint
      */
     public static String getPostmanEchoUrl(String endpoint) {
-        return POSTMAN_ECHO_BASE_URL + endpoint;
+        return getBaseUrl("postman.echo.base.url", POSTMAN_ECHO_BASE_URL, "") + endpoint;
+    }
+    
+    /**
+     * Get full URL for ToolsQA Bookstore API endpoint
+     */
+    public static String getBookstoreUrl(String endpoint) {
+        return getBaseUrl("bookstore.base.url", BOOKSTORE_BASE_URL, "") + endpoint;
+    }
+    
+    /**
+     * Get the base URLs of all APIs, in declaration order
+     */
+    public static List<String> getBaseUrls() {
+        return List.of(REQRES_BASE_URL, JSONPLACEHOLDER_BASE_URL, HTTPBIN_BASE_URL, POSTMAN_ECHO_BASE_URL,
+                BOOKSTORE_BASE_URL);
     }
 }
\ No newline at end of file
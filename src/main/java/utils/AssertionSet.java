@@ -0,0 +1,261 @@
+package utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import io.restassured.response.Response;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * A group of path and matcher assertions declared once and checked against a response in one parse.
+ *
+ * Every {@code response.then().body(path, matcher)} call evaluates its GPath expression on its own.
+ * An assertion set compiles its paths once, keeps them in a static field of the test class, parses
+ * each response body once with Jackson, checks every assertion against that tree and reports all
+ * mismatches in one {@link AssertionError}.
+ *
+ * <pre>
+ * private static final AssertionSet PAGE_TWO = AssertionSet.builder()
+ *     .body("data", hasSize(6))
+ *     .body("data[2].email", is("tobias.funke@reqres.in"))
+ *     .build();
+ *
+ * PAGE_TWO.verify(response);
+ * </pre>
+ *
+ * Paths declared without a matcher take their expected value (or matcher) per call, in order,
+ * which suits data-driven rows: {@code .body("id").body("name")} then {@code verify(response, id, name)}.
+ *
+ * Paths support the GPath subset used by the suite: dotted keys, {@code [index]} (negative from
+ * the end), a trailing {@code size()}, and keys applied to an array collecting that key from
+ * every element. Values are matched as RestAssured's JsonPath returns them by default: integers as
+ * {@code Integer}, {@code Long} or {@code BigInteger}, decimals as {@code Float} ({@code Double} when
+ * out of float range), arrays as {@code List}, objects as {@code Map}.
+ */
+public class AssertionSet {
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final Map<String, Path> paths = new ConcurrentHashMap<>();
+
+    private final List<Assertion> assertions;
+    private final int open;
+
+    private AssertionSet(List<Assertion> assertions) {
+        this.assertions = Collections.unmodifiableList(new ArrayList<>(assertions));
+        this.open = (int) assertions.stream().filter(assertion -> assertion.matcher == null).count();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private final List<Assertion> assertions = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder body(String path, Matcher<?> matcher) {
+            assertions.add(new Assertion(compile(path), matcher));
+            return this;
+        }
+
+        /**
+         * Declares a path whose expected value is passed to {@link AssertionSet#verify(Response, Object...)}.
+         */
+        public Builder body(String path) {
+            assertions.add(new Assertion(compile(path), null));
+            return this;
+        }
+
+        public AssertionSet build() {
+            return new AssertionSet(assertions);
+        }
+    }
+
+    /**
+     * Checks every assertion against the response body.
+     *
+     * @param expected one value or {@link Matcher} per path declared without a matcher, in declaration order
+     */
+    public void verify(Response response, Object... expected) {
+        verify(response.asByteArray(), expected);
+    }
+
+    public void verify(byte[] body, Object... expected) {
+        if (expected.length != open) {
+            throw new IllegalArgumentException("Expected " + open + " values for the open paths but got " + expected.length);
+        }
+        JsonNode root;
+        try {
+            root = mapper.readTree(body);
+        } catch (IOException e) {
+            throw new AssertionError("Response body is not JSON: " + e.getMessage(), e);
+        }
+        List<String> failures = new ArrayList<>();
+        int next = 0;
+        for (Assertion assertion : assertions) {
+            Matcher<?> matcher = assertion.matcher;
+            if (matcher == null) {
+                Object value = expected[next++];
+                matcher = value instanceof Matcher ? (Matcher<?>) value : equalTo(value);
+            }
+            Object actual = assertion.path.value(root);
+            if (!matcher.matches(actual)) {
+                StringDescription mismatch = new StringDescription();
+                matcher.describeMismatch(actual, mismatch);
+                failures.add(assertion.path + ": expected " + StringDescription.toString(matcher) + " but " + mismatch);
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new AssertionError(failures.size() + " of " + assertions.size() + " assertions failed:\n  "
+                    + String.join("\n  ", failures));
+        }
+    }
+
+    public int size() {
+        return assertions.size();
+    }
+
+    private static Path compile(String expression) {
+        return paths.computeIfAbsent(expression, Path::new);
+    }
+
+    private static class Assertion {
+        final Path path;
+        final Matcher<?> matcher;
+
+        Assertion(Path path, Matcher<?> matcher) {
+            this.path = path;
+            this.matcher = matcher;
+        }
+    }
+
+    /**
+     * A path compiled into key and index steps; shared by every set that declares it.
+     */
+    private static class Path {
+        private final String expression;
+        private final List<Object> steps = new ArrayList<>();
+        private final boolean size;
+
+        Path(String expression) {
+            this.expression = expression;
+            String rest = expression.trim();
+            boolean size = false;
+            if (rest.equals("size()") || rest.endsWith(".size()")) {
+                size = true;
+                rest = rest.substring(0, Math.max(0, rest.length() - ".size()".length()));
+            }
+            this.size = size;
+            int i = 0;
+            while (i < rest.length()) {
+                char c = rest.charAt(i);
+                if (c == '.') {
+                    i++;
+                } else if (c == '[') {
+                    int close = rest.indexOf(']', i);
+                    if (close < 0) {
+                        throw unsupported();
+                    }
+                    try {
+                        steps.add(Integer.parseInt(rest.substring(i + 1, close).trim()));
+                    } catch (NumberFormatException e) {
+                        throw unsupported();
+                    }
+                    i = close + 1;
+                } else {
+                    int end = i;
+                    while (end < rest.length() && rest.charAt(end) != '.' && rest.charAt(end) != '[') {
+                        end++;
+                    }
+                    String key = rest.substring(i, end);
+                    if (!key.matches("[A-Za-z0-9_$-]+")) {
+                        throw unsupported();
+                    }
+                    steps.add(key);
+                    i = end;
+                }
+            }
+        }
+
+        private IllegalArgumentException unsupported() {
+            return new IllegalArgumentException("Unsupported path \"" + expression
+                    + "\"; use response.then().body(...) for full GPath expressions");
+        }
+
+        Object value(JsonNode root) {
+            JsonNode node = root;
+            for (Object step : steps) {
+                node = step instanceof Integer ? index(node, (Integer) step) : key(node, (String) step);
+            }
+            if (size) {
+                return node.isContainerNode() ? node.size() : null;
+            }
+            return node.isMissingNode() ? null : toValue(node);
+        }
+
+        // JsonPath's default FLOAT_AND_DOUBLE number return type
+        private static Object toValue(JsonNode node) {
+            if (node.isArray()) {
+                List<Object> values = new ArrayList<>(node.size());
+                node.forEach(element -> values.add(toValue(element)));
+                return values;
+            }
+            if (node.isObject()) {
+                Map<String, Object> values = new LinkedHashMap<>();
+                node.fields().forEachRemaining(field -> values.put(field.getKey(), toValue(field.getValue())));
+                return values;
+            }
+            if (node.isIntegralNumber()) {
+                return node.canConvertToInt() ? (Object) node.intValue()
+                        : node.canConvertToLong() ? (Object) node.longValue() : node.bigIntegerValue();
+            }
+            if (node.isNumber()) {
+                double value = node.doubleValue();
+                return Float.isInfinite((float) value) && !Double.isInfinite(value) ? (Object) value : (Object) (float) value;
+            }
+            if (node.isBoolean()) {
+                return node.booleanValue();
+            }
+            return node.isNull() ? null : node.asText();
+        }
+
+        private static JsonNode index(JsonNode node, int index) {
+            if (!node.isArray()) {
+                return MissingNode.getInstance();
+            }
+            int position = index < 0 ? node.size() + index : index;
+            return position >= 0 && position < node.size() ? node.get(position) : MissingNode.getInstance();
+        }
+
+        private static JsonNode key(JsonNode node, String key) {
+            if (node.isArray()) {
+                ArrayNode values = JsonNodeFactory.instance.arrayNode(node.size());
+                for (JsonNode element : node) {
+                    JsonNode value = element.path(key);
+                    values.add(value.isMissingNode() ? JsonNodeFactory.instance.nullNode() : value);
+                }
+                return values;
+            }
+            return node.path(key);
+        }
+
+        @Override
+        public String toString() {
+            return expression;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package utils;
+
+import perf.TimingHistory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Non-blocking HTTP client for chained, fan-out and fan-in calls, on the JDK {@link HttpClient}.
+ *
+ * Every call returns at once with a {@link CompletableFuture} of an {@link AsyncResponse}, which
+ * carries RestAssured-style checks ({@code statusCode}, {@code body(path, matcher)}, {@code time}).
+ * Sockets are served by the client's selector thread and completions by a small pool
+ * ({@code async.client.threads}), so one test thread can keep hundreds of requests in flight:
+ * <pre>
+ * AsyncApiClient client = AsyncApiClient.shared();
+ * List&lt;AsyncResponse&gt; posts = AsyncApiClient.awaitAll(IntStream.rangeClosed(1, 100)
+ *         .mapToObj(id -&gt; client.get(APIEndpoints.getJsonPlaceholderUrl("/posts/" + id)))
+ *         .collect(Collectors.toList()));
+ *
+ * AsyncResponse created = AsyncApiClient.await(client.post(loginUrl, credentials)
+ *         .thenCompose(login -&gt; client.request("POST", booksUrl)
+ *                 .header("Authorization", "Bearer " + login.statusCode(200).jsonPath().getString("token"))
+ *                 .body(books)
+ *                 .send()));
+ * </pre>
+ * At most {@code async.client.max.in.flight} requests are on the wire; later ones wait in a queue
+ * without holding a thread. Cancelling a returned future drops a queued request, and aborts one on
+ * the wire where the runtime supports it (Java 16 and later). Latencies go to the
+ * {@link TimingHistory} and responses to the {@link RateLimiter} like RestAssured requests, but
+ * RestAssured filters (cassette, auth, the retry of throttled requests) do not apply. Report
+ * logging needs the test thread, so check and log results after {@link #await} rather than inside callbacks.
+ */
+public class AsyncApiClient {
+    private static volatile AsyncApiClient shared;
+
+    private final HttpClient client;
+    private final ExecutorService executor;
+    private final Duration timeout;
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile RateLimiter limiter;
+
+    /**
+     * @param threads     threads that complete responses and run dependent stages
+     * @param maxInFlight requests on the wire at once; more are queued
+     * @param timeout     limit for each request until its response arrives
+     */
+    public AsyncApiClient(int threads, int maxInFlight, Duration connectTimeout, Duration timeout) {
+        AtomicInteger count = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "async-client-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.client = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        this.maxInFlight = maxInFlight;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Returns the suite-wide client configured by the {@code async.client.*} keys, paced by the
+     * shared {@link RateLimiter}.
+     */
+    public static AsyncApiClient shared() {
+        if (shared == null) {
+            synchronized (AsyncApiClient.class) {
+                if (shared == null) {
+                    Config config = Config.get();
+                    AsyncApiClient client = new AsyncApiClient(
+                            config.getInt("async.client.threads", 2),
+                            config.getInt("async.client.max.in.flight", 512),
+                            Duration.ofMillis(config.getLong("async.client.connect.timeout.ms", 10000)),
+                            Duration.ofMillis(config.getLong("async.client.timeout.ms", 30000)));
+                    client.setRateLimiter(RateLimiter.shared());
+                    shared = client;
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Returns the suite-wide client if it has been created, without creating it.
+     */
+    public static AsyncApiClient current() {
+        return shared;
+    }
+
+    /**
+     * Paces requests per host through {@code limiter} and reports their responses to it; null sends at once.
+     */
+    public void setRateLimiter(RateLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    /**
+     * A request to build before {@link #send()}.
+     */
+    public final class Request {
+        private final String method;
+        private final HttpRequest.Builder builder;
+        private HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.noBody();
+        private boolean contentType;
+
+        private Request(String method, String url) {
+            this.method = method;
+            this.builder = HttpRequest.newBuilder(URI.create(url)).timeout(timeout);
+        }
+
+        public Request header(String name, String value) {
+            builder.header(name, value);
+            contentType |= name.equalsIgnoreCase("Content-Type");
+            return this;
+        }
+
+        /**
+         * Sets the body: a {@code String} or {@code byte[]} is sent as is, a {@link JsonBodies.Prepared}
+         * as its bytes, anything else is serialized with {@link JsonBodies}. Without a Content-Type
+         * header, {@code application/json} is sent.
+         */
+        public Request body(Object body) {
+            byte[] bytes;
+            if (body instanceof byte[]) {
+                bytes = (byte[]) body;
+            } else if (body instanceof String) {
+                bytes = ((String) body).getBytes(StandardCharsets.UTF_8);
+            } else if (body instanceof JsonBodies.Prepared) {
+                bytes = ((JsonBodies.Prepared) body).getBytes();
+            } else {
+                bytes = JsonBodies.toBytes(body);
+            }
+            this.body = HttpRequest.BodyPublishers.ofByteArray(bytes);
+            return this;
+        }
+
+        public CompletableFuture<AsyncResponse> send() {
+            if (!contentType && body.contentLength() > 0) {
+                // the builder is reused by every send, so add the default only once
+                builder.header("Content-Type", "application/json");
+                contentType = true;
+            }
+            return AsyncApiClient.this.send(method, builder.method(method, body).build());
+        }
+    }
+
+    public Request request(String method, String url) {
+        return new Request(method, url);
+    }
+
+    public CompletableFuture<AsyncResponse> get(String url) {
+        return request("GET", url).send();
+    }
+
+    public CompletableFuture<AsyncResponse> post(String url, Object body) {
+        return request("POST", url).body(body).send();
+    }
+
+    public CompletableFuture<AsyncResponse> put(String url, Object body) {
+        return request("PUT", url).body(body).send();
+    }
+
+    public CompletableFuture<AsyncResponse> patch(String url, Object body) {
+        return request("PATCH", url).body(body).send();
+    }
+
+    public CompletableFuture<AsyncResponse> delete(String url) {
+        return request("DELETE", url).send();
+    }
+
+    private CompletableFuture<AsyncResponse> send(String method, HttpRequest request) {
+        CompletableFuture<AsyncResponse> result = new CompletableFuture<>();
+        String url = request.uri().toString();
+        RateLimiter limiter = this.limiter;
+        Runnable enqueue = () -> {
+            waiting.add(() -> {
+                if (result.isDone()) {
+                    // cancelled while it was queued; give back the slot drain() took for it
+                    inFlight.decrementAndGet();
+                    return;
+                }
+                sent.increment();
+                try {
+                    dispatch(method, request, url, limiter, result);
+                } catch (RuntimeException e) {
+                    // e.g. rejected after shutdown(): no completion will run, so free the slot here
+                    failed.increment();
+                    result.completeExceptionally(e);
+                    release();
+                }
+            });
+            drain();
+        };
+        // A request that has to wait for its permit is queued once the permit is due, without holding a thread
+        long wait = limiter == null ? 0 : limiter.reserve(url);
+        if (wait > 0) {
+            CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS, task -> {
+                try {
+                    executor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    failed.increment();
+                    result.completeExceptionally(e);
+                }
+            }).execute(enqueue);
+        } else {
+            enqueue.run();
+        }
+        return result;
+    }
+
+    // Sends a request that holds an in-flight slot; the slot is released when the exchange completes
+    private void dispatch(String method, HttpRequest request, String url, RateLimiter limiter,
+                          CompletableFuture<AsyncResponse> result) {
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<byte[]>> exchange =
+                client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        result.whenComplete((ignored, error) -> {
+            if (result.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+        // sendAsync completes on the JDK's default async pool (a thread per task on one or two
+        // cores); dependent stages move to this client's threads instead
+        exchange.whenCompleteAsync((response, error) -> {
+            release();
+            long elapsed = System.nanoTime() - start;
+            if (result.isCancelled()) {
+                return;
+            }
+            if (error != null) {
+                failed.increment();
+                result.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+                return;
+            }
+            if (limiter != null) {
+                limiter.onResponse(url, response.statusCode(),
+                        response.headers().firstValue("Retry-After").orElse(null));
+            }
+            TimingHistory history = TimingHistory.current();
+            if (history != null) {
+                history.recordRequest(TimingHistory.requestKey(method, url), elapsed / 1e6);
+            }
+            result.complete(new AsyncResponse(method, response, elapsed));
+        }, executor);
+    }
+
+    // Starts queued requests while there is room; called on submit and on every completion
+    private void drain() {
+        while (!waiting.isEmpty()) {
+            int current = inFlight.get();
+            if (current >= maxInFlight) {
+                return;
+            }
+            if (!inFlight.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            Runnable next = waiting.poll();
+            if (next == null) {
+                inFlight.decrementAndGet();
+                continue;
+            }
+            peakInFlight.accumulateAndGet(current + 1, Math::max);
+            next.run();
+        }
+    }
+
+    private void release() {
+        inFlight.decrementAndGet();
+        drain();
+    }
+
+    /**
+     * Waits for {@code future} and returns its value. An {@link AssertionError} or runtime exception
+     * thrown by a stage is rethrown as is, so TestNG reports it like a synchronous check.
+     */
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for all futures (fan-in) and returns their values in order. Every future is allowed to
+     * finish before the first failure is rethrown.
+     */
+    public static <T> List<T> awaitAll(Collection<? extends CompletableFuture<? extends T>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            // rethrown below from the first failed future, in order
+        }
+        List<T> values = new ArrayList<>(futures.size());
+        for (CompletableFuture<? extends T> future : futures) {
+            values.add(await(future));
+        }
+        return values;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getPeakInFlight() {
+        return peakInFlight.get();
+    }
+
+    public long getSent() {
+        return sent.sum();
+    }
+
+    /**
+     * Requests that ended without a response (connection errors, timeouts).
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * Stops the completion threads; requests sent afterwards fail.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d sent, %d failed, in flight %d (peak %d, max %d)",
+                getSent(), getFailed(), getInFlight(), getPeakInFlight(), maxInFlight);
+    }
+}
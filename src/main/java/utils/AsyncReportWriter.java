@@ -0,0 +1,273 @@
+package utils;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Moves ExtentTest logging off the test threads.
+ * Log events go into a bounded queue that a single background thread drains in batches,
+ * applying them to the report model and flushing the report periodically while the run is in progress.
+ * A flush re-renders the whole report, so it only happens when events were applied since the previous
+ * one, and never sooner than {@value #FLUSH_SPACING} times the previous flush took; as the report
+ * grows, rendering it stays below a tenth of the run instead of repeating on every tick.
+ *
+ * When the queue is full, test threads either wait for space ({@link Overflow#BLOCK}) or the event
+ * is discarded and counted ({@link Overflow#DROP}). FAIL and SKIP events are never dropped.
+ * Submitting holds a read lock and closing the write lock, so no event is queued behind the
+ * end marker; events submitted after {@link #close()} are applied on the calling thread.
+ */
+public class AsyncReportWriter {
+
+    public enum Overflow { BLOCK, DROP }
+
+    private static final class ReportEvent {
+        private final ExtentTest test;
+        private final Status status;
+        private final String details;
+
+        private ReportEvent(ExtentTest test, Status status, String details) {
+            this.test = test;
+            this.status = status;
+            this.details = details;
+        }
+    }
+
+    private static final ReportEvent POISON = new ReportEvent(null, null, null);
+
+    // Minimum time between flushes, in multiples of how long the last flush took
+    private static final int FLUSH_SPACING = 10;
+
+    private final BlockingQueue<ReportEvent> queue;
+    private final Overflow overflow;
+    private final int batchSize;
+    private final int flushEvery;
+    private final long flushIntervalNanos;
+    private final Object lock;
+    private final Runnable flushAction;
+    private final Thread drainer;
+    // Read-locked while an event is queued, write-locked while closing
+    private final ReadWriteLock state = new ReentrantReadWriteLock();
+    // Notified after every applied batch, for awaitDrained
+    private final Object progress = new Object();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final AtomicInteger maxDepth = new AtomicInteger();
+    private volatile boolean closed;
+
+    /**
+     * @param capacity      maximum number of queued events
+     * @param overflow      what test threads do when the queue is full
+     * @param flushEvery    flush the report after this many applied events
+     * @param flushInterval flush the report at least this often while events keep arriving, in milliseconds
+     * @param lock          lock guarding the report model, shared with node creation
+     * @param flushAction   writes the report model to its reporters
+     */
+    public AsyncReportWriter(int capacity, Overflow overflow, int flushEvery, long flushInterval,
+                             Object lock, Runnable flushAction) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.overflow = overflow;
+        this.batchSize = Math.min(capacity, 512);
+        this.flushEvery = flushEvery;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushInterval);
+        this.lock = lock;
+        this.flushAction = flushAction;
+        this.drainer = new Thread(this::drain, "extent-report-writer");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+    }
+
+    /**
+     * Queues a log event for the given node. Returns false if the event was dropped.
+     */
+    public boolean submit(ExtentTest test, Status status, String details) {
+        ReportEvent event = new ReportEvent(test, status, details);
+        state.readLock().lock();
+        try {
+            if (closed || !drainer.isAlive()) {
+                apply(event);
+                return true;
+            }
+            submitted.increment();
+            if (overflow == Overflow.DROP && status != Status.FAIL && status != Status.SKIP) {
+                if (!queue.offer(event)) {
+                    dropped.increment();
+                    return false;
+                }
+            } else if (!enqueue(event)) {
+                dropped.increment();
+                return false;
+            }
+        } finally {
+            state.readLock().unlock();
+        }
+        maxDepth.accumulateAndGet(queue.size(), Math::max);
+        return true;
+    }
+
+    // Waits for space while the background thread is alive; applies the event here once it is not
+    private boolean enqueue(ReportEvent event) {
+        try {
+            while (!queue.offer(event, 100, TimeUnit.MILLISECONDS)) {
+                if (!drainer.isAlive()) {
+                    apply(event);
+                    break;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Waits until every event queued so far has been applied to the report model.
+     */
+    public boolean awaitDrained(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (progress) {
+            while (written.sum() + dropped.sum() < submitted.sum()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(progress, remaining);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drains the remaining events and stops the background thread. Later events are applied synchronously.
+     */
+    public void close() {
+        state.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            state.writeLock().unlock();
+        }
+        try {
+            queue.put(POISON);
+            drainer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getMaxQueueDepth() {
+        return maxDepth.get();
+    }
+
+    public long getSubmittedCount() {
+        return submitted.sum();
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getFlushCount() {
+        return flushes.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "submitted=" + getSubmittedCount() + ", written=" + getWrittenCount() + ", dropped=" + getDroppedCount()
+                + ", depth=" + getQueueDepth() + ", maxDepth=" + getMaxQueueDepth() + ", flushes=" + getFlushCount();
+    }
+
+    private void drain() {
+        List<ReportEvent> batch = new ArrayList<>(batchSize);
+        long sinceFlush = 0;
+        long lastFlush = System.nanoTime();
+        long flushCost = 0;
+        boolean running = true;
+        while (running) {
+            try {
+                ReportEvent first = queue.poll(Math.max(1, flushIntervalNanos / 4), TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                }
+            } catch (InterruptedException e) {
+                running = false;
+            }
+            if (batch.contains(POISON) || !running) {
+                running = false;
+                // nothing is queued after the marker, but an interrupted writer still owes what is left
+                queue.drainTo(batch);
+            }
+            int applied = 0;
+            synchronized (lock) {
+                for (ReportEvent event : batch) {
+                    if (event != POISON) {
+                        apply(event);
+                        applied++;
+                    }
+                }
+            }
+            batch.clear();
+            synchronized (progress) {
+                progress.notifyAll();
+            }
+            sinceFlush += applied;
+            long idle = System.nanoTime() - lastFlush;
+            if (sinceFlush > 0 && idle >= flushCost * FLUSH_SPACING
+                    && (sinceFlush >= flushEvery || idle >= flushIntervalNanos)) {
+                long start = System.nanoTime();
+                flush();
+                lastFlush = System.nanoTime();
+                flushCost = lastFlush - start;
+                sinceFlush = 0;
+            }
+        }
+    }
+
+    private void apply(ReportEvent event) {
+        try {
+            synchronized (lock) {
+                event.test.log(event.status, event.details);
+            }
+        } catch (Exception e) {
+            System.err.println("Error writing report event: " + e.getMessage());
+        } finally {
+            written.increment();
+        }
+    }
+
+    private void flush() {
+        try {
+            synchronized (lock) {
+                flushAction.run();
+            }
+            flushes.increment();
+        } catch (Exception e) {
+            System.err.println("Error flushing report: " + e.getMessage());
+        }
+    }
+}
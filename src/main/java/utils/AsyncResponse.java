@@ -0,0 +1,124 @@
+package utils;
+
+import io.restassured.path.json.JsonPath;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * A response received by {@link AsyncApiClient}.
+ *
+ * The checks mirror RestAssured's {@code then()}: each throws an {@link AssertionError} on
+ * mismatch and returns this response, so they chain and can run inside {@code thenApply}.
+ * Body paths use RestAssured's {@link JsonPath} syntax; the body is parsed once, on the first
+ * path lookup.
+ */
+public class AsyncResponse {
+    private final String method;
+    private final HttpResponse<byte[]> response;
+    private final long elapsedNanos;
+    private volatile JsonPath json;
+
+    AsyncResponse(String method, HttpResponse<byte[]> response, long elapsedNanos) {
+        this.method = method;
+        this.response = response;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getStatusCode() {
+        return response.statusCode();
+    }
+
+    public String getHeader(String name) {
+        return response.headers().firstValue(name).orElse(null);
+    }
+
+    public HttpHeaders getHeaders() {
+        return response.headers();
+    }
+
+    public byte[] asByteArray() {
+        return response.body();
+    }
+
+    public String asString() {
+        return new String(response.body(), StandardCharsets.UTF_8);
+    }
+
+    public JsonPath jsonPath() {
+        JsonPath parsed = json;
+        if (parsed == null) {
+            parsed = JsonPath.from(asString());
+            json = parsed;
+        }
+        return parsed;
+    }
+
+    /**
+     * Maps the body with the shared mapper of {@link JsonBodies}.
+     */
+    public <T> T as(Class<T> type) {
+        return JsonBodies.fromBytes(response.body(), type);
+    }
+
+    /**
+     * Time from sending the request to receiving the whole body.
+     */
+    public long getTime(TimeUnit unit) {
+        return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getTime() {
+        return getTime(TimeUnit.MILLISECONDS);
+    }
+
+    public AsyncResponse statusCode(int expected) {
+        return statusCode(equalTo(expected));
+    }
+
+    public AsyncResponse statusCode(Matcher<? super Integer> matcher) {
+        return check("status code", response.statusCode(), matcher);
+    }
+
+    public AsyncResponse header(String name, Matcher<? super String> matcher) {
+        return check("header " + name, getHeader(name), matcher);
+    }
+
+    public AsyncResponse body(String path, Matcher<?> matcher) {
+        return check("JSON path " + path, jsonPath().get(path), matcher);
+    }
+
+    public AsyncResponse time(Matcher<? super Long> matcher) {
+        return check("response time in ms", getTime(), matcher);
+    }
+
+    /**
+     * Checks a compiled {@link AssertionSet} against the body in one parse.
+     */
+    public AsyncResponse verify(AssertionSet assertions, Object... expected) {
+        assertions.verify(response.body(), expected);
+        return this;
+    }
+
+    private AsyncResponse check(String what, Object actual, Matcher<?> matcher) {
+        if (!matcher.matches(actual)) {
+            StringDescription mismatch = new StringDescription();
+            matcher.describeMismatch(actual, mismatch);
+            throw new AssertionError(String.format("%s: expected %s %s but %s", this, what,
+                    StringDescription.toString(matcher), mismatch));
+        }
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s -> %d (%d ms, %d bytes)", method, response.uri(), response.statusCode(),
+                getTime(), response.body().length);
+    }
+}
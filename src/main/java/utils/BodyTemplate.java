@@ -0,0 +1,275 @@
+package utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JSON request body with {@code {{name}}} placeholders, filled in at the byte level.
+ *
+ * Each file is read once and split into literal byte ranges and placeholder slots. Rendering
+ * measures the UTF-8 size of the values, allocates the final array once and copies literals and
+ * values straight into it, escaping values as JSON string content; nothing else is allocated and
+ * no file is opened per request. {@link #render(ByteBuffer, CharSequence...)} writes into a
+ * caller's reusable buffer instead.
+ * <pre>
+ * // Resources/TestData/createUserTemplate.json: {"name": "{{name}}", "job": "{{job}}"}
+ * private static final BodyTemplate CREATE_USER = BodyTemplate.load("Resources/TestData/createUserTemplate.json");
+ * given().contentType(ContentType.JSON).body(CREATE_USER.render("morpheus", "leader"))
+ * </pre>
+ * Values are passed in the order of {@link #getNames()}, the order in which placeholders first
+ * appear; a name used twice takes the same value. Unquoted placeholders work for numbers and booleans.
+ */
+public final class BodyTemplate {
+    private static final Map<Path, BodyTemplate> templates = new ConcurrentHashMap<>();
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final String source;
+    private final byte[] bytes;
+    // literal i is bytes[literalStart[i], literalEnd[i]); placeholder i follows literal i
+    private final int[] literalStart;
+    private final int[] literalEnd;
+    private final int[] slots;
+    private final int literalLength;
+    private final List<String> names;
+
+    private BodyTemplate(String source, byte[] bytes) {
+        this.source = source;
+        this.bytes = bytes;
+        List<String> found = new ArrayList<>();
+        List<int[]> placeholders = new ArrayList<>();
+        int from = 0;
+        while (true) {
+            int open = indexOf(bytes, from, '{', '{');
+            if (open < 0) {
+                break;
+            }
+            int close = indexOf(bytes, open + 2, '}', '}');
+            if (close < 0) {
+                throw new IllegalArgumentException("Unterminated placeholder at byte " + open + " of " + source);
+            }
+            String name = new String(bytes, open + 2, close - open - 2, StandardCharsets.UTF_8).trim();
+            if (!name.matches("[A-Za-z0-9_.-]+")) {
+                throw new IllegalArgumentException("Invalid placeholder {{" + name + "}} in " + source);
+            }
+            if (!found.contains(name)) {
+                found.add(name);
+            }
+            placeholders.add(new int[]{open, close + 2, found.indexOf(name)});
+            from = close + 2;
+        }
+        int count = placeholders.size();
+        literalStart = new int[count + 1];
+        literalEnd = new int[count + 1];
+        slots = new int[count];
+        int start = 0;
+        int length = 0;
+        for (int i = 0; i < count; i++) {
+            int[] placeholder = placeholders.get(i);
+            literalStart[i] = start;
+            literalEnd[i] = placeholder[0];
+            slots[i] = placeholder[2];
+            length += placeholder[0] - start;
+            start = placeholder[1];
+        }
+        literalStart[count] = start;
+        literalEnd[count] = bytes.length;
+        literalLength = length + bytes.length - start;
+        names = Collections.unmodifiableList(found);
+    }
+
+    private static int indexOf(byte[] bytes, int from, char first, char second) {
+        for (int i = from; i < bytes.length - 1; i++) {
+            if (bytes[i] == first && bytes[i + 1] == second) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the template for {@code path}, reading and parsing the file on first use only.
+     *
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    public static BodyTemplate load(String path) {
+        return load(Paths.get(path));
+    }
+
+    public static BodyTemplate load(Path path) {
+        return templates.computeIfAbsent(path.toAbsolutePath().normalize(), file -> {
+            try {
+                return new BodyTemplate(file.toString(), Files.readAllBytes(file));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read body template " + file, e);
+            }
+        });
+    }
+
+    /**
+     * A template from a string, e.g. {@code {"name": "{{name}}"}}; keep it in a static field.
+     */
+    public static BodyTemplate of(String template) {
+        return new BodyTemplate("inline template", template.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public List<String> getNames() {
+        return names;
+    }
+
+    /**
+     * Size in bytes of the body rendered with {@code values}.
+     */
+    public int length(CharSequence... values) {
+        checkValues(values);
+        int length = literalLength;
+        for (int slot : slots) {
+            length += encodedLength(values[slot]);
+        }
+        return length;
+    }
+
+    /**
+     * Renders the body into a new array of exactly its size.
+     */
+    public byte[] render(CharSequence... values) {
+        byte[] body = new byte[length(values)];
+        write(body, 0, values);
+        return body;
+    }
+
+    /**
+     * Renders the body at the buffer's position and advances it, so one buffer can serve many requests.
+     *
+     * @return the number of bytes written
+     * @throws BufferOverflowException if the body does not fit in the remaining space
+     */
+    public int render(ByteBuffer buffer, CharSequence... values) {
+        int length = length(values);
+        if (buffer.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        if (buffer.hasArray()) {
+            write(buffer.array(), buffer.arrayOffset() + buffer.position(), values);
+            buffer.position(buffer.position() + length);
+        } else {
+            // direct buffers take a copy
+            buffer.put(render(values));
+        }
+        return length;
+    }
+
+    private void write(byte[] out, int offset, CharSequence[] values) {
+        int position = offset;
+        for (int i = 0; i < slots.length; i++) {
+            int literal = literalEnd[i] - literalStart[i];
+            System.arraycopy(bytes, literalStart[i], out, position, literal);
+            position = writeEscaped(out, position + literal, values[slots[i]]);
+        }
+        System.arraycopy(bytes, literalStart[slots.length], out, position, literalEnd[slots.length] - literalStart[slots.length]);
+    }
+
+    private void checkValues(CharSequence[] values) {
+        if (values.length != names.size()) {
+            throw new IllegalArgumentException("Expected values for " + names + " but got " + values.length);
+        }
+    }
+
+    // UTF-8 size after JSON string escaping
+    private static int encodedLength(CharSequence value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\' || c == '\n' || c == '\r' || c == '\t' || c == '\b' || c == '\f') {
+                length += 2;
+            } else if (c < 0x20) {
+                length += 6;
+            } else if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                // a lone surrogate is written as U+FFFD, three bytes like any other BMP character
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static int writeEscaped(byte[] out, int position, CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                int escape = escape(c);
+                if (escape > 0) {
+                    out[position++] = '\\';
+                    out[position++] = (byte) escape;
+                } else if (c < 0x20) {
+                    out[position++] = '\\';
+                    out[position++] = 'u';
+                    out[position++] = '0';
+                    out[position++] = '0';
+                    out[position++] = HEX[c >> 4];
+                    out[position++] = HEX[c & 0xF];
+                } else {
+                    out[position++] = (byte) c;
+                }
+            } else if (c < 0x800) {
+                out[position++] = (byte) (0xC0 | c >> 6);
+                out[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                out[position++] = (byte) (0xF0 | codePoint >> 18);
+                out[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                out[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                out[position++] = (byte) (0x80 | codePoint & 0x3F);
+            } else {
+                char bmp = Character.isSurrogate(c) ? '\uFFFD' : c;
+                out[position++] = (byte) (0xE0 | bmp >> 12);
+                out[position++] = (byte) (0x80 | bmp >> 6 & 0x3F);
+                out[position++] = (byte) (0x80 | bmp & 0x3F);
+            }
+        }
+        return position;
+    }
+
+    // The two-character escape for c, or 0
+    private static int escape(char c) {
+        switch (c) {
+            case '"':
+                return '"';
+            case '\\':
+                return '\\';
+            case '\n':
+                return 'n';
+            case '\r':
+                return 'r';
+            case '\t':
+                return 't';
+            case '\b':
+                return 'b';
+            case '\f':
+                return 'f';
+            default:
+                return 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return source + " " + names;
+    }
+}
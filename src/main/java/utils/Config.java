@@ -0,0 +1,236 @@
+package utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Immutable snapshot of the framework configuration.
+ *
+ * Values are merged once, in increasing order of precedence, from:
+ * - {@code config.properties} on the classpath (src/main/resources)
+ * - the file named by {@code config.file}, by default {@code config.properties} in the working directory
+ * - environment variables, where {@code report.title} is read from {@code REPORT_TITLE}
+ * - system properties with the same key
+ *
+ * Environment variables and system properties only override keys the two files define, so the
+ * JVM's own {@code java.*}, {@code os.*} and {@code user.*} properties never enter the snapshot.
+ *
+ * The current snapshot is published through an atomic reference, so readers never lock and always
+ * see one consistent set of values. {@link #reload()} and the optional file watcher
+ * ({@code config.watch=true}) swap in a new snapshot atomically.
+ */
+public final class Config {
+    private static final String RESOURCE_NAME = "config.properties";
+    private static final AtomicReference<Config> current = new AtomicReference<>();
+    private static final AtomicLong versions = new AtomicLong();
+    private static volatile WatchService watchService;
+
+    private final Map<String, String> values;
+    private final Path file;
+    private final long version;
+
+    private Config(Map<String, String> values, Path file) {
+        this.values = Collections.unmodifiableMap(values);
+        this.file = file;
+        this.version = versions.incrementAndGet();
+    }
+
+    /**
+     * Returns the current configuration snapshot, loading it on first use.
+     */
+    public static Config get() {
+        Config config = current.get();
+        if (config == null) {
+            current.compareAndSet(null, load(configFile()));
+            config = current.get();
+            if (config.getBoolean("config.watch", false)) {
+                watch();
+            }
+        }
+        return config;
+    }
+
+    /**
+     * Re-reads every source and atomically replaces the current snapshot.
+     */
+    public static Config reload() {
+        return reload(configFile());
+    }
+
+    /**
+     * Loads the given file and atomically replaces the current snapshot with it.
+     */
+    public static Config reload(Path file) {
+        Config config = load(file);
+        current.set(config);
+        return config;
+    }
+
+    /**
+     * Loads a snapshot from the classpath defaults, the given file and the environment/system overrides.
+     */
+    public static Config load(Path file) {
+        Map<String, String> merged = new HashMap<>();
+        try (InputStream input = Config.class.getClassLoader().getResourceAsStream(RESOURCE_NAME)) {
+            if (input != null) {
+                putAll(merged, input);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to load classpath configuration: " + e.getMessage());
+        }
+        if (file != null && Files.isRegularFile(file)) {
+            try (InputStream input = Files.newInputStream(file)) {
+                putAll(merged, input);
+            } catch (IOException e) {
+                System.err.println("Failed to load configuration file " + file + ": " + e.getMessage());
+            }
+        }
+        for (String key : merged.keySet().toArray(new String[0])) {
+            String env = System.getenv(envName(key));
+            if (env != null) {
+                merged.put(key, env);
+            }
+            String property = System.getProperty(key);
+            if (property != null) {
+                merged.put(key, property);
+            }
+        }
+        return new Config(merged, file);
+    }
+
+    /**
+     * Starts a daemon thread that reloads the snapshot whenever the configuration file changes.
+     * Useful for long soak runs where settings are tuned without restarting the JVM.
+     */
+    public static void watch() {
+        watch(configFile());
+    }
+
+    /**
+     * Like {@link #watch()}, but reloads the snapshot from the given file.
+     */
+    public static synchronized void watch(Path configFile) {
+        if (watchService != null) {
+            return;
+        }
+        Path file = configFile.toAbsolutePath();
+        Path directory = file.getParent();
+        try {
+            WatchService service = directory.getFileSystem().newWatchService();
+            directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            watchService = service;
+            Thread watcher = new Thread(() -> watchLoop(service, file), "config-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+        } catch (IOException e) {
+            System.err.println("Failed to watch configuration file " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the file watcher started by {@link #watch()}.
+     */
+    public static synchronized void stopWatching() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                System.err.println("Failed to stop configuration watcher: " + e.getMessage());
+            }
+            watchService = null;
+        }
+    }
+
+    public String getString(String key) {
+        String value = values.get(key);
+        return value != null ? value : System.getenv(envName(key));
+    }
+
+    public String getString(String key, String defaultValue) {
+        String value = getString(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = getString(key);
+        return value != null ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+
+    public long getLong(String key, long defaultValue) {
+        String value = getString(key);
+        return value != null ? Long.parseLong(value.trim()) : defaultValue;
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        String value = getString(key);
+        return value != null ? Double.parseDouble(value.trim()) : defaultValue;
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key);
+        return value != null ? Boolean.parseBoolean(value.trim()) : defaultValue;
+    }
+
+    /**
+     * Monotonically increasing snapshot number, handy for checking whether a reload happened.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    private static Path configFile() {
+        return Paths.get(System.getProperty("config.file", RESOURCE_NAME));
+    }
+
+    private static String envName(String key) {
+        return key.toUpperCase(Locale.ROOT).replace('.', '_').replace('-', '_');
+    }
+
+    private static void putAll(Map<String, String> target, InputStream input) throws IOException {
+        Properties properties = new Properties();
+        properties.load(input);
+        for (String key : properties.stringPropertyNames()) {
+            target.put(key, properties.getProperty(key).trim());
+        }
+    }
+
+    private static void watchLoop(WatchService service, Path file) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    Object context = event.context();
+                    if (context instanceof Path && file.getFileName().equals(context)) {
+                        changed = true;
+                    }
+                }
+                key.reset();
+                if (changed) {
+                    reload(file);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // watcher stopped
+        }
+    }
+}
@@ -2,31 +2,210 @@ package utils;
 
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.aventstack.extentreports.reporter.JsonFormatter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
 public class ExtentReport {
-    public static ExtentReports extentreport = null;
-    public static ExtentTest extentlog;
-    
+    public static volatile ExtentReports extentreport = null;
+
+    // ExtentReports publishes every model change through non thread-safe subjects,
+    // so node creation, logging and flushing are serialized on this lock.
+    private static final Object lock = new Object();
+
+    // Drains log events in the background when report.async is enabled (the default)
+    private static volatile AsyncReportWriter writer;
+
+    // Streams results as JSON Lines when report.format is jsonl or both
+    private static volatile JsonlReporter jsonl;
+
+    /**
+     * Sets up the formats chosen by {@code report.format}: {@code spark} (default) for the HTML
+     * report at {@code reportPath}, {@code jsonl} for a {@link JsonlReporter} writing
+     * {@code results.jsonl} next to it, or {@code both}.
+     */
     public static void initialize(String reportPath) {
-        if (extentreport == null) {
-            ExtentSparkReporter sparkReporter = new ExtentSparkReporter(reportPath);
-            sparkReporter.config().setTheme(Theme.STANDARD);
-            sparkReporter.config().setDocumentTitle(PropertyReader.propertyReader("config.properties", "report.title"));
-            sparkReporter.config().setReportName(PropertyReader.propertyReader("config.properties", "report.name"));
-            
-            extentreport = new ExtentReports();
-            extentreport.attachReporter(sparkReporter);
-            extentreport.setSystemInfo("Host Name", System.getProperty("user.name"));
-            extentreport.setSystemInfo("Environment", PropertyReader.propertyReader("config.properties", "environment"));
-            extentreport.setSystemInfo("OS", System.getProperty("os.name"));
-        }
-    }
-    
-    public static void flush() {
+        synchronized (lock) {
+            if (extentreport == null && jsonl == null) {
+                Config config = Config.get();
+                String format = config.getString("report.format", "spark").trim().toLowerCase();
+                if (!format.equals("spark") && !format.equals("jsonl") && !format.equals("both")) {
+                    throw new IllegalArgumentException("report.format must be spark, jsonl or both: " + format);
+                }
+                if (!format.equals("spark")) {
+                    try {
+                        jsonl = new JsonlReporter(Paths.get(reportPath).resolveSibling("results.jsonl"),
+                                config.getLong("report.jsonl.flush.interval.ms", 1000));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    jsonl.info("Host Name", System.getProperty("user.name"));
+                    jsonl.info("Environment", config.getString("environment", "QA"));
+                    jsonl.info("OS", System.getProperty("os.name"));
+                }
+                if (format.equals("jsonl")) {
+                    return;
+                }
+                ExtentSparkReporter sparkReporter = new ExtentSparkReporter(reportPath);
+                sparkReporter.config().setTheme(Theme.STANDARD);
+                sparkReporter.config().setDocumentTitle(config.getString("report.title", "API Automation Test Report"));
+                sparkReporter.config().setReportName(config.getString("report.name", "API Test Results"));
+
+                ExtentReports reports = new ExtentReports();
+                reports.attachReporter(sparkReporter);
+                // JSON archive for merging the reports of several forks, see core.ShardRunner
+                String jsonFile = config.getString("report.json.file", "");
+                if (!jsonFile.isEmpty()) {
+                    reports.attachReporter(new JsonFormatter(jsonFile));
+                }
+                reports.setSystemInfo("Host Name", System.getProperty("user.name"));
+                reports.setSystemInfo("Environment", config.getString("environment", "QA"));
+                reports.setSystemInfo("OS", System.getProperty("os.name"));
+                extentreport = reports;
+
+                if (config.getBoolean("report.async", true)) {
+                    writer = new AsyncReportWriter(
+                            config.getInt("report.queue.capacity", 10000),
+                            AsyncReportWriter.Overflow.valueOf(config.getString("report.queue.overflow", "block").toUpperCase()),
+                            config.getInt("report.flush.events", 50000),
+                            config.getLong("report.flush.interval.ms", 30000),
+                            lock, reports::flush);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the report node for the test invocation running on the calling thread.
+     * Replaces the old pattern of assigning a shared static ExtentTest field.
+     */
+    public static ExtentTest createTest(String name, String description) {
+        ReportContext context = ReportContext.current();
+        if (context == null) {
+            context = ReportContext.open(name, description);
+        }
+        return context.createTest(name, description);
+    }
+
+    /**
+     * Returns the report node of the invocation running on the calling thread, or null if there is none.
+     */
+    public static ExtentTest getTest() {
+        ReportContext context = ReportContext.current();
+        return context != null ? context.getTest() : null;
+    }
+
+    /**
+     * Logs a step into the report node of the invocation running on the calling thread.
+     */
+    public static void log(Status status, String details) {
+        ReportContext context = ReportContext.current();
+        if (context != null) {
+            log(context, status, details);
+        }
+    }
+
+    /**
+     * Logs a step into the report node of {@code context}, in every configured format.
+     */
+    public static void log(ReportContext context, Status status, String details) {
         if (extentreport != null) {
-            extentreport.flush();
+            log(context.getTest(), status, details);
+        }
+        JsonlReporter reporter = jsonl;
+        if (reporter != null) {
+            reporter.log(context.getNodeId(), status, details);
+        }
+    }
+
+    public static void log(ExtentTest test, Status status, String details) {
+        if (test != null) {
+            AsyncReportWriter asyncWriter = writer;
+            if (asyncWriter != null) {
+                asyncWriter.submit(test, status, details);
+            } else {
+                synchronized (lock) {
+                    test.log(status, details);
+                }
+            }
         }
     }
+
+    /**
+     * Returns the background writer, or null when report.async is disabled.
+     */
+    public static AsyncReportWriter getWriter() {
+        return writer;
+    }
+
+    /**
+     * Blocks until every log event submitted so far is part of the report model.
+     */
+    public static boolean awaitDrained(long timeout, TimeUnit unit) throws InterruptedException {
+        AsyncReportWriter asyncWriter = writer;
+        return asyncWriter == null || asyncWriter.awaitDrained(timeout, unit);
+    }
+
+    /**
+     * Returns the JSON Lines reporter, or null when report.format is spark.
+     */
+    public static JsonlReporter getJsonlReporter() {
+        return jsonl;
+    }
+
+    // Id of a new node in the JSON Lines report, or 0 when it is not enabled
+    static long newNode(String name, String description) {
+        JsonlReporter reporter = jsonl;
+        return reporter != null ? reporter.startTest(name, description) : 0;
+    }
+
+    static ExtentTest newTest(String name, String description) {
+        synchronized (lock) {
+            if (extentreport == null) {
+                return null;
+            }
+            return description != null ? extentreport.createTest(name, description) : extentreport.createTest(name);
+        }
+    }
+
+    /**
+     * Adds a key/value pair to the report's system information, if the report is initialized.
+     */
+    public static void setSystemInfo(String key, String value) {
+        synchronized (lock) {
+            if (extentreport != null) {
+                extentreport.setSystemInfo(key, value);
+            }
+        }
+        JsonlReporter reporter = jsonl;
+        if (reporter != null) {
+            reporter.info(key, value);
+        }
+    }
+
+    public static void flush() {
+        AsyncReportWriter asyncWriter = writer;
+        if (asyncWriter != null) {
+            asyncWriter.close();
+        }
+        synchronized (lock) {
+            if (extentreport != null) {
+                if (asyncWriter != null) {
+                    extentreport.setSystemInfo("Report Queue", asyncWriter.toString());
+                }
+                extentreport.flush();
+            }
+        }
+        JsonlReporter reporter = jsonl;
+        if (reporter != null) {
+            reporter.flush();
+        }
+    }
+
 }
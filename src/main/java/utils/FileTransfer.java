@@ -0,0 +1,545 @@
+package utils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Downloads and uploads files of any size with bounded memory, checksumming the bytes on the way.
+ *
+ * Downloads stream the response into a {@link FileChannel} buffer by buffer, updating a SHA-256
+ * digest and the byte count as they arrive, and replace the target only when the whole body was
+ * received with a 2xx status. Uploads read the file through a {@link FileChannel} in chunks of
+ * {@code transfer.buffer.bytes}, one chunk per request from the HTTP client, as a raw body or a
+ * single-file multipart form. Heap use depends on the buffer size, not on the file size.
+ *
+ * Transfers use the JDK {@link HttpClient} because the pooled RestAssured client buffers whole
+ * response bodies (see {@link HttpClientPool}), so RestAssured filters such as the cassette and
+ * timing filters do not see them.
+ * <pre>
+ * FileTransfer.Result result = FileTransfer.shared().download(url, Paths.get("target/artifact.bin"));
+ * assertEquals(result.getSha256(), expectedSha256);
+ * </pre>
+ */
+public class FileTransfer {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static volatile FileTransfer shared;
+
+    private final HttpClient client;
+    private final int bufferSize;
+    private final Duration timeout;
+    private final int previewBytes;
+
+    /**
+     * Outcome of one transfer.
+     */
+    public static final class Result {
+        private final int statusCode;
+        private final String contentType;
+        private final long size;
+        private final String sha256;
+        private final long sent;
+        private final String sentSha256;
+        private final byte[] preview;
+        private final Path file;
+        private final long elapsedNanos;
+
+        Result(int statusCode, String contentType, long size, String sha256, long sent, String sentSha256,
+               byte[] preview, Path file, long elapsedNanos) {
+            this.statusCode = statusCode;
+            this.contentType = contentType;
+            this.size = size;
+            this.sha256 = sha256;
+            this.sent = sent;
+            this.sentSha256 = sentSha256;
+            this.preview = preview;
+            this.file = file;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        public boolean isSuccessful() {
+            return statusCode / 100 == 2;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * Size of the response body in bytes.
+         */
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * Hex SHA-256 of the response body.
+         */
+        public String getSha256() {
+            return sha256;
+        }
+
+        /**
+         * Bytes of the uploaded file that were sent, 0 for downloads.
+         */
+        public long getSent() {
+            return sent;
+        }
+
+        /**
+         * Hex SHA-256 of the uploaded file as it was read, or null for downloads.
+         */
+        public String getSentSha256() {
+            return sentSha256;
+        }
+
+        /**
+         * The start of the response body as text: whole for small upload responses, empty for
+         * successful downloads, which go to the file.
+         */
+        public String getPreview() {
+            return new String(preview, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * The downloaded file, or null for uploads and failed downloads.
+         */
+        public Path getFile() {
+            return file;
+        }
+
+        public Duration getElapsed() {
+            return Duration.ofNanos(elapsedNanos);
+        }
+
+        @Override
+        public String toString() {
+            long bytes = Math.max(size, sent);
+            double seconds = elapsedNanos / 1e9;
+            return String.format("%d: %s%d bytes received, sha256 %s, %d ms (%.1f MB/s)", statusCode,
+                    sentSha256 != null ? sent + " bytes sent (sha256 " + sentSha256 + "), " : "",
+                    size, sha256, elapsedNanos / 1_000_000, seconds > 0 ? bytes / seconds / 1e6 : 0);
+        }
+    }
+
+    /**
+     * @param bufferSize   upload chunk size in bytes
+     * @param timeout      limit for each request
+     * @param previewBytes how much of an upload or error response body is kept in memory
+     */
+    public FileTransfer(HttpClient client, int bufferSize, Duration timeout, int previewBytes) {
+        this.client = client;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.previewBytes = previewBytes;
+    }
+
+    /**
+     * Returns the suite-wide instance configured by the {@code transfer.*} keys.
+     */
+    public static FileTransfer shared() {
+        if (shared == null) {
+            synchronized (FileTransfer.class) {
+                if (shared == null) {
+                    Config config = Config.get();
+                    HttpClient client = HttpClient.newBuilder()
+                            .version(HttpClient.Version.HTTP_1_1)
+                            .followRedirects(HttpClient.Redirect.NORMAL)
+                            .connectTimeout(Duration.ofMillis(config.getLong("transfer.connect.timeout.ms", 10000)))
+                            .build();
+                    shared = new FileTransfer(client,
+                            config.getInt("transfer.buffer.bytes", 65536),
+                            Duration.ofMillis(config.getLong("transfer.timeout.ms", 600000)),
+                            config.getInt("transfer.preview.bytes", 65536));
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Streams {@code url} into {@code target}. The body is written to {@code target.part} first and
+     * moved into place on a 2xx status; otherwise the partial file is deleted and the start of the
+     * error body is available from {@link Result#getPreview()}.
+     */
+    public Result download(String url, Path target) throws IOException {
+        Path absolute = target.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Path part = absolute.resolveSibling(absolute.getFileName() + ".part");
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(timeout).GET().build();
+        long start = System.nanoTime();
+        HttpResponse<Sink> response;
+        try {
+            response = send(request, info -> new Sink(info.statusCode() / 100 == 2 ? part : null, previewBytes));
+        } catch (IOException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+        Sink body = response.body();
+        Path file = null;
+        if (response.statusCode() / 100 == 2) {
+            Files.move(part, absolute, StandardCopyOption.REPLACE_EXISTING);
+            file = absolute;
+        } else {
+            Files.deleteIfExists(part);
+        }
+        return new Result(response.statusCode(), response.headers().firstValue("Content-Type").orElse(null),
+                body.size, body.sha256, 0, null, body.preview(), file, System.nanoTime() - start);
+    }
+
+    /**
+     * POSTs {@code file} as the raw request body.
+     */
+    public Result upload(String url, Path file, String contentType) throws IOException {
+        return upload("POST", url, file, contentType);
+    }
+
+    public Result upload(String method, String url, Path file, String contentType) throws IOException {
+        return send(method, url, contentType, new FilePublisher(file, new byte[0], new byte[0], bufferSize));
+    }
+
+    /**
+     * POSTs {@code file} as the only part of a {@code multipart/form-data} form, like a browser file input.
+     */
+    public Result uploadMultipart(String url, String field, Path file, String contentType) throws IOException {
+        String boundary = "----FileTransfer" + UUID.randomUUID().toString().replace("-", "");
+        byte[] head = ("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + field + "\"; filename=\""
+                + file.getFileName() + "\"\r\nContent-Type: " + contentType + "\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+        byte[] tail = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8);
+        return send("POST", url, "multipart/form-data; boundary=" + boundary, new FilePublisher(file, head, tail, bufferSize));
+    }
+
+    private Result send(String method, String url, String contentType, FilePublisher publisher) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(timeout)
+                .header("Content-Type", contentType)
+                .method(method, HttpRequest.BodyPublishers.fromPublisher(publisher, publisher.contentLength()))
+                .build();
+        long start = System.nanoTime();
+        HttpResponse<Sink> response = send(request, info -> new Sink(null, previewBytes));
+        Sink body = response.body();
+        return new Result(response.statusCode(), response.headers().firstValue("Content-Type").orElse(null),
+                body.size, body.sha256, publisher.sent.get(), publisher.sha256.get(), body.preview(), null,
+                System.nanoTime() - start);
+    }
+
+    private HttpResponse<Sink> send(HttpRequest request, HttpResponse.BodyHandler<Sink> handler) throws IOException {
+        try {
+            return client.send(request, handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException interrupted = new InterruptedIOException("Interrupted: " + request.uri());
+            interrupted.initCause(e);
+            throw interrupted;
+        }
+    }
+
+    /**
+     * Hex SHA-256 of a file, read with a buffer of {@code bufferSize} bytes.
+     */
+    public static String sha256(Path file, int bufferSize) throws IOException {
+        MessageDigest digest = newDigest();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return hex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required by every Java platform", e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Receives a response body one buffer list at a time: digests it, writes it to the file if
+     * there is one, and keeps the first {@code previewLimit} bytes otherwise. It asks for the next
+     * buffers only after the current ones are written, so nothing queues up in memory.
+     */
+    private static final class Sink implements HttpResponse.BodySubscriber<Sink> {
+        private final CompletableFuture<Sink> result = new CompletableFuture<>();
+        private final MessageDigest digest = newDigest();
+        private final Path file;
+        private final byte[] preview;
+        private FileChannel channel;
+        private Flow.Subscription subscription;
+        private int previewSize;
+        private long size;
+        private String sha256;
+
+        Sink(Path file, int previewLimit) {
+            this.file = file;
+            this.preview = new byte[file == null ? previewLimit : 0];
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            try {
+                if (file != null) {
+                    channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                            StandardOpenOption.TRUNCATE_EXISTING);
+                }
+                subscription.request(1);
+            } catch (IOException e) {
+                subscription.cancel();
+                result.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            try {
+                for (ByteBuffer buffer : buffers) {
+                    size += buffer.remaining();
+                    digest.update(buffer.duplicate());
+                    if (channel != null) {
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
+                        }
+                    } else if (previewSize < preview.length) {
+                        int length = Math.min(buffer.remaining(), preview.length - previewSize);
+                        buffer.get(preview, previewSize, length);
+                        previewSize += length;
+                    }
+                }
+                subscription.request(1);
+            } catch (IOException e) {
+                subscription.cancel();
+                close();
+                result.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            close();
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            close();
+            sha256 = hex(digest.digest());
+            result.complete(this);
+        }
+
+        private void close() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    result.completeExceptionally(e);
+                }
+            }
+        }
+
+        byte[] preview() {
+            return Arrays.copyOf(preview, previewSize);
+        }
+
+        @Override
+        public CompletionStage<Sink> getBody() {
+            return result;
+        }
+    }
+
+    /**
+     * Publishes {@code head}, the file in chunks of {@code chunkSize} and {@code tail}, reading the
+     * next chunk only when the client asks for it. The client subscribes again when it resends
+     * the request, e.g. after a redirect, so every subscription reads the file from the start.
+     */
+    private static final class FilePublisher implements Flow.Publisher<ByteBuffer> {
+        private final Path file;
+        private final byte[] head;
+        private final byte[] tail;
+        private final int chunkSize;
+        private final long contentLength;
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicReference<String> sha256 = new AtomicReference<>();
+
+        FilePublisher(Path file, byte[] head, byte[] tail, int chunkSize) throws IOException {
+            this.file = file;
+            this.head = head;
+            this.tail = tail;
+            this.chunkSize = chunkSize;
+            this.contentLength = head.length + Files.size(file) + tail.length;
+        }
+
+        long contentLength() {
+            return contentLength;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+            FileSubscription subscription = new FileSubscription(subscriber);
+            subscriber.onSubscribe(subscription);
+        }
+
+        private final class FileSubscription implements Flow.Subscription {
+            private final Flow.Subscriber<? super ByteBuffer> subscriber;
+            private final AtomicLong demand = new AtomicLong();
+            private final AtomicInteger work = new AtomicInteger();
+            private final MessageDigest digest = newDigest();
+            private volatile boolean done;
+            // 0 head, 1 file, 2 tail, 3 complete
+            private int stage;
+            private FileChannel channel;
+            private long read;
+
+            FileSubscription(Flow.Subscriber<? super ByteBuffer> subscriber) {
+                this.subscriber = subscriber;
+            }
+
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    cancel();
+                    subscriber.onError(new IllegalArgumentException("Requested " + n + " chunks"));
+                    return;
+                }
+                demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+                drain();
+            }
+
+            @Override
+            public void cancel() {
+                done = true;
+                closeChannel();
+            }
+
+            // Only one thread emits at a time; a request() from inside onNext just adds demand
+            private void drain() {
+                if (work.getAndIncrement() != 0) {
+                    return;
+                }
+                do {
+                    try {
+                        while (!done && stage < 3 && demand.get() > 0) {
+                            ByteBuffer chunk = next();
+                            if (chunk != null) {
+                                demand.decrementAndGet();
+                                subscriber.onNext(chunk);
+                            }
+                        }
+                        if (!done && stage == 3) {
+                            done = true;
+                            subscriber.onComplete();
+                        }
+                    } catch (IOException e) {
+                        done = true;
+                        closeChannel();
+                        subscriber.onError(e);
+                    }
+                } while (work.decrementAndGet() != 0);
+            }
+
+            // The next chunk, or null when moving on to the next stage
+            private ByteBuffer next() throws IOException {
+                switch (stage) {
+                    case 0:
+                        stage = 1;
+                        channel = FileChannel.open(file, StandardOpenOption.READ);
+                        return head.length > 0 ? ByteBuffer.wrap(head) : null;
+                    case 1:
+                        ByteBuffer chunk = ByteBuffer.allocate(chunkSize);
+                        if (channel.read(chunk) < 0) {
+                            closeChannel();
+                            sent.set(read);
+                            sha256.set(hex(digest.digest()));
+                            stage = 2;
+                            return null;
+                        }
+                        chunk.flip();
+                        read += chunk.remaining();
+                        digest.update(chunk.duplicate());
+                        return chunk;
+                    default:
+                        stage = 3;
+                        return tail.length > 0 ? ByteBuffer.wrap(tail) : null;
+                }
+            }
+
+            private void closeChannel() {
+                FileChannel open = channel;
+                if (open != null) {
+                    try {
+                        open.close();
+                    } catch (IOException e) {
+                        // nothing was written through it
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * {@code FileTransfer download <url> <file>}, {@code upload <url> <file> [content type]} or
+     * {@code sha256 <file>}; prints the result and exits with 1 unless the status is 2xx.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: FileTransfer download <url> <file> | upload <url> <file> [content type] | sha256 <file>");
+            System.exit(2);
+        }
+        Result result;
+        switch (args[0]) {
+            case "sha256":
+                System.out.println(sha256(Paths.get(args[1]), 1 << 16) + "  " + args[1]);
+                return;
+            case "download":
+                result = shared().download(args[1], Paths.get(args[2]));
+                break;
+            case "upload":
+                result = shared().upload(args[1], Paths.get(args[2]), args.length > 3 ? args[3] : "application/octet-stream");
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown command " + args[0]);
+        }
+        System.out.println(result);
+        System.exit(result.isSuccessful() ? 0 : 1);
+    }
+}
@@ -0,0 +1,321 @@
+package utils;
+
+import io.restassured.config.HttpClientConfig;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection pool shared by every RestAssured request of the suite.
+ *
+ * RestAssured configures auth and OAuth interceptors on the client itself, so a single client
+ * cannot safely be shared between tests. Instead every request still gets its own lightweight
+ * {@link DefaultHttpClient}, but all of them lease connections from one
+ * {@link PoolingClientConnectionManager}: TCP and TLS handshakes are paid once per connection
+ * instead of once per request. The pool
+ * <ul>
+ *   <li>limits connections in total and per route, with overrides per host,</li>
+ *   <li>keeps connections alive for the server's {@code Keep-Alive} timeout, or {@code http.pool.keepalive.ms},</li>
+ *   <li>evicts expired and idle connections from a background thread,</li>
+ *   <li>tracks leased, pending and available connections, including peaks, for the report.</li>
+ * </ul>
+ *
+ * {@link core.BaseTest} installs {@link #httpClientConfig()} as the global RestAssured config.
+ */
+@SuppressWarnings("deprecation")
+public class HttpClientPool {
+    private static volatile HttpClientPool shared;
+
+    private final PoolingClientConnectionManager manager;
+    private final ClientConnectionManager sharedView;
+    private final ScheduledExecutorService evictor;
+    private final long keepAliveMillis;
+    private final long leaseTimeoutMillis;
+    private final LongAdder clients = new LongAdder();
+    private volatile int peakLeased;
+    private volatile int peakPending;
+
+    /**
+     * @param maxTotal        connections across all routes
+     * @param maxPerRoute     default connections per route (scheme, host and port)
+     * @param routeLimits     per-host overrides, keyed {@code host} or {@code host:port}
+     * @param keepAlive       how long an idle connection is kept when the server sends no {@code Keep-Alive} timeout
+     * @param idleTimeout     connections idle longer than this are closed by the evictor
+     * @param evictInterval   how often the evictor runs
+     * @param leaseTimeout    how long a request waits for a free connection before failing
+     */
+    public HttpClientPool(int maxTotal, int maxPerRoute, Map<String, Integer> routeLimits, Duration keepAlive,
+                          Duration idleTimeout, Duration evictInterval, Duration leaseTimeout) {
+        manager = new PoolingClientConnectionManager();
+        manager.setMaxTotal(maxTotal);
+        manager.setDefaultMaxPerRoute(maxPerRoute);
+        routeLimits.forEach((host, limit) -> manager.setMaxPerRoute(route(host), limit));
+        sharedView = new SharedConnectionManager(manager);
+        keepAliveMillis = keepAlive.toMillis();
+        leaseTimeoutMillis = leaseTimeout.toMillis();
+
+        AtomicInteger threads = new AtomicInteger();
+        evictor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "http-pool-evictor-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long idleMillis = idleTimeout.toMillis();
+        evictor.scheduleWithFixedDelay(() -> {
+            sample();
+            manager.closeExpiredConnections();
+            manager.closeIdleConnections(idleMillis, TimeUnit.MILLISECONDS);
+        }, evictInterval.toMillis(), evictInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the suite-wide pool configured by the {@code http.pool.*} keys, creating it on first use.
+     */
+    public static HttpClientPool shared() {
+        if (shared == null) {
+            synchronized (HttpClientPool.class) {
+                if (shared == null) {
+                    Config config = Config.get();
+                    HttpClientPool pool = new HttpClientPool(
+                            config.getInt("http.pool.max.total", 200),
+                            config.getInt("http.pool.max.per.route", 50),
+                            parseRouteLimits(config.getString("http.pool.route.limits", "")),
+                            Duration.ofMillis(config.getLong("http.pool.keepalive.ms", 20000)),
+                            Duration.ofMillis(config.getLong("http.pool.idle.timeout.ms", 30000)),
+                            Duration.ofMillis(config.getLong("http.pool.evict.interval.ms", 5000)),
+                            Duration.ofMillis(config.getLong("http.pool.lease.timeout.ms", 30000)));
+                    Runtime.getRuntime().addShutdownHook(new Thread(pool::shutdown));
+                    shared = pool;
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Returns the suite-wide pool if it has been created, without creating it.
+     */
+    public static HttpClientPool current() {
+        return shared;
+    }
+
+    /**
+     * RestAssured client configuration whose clients lease connections from this pool.
+     */
+    public HttpClientConfig httpClientConfig() {
+        return HttpClientConfig.httpClientConfig().httpClientFactory(() -> newClient(null, null));
+    }
+
+    /**
+     * Same as {@link #httpClientConfig()} with connect and socket (read) timeouts, for tests
+     * that need a shorter timeout than the server's response time.
+     */
+    public HttpClientConfig httpClientConfig(Duration connectTimeout, Duration socketTimeout) {
+        return HttpClientConfig.httpClientConfig().httpClientFactory(() -> newClient(connectTimeout, socketTimeout));
+    }
+
+    private DefaultHttpClient newClient(Duration connectTimeout, Duration socketTimeout) {
+        clients.increment();
+        sample();
+        DefaultHttpClient client = new DefaultHttpClient(sharedView);
+        client.setKeepAliveStrategy(keepAliveStrategy);
+        client.addResponseInterceptor(BUFFER_BODY);
+        client.getParams().setLongParameter(ClientPNames.CONN_MANAGER_TIMEOUT, leaseTimeoutMillis);
+        if (connectTimeout != null) {
+            HttpConnectionParams.setConnectionTimeout(client.getParams(), (int) connectTimeout.toMillis());
+        }
+        if (socketTimeout != null) {
+            HttpConnectionParams.setSoTimeout(client.getParams(), (int) socketTimeout.toMillis());
+        }
+        return client;
+    }
+
+    /**
+     * RestAssured reads response bodies lazily, so a test that only checks the status code
+     * would keep its connection leased forever. Buffering the body before the client wraps it
+     * lets the connection go back to the pool as soon as the response arrives; RestAssured
+     * holds bodies in memory anyway.
+     */
+    private static final HttpResponseInterceptor BUFFER_BODY = (response, context) -> {
+        HttpEntity entity = response.getEntity();
+        if (entity != null && entity.isStreaming()) {
+            response.setEntity(new BufferedHttpEntity(entity));
+        }
+    };
+
+    private final ConnectionKeepAliveStrategy keepAliveStrategy = new ConnectionKeepAliveStrategy() {
+        @Override
+        public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+            BasicHeaderElementIterator elements = new BasicHeaderElementIterator(response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+            while (elements.hasNext()) {
+                HeaderElement element = elements.nextElement();
+                if ("timeout".equalsIgnoreCase(element.getName()) && element.getValue() != null) {
+                    try {
+                        return Math.min(Long.parseLong(element.getValue()) * 1000, keepAliveMillis);
+                    } catch (NumberFormatException ignored) {
+                        // fall back to the configured keep-alive
+                    }
+                }
+            }
+            return keepAliveMillis;
+        }
+    };
+
+    /**
+     * Current totals across all routes.
+     */
+    public PoolStats getStats() {
+        return sample();
+    }
+
+    public PoolStats getStats(String host) {
+        return manager.getStats(route(host));
+    }
+
+    public int getPeakLeased() {
+        return peakLeased;
+    }
+
+    public int getPeakPending() {
+        return peakPending;
+    }
+
+    /**
+     * Number of RestAssured clients created on top of the pool, i.e. requests sent.
+     */
+    public long getClientCount() {
+        return clients.sum();
+    }
+
+    private PoolStats sample() {
+        PoolStats stats = manager.getTotalStats();
+        if (stats.getLeased() > peakLeased) {
+            peakLeased = stats.getLeased();
+        }
+        if (stats.getPending() > peakPending) {
+            peakPending = stats.getPending();
+        }
+        return stats;
+    }
+
+    /**
+     * Closes idle connections immediately, e.g. after the target server was restarted.
+     */
+    public void evictIdle() {
+        manager.closeIdleConnections(0, TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        evictor.shutdownNow();
+        manager.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        PoolStats stats = getStats();
+        return String.format("leased %d, pending %d, available %d, max %d; peak leased %d, peak pending %d; %d requests",
+                stats.getLeased(), stats.getPending(), stats.getAvailable(), stats.getMax(),
+                peakLeased, peakPending, clients.sum());
+    }
+
+    /**
+     * Parses {@code host[:port]=limit} pairs separated by commas.
+     */
+    static Map<String, Integer> parseRouteLimits(String value) {
+        Map<String, Integer> limits = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int separator = trimmed.lastIndexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Route limit must be host[:port]=limit: " + trimmed);
+            }
+            limits.put(trimmed.substring(0, separator).trim(), Integer.parseInt(trimmed.substring(separator + 1).trim()));
+        }
+        return limits;
+    }
+
+    /**
+     * Route for {@code host} or {@code host:port}; without a port the route is HTTPS on 443,
+     * which is what the public APIs in {@link APIEndpoints} use.
+     */
+    private static HttpRoute route(String host) {
+        int colon = host.lastIndexOf(':');
+        if (colon < 0) {
+            return new HttpRoute(new HttpHost(host, 443, "https"), null, true);
+        }
+        int port = Integer.parseInt(host.substring(colon + 1));
+        boolean secure = port == 443;
+        return new HttpRoute(new HttpHost(host.substring(0, colon), port, secure ? "https" : "http"), null, secure);
+    }
+
+    /**
+     * View of the pool handed to each client. RestAssured shuts a client's connection manager
+     * down after every request; that must not close the pool all clients share.
+     */
+    private static class SharedConnectionManager implements ClientConnectionManager {
+        private final ClientConnectionManager delegate;
+
+        SharedConnectionManager(ClientConnectionManager delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public SchemeRegistry getSchemeRegistry() {
+            return delegate.getSchemeRegistry();
+        }
+
+        @Override
+        public ClientConnectionRequest requestConnection(HttpRoute route, Object state) {
+            return delegate.requestConnection(route, state);
+        }
+
+        @Override
+        public void releaseConnection(ManagedClientConnection connection, long validDuration, TimeUnit timeUnit) {
+            delegate.releaseConnection(connection, validDuration, timeUnit);
+        }
+
+        @Override
+        public void closeIdleConnections(long idleTime, TimeUnit timeUnit) {
+            delegate.closeIdleConnections(idleTime, timeUnit);
+        }
+
+        @Override
+        public void closeExpiredConnections() {
+            delegate.closeExpiredConnections();
+        }
+
+        @Override
+        public void shutdown() {
+            // the shared pool outlives individual clients; see HttpClientPool#shutdown()
+        }
+    }
+}
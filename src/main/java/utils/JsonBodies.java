@@ -0,0 +1,123 @@
+package utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.restassured.config.ObjectMapperConfig;
+import io.restassured.path.json.mapper.factory.Jackson2ObjectMapperFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serializes request and response bodies with one shared Jackson mapper.
+ *
+ * RestAssured's default mapping builds a new {@code ObjectMapper} and scans for modules for every
+ * body it writes or reads, so Jackson's serializer cache starts empty each time.
+ * {@link #objectMapperConfig()} makes RestAssured use the shared mapper instead ({@code BaseTest}
+ * installs it unless {@code json.mapper.shared=false}), and {@link #writer(Class)} and
+ * {@link #reader(Class)} hand out one pre-resolved writer and reader per type for direct use.
+ *
+ * Payloads that do not change between requests can be serialized once with {@link #prepare(Object)}
+ * and sent as bytes, which skips object mapping altogether:
+ * <pre>
+ * private static final JsonBodies.Prepared BODY = JsonBodies.prepare(new ImmutablePostRequestBody(...));
+ * given().contentType(ContentType.JSON).body(BODY.getBytes()).post(...);
+ * </pre>
+ */
+public final class JsonBodies {
+    // the same modules RestAssured's default factory registers
+    private static final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+    private static final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    private JsonBodies() {
+    }
+
+    /**
+     * A body serialized once. The byte array is shared by every request that sends it and must not be modified.
+     */
+    public static final class Prepared {
+        private final byte[] bytes;
+
+        private Prepared(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        public byte[] getBytes() {
+            return bytes;
+        }
+
+        public int size() {
+            return bytes.length;
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * The shared mapper. Configure it before the first body is written, not during a run.
+     */
+    public static ObjectMapper mapper() {
+        return mapper;
+    }
+
+    public static ObjectWriter writer(Class<?> type) {
+        return writers.computeIfAbsent(type, mapper::writerFor);
+    }
+
+    public static ObjectReader reader(Class<?> type) {
+        return readers.computeIfAbsent(type, mapper::readerFor);
+    }
+
+    public static byte[] toBytes(Object body) {
+        try {
+            return writer(body.getClass()).writeValueAsBytes(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot serialize " + body.getClass().getName(), e);
+        }
+    }
+
+    public static <T> T fromBytes(byte[] json, Class<T> type) {
+        try {
+            return reader(type).readValue(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + type.getName() + " from JSON", e);
+        }
+    }
+
+    /**
+     * Serializes {@code body} now; send the result with {@code body(prepared.getBytes())}.
+     * Only prepare bodies that will not change afterwards, such as the immutable POJOs.
+     */
+    public static Prepared prepare(Object body) {
+        return new Prepared(toBytes(body));
+    }
+
+    /**
+     * Hands RestAssured the shared mapper for every type and charset.
+     */
+    public static Jackson2ObjectMapperFactory objectMapperFactory() {
+        return (type, charset) -> mapper;
+    }
+
+    /**
+     * RestAssured's object mapper configuration using the shared mapper.
+     */
+    public static ObjectMapperConfig objectMapperConfig() {
+        return ObjectMapperConfig.objectMapperConfig().jackson2ObjectMapperFactory(objectMapperFactory());
+    }
+
+    /**
+     * Number of types with a cached writer and reader.
+     */
+    public static String summary() {
+        return String.format("shared mapper, %d writers, %d readers", writers.size(), readers.size());
+    }
+}
@@ -1,31 +1,136 @@
 package utils;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import org.apache.commons.io.FileUtils;
 import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Reads test data from JSON files.
+ *
+ * Each file is parsed once and cached; the cache entry is replaced when the file's size or
+ * modification time changes. Cached documents are shared between threads and must be treated
+ * as read-only. Files larger than {@code testdata.cache.max.bytes} are never parsed whole:
+ * key and array lookups stream only the requested value through {@link JsonStreamReader}.
+ */
 public class JsonReader {
+    private static final Map<Path, CachedDocument> cache = new ConcurrentHashMap<>();
+
+    private static final class CachedDocument {
+        private final long size;
+        private final long modified;
+        private final JSONObject json;
+
+        private CachedDocument(long size, long modified, JSONObject json) {
+            this.size = size;
+            this.modified = modified;
+            this.json = json;
+        }
+    }
 
     public static String getTestData(String key) throws IOException {
-        return getJsonData().getString(key);
+        return getTestData(defaultFile(), key);
+    }
+
+    public static String getTestData(Path file, String key) throws IOException {
+        if (isStreamed(file)) {
+            JsonNode value = JsonStreamReader.readValue(file, key);
+            if (value == null) {
+                throw new JSONException("JSONObject[\"" + key + "\"] not found.");
+            }
+            return value.asText();
+        }
+        return getJsonData(file).getString(key);
     }
 
     public static JSONObject getJsonData() throws IOException {
-        File filename = new File("resources//TestData//testdata.json");
-        String json = FileUtils.readFileToString(filename, "UTF-8");
-        return new JSONObject(json);
+        return getJsonData(defaultFile());
+    }
+
+    /**
+     * Returns the parsed document, served from the cache while the file is unchanged.
+     */
+    public static JSONObject getJsonData(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long size = attributes.size();
+        long modified = attributes.lastModifiedTime().toMillis();
+        Path key = file.toAbsolutePath().normalize();
+        CachedDocument cached = cache.get(key);
+        if (cached == null || cached.size != size || cached.modified != modified) {
+            String json = FileUtils.readFileToString(file.toFile(), "UTF-8");
+            cached = new CachedDocument(size, modified, new JSONObject(json));
+            cache.put(key, cached);
+        }
+        return cached.json;
     }
 
     public static JSONArray getJsonArray(String key) throws IOException {
-        JSONObject jsonObject = getJsonData();
-        return jsonObject.getJSONArray(key);
+        return getJsonArray(defaultFile(), key);
+    }
+
+    public static JSONArray getJsonArray(Path file, String key) throws IOException {
+        if (isStreamed(file)) {
+            JsonNode value = JsonStreamReader.readValue(file, key);
+            if (value == null) {
+                throw new JSONException("JSONObject[\"" + key + "\"] not found.");
+            }
+            return new JSONArray(value.toString());
+        }
+        return getJsonData(file).getJSONArray(key);
     }
 
     public static Object getJsonArrayData(String key, int index) throws IOException {
-        JSONArray languages = getJsonArray(key);
-        return languages.get(index);
+        return getJsonArrayData(defaultFile(), key, index);
+    }
+
+    public static Object getJsonArrayData(Path file, String key, int index) throws IOException {
+        if (isStreamed(file)) {
+            JsonNode element = JsonStreamReader.readArrayElement(file, key, index);
+            if (element == null) {
+                throw new JSONException("JSONArray[" + index + "] not found under \"" + key + "\".");
+            }
+            return toJsonValue(element);
+        }
+        return getJsonArray(file, key).get(index);
+    }
+
+    /**
+     * Drops every cached document.
+     */
+    public static void clearCache() {
+        cache.clear();
+    }
+
+    private static Path defaultFile() {
+        return Paths.get(Config.get().getString("testdata.file", "Resources/TestData/testdata.json"));
+    }
+
+    private static boolean isStreamed(Path file) throws IOException {
+        return Files.size(file) > Config.get().getLong("testdata.cache.max.bytes", 64L * 1024 * 1024);
+    }
+
+    // Converts a streamed Jackson node to the type org.json would have returned for the same value
+    private static Object toJsonValue(JsonNode node) {
+        if (node.isObject()) {
+            return new JSONObject(node.toString());
+        } else if (node.isArray()) {
+            return new JSONArray(node.toString());
+        } else if (node.isNumber()) {
+            return node.numberValue();
+        } else if (node.isBoolean()) {
+            return node.booleanValue();
+        } else if (node.isNull()) {
+            return JSONObject.NULL;
+        }
+        return node.asText();
     }
 }
@@ -0,0 +1,106 @@
+package utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streaming access to JSON test-data files that are too large to hold in memory.
+ * Only the requested top-level key, or the requested slice of one of its arrays, is materialized;
+ * everything else is skipped token by token with Jackson's streaming parser.
+ */
+public class JsonStreamReader {
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final JsonFactory factory = mapper.getFactory();
+
+    /**
+     * Returns the value of a top-level key, or null when the key is absent.
+     */
+    public static JsonNode readValue(Path file, String key) throws IOException {
+        try (JsonParser parser = factory.createParser(file.toFile())) {
+            if (!moveToKey(parser, key)) {
+                return null;
+            }
+            return mapper.readTree(parser);
+        }
+    }
+
+    /**
+     * Returns up to {@code count} elements of the array stored under a top-level key, starting at {@code from}.
+     * Pass a null key when the document itself is an array.
+     */
+    public static List<JsonNode> readArraySlice(Path file, String key, int from, int count) throws IOException {
+        List<JsonNode> slice = new ArrayList<>(Math.min(count, 1024));
+        try (JsonParser parser = factory.createParser(file.toFile())) {
+            if (!moveToArray(parser, key)) {
+                return slice;
+            }
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY && slice.size() < count) {
+                if (index++ < from) {
+                    parser.skipChildren();
+                } else {
+                    slice.add(mapper.readTree(parser));
+                }
+            }
+        }
+        return slice;
+    }
+
+    /**
+     * Returns a single array element, or null when the index is out of range.
+     */
+    public static JsonNode readArrayElement(Path file, String key, int index) throws IOException {
+        List<JsonNode> slice = readArraySlice(file, key, index, 1);
+        return slice.isEmpty() ? null : slice.get(0);
+    }
+
+    /**
+     * Visits every element of an array one at a time, holding at most one element in memory.
+     * Returns the number of elements visited.
+     */
+    public static long forEachArrayElement(Path file, String key, Consumer<JsonNode> action) throws IOException {
+        long visited = 0;
+        try (JsonParser parser = factory.createParser(file.toFile())) {
+            if (!moveToArray(parser, key)) {
+                return 0;
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                action.accept(mapper.readTree(parser));
+                visited++;
+            }
+        }
+        return visited;
+    }
+
+    private static boolean moveToArray(JsonParser parser, String key) throws IOException {
+        if (key == null) {
+            return parser.nextToken() == JsonToken.START_ARRAY;
+        }
+        return moveToKey(parser, key) && parser.currentToken() == JsonToken.START_ARRAY;
+    }
+
+    // Leaves the parser on the first token of the value stored under the top-level key
+    private static boolean moveToKey(JsonParser parser, String key) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return false;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            if (key.equals(name)) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,186 @@
+package utils;
+
+import com.aventstack.extentreports.Status;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only JSON Lines report, the lightweight alternative to the Spark HTML report
+ * ({@code report.format=jsonl} or {@code both}).
+ *
+ * Every report node and log step becomes one line as soon as it happens:
+ * <pre>
+ * {"type":"test","id":7,"name":"testGetUser[3]","description":"...","ts":1700000000000,"thread":"TestNG-1"}
+ * {"type":"log","test":7,"status":"PASS","ts":1700000000012,"details":"Test Case: testGetUser is passed"}
+ * {"type":"info","key":"HTTP Pool","value":"..."}
+ * </pre>
+ * Nothing is kept in memory and nothing is re-rendered, so the cost per event stays the same
+ * however many invocations a run has. Lines go through a 64 KB buffer that a background task
+ * flushes every {@code flushIntervalMillis} when new lines arrived, so a crashed or stalled run
+ * keeps nearly all of its results; with an interval of 0 every line is flushed as it is written.
+ * {@link ReportViewer} pages through the file.
+ */
+public class JsonlReporter implements Closeable {
+    private static final JsonFactory factory = new JsonFactory();
+
+    private final Path file;
+    private final JsonGenerator generator;
+    private final boolean flushEveryLine;
+    private final ScheduledExecutorService flusher;
+    private final AtomicLong ids = new AtomicLong();
+    private long events;
+    private long flushedEvents;
+    private boolean closed;
+
+    public JsonlReporter(Path file, long flushIntervalMillis) throws IOException {
+        this.file = file;
+        this.flushEveryLine = flushIntervalMillis <= 0;
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        generator = factory.createGenerator(new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), 1 << 16));
+        generator.setRootValueSeparator(null);
+        if (flushEveryLine) {
+            flusher = null;
+        } else {
+            flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "jsonl-report-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flushIfWritten, flushIntervalMillis, flushIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes a report node and returns its id for {@link #log}.
+     */
+    public long startTest(String name, String description) {
+        long id = ids.incrementAndGet();
+        synchronized (this) {
+            try {
+                begin("test");
+                generator.writeNumberField("id", id);
+                generator.writeStringField("name", name);
+                if (description != null) {
+                    generator.writeStringField("description", description);
+                }
+                generator.writeNumberField("ts", System.currentTimeMillis());
+                generator.writeStringField("thread", Thread.currentThread().getName());
+                end();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write report " + file, e);
+            }
+        }
+        return id;
+    }
+
+    public synchronized void log(long test, Status status, String details) {
+        try {
+            begin("log");
+            generator.writeNumberField("test", test);
+            generator.writeStringField("status", status.name());
+            generator.writeNumberField("ts", System.currentTimeMillis());
+            generator.writeStringField("details", details);
+            end();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write report " + file, e);
+        }
+    }
+
+    public synchronized void info(String key, String value) {
+        try {
+            begin("info");
+            generator.writeStringField("key", key);
+            generator.writeStringField("value", value);
+            end();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write report " + file, e);
+        }
+    }
+
+    private void begin(String type) throws IOException {
+        if (closed) {
+            throw new IOException("report is closed");
+        }
+        generator.writeStartObject();
+        generator.writeStringField("type", type);
+    }
+
+    private void end() throws IOException {
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+        events++;
+        if (flushEveryLine) {
+            generator.flush();
+            flushedEvents = events;
+        }
+    }
+
+    // Runs on the flusher thread; a failure is reported and retried on the next tick
+    private synchronized void flushIfWritten() {
+        if (events != flushedEvents) {
+            try {
+                flush();
+            } catch (UncheckedIOException e) {
+                System.err.println("Error flushing report " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes buffered lines to the file.
+     */
+    public synchronized void flush() {
+        try {
+            if (!closed) {
+                generator.flush();
+                flushedEvents = events;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write report " + file, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            if (flusher != null) {
+                flusher.shutdownNow();
+            }
+            try {
+                generator.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write report " + file, e);
+            } finally {
+                closed = true;
+            }
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public synchronized long getEventCount() {
+        return events;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d events", file, getEventCount());
+    }
+}
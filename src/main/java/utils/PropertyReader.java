@@ -3,28 +3,35 @@ package utils;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class PropertyReader {
 
+    // Other property files are parsed once and then served from memory
+    private static final Map<String, Properties> files = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the value of a key. The framework configuration file is served from the shared
+     * {@link Config} snapshot, so no file is opened per call.
+     */
     public static String propertyReader(String filePath, String key) {
-        String value = null;
-            //Inputstream is required while loading into properties
+        if (Paths.get(filePath).equals(Config.get().getFile())) {
+            return Config.get().getString(key);
+        }
+        return files.computeIfAbsent(filePath, PropertyReader::load).getProperty(key);
+    }
 
+    private static Properties load(String filePath) {
+        // object creation for Property class
+        Properties prop = new Properties();
         try (InputStream input = new FileInputStream(filePath)) {
-
-            // object creation for Property class
-            Properties prop = new Properties();
-
-            // load a properties file
             prop.load(input);
-
-            //getProperty will fetch the value according to the key
-            value = prop.getProperty(key);
-
         } catch (IOException ex) {
             ex.printStackTrace();
         }
-        return value;
+        return prop;
     }
 }
@@ -0,0 +1,432 @@
+package utils;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Client-side rate limiter with one adaptive token bucket per host (scheme, host and port).
+ *
+ * Each bucket paces requests to its current rate and lets up to {@code burst} through at once.
+ * The rate adapts AIMD-style: every successful response adds about {@code increaseRps} per second
+ * of traffic, up to {@code maxRps}; a {@code 429} (or a {@code 503} with {@code Retry-After})
+ * multiplies it by {@code decreaseFactor}, at most once per {@code decreaseCooldown}, down to
+ * {@code minRps}. A {@code Retry-After} header also holds back the whole host until it has passed.
+ *
+ * Taking a permit is lock-free: the bucket is one "theoretical arrival time" (GCRA) advanced with
+ * a compare-and-set, and the wait it returns is slept outside of any shared state. Loopback hosts,
+ * such as the stub server, are not limited unless {@link Builder#limitLoopback(boolean)} is set.
+ * Hosts of the {@link APIEndpoints} base URLs are registered up front by {@link #shared()}.
+ */
+public class RateLimiter {
+    private static volatile RateLimiter shared;
+
+    private final double initialRps;
+    private final double minRps;
+    private final double maxRps;
+    private final int burst;
+    private final double increaseRps;
+    private final double decreaseFactor;
+    private final long decreaseCooldownNanos;
+    private final long maxWaitNanos;
+    private final boolean limitLoopback;
+    private final LongSupplier nanoClock;
+    private final Map<String, Host> hosts = new ConcurrentHashMap<>();
+
+    private RateLimiter(Builder builder) {
+        this.initialRps = builder.initialRps;
+        this.minRps = builder.minRps;
+        this.maxRps = builder.maxRps;
+        this.burst = builder.burst;
+        this.increaseRps = builder.increaseRps;
+        this.decreaseFactor = builder.decreaseFactor;
+        this.decreaseCooldownNanos = builder.decreaseCooldown.toNanos();
+        this.maxWaitNanos = builder.maxWait.toNanos();
+        this.limitLoopback = builder.limitLoopback;
+        this.nanoClock = builder.nanoClock;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private double initialRps = 50;
+        private double minRps = 1;
+        private double maxRps = 500;
+        private int burst = 20;
+        private double increaseRps = 2;
+        private double decreaseFactor = 0.5;
+        private Duration decreaseCooldown = Duration.ofSeconds(1);
+        private Duration maxWait = Duration.ofSeconds(60);
+        private boolean limitLoopback;
+        private LongSupplier nanoClock = System::nanoTime;
+
+        private Builder() {
+        }
+
+        /**
+         * Requests per second a host starts at, and the range the rate adapts within.
+         */
+        public Builder rate(double initialRps, double minRps, double maxRps) {
+            if (minRps <= 0 || minRps > initialRps || initialRps > maxRps) {
+                throw new IllegalArgumentException("Expected 0 < min <= initial <= max but got "
+                        + minRps + ", " + initialRps + ", " + maxRps);
+            }
+            this.initialRps = initialRps;
+            this.minRps = minRps;
+            this.maxRps = maxRps;
+            return this;
+        }
+
+        public Builder burst(int burst) {
+            if (burst < 1) {
+                throw new IllegalArgumentException("burst must be at least 1");
+            }
+            this.burst = burst;
+            return this;
+        }
+
+        /**
+         * Additive increase, in requests per second gained per second of successful traffic.
+         */
+        public Builder increase(double increaseRps) {
+            this.increaseRps = increaseRps;
+            return this;
+        }
+
+        /**
+         * Multiplicative decrease on throttling, applied at most once per {@code cooldown}, so a
+         * burst of 429s from one overload halves the rate once instead of collapsing it.
+         */
+        public Builder decrease(double factor, Duration cooldown) {
+            if (factor <= 0 || factor >= 1) {
+                throw new IllegalArgumentException("decrease factor must be between 0 and 1");
+            }
+            this.decreaseFactor = factor;
+            this.decreaseCooldown = cooldown;
+            return this;
+        }
+
+        /**
+         * Longest {@code Retry-After} that is honored; longer values are cut to this.
+         */
+        public Builder maxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+            return this;
+        }
+
+        /**
+         * Whether localhost and 127.x hosts get a bucket too; off by default so the stub server
+         * and the stress suites run at full speed.
+         */
+        public Builder limitLoopback(boolean limitLoopback) {
+            this.limitLoopback = limitLoopback;
+            return this;
+        }
+
+        public Builder nanoClock(LongSupplier nanoClock) {
+            this.nanoClock = nanoClock;
+            return this;
+        }
+
+        public RateLimiter build() {
+            return new RateLimiter(this);
+        }
+    }
+
+    /**
+     * Returns the suite-wide limiter configured by the {@code rate.limit.*} keys, or null when
+     * {@code rate.limit.enabled} is false.
+     */
+    public static RateLimiter shared() {
+        if (shared == null) {
+            synchronized (RateLimiter.class) {
+                if (shared == null) {
+                    Config config = Config.get();
+                    if (!config.getBoolean("rate.limit.enabled", true)) {
+                        return null;
+                    }
+                    RateLimiter limiter = builder()
+                            .rate(config.getDouble("rate.limit.initial.rps", 50),
+                                    config.getDouble("rate.limit.min.rps", 1),
+                                    config.getDouble("rate.limit.max.rps", 500))
+                            .burst(config.getInt("rate.limit.burst", 20))
+                            .increase(config.getDouble("rate.limit.increase.rps", 2))
+                            .decrease(config.getDouble("rate.limit.decrease.factor", 0.5),
+                                    Duration.ofMillis(config.getLong("rate.limit.decrease.cooldown.ms", 1000)))
+                            .maxWait(Duration.ofMillis(config.getLong("rate.limit.max.wait.ms", 60000)))
+                            .limitLoopback(config.getBoolean("rate.limit.loopback", false))
+                            .build();
+                    for (String baseUrl : APIEndpoints.getBaseUrls()) {
+                        limiter.host(baseUrl);
+                    }
+                    shared = limiter;
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Returns the suite-wide limiter if it has been created, without creating it.
+     */
+    public static RateLimiter current() {
+        return shared;
+    }
+
+    /**
+     * Token bucket and metrics of one host.
+     */
+    public final class Host {
+        private final String key;
+        // GCRA theoretical arrival time: the next permit is free once the clock reaches tat - tolerance
+        private final AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicLong rateBits = new AtomicLong(Double.doubleToLongBits(initialRps));
+        private final AtomicLong lastDecrease;
+        private final LongAdder permits = new LongAdder();
+        private final LongAdder waits = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final LongAdder throttles = new LongAdder();
+
+        private Host(String key) {
+            this.key = key;
+            this.lastDecrease = new AtomicLong(nanoClock.getAsLong() - decreaseCooldownNanos);
+        }
+
+        /**
+         * Takes a permit and returns how long the caller has to wait before sending, in nanoseconds.
+         */
+        public long reserve() {
+            long interval = interval();
+            long tolerance = (burst - 1) * interval;
+            while (true) {
+                long now = nanoClock.getAsLong();
+                long current = tat.get();
+                long start = Math.max(current, now);
+                if (tat.compareAndSet(current, start + interval)) {
+                    long wait = Math.max(0, start - tolerance - now);
+                    permits.increment();
+                    if (wait > 0) {
+                        waits.increment();
+                        waitNanos.add(wait);
+                    }
+                    return wait;
+                }
+            }
+        }
+
+        private long interval() {
+            return (long) (TimeUnit.SECONDS.toNanos(1) / getRate());
+        }
+
+        void onSuccess() {
+            updateRate(rate -> Math.min(maxRps, rate + increaseRps / rate));
+        }
+
+        void onThrottled(Duration retryAfter) {
+            throttles.increment();
+            long now = nanoClock.getAsLong();
+            long last = lastDecrease.get();
+            if (now - last >= decreaseCooldownNanos && lastDecrease.compareAndSet(last, now)) {
+                updateRate(rate -> Math.max(minRps, rate * decreaseFactor));
+            }
+            if (retryAfter != null && !retryAfter.isNegative()) {
+                long tolerance = (burst - 1) * interval();
+                long until = now + Math.min(retryAfter.toNanos(), maxWaitNanos) + tolerance;
+                tat.accumulateAndGet(until, Math::max);
+            }
+        }
+
+        private void updateRate(DoubleUnaryOperator update) {
+            while (true) {
+                long bits = rateBits.get();
+                double updated = update.applyAsDouble(Double.longBitsToDouble(bits));
+                if (rateBits.compareAndSet(bits, Double.doubleToLongBits(updated))) {
+                    return;
+                }
+            }
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * Current rate in requests per second.
+         */
+        public double getRate() {
+            return Double.longBitsToDouble(rateBits.get());
+        }
+
+        public long getPermits() {
+            return permits.sum();
+        }
+
+        /**
+         * Permits that were not free at once.
+         */
+        public long getWaits() {
+            return waits.sum();
+        }
+
+        public long getWaitMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(waitNanos.sum());
+        }
+
+        /**
+         * Responses that signalled throttling (429, or 503 with Retry-After).
+         */
+        public long getThrottleEvents() {
+            return throttles.sum();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %.1f rps, %d permits, %d waited %d ms, %d throttled", key, getRate(),
+                    getPermits(), getWaits(), getWaitMillis(), getThrottleEvents());
+        }
+    }
+
+    /**
+     * Returns the bucket for the host of {@code url}, or null when the host is not limited
+     * (loopback, or no absolute http(s) URL).
+     */
+    public Host host(String url) {
+        String key = key(url);
+        if (key == null) {
+            return null;
+        }
+        Host host = hosts.get(key);
+        return host != null ? host : hosts.computeIfAbsent(key, Host::new);
+    }
+
+    /**
+     * Takes a permit for {@code url} and returns the wait in nanoseconds, for callers that must
+     * not block (see {@link AsyncApiClient}).
+     */
+    public long reserve(String url) {
+        Host host = host(url);
+        return host == null ? 0 : host.reserve();
+    }
+
+    /**
+     * Takes a permit for {@code url} and waits until it is due. An interrupt ends the wait early
+     * and stays set on the thread.
+     */
+    public void acquire(String url) {
+        long wait = reserve(url);
+        long deadline = System.nanoTime() + wait;
+        while (wait > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(this, wait);
+            wait = deadline - System.nanoTime();
+        }
+    }
+
+    /**
+     * Adapts the host's rate to a response. Returns true when the response signalled throttling,
+     * in which case the request was not processed and may be sent again.
+     */
+    public boolean onResponse(String url, int statusCode, String retryAfter) {
+        Host host = host(url);
+        if (host == null) {
+            return false;
+        }
+        if (isThrottled(statusCode, retryAfter)) {
+            host.onThrottled(parseRetryAfter(retryAfter));
+            return true;
+        }
+        if (statusCode < 500) {
+            host.onSuccess();
+        }
+        return false;
+    }
+
+    /**
+     * True for a {@code 429}, and for a {@code 503} that says when to come back.
+     */
+    public static boolean isThrottled(int statusCode, String retryAfter) {
+        return statusCode == 429 || (statusCode == 503 && parseRetryAfter(retryAfter) != null);
+    }
+
+    /**
+     * Parses a {@code Retry-After} value, either delay seconds or an HTTP date; null when absent or invalid.
+     */
+    public static Duration parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(trimmed)));
+        } catch (NumberFormatException e) {
+            try {
+                Duration delay = Duration.between(ZonedDateTime.now(),
+                        ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME));
+                return delay.isNegative() ? Duration.ZERO : delay;
+            } catch (DateTimeParseException invalid) {
+                return null;
+            }
+        }
+    }
+
+    // scheme://host:port in lower case, or null for unlimited loopback hosts and anything that is not http(s)
+    String key(String url) {
+        URI uri;
+        try {
+            uri = URI.create(url);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        String scheme = uri.getScheme();
+        String host = uri.getHost();
+        if (scheme == null || host == null || !scheme.toLowerCase(Locale.ROOT).startsWith("http")) {
+            return null;
+        }
+        host = host.toLowerCase(Locale.ROOT);
+        boolean loopback = host.equals("localhost") || host.startsWith("127.") || host.equals("[::1]");
+        if (loopback && !limitLoopback) {
+            return null;
+        }
+        int port = uri.getPort();
+        return scheme.toLowerCase(Locale.ROOT) + "://" + host + (port < 0 ? "" : ":" + port);
+    }
+
+    public Collection<Host> getHosts() {
+        List<Host> sorted = new ArrayList<>(hosts.values());
+        sorted.sort((a, b) -> a.key.compareTo(b.key));
+        return Collections.unmodifiableList(sorted);
+    }
+
+    /**
+     * One line per host that was used; null when no request was limited.
+     */
+    public String summary() {
+        String used = getHosts().stream()
+                .filter(host -> host.getPermits() > 0)
+                .map(Host::toString)
+                .collect(Collectors.joining("; "));
+        return used.isEmpty() ? null : used;
+    }
+
+    @Override
+    public String toString() {
+        return hosts.size() + " hosts" + (summary() == null ? "" : ": " + summary());
+    }
+}
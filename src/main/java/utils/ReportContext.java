@@ -0,0 +1,95 @@
+package utils;
+
+import com.aventstack.extentreports.ExtentTest;
+
+/**
+ * Reporting context for a single test method invocation.
+ * A context is opened by {@link core.ReportContextListener} when an invocation starts and
+ * closed when its result is known, so every thread only ever logs into the ExtentTest node
+ * of the invocation it is currently running.
+ *
+ * The context is held in an inheritable thread-local so that helper threads started by a
+ * test (for example the worker TestNG uses for {@code timeOut} methods) log into the same node.
+ */
+public final class ReportContext {
+    private static final InheritableThreadLocal<ReportContext> current = new InheritableThreadLocal<>();
+
+    private final String name;
+    private final String description;
+    private volatile ExtentTest test;
+    private volatile long nodeId;
+    private volatile boolean created;
+
+    private ReportContext(String name, String description) {
+        this.name = name;
+        this.description = description;
+    }
+
+    /**
+     * Opens a new context for the calling thread, replacing any context left behind by a previous invocation.
+     */
+    public static ReportContext open(String name, String description) {
+        ReportContext context = new ReportContext(name, description);
+        current.set(context);
+        return context;
+    }
+
+    /**
+     * Returns the context bound to the calling thread, or null when no invocation is running on it.
+     */
+    public static ReportContext current() {
+        return current.get();
+    }
+
+    /**
+     * Unbinds the context from the calling thread.
+     */
+    public static void close() {
+        current.remove();
+    }
+
+    /**
+     * Creates the ExtentTest node for this invocation with an explicit name and description.
+     */
+    public synchronized ExtentTest createTest(String testName, String testDescription) {
+        test = ExtentReport.newTest(testName, testDescription);
+        nodeId = ExtentReport.newNode(testName, testDescription);
+        created = true;
+        return test;
+    }
+
+    /**
+     * Returns the ExtentTest node for this invocation, creating it from the default name on first use.
+     * Returns null when reporting has not been initialized or only the JSON Lines format is enabled.
+     */
+    public ExtentTest getTest() {
+        ensureCreated();
+        return test;
+    }
+
+    /**
+     * Returns the id of this invocation's node in the JSON Lines report, creating it from the
+     * default name on first use; 0 when that format is not enabled.
+     */
+    public long getNodeId() {
+        ensureCreated();
+        return nodeId;
+    }
+
+    private void ensureCreated() {
+        if (!created) {
+            synchronized (this) {
+                if (!created) {
+                    test = ExtentReport.newTest(name, description);
+                    nodeId = ExtentReport.newNode(name, description);
+                    // before initialization there is no node to remember
+                    created = test != null || nodeId != 0;
+                }
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,439 @@
+package utils;
+
+import com.aventstack.extentreports.Status;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Pages through a {@link JsonlReporter} results file without loading it.
+ *
+ * The file is scanned once into a compact index: per report node its name, worst status and the
+ * byte offsets of its log lines, but no log text. A page of nodes, or the steps of one node, are
+ * then read from disk on demand, so a run with millions of steps opens in about the time it takes
+ * to read the file once. The index catches up with a file that is still being written.
+ *
+ * <pre>
+ * java -cp ... utils.ReportViewer reports/&lt;run&gt;/results.jsonl 8090   # then open http://localhost:8090
+ * </pre>
+ */
+public class ReportViewer {
+    private static final JsonFactory factory = new JsonFactory();
+    // worst first: a node is shown with the most severe status any of its steps has
+    private static final List<Status> SEVERITY = Arrays.asList(Status.FAIL, Status.SKIP, Status.WARNING, Status.PASS, Status.INFO);
+
+    private final Path file;
+    private final List<Node> nodes = new ArrayList<>();
+    private final Map<Long, Node> byId = new HashMap<>();
+    private final Map<String, String> systemInfo = new LinkedHashMap<>();
+    private long indexedBytes;
+
+    /**
+     * A report node as listed on a page.
+     */
+    public static final class Node {
+        private final long id;
+        private final String name;
+        private Status status = Status.PASS;
+        private long[] logOffsets = new long[4];
+        private int logCount;
+
+        Node(long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public int getLogCount() {
+            return logCount;
+        }
+
+        void addLog(long offset, Status logStatus) {
+            if (logCount == logOffsets.length) {
+                logOffsets = Arrays.copyOf(logOffsets, logCount * 2);
+            }
+            logOffsets[logCount++] = offset;
+            if (SEVERITY.indexOf(logStatus) < SEVERITY.indexOf(status)) {
+                status = logStatus;
+            }
+        }
+    }
+
+    /**
+     * One log step of a node.
+     */
+    public static final class Step {
+        private final Status status;
+        private final long timestamp;
+        private final String details;
+
+        Step(Status status, long timestamp, String details) {
+            this.status = status;
+            this.timestamp = timestamp;
+            this.details = details;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public String getDetails() {
+            return details;
+        }
+    }
+
+    public ReportViewer(Path file) throws IOException {
+        this.file = file;
+        refresh();
+    }
+
+    /**
+     * Indexes lines appended since the last call. A trailing line without newline is left for later.
+     */
+    public synchronized void refresh() throws IOException {
+        try (RandomAccessFile input = new RandomAccessFile(file.toFile(), "r")) {
+            long length = input.length();
+            input.seek(indexedBytes);
+            byte[] buffer = new byte[1 << 16];
+            byte[] line = new byte[1024];
+            int lineLength = 0;
+            long lineStart = indexedBytes;
+            long position = indexedBytes;
+            while (position < length) {
+                int read = input.read(buffer, 0, (int) Math.min(buffer.length, length - position));
+                if (read < 0) {
+                    break;
+                }
+                for (int i = 0; i < read; i++) {
+                    byte b = buffer[i];
+                    if (b == '\n') {
+                        index(line, lineLength, lineStart);
+                        lineLength = 0;
+                        lineStart = position + i + 1;
+                        indexedBytes = lineStart;
+                    } else {
+                        if (lineLength == line.length) {
+                            line = Arrays.copyOf(line, line.length * 2);
+                        }
+                        line[lineLength++] = b;
+                    }
+                }
+                position += read;
+            }
+        }
+    }
+
+    // Reads the fields an index entry needs; "details" is skipped without being decoded
+    private void index(byte[] line, int length, long offset) throws IOException {
+        String type = null;
+        String name = null;
+        String key = null;
+        String value = null;
+        String status = null;
+        long id = 0;
+        long test = 0;
+        try (JsonParser parser = factory.createParser(line, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "type":
+                        type = parser.getText();
+                        break;
+                    case "id":
+                        id = parser.getLongValue();
+                        break;
+                    case "test":
+                        test = parser.getLongValue();
+                        break;
+                    case "name":
+                        name = parser.getText();
+                        break;
+                    case "status":
+                        status = parser.getText();
+                        break;
+                    case "key":
+                        key = parser.getText();
+                        break;
+                    case "value":
+                        value = parser.getText();
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+        }
+        if ("test".equals(type)) {
+            Node node = new Node(id, name);
+            nodes.add(node);
+            byId.put(id, node);
+        } else if ("log".equals(type) && byId.containsKey(test)) {
+            byId.get(test).addLog(offset, Status.valueOf(status));
+        } else if ("info".equals(type)) {
+            systemInfo.put(key, value);
+        }
+    }
+
+    /**
+     * Number of nodes with {@code status} (any status when null) whose name contains {@code query}.
+     */
+    public synchronized int count(Status status, String query) {
+        return (int) filtered(status, query).count();
+    }
+
+    /**
+     * Nodes of one page, in the order they were started.
+     *
+     * @param page zero-based page number
+     */
+    public synchronized List<Node> page(int page, int size, Status status, String query) {
+        List<Node> result = new ArrayList<>();
+        filtered(status, query).skip((long) page * size).limit(size).forEach(result::add);
+        return result;
+    }
+
+    private Stream<Node> filtered(Status status, String query) {
+        String needle = query == null ? "" : query.toLowerCase(Locale.ROOT);
+        return nodes.stream()
+                .filter(node -> status == null || node.status == status)
+                .filter(node -> needle.isEmpty() || node.name.toLowerCase(Locale.ROOT).contains(needle));
+    }
+
+    /**
+     * Reads the steps of node {@code id} from disk, or returns null for an unknown id.
+     */
+    public List<Step> steps(long id) throws IOException {
+        long[] offsets;
+        int count;
+        synchronized (this) {
+            Node node = byId.get(id);
+            if (node == null) {
+                return null;
+            }
+            offsets = node.logOffsets;
+            count = node.logCount;
+        }
+        List<Step> steps = new ArrayList<>(count);
+        try (RandomAccessFile input = new RandomAccessFile(file.toFile(), "r")) {
+            for (int i = 0; i < count; i++) {
+                input.seek(offsets[i]);
+                String line = new String(input.readLine().getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8);
+                try (JsonParser parser = factory.createParser(line)) {
+                    Status status = Status.INFO;
+                    long timestamp = 0;
+                    String details = "";
+                    parser.nextToken();
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String field = parser.getCurrentName();
+                        parser.nextToken();
+                        if (field.equals("status")) {
+                            status = Status.valueOf(parser.getText());
+                        } else if (field.equals("ts")) {
+                            timestamp = parser.getLongValue();
+                        } else if (field.equals("details")) {
+                            details = parser.getText();
+                        }
+                    }
+                    steps.add(new Step(status, timestamp, details));
+                }
+            }
+        }
+        return steps;
+    }
+
+    public synchronized Map<String, String> getSystemInfo() {
+        return new LinkedHashMap<>(systemInfo);
+    }
+
+    /**
+     * Node count per status, worst first.
+     */
+    public synchronized Map<Status, Integer> getStatusCounts() {
+        Map<Status, Integer> counts = new LinkedHashMap<>();
+        SEVERITY.forEach(status -> counts.put(status, 0));
+        nodes.forEach(node -> counts.merge(node.status, 1, Integer::sum));
+        return counts;
+    }
+
+    /**
+     * Serves the viewer on the loopback interface until the JVM exits.
+     */
+    public HttpServer serve(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 16);
+        server.createContext("/", this::handle);
+        server.start();
+        return server;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String html;
+        int code = 200;
+        try {
+            refresh();
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String path = exchange.getRequestURI().getPath();
+            if (path.startsWith("/test/")) {
+                html = renderSteps(Long.parseLong(path.substring("/test/".length())));
+            } else {
+                html = renderPage(Integer.parseInt(query.getOrDefault("page", "0")),
+                        Integer.parseInt(query.getOrDefault("size", "100")),
+                        query.containsKey("status") && !query.get("status").isEmpty() ? Status.valueOf(query.get("status")) : null,
+                        query.getOrDefault("q", ""));
+            }
+        } catch (RuntimeException e) {
+            code = 400;
+            html = "<p>" + escape(String.valueOf(e)) + "</p>";
+        }
+        byte[] body = html.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(code, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    /**
+     * HTML for one page of nodes, with status filter, name search and paging links.
+     */
+    public synchronized String renderPage(int page, int size, Status status, String query) {
+        int total = count(status, query);
+        String filter = "&size=" + size + (status != null ? "&status=" + status : "") + "&q="
+                + escape(URLEncoder.encode(query, StandardCharsets.UTF_8));
+        StringBuilder html = header(file.getFileName().toString());
+        html.append("<p>");
+        getStatusCounts().forEach((s, n) -> html.append("<a href=\"/?status=").append(s).append("\">").append(s)
+                .append("</a> ").append(n).append(" &nbsp; "));
+        html.append("<a href=\"/\">all</a> ").append(nodes.size()).append("</p>");
+        html.append("<form>").append(status != null ? "<input type=\"hidden\" name=\"status\" value=\"" + status + "\">" : "")
+                .append("<input name=\"q\" value=\"").append(escape(query)).append("\" placeholder=\"name contains\"></form>");
+        html.append("<table><tr><th>#</th><th>Test</th><th>Status</th><th>Steps</th></tr>");
+        for (Node node : page(page, size, status, query)) {
+            html.append("<tr class=\"").append(node.status).append("\"><td>").append(node.id)
+                    .append("</td><td><a href=\"/test/").append(node.id).append("\">").append(escape(node.name))
+                    .append("</a></td><td>").append(node.status).append("</td><td>").append(node.logCount).append("</td></tr>");
+        }
+        html.append("</table><p>");
+        int pages = Math.max(1, (total + size - 1) / size);
+        if (page > 0) {
+            html.append("<a href=\"/?page=").append(page - 1).append(filter).append("\">previous</a> ");
+        }
+        html.append("page ").append(page + 1).append(" of ").append(pages).append(" (").append(total).append(" tests)");
+        if (page + 1 < pages) {
+            html.append(" <a href=\"/?page=").append(page + 1).append(filter).append("\">next</a>");
+        }
+        html.append("</p><h2>System info</h2><table>");
+        getSystemInfo().forEach((key, value) -> html.append("<tr><td>").append(escape(key)).append("</td><td>")
+                .append(value).append("</td></tr>"));
+        return html.append("</table></body></html>").toString();
+    }
+
+    /**
+     * HTML for the steps of one node.
+     */
+    public String renderSteps(long id) throws IOException {
+        List<Step> steps = steps(id);
+        if (steps == null) {
+            throw new IllegalArgumentException("No test with id " + id);
+        }
+        Node node;
+        synchronized (this) {
+            node = byId.get(id);
+        }
+        StringBuilder html = header(node.name);
+        html.append("<p><a href=\"/\">back</a></p><table><tr><th>Time</th><th>Status</th><th>Details</th></tr>");
+        for (Step step : steps) {
+            // details may hold markup written by the tests, as in the Spark report
+            html.append("<tr class=\"").append(step.status).append("\"><td>").append(Instant.ofEpochMilli(step.timestamp))
+                    .append("</td><td>").append(step.status).append("</td><td>").append(step.details).append("</td></tr>");
+        }
+        return html.append("</table></body></html>").toString();
+    }
+
+    private static StringBuilder header(String title) {
+        return new StringBuilder("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>").append(escape(title))
+                .append("</title><style>body{font-family:sans-serif}table{border-collapse:collapse}"
+                        + "td,th{border:1px solid #ccc;padding:2px 6px;text-align:left}"
+                        + ".FAIL{background:#fdd}.SKIP{background:#ffd}.WARNING{background:#ffe8cc}</style></head><body><h1>")
+                .append(escape(title)).append("</h1>");
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery != null) {
+            for (String pair : rawQuery.split("&")) {
+                int separator = pair.indexOf('=');
+                if (separator > 0) {
+                    query.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                            URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return query;
+    }
+
+    /**
+     * {@code ReportViewer [results.jsonl] [port]}; without a file, opens the newest one under {@code reports/}.
+     */
+    public static void main(String[] args) throws IOException {
+        Path file;
+        if (args.length > 0) {
+            file = Paths.get(args[0]);
+        } else {
+            try (Stream<Path> files = Files.walk(Paths.get("reports"), 2)) {
+                file = files.filter(path -> path.getFileName().toString().equals("results.jsonl"))
+                        .max(Comparator.comparingLong(path -> path.toFile().lastModified()))
+                        .orElseThrow(() -> new IllegalArgumentException("No results.jsonl under reports/"));
+            }
+        }
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 8090;
+        ReportViewer viewer = new ReportViewer(file);
+        viewer.serve(port);
+        System.out.println("Serving " + file + " (" + viewer.nodes.size() + " tests) on http://localhost:" + port);
+    }
+}
@@ -0,0 +1,80 @@
+package utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token budget that keeps retries and hedged requests to a share of the traffic.
+ *
+ * Every original request deposits {@code ratio} tokens, up to {@code maxTokens}; every extra
+ * attempt withdraws one. With a ratio of 0.1 a long run sends at most about 10% more requests
+ * than the tests asked for, plus the initial {@code maxTokens}, so an API that is slow or failing
+ * for everyone is not hit harder by the clients waiting on it. Deposits and withdrawals are
+ * compare-and-set updates of one counter, in thousandths of a token.
+ */
+public class RetryBudget {
+    private static final long UNIT = 1000;
+
+    private final long maxMillis;
+    private final long depositMillis;
+    private final AtomicLong tokens;
+    private final LongAdder withdrawn = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param ratio     tokens deposited per original request
+     * @param maxTokens tokens available at the start, and the most that can be saved up
+     */
+    public RetryBudget(double ratio, int maxTokens) {
+        if (ratio < 0 || maxTokens < 0) {
+            throw new IllegalArgumentException("ratio and maxTokens must not be negative");
+        }
+        this.maxMillis = maxTokens * UNIT;
+        this.depositMillis = Math.round(ratio * UNIT);
+        this.tokens = new AtomicLong(maxMillis);
+    }
+
+    /**
+     * Deposits the share of one original request.
+     */
+    public void onRequest() {
+        tokens.accumulateAndGet(depositMillis, (current, deposit) -> Math.min(maxMillis, current + deposit));
+    }
+
+    /**
+     * Takes one token for an extra attempt; false when the budget is spent.
+     */
+    public boolean tryWithdraw() {
+        while (true) {
+            long current = tokens.get();
+            if (current < UNIT) {
+                rejected.increment();
+                return false;
+            }
+            if (tokens.compareAndSet(current, current - UNIT)) {
+                withdrawn.increment();
+                return true;
+            }
+        }
+    }
+
+    public double getTokens() {
+        return tokens.get() / (double) UNIT;
+    }
+
+    public long getWithdrawn() {
+        return withdrawn.sum();
+    }
+
+    /**
+     * Extra attempts that were not made because the budget was spent.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.1f tokens left, %d spent, %d refused", getTokens(), getWithdrawn(), getRejected());
+    }
+}
@@ -0,0 +1,250 @@
+package utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ProcessingMessage;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeMatcher;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compiles each JSON schema once and shares it between tests and threads.
+ *
+ * RestAssured's {@code matchesJsonSchema*} matchers load and compile the schema on every
+ * validation. The registry keeps the compiled (immutable, thread-safe) schema per location
+ * instead, and times loading and validation separately so both costs show up in the report.
+ *
+ * <pre>
+ * .then().body(SchemaRegistry.matchesSchemaInClasspath("schemas/post-schema.json"));
+ * .then().body(SchemaRegistry.matchesSchema(new File("Resources/ExpectedSquema.json")));
+ * </pre>
+ */
+public class SchemaRegistry {
+    private static final JsonSchemaFactory factory = JsonSchemaFactory.byDefault();
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final Map<String, Entry> schemas = new ConcurrentHashMap<>();
+
+    /**
+     * A compiled schema with its load and validation counters.
+     */
+    public static class Entry {
+        private final String location;
+        private final JsonSchema schema;
+        private final long loadNanos;
+        private final LongAdder validations = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder validationNanos = new LongAdder();
+
+        private Entry(String location, JsonSchema schema, long loadNanos) {
+            this.location = location;
+            this.schema = schema;
+            this.loadNanos = loadNanos;
+        }
+
+        /**
+         * Parses and validates {@code json}; malformed JSON is reported as a validation failure.
+         */
+        public ProcessingReport validate(String json) {
+            long start = System.nanoTime();
+            try {
+                JsonNode node = mapper.readTree(json);
+                ProcessingReport report = schema.validate(node);
+                if (!report.isSuccess()) {
+                    failures.increment();
+                }
+                return report;
+            } catch (IOException | ProcessingException e) {
+                failures.increment();
+                throw new IllegalArgumentException("Cannot validate against " + location + ": " + e.getMessage(), e);
+            } finally {
+                validations.increment();
+                validationNanos.add(System.nanoTime() - start);
+            }
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public double getLoadMillis() {
+            return loadNanos / 1_000_000.0;
+        }
+
+        public long getValidations() {
+            return validations.sum();
+        }
+
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        public double getValidationMillis() {
+            return validationNanos.sum() / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            long count = validations.sum();
+            return String.format("%s: loaded in %.1f ms, %d validations (%d failed) in %.1f ms, mean %.3f ms",
+                    location, getLoadMillis(), count, failures.sum(), getValidationMillis(),
+                    count == 0 ? 0 : getValidationMillis() / count);
+        }
+    }
+
+    /**
+     * Returns the compiled schema for a classpath resource, loading it on first use.
+     */
+    public static Entry fromClasspath(String resource) {
+        return schemas.computeIfAbsent("classpath:" + resource, location -> load(location, () -> {
+            InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(resource);
+            if (in == null) {
+                throw new IllegalArgumentException("Schema not found on classpath: " + resource);
+            }
+            try (InputStream stream = in) {
+                return mapper.readTree(stream);
+            }
+        }));
+    }
+
+    /**
+     * Returns the compiled schema for a file, loading it on first use.
+     */
+    public static Entry fromFile(File file) {
+        File absolute = file.toPath().toAbsolutePath().normalize().toFile();
+        return schemas.computeIfAbsent("file:" + absolute.getPath(), location -> load(location, () -> {
+            if (!absolute.isFile()) {
+                throw new IllegalArgumentException("Schema file not found: " + absolute);
+            }
+            return mapper.readTree(absolute);
+        }));
+    }
+
+    /**
+     * Hamcrest matcher validating a response body against a classpath schema.
+     */
+    public static Matcher<String> matchesSchemaInClasspath(String resource) {
+        return new SchemaMatcher(fromClasspath(resource));
+    }
+
+    /**
+     * Hamcrest matcher validating a response body against a schema file.
+     */
+    public static Matcher<String> matchesSchema(File file) {
+        return new SchemaMatcher(fromFile(file));
+    }
+
+    /**
+     * Load and validation statistics per schema, sorted by location.
+     */
+    public static Map<String, Entry> getEntries() {
+        return new TreeMap<>(schemas);
+    }
+
+    /**
+     * One line per schema, for the report's system information.
+     */
+    public static String summary() {
+        StringBuilder summary = new StringBuilder();
+        getEntries().values().forEach(entry -> summary.append(summary.length() == 0 ? "" : "<br>").append(entry));
+        return summary.toString();
+    }
+
+    /**
+     * Drops all compiled schemas, e.g. after a schema file was edited.
+     */
+    public static void clear() {
+        schemas.clear();
+    }
+
+    private interface SchemaSource {
+        JsonNode read() throws IOException;
+    }
+
+    private static Entry load(String location, SchemaSource source) {
+        long start = System.nanoTime();
+        try {
+            JsonSchema schema = factory.getJsonSchema(source.read());
+            return new Entry(location, schema, System.nanoTime() - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read schema " + location, e);
+        } catch (ProcessingException e) {
+            throw new IllegalArgumentException("Invalid schema " + location + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static class SchemaMatcher extends TypeSafeMatcher<String> {
+        private final Entry entry;
+        // The last failed match, so describing it does not validate the document again
+        private volatile Mismatch last;
+
+        SchemaMatcher(Entry entry) {
+            this.entry = entry;
+        }
+
+        private static final class Mismatch {
+            private final String json;
+            private final ProcessingReport report;
+            private final String error;
+
+            Mismatch(String json, ProcessingReport report, String error) {
+                this.json = json;
+                this.report = report;
+                this.error = error;
+            }
+        }
+
+        @Override
+        protected boolean matchesSafely(String json) {
+            Mismatch mismatch = check(json);
+            last = mismatch;
+            return mismatch == null;
+        }
+
+        // null when the document matches
+        private Mismatch check(String json) {
+            try {
+                ProcessingReport report = entry.validate(json);
+                return report.isSuccess() ? null : new Mismatch(json, report, null);
+            } catch (IllegalArgumentException e) {
+                return new Mismatch(json, null, e.getMessage());
+            }
+        }
+
+        @Override
+        public void describeTo(Description description) {
+            description.appendText("JSON matching schema ").appendText(entry.location);
+        }
+
+        @Override
+        protected void describeMismatchSafely(String json, Description description) {
+            Mismatch mismatch = last;
+            if (mismatch == null || !mismatch.json.equals(json)) {
+                mismatch = check(json);
+                if (mismatch == null) {
+                    return;
+                }
+            }
+            if (mismatch.error != null) {
+                description.appendText(mismatch.error);
+                return;
+            }
+            for (ProcessingMessage message : mismatch.report) {
+                description.appendText("\n  ").appendText(message.getMessage())
+                        .appendText(" at ").appendText(message.asJson().path("instance").path("pointer").asText("/"));
+            }
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * File-backed rows for TestNG data providers.
+ *
+ * Rows are read lazily, one line at a time, so a data provider returning one of these iterators
+ * uses constant memory no matter how many rows the file holds. The file is opened on the first
+ * call to {@code hasNext()} and closed when the last row has been read.
+ *
+ * Rows can be sharded across JVM forks: with {@code data.shard.count=N} and {@code data.shard.index=i}
+ * (usually passed as system properties) a fork only sees the rows whose zero-based index satisfies
+ * {@code index % N == i}. Lines of other shards are skipped without being parsed.
+ *
+ * Note: with {@code @DataProvider(parallel = true)} TestNG reads the whole iterator up front to
+ * schedule one task per row; the pool size comes from {@code dataprovider.thread.count}.
+ * For multi-million-row files, prefer sequential providers sharded across forks.
+ */
+public class StreamingDataProvider {
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Streams a JSON Lines file. Each line must be a JSON object; a row holds the values of the given fields in order.
+     * When no fields are given, each line must be a JSON array whose elements form the row.
+     */
+    public static Iterator<Object[]> jsonl(String file, String... fields) {
+        return jsonl(Paths.get(file), fields);
+    }
+
+    public static Iterator<Object[]> jsonl(Path file, String... fields) {
+        return new RowIterator(file, false, shardIndex(), shardCount()) {
+            @Override
+            Object[] parse(String line) throws IOException {
+                JsonNode node = mapper.readTree(line);
+                if (fields.length == 0) {
+                    Object[] row = new Object[node.size()];
+                    for (int i = 0; i < row.length; i++) {
+                        row[i] = toValue(node.get(i));
+                    }
+                    return row;
+                }
+                Object[] row = new Object[fields.length];
+                for (int i = 0; i < fields.length; i++) {
+                    row[i] = toValue(node.get(fields[i]));
+                }
+                return row;
+            }
+        };
+    }
+
+    /**
+     * Streams a CSV file with a header line. Cells are converted to the given column types
+     * (String, Integer, Long, Double or Boolean); columns without a type stay strings.
+     */
+    public static Iterator<Object[]> csv(String file, Class<?>... columnTypes) {
+        return csv(Paths.get(file), columnTypes);
+    }
+
+    public static Iterator<Object[]> csv(Path file, Class<?>... columnTypes) {
+        return new RowIterator(file, true, shardIndex(), shardCount()) {
+            @Override
+            Object[] parse(String line) {
+                List<String> cells = splitCsv(line);
+                Object[] row = new Object[cells.size()];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = convert(cells.get(i), i < columnTypes.length ? columnTypes[i] : String.class);
+                }
+                return row;
+            }
+        };
+    }
+
+    private static int shardIndex() {
+        return Config.get().getInt("data.shard.index", 0);
+    }
+
+    private static int shardCount() {
+        return Config.get().getInt("data.shard.count", 1);
+    }
+
+    private abstract static class RowIterator implements Iterator<Object[]> {
+        private final Path file;
+        private final boolean header;
+        private final int shardIndex;
+        private final int shardCount;
+        private BufferedReader reader;
+        private boolean finished;
+        private long rowIndex;
+        private Object[] next;
+
+        RowIterator(Path file, boolean header, int shardIndex, int shardCount) {
+            if (shardCount < 1 || shardIndex < 0 || shardIndex >= shardCount) {
+                throw new IllegalArgumentException("Invalid shard " + shardIndex + " of " + shardCount);
+            }
+            this.file = file;
+            this.header = header;
+            this.shardIndex = shardIndex;
+            this.shardCount = shardCount;
+        }
+
+        abstract Object[] parse(String line) throws IOException;
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            if (finished) {
+                return false;
+            }
+            try {
+                if (reader == null) {
+                    reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+                    if (header) {
+                        reader.readLine();
+                    }
+                }
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.trim().isEmpty()) {
+                        continue;
+                    }
+                    if (rowIndex++ % shardCount == shardIndex) {
+                        next = parse(line);
+                        return true;
+                    }
+                }
+                close();
+                return false;
+            } catch (IOException e) {
+                close();
+                throw new UncheckedIOException("Failed to read data file " + file, e);
+            }
+        }
+
+        @Override
+        public Object[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object[] row = next;
+            next = null;
+            return row;
+        }
+
+        private void close() {
+            finished = true;
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    System.err.println("Failed to close data file " + file + ": " + e.getMessage());
+                }
+                reader = null;
+            }
+        }
+    }
+
+    private static Object toValue(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return null;
+        } else if (node.isInt()) {
+            return node.intValue();
+        } else if (node.isIntegralNumber()) {
+            return node.longValue();
+        } else if (node.isNumber()) {
+            return node.doubleValue();
+        } else if (node.isBoolean()) {
+            return node.booleanValue();
+        } else if (node.isTextual()) {
+            return node.textValue();
+        }
+        return node;
+    }
+
+    private static Object convert(String cell, Class<?> type) {
+        if (type == Integer.class || type == int.class) {
+            return Integer.valueOf(cell.trim());
+        } else if (type == Long.class || type == long.class) {
+            return Long.valueOf(cell.trim());
+        } else if (type == Double.class || type == double.class) {
+            return Double.valueOf(cell.trim());
+        } else if (type == Boolean.class || type == boolean.class) {
+            return Boolean.valueOf(cell.trim());
+        }
+        return cell;
+    }
+
+    // RFC 4180 style splitting for single-line records: quoted cells may contain commas and doubled quotes
+    private static List<String> splitCsv(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+}
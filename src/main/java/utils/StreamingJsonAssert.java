@@ -0,0 +1,483 @@
+package utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.response.Response;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Assertions on a JSON array checked in a single streaming pass over the response bytes.
+ *
+ * {@code response.jsonPath().getList("")} builds a Groovy object tree of the whole body just to
+ * count its elements or find one of them. Here every check is registered first and
+ * {@link #verify()} runs them all while Jackson's streaming parser walks the array once: elements
+ * are skipped token by token, only the fields a check asks for are read, and an element is
+ * materialized as a tree only for {@link #everyItem(String, Predicate)}.
+ *
+ * <pre>
+ * StreamingJsonAssert.assertThatJson(response)
+ *     .hasSize(500)
+ *     .hasItems("email", "Eliseo@gardner.biz", "Jayne_Kuhic@sydney.com")
+ *     .everyItem("postId", greaterThan(0))
+ *     .verify();
+ * </pre>
+ *
+ * All failed checks are reported together in one {@link AssertionError}.
+ */
+public class StreamingJsonAssert {
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final JsonFactory factory = mapper.getFactory();
+    private static final Object MISSING = new Object();
+    private static final int MAX_EXAMPLES = 5;
+
+    private final Source source;
+    private final String description;
+    private final List<Check> checks = new ArrayList<>();
+    private final List<String> fields = new ArrayList<>();
+    private String[] path = new String[0];
+    private boolean readElements;
+
+    private interface Source {
+        JsonParser open() throws IOException;
+    }
+
+    private StreamingJsonAssert(Source source, String description) {
+        this.source = source;
+        this.description = description;
+    }
+
+    /**
+     * Checks the body RestAssured has already received, without building a JSON path tree.
+     */
+    public static StreamingJsonAssert assertThatJson(Response response) {
+        byte[] body = response.asByteArray();
+        return new StreamingJsonAssert(() -> factory.createParser(body), "response body");
+    }
+
+    public static StreamingJsonAssert assertThatJson(byte[] body) {
+        return new StreamingJsonAssert(() -> factory.createParser(body), "JSON");
+    }
+
+    /**
+     * Checks a stream, e.g. a large file; the stream is read once and closed by {@link #verify()}.
+     */
+    public static StreamingJsonAssert assertThatJson(InputStream body) {
+        return new StreamingJsonAssert(() -> factory.createParser(body), "JSON stream");
+    }
+
+    /**
+     * Dot-separated object keys leading to the array, e.g. {@code "data"} for a ReqRes page.
+     * By default the document itself must be the array.
+     */
+    public StreamingJsonAssert at(String path) {
+        this.path = path.isEmpty() ? new String[0] : path.split("\\.");
+        return this;
+    }
+
+    public StreamingJsonAssert hasSize(int expected) {
+        return hasSize(equalTo(expected));
+    }
+
+    public StreamingJsonAssert hasSize(Matcher<? super Integer> matcher) {
+        checks.add(new SizeCheck(matcher));
+        return this;
+    }
+
+    /**
+     * At least one element has {@code field} equal to {@code expected}; numbers compare by value.
+     */
+    public StreamingJsonAssert hasItem(String field, Object expected) {
+        return hasItems(field, expected);
+    }
+
+    /**
+     * Every value in {@code expected} is the {@code field} of at least one element.
+     */
+    public StreamingJsonAssert hasItems(String field, Object... expected) {
+        checks.add(new ContainsCheck(field(field), field, expected));
+        return this;
+    }
+
+    /**
+     * Every element's {@code field} matches; a missing field is matched as null.
+     */
+    public StreamingJsonAssert everyItem(String field, Matcher<?> matcher) {
+        checks.add(new FieldCheck(field(field), field, matcher));
+        return this;
+    }
+
+    /**
+     * Every element satisfies {@code predicate}. Each element is read into a tree, one at a time.
+     */
+    public StreamingJsonAssert everyItem(String description, Predicate<JsonNode> predicate) {
+        readElements = true;
+        checks.add(new ElementCheck(description, predicate));
+        return this;
+    }
+
+    /**
+     * Runs every registered check in one pass and returns the number of elements read.
+     * When only {@link #hasItems} checks are registered the pass stops as soon as all are found.
+     */
+    public int verify() {
+        checks.forEach(Check::start);
+        int size = scan(checks, fields.toArray(new String[0]), readElements);
+        List<String> failures = new ArrayList<>();
+        for (Check check : checks) {
+            check.finish(size, failures);
+        }
+        if (!failures.isEmpty()) {
+            throw new AssertionError("JSON array" + (path.length == 0 ? "" : " at " + String.join(".", path))
+                    + " in " + description + ": " + String.join("; ", failures));
+        }
+        return size;
+    }
+
+    /**
+     * Returns the first element whose {@code field} equals {@code value}, or null; stops reading there.
+     * Registered checks are not run.
+     */
+    public JsonNode findFirst(String field, Object value) {
+        FindCheck find = new FindCheck(field, value);
+        scan(Collections.singletonList(find), new String[0], true);
+        return find.found;
+    }
+
+    private int field(String name) {
+        int index = fields.indexOf(name);
+        if (index < 0) {
+            fields.add(name);
+            index = fields.size() - 1;
+        }
+        return index;
+    }
+
+    private int scan(List<Check> checks, String[] names, boolean readElements) {
+        Object[] values = new Object[names.length];
+        int size = 0;
+        try (JsonParser parser = source.open()) {
+            moveToArray(parser);
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (parser.currentToken() == null) {
+                    throw new AssertionError("Unterminated JSON array in " + description);
+                }
+                JsonNode element = null;
+                Arrays.fill(values, MISSING);
+                if (readElements) {
+                    element = mapper.readTree(parser);
+                    for (int i = 0; i < names.length; i++) {
+                        JsonNode value = element.get(names[i]);
+                        values[i] = value == null ? MISSING : scalar(value);
+                    }
+                } else if (parser.currentToken() == JsonToken.START_OBJECT && names.length > 0) {
+                    readFields(parser, names, values);
+                } else {
+                    parser.skipChildren();
+                }
+                boolean done = true;
+                for (Check check : checks) {
+                    check.accept(size, values, element);
+                    done &= check.done();
+                }
+                size++;
+                if (done && !checks.isEmpty()) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot parse " + description, e);
+        }
+        return size;
+    }
+
+    // Reads the requested fields of the current object and skips everything else
+    private static void readFields(JsonParser parser, String[] names, Object[] values) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            int index = indexOf(names, name);
+            if (index < 0) {
+                parser.skipChildren();
+            } else if (token.isScalarValue()) {
+                values[index] = scalar(parser, token);
+            } else {
+                values[index] = mapper.readTree(parser);
+            }
+        }
+    }
+
+    private void moveToArray(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        for (String key : path) {
+            boolean found = false;
+            if (token == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.getCurrentName();
+                    token = parser.nextToken();
+                    if (key.equals(name)) {
+                        found = true;
+                        break;
+                    }
+                    parser.skipChildren();
+                }
+            }
+            if (!found) {
+                throw new AssertionError("No \"" + String.join(".", path) + "\" in " + description);
+            }
+        }
+        if (token != JsonToken.START_ARRAY) {
+            throw new AssertionError("Expected a JSON array" + (path.length == 0 ? "" : " at " + String.join(".", path))
+                    + " in " + description + " but found " + token);
+        }
+    }
+
+    private static int indexOf(String[] names, String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Object scalar(JsonParser parser, JsonToken token) throws IOException {
+        switch (token) {
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getNumberValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            default:
+                return null;
+        }
+    }
+
+    private static Object scalar(JsonNode node) {
+        if (node.isTextual()) {
+            return node.textValue();
+        }
+        if (node.isNumber()) {
+            return node.numberValue();
+        }
+        if (node.isBoolean()) {
+            return node.booleanValue();
+        }
+        return node.isNull() ? null : node;
+    }
+
+    private static boolean valueEquals(Object actual, Object expected) {
+        return Objects.equals(normalize(actual), normalize(expected));
+    }
+
+    // Numbers compare by value whatever their boxed type, so 5, 5L and 5.0 are equal
+    private static Object normalize(Object value) {
+        if (!(value instanceof Number)) {
+            return value;
+        }
+        if ((value instanceof Double && !Double.isFinite((Double) value))
+                || (value instanceof Float && !Float.isFinite((Float) value))) {
+            return ((Number) value).doubleValue();
+        }
+        BigDecimal decimal = value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(value.toString());
+        return decimal.signum() == 0 ? BigDecimal.ZERO : decimal.stripTrailingZeros();
+    }
+
+    private abstract static class Check {
+        /**
+         * Clears what a previous {@link #verify()} left behind.
+         */
+        void start() {
+        }
+
+        abstract void accept(int index, Object[] values, JsonNode element);
+
+        /**
+         * True when further elements cannot change the outcome.
+         */
+        boolean done() {
+            return false;
+        }
+
+        abstract void finish(int size, List<String> failures);
+    }
+
+    private static class FindCheck extends Check {
+        private final String field;
+        private final Object value;
+        private JsonNode found;
+
+        FindCheck(String field, Object value) {
+            this.field = field;
+            this.value = value;
+        }
+
+        @Override
+        void accept(int index, Object[] values, JsonNode element) {
+            JsonNode candidate = element.get(field);
+            if (found == null && candidate != null && valueEquals(scalar(candidate), value)) {
+                found = element;
+            }
+        }
+
+        @Override
+        boolean done() {
+            return found != null;
+        }
+
+        @Override
+        void finish(int size, List<String> failures) {
+        }
+    }
+
+    private static class SizeCheck extends Check {
+        private final Matcher<? super Integer> matcher;
+
+        SizeCheck(Matcher<? super Integer> matcher) {
+            this.matcher = matcher;
+        }
+
+        @Override
+        void accept(int index, Object[] values, JsonNode element) {
+        }
+
+        @Override
+        void finish(int size, List<String> failures) {
+            if (!matcher.matches(size)) {
+                failures.add("expected size " + StringDescription.toString(matcher) + " but was " + size);
+            }
+        }
+    }
+
+    private static class ContainsCheck extends Check {
+        private final int field;
+        private final String name;
+        private final List<Object> expected;
+        private Set<Object> missing;
+
+        ContainsCheck(int field, String name, Object[] expected) {
+            this.field = field;
+            this.name = name;
+            this.expected = Arrays.asList(expected.clone());
+            this.missing = new LinkedHashSet<>(this.expected);
+        }
+
+        @Override
+        void start() {
+            missing = new LinkedHashSet<>(expected);
+        }
+
+        @Override
+        void accept(int index, Object[] values, JsonNode element) {
+            Object value = values[field];
+            if (value != MISSING && !missing.isEmpty()) {
+                missing.removeIf(expected -> valueEquals(value, expected));
+            }
+        }
+
+        @Override
+        boolean done() {
+            return missing.isEmpty();
+        }
+
+        @Override
+        void finish(int size, List<String> failures) {
+            if (!missing.isEmpty()) {
+                failures.add("no item with " + name + " " + missing);
+            }
+        }
+    }
+
+    private static class FieldCheck extends Check {
+        private final int field;
+        private final String name;
+        private final Matcher<?> matcher;
+        private final List<String> examples = new ArrayList<>();
+        private int mismatches;
+
+        FieldCheck(int field, String name, Matcher<?> matcher) {
+            this.field = field;
+            this.name = name;
+            this.matcher = matcher;
+        }
+
+        @Override
+        void start() {
+            examples.clear();
+            mismatches = 0;
+        }
+
+        @Override
+        void accept(int index, Object[] values, JsonNode element) {
+            Object value = values[field] == MISSING ? null : values[field];
+            if (!matcher.matches(value)) {
+                if (mismatches++ < MAX_EXAMPLES) {
+                    examples.add("[" + index + "]=" + value);
+                }
+            }
+        }
+
+        @Override
+        void finish(int size, List<String> failures) {
+            if (mismatches > 0) {
+                failures.add("expected every " + name + " " + StringDescription.toString(matcher) + " but "
+                        + mismatches + " of " + size + " did not, e.g. " + String.join(", ", examples));
+            }
+        }
+    }
+
+    private static class ElementCheck extends Check {
+        private final String description;
+        private final Predicate<JsonNode> predicate;
+        private final List<Integer> examples = new ArrayList<>();
+        private int mismatches;
+
+        ElementCheck(String description, Predicate<JsonNode> predicate) {
+            this.description = description;
+            this.predicate = predicate;
+        }
+
+        @Override
+        void start() {
+            examples.clear();
+            mismatches = 0;
+        }
+
+        @Override
+        void accept(int index, Object[] values, JsonNode element) {
+            if (!predicate.test(element) && mismatches++ < MAX_EXAMPLES) {
+                examples.add(index);
+            }
+        }
+
+        @Override
+        void finish(int size, List<String> failures) {
+            if (mismatches > 0) {
+                failures.add("expected every item " + description + " but " + mismatches + " of " + size
+                        + " did not, e.g. at " + examples);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package utils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to virtual threads (Java 21) from code compiled for Java 11.
+ *
+ * The builder API is looked up reflectively once; on older runtimes, or on Java 19 and 20 without
+ * {@code --enable-preview}, {@link #isAvailable()} is false and {@link #unavailableReason()} says why.
+ */
+public final class VirtualThreads {
+    private static final Method OF_VIRTUAL;
+    private static final Method NAME;
+    private static final Method INHERIT;
+    private static final Method FACTORY;
+    private static final String UNAVAILABLE;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method inherit = null;
+        Method factory = null;
+        String unavailable = null;
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = builder.getMethod("name", String.class, long.class);
+            inherit = builder.getMethod("inheritInheritableThreadLocals", boolean.class);
+            factory = builder.getMethod("factory");
+            ofVirtual.invoke(null);
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            unavailable = "Java " + System.getProperty("java.specification.version") + " has no virtual threads";
+        } catch (InvocationTargetException e) {
+            unavailable = String.valueOf(e.getCause());
+        } catch (IllegalAccessException e) {
+            unavailable = e.toString();
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        INHERIT = inherit;
+        FACTORY = factory;
+        UNAVAILABLE = unavailable;
+    }
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isAvailable() {
+        return UNAVAILABLE == null;
+    }
+
+    /**
+     * Why virtual threads cannot be used, or null when they can.
+     */
+    public static String unavailableReason() {
+        return UNAVAILABLE;
+    }
+
+    /**
+     * Returns a factory of unstarted virtual threads named {@code prefix1}, {@code prefix2}, ...
+     * The threads start without inheritable thread-locals, so a new thread never picks up the
+     * {@link ReportContext} of whichever thread happened to start it.
+     *
+     * @throws UnsupportedOperationException when virtual threads are not available
+     */
+    public static ThreadFactory factory(String prefix) {
+        if (!isAvailable()) {
+            throw new UnsupportedOperationException(UNAVAILABLE);
+        }
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = NAME.invoke(builder, prefix, 1L);
+            builder = INHERIT.invoke(builder, false);
+            return (ThreadFactory) FACTORY.invoke(builder);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Cannot create virtual thread factory", e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package stress;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.model.Log;
+import core.BaseTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import utils.ExtentReport;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+/**
+ * Concurrent stress suite for the per-invocation reporting context.
+ * Runs thousands of invocations on 32+ threads, all logging at the same time, and then
+ * checks that every report node only holds its own steps and exactly one PASS entry.
+ * Kept out of the userManagement package so only {@code ParallelStressSuite.xml} runs it.
+ */
+public class reportContextStressTests extends BaseTest {
+    private static final int STEPS = 5;
+    private static final int INVOCATIONS = 2000;
+    private static final int ROWS = 500;
+    private static final int DEFAULT_NODE_INVOCATIONS = 200;
+    private static final Map<String, ExtentTest> nodes = new ConcurrentHashMap<>();
+
+    @DataProvider(name = "rows", parallel = true)
+    public Object[][] getRows() {
+        Object[][] rows = new Object[ROWS][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Object[] {i};
+        }
+        return rows;
+    }
+
+    @Test(invocationCount = INVOCATIONS, threadPoolSize = 32)
+    public void testContextIsolatedPerInvocation() {
+        logSteps("invocation-" + UUID.randomUUID());
+    }
+
+    @Test(dataProvider = "rows")
+    public void testContextIsolatedPerDataProviderRow(int row) {
+        logSteps("row-" + row + "-" + UUID.randomUUID());
+    }
+
+    @Test(invocationCount = DEFAULT_NODE_INVOCATIONS, threadPoolSize = 32)
+    public void testDefaultNodeCreatedWithoutCreateTest() {
+        String token = "default-" + UUID.randomUUID();
+        for (int i = 0; i < STEPS; i++) {
+            ExtentReport.log(Status.INFO, token + " step " + i);
+        }
+        ExtentTest test = ExtentReport.getTest();
+        assertNotNull(test);
+        assertEquals(test.getModel().getName(), "testDefaultNodeCreatedWithoutCreateTest");
+        nodes.put(token, test);
+    }
+
+    private void logSteps(String token) {
+        ExtentTest test = ExtentReport.createTest(token, "Report context stress invocation");
+        assertNotNull(test, "reporting must be initialized by BaseTest");
+        nodes.put(token, test);
+        for (int i = 0; i < STEPS; i++) {
+            ExtentReport.log(Status.INFO, token + " step " + i);
+            Thread.yield();
+        }
+        assertSame(ExtentReport.getTest(), test);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void verifyNoCrossTalk() throws InterruptedException {
+        assertTrue(ExtentReport.awaitDrained(30, TimeUnit.SECONDS), "report queue did not drain");
+        assertEquals(nodes.size(), INVOCATIONS + ROWS + DEFAULT_NODE_INVOCATIONS);
+        nodes.forEach((token, test) -> {
+            int steps = 0;
+            int passes = 0;
+            for (Log log : test.getModel().getLogs()) {
+                if (log.getStatus() == Status.PASS) {
+                    passes++;
+                } else {
+                    assertTrue(log.getDetails().startsWith(token + " step "), "foreign log in " + token + ": " + log.getDetails());
+                    steps++;
+                }
+            }
+            assertEquals(steps, STEPS, "steps logged under " + token);
+            assertEquals(passes, 1, "result entries logged under " + token);
+        });
+    }
+}
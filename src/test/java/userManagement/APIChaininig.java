@@ -8,42 +8,58 @@
 
 package userManagement;
 
+import core.AuthTokenFilter;
 import core.BaseTest;
 import core.StatusCode;
+import core.TokenProvider;
 import io.restassured.response.Response;
 import org.testng.annotations.Test;
+import utils.APIEndpoints;
+import utils.AsyncApiClient;
+import utils.AsyncResponse;
 import utils.ExtentReport;
 
+import java.util.Map;
+
 import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.emptyOrNullString;
+import static org.hamcrest.Matchers.not;
 import static org.testng.Assert.assertEquals;
 
 public class APIChaininig extends BaseTest {
+    // One token for the whole class, refreshed only when it expires or is rejected
+    private static final AuthTokenFilter bookstoreAuth = new AuthTokenFilter(
+            TokenProvider.forLoginEndpoint(APIEndpoints.getBookstoreUrl("/Account/v1/GenerateToken")),
+            new TokenProvider.Credentials("caro", "Test@123"));
+
     @Test
     public void verifyBookstoreAddBooks() {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("verifyBookstoreAddBooks", 
+        ExtentReport.createTest("verifyBookstoreAddBooks", 
             "Validate 201 Status Code for POST method");
-        String authToken = generateAuthToken();
         Response response = given()
+                .filter(bookstoreAuth)
                 .header("Content-Type", "application/json")
-                .header("Authorization", "Bearer "+authToken)
                 .body("{\"userId\":\"6fdcd89a-7efd-407e-b5ae-7d873cb9c16f\",\"collectionOfIsbns\":[{\"isbn\":\"9781593275846\"}]}")
                 .when()
-                .post("https://bookstore.toolsqa.com/BookStore/v1/Books");
+                .post(APIEndpoints.getBookstoreUrl("/BookStore/v1/Books"));
         assertEquals(response.getStatusCode(), StatusCode.CREATED.code);
         System.out.println("verifyBookstoreAddBooks executed successfully");
     }
 
-    private String generateAuthToken() {
-        Response response = given()
-                .header("Content-Type", "application/json")
-                .body("{\"userName\":\"caro\",\"password\":\"Test@123\"}")
-                .when()
-                .post("https://bookstore.toolsqa.com/Account/v1/GenerateToken");
-        assertEquals(response.getStatusCode(), StatusCode.SUCCESS.code);
-        System.out.println("generateAuthToken executed successfully");
-        String authToken = response.path("token");
-        System.out.println("Token: " + authToken);
-        return authToken;
+    @Test
+    public void verifyBookstoreAddBooksAsync() {
+        ExtentReport.createTest("verifyBookstoreAddBooksAsync",
+            "Chain token generation and POST without blocking between the calls");
+        AsyncApiClient client = AsyncApiClient.shared();
+        AsyncResponse response = AsyncApiClient.await(client
+                .post(APIEndpoints.getBookstoreUrl("/Account/v1/GenerateToken"),
+                        Map.of("userName", "caro", "password", "Test@123"))
+                .thenApply(login -> login.statusCode(StatusCode.SUCCESS.code).body("token", not(emptyOrNullString())))
+                .thenCompose(login -> client.request("POST", APIEndpoints.getBookstoreUrl("/BookStore/v1/Books"))
+                        .header("Authorization", "Bearer " + login.jsonPath().getString("token"))
+                        .body("{\"userId\":\"6fdcd89a-7efd-407e-b5ae-7d873cb9c16f\",\"collectionOfIsbns\":[{\"isbn\":\"9781593275846\"}]}")
+                        .send()));
+        response.statusCode(StatusCode.CREATED.code);
+        System.out.println("verifyBookstoreAddBooksAsync executed successfully");
     }
 }
-
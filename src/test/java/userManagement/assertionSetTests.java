@@ -0,0 +1,128 @@
+package userManagement;
+
+import core.BaseTest;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.hamcrest.Matcher;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import utils.AssertionSet;
+import utils.ExtentReport;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.*;
+import static org.testng.Assert.*;
+
+public class assertionSetTests extends BaseTest {
+    private static final AssertionSet PAGE = AssertionSet.builder()
+        .body("page", is(2))
+        .body("data.size()", is(6))
+        .body("data[2].first_name", is("Tobias"))
+        .body("data[-1].id", is(12))
+        .body("support.url", startsWith("https://reqres.in"))
+        .build();
+
+    private byte[] page;
+    private Response response;
+
+    @BeforeClass
+    public void loadFixture() throws IOException {
+        page = Files.readAllBytes(Paths.get("Resources/TestData/usersPage.json"));
+        response = new ResponseBuilder().setStatusCode(200).setContentType(ContentType.JSON).setBody(page).build();
+    }
+
+    @Test
+    public void testPassingSet() {
+        ExtentReport.createTest("testPassingSet", "Five assertions checked against one parse of the users page");
+        PAGE.verify(response);
+        assertEquals(PAGE.size(), 5);
+    }
+
+    @Test
+    public void testMatchesRestAssuredPaths() {
+        ExtentReport.createTest("testMatchesRestAssuredPaths", "Each supported path yields the value GPath yields");
+        Map<String, Matcher<?>> expectations = new LinkedHashMap<>();
+        expectations.put("total_pages", equalTo(2));
+        expectations.put("data", hasSize(6));
+        expectations.put("data.size()", equalTo(6));
+        expectations.put("data.id", equalTo(Arrays.asList(7, 8, 9, 10, 11, 12)));
+        expectations.put("data[0]", hasEntry("last_name", "Lawson"));
+        expectations.put("data[-2].email", equalTo("george.edwards@reqres.in"));
+        expectations.put("data[6].id", nullValue());
+        expectations.put("support.missing", nullValue());
+        expectations.put("support", hasKey("text"));
+
+        AssertionSet.Builder builder = AssertionSet.builder();
+        expectations.forEach((path, matcher) -> {
+            response.then().body(path, matcher);
+            builder.body(path, matcher);
+        });
+        builder.build().verify(response);
+    }
+
+    @Test
+    public void testFailuresAreReportedTogether() {
+        ExtentReport.createTest("testFailuresAreReportedTogether", "All mismatches are listed in one error");
+        AssertionSet wrong = AssertionSet.builder()
+            .body("page", is(3))
+            .body("data", hasSize(6))
+            .body("data[2].email", is("tobias@reqres.in"))
+            .body("data.first_name", hasItem("Janet"))
+            .build();
+
+        AssertionError error = expectThrows(AssertionError.class, () -> wrong.verify(page));
+
+        assertTrue(error.getMessage().startsWith("3 of 4 assertions failed"), error.getMessage());
+        assertTrue(error.getMessage().contains("page: expected is <3> but was <2>"), error.getMessage());
+        assertTrue(error.getMessage().contains("data[2].email"), error.getMessage());
+        assertTrue(error.getMessage().contains("data.first_name"), error.getMessage());
+    }
+
+    @Test
+    public void testOpenPathsTakeValuesPerCall() {
+        ExtentReport.createTest("testOpenPathsTakeValuesPerCall", "Data-driven rows pass expected values in order");
+        AssertionSet user = AssertionSet.builder().body("data[2].id").body("data[2].first_name").build();
+
+        user.verify(page, 9, "Tobias");
+        user.verify(page, greaterThan(8), startsWith("Tob"));
+        expectThrows(AssertionError.class, () -> user.verify(page, 9L, "Tobias"));
+        expectThrows(IllegalArgumentException.class, () -> user.verify(page, 9));
+    }
+
+    @Test
+    public void testDecimalsAreFloatsLikeJsonPath() {
+        ExtentReport.createTest("testDecimalsAreFloatsLikeJsonPath",
+            "Decimals match the Float that JsonPath returns, and Double only out of float range");
+        Response prices = new ResponseBuilder().setStatusCode(200).setContentType(ContentType.JSON)
+            .setBody("{\"price\": 1.5, \"rates\": [0.25, 2.75], \"huge\": 1e300, \"views\": 12345678901}")
+            .build();
+        Map<String, Matcher<?>> expectations = new LinkedHashMap<>();
+        expectations.put("price", equalTo(1.5f));
+        expectations.put("rates", equalTo(Arrays.asList(0.25f, 2.75f)));
+        expectations.put("huge", equalTo(1e300));
+        expectations.put("views", equalTo(12345678901L));
+
+        AssertionSet.Builder builder = AssertionSet.builder();
+        expectations.forEach((path, matcher) -> {
+            prices.then().body(path, matcher);
+            builder.body(path, matcher);
+        });
+        builder.build().verify(prices);
+    }
+
+    @Test
+    public void testUnsupportedPathsFailAtDeclaration() {
+        ExtentReport.createTest("testUnsupportedPathsFailAtDeclaration", "Full GPath expressions are rejected up front");
+
+        expectThrows(IllegalArgumentException.class, () -> AssertionSet.builder().body("data.find { it.id == 9 }", notNullValue()));
+        expectThrows(IllegalArgumentException.class, () -> AssertionSet.builder().body("data[first]", notNullValue()));
+        expectThrows(AssertionError.class, () -> PAGE.verify("<html>".getBytes()));
+    }
+}
@@ -0,0 +1,174 @@
+package userManagement;
+
+import com.aventstack.extentreports.Status;
+import core.BaseTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import stub.StubServer;
+import utils.AssertionSet;
+import utils.AsyncApiClient;
+import utils.AsyncResponse;
+import utils.ExtentReport;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.testng.Assert.*;
+
+public class asyncApiClientTests extends BaseTest {
+    private StubServer server;
+    private AsyncApiClient client;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = new StubServer(0, 4).start();
+        client = new AsyncApiClient(1, 1000, Duration.ofSeconds(5), Duration.ofSeconds(30));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        client.shutdown();
+        server.stop();
+    }
+
+    @Test
+    public void testFanOutKeepsHundredsInFlightOnOneThread() {
+        ExtentReport.createTest("testFanOutKeepsHundredsInFlightOnOneThread",
+            "500 requests with 200 ms latency complete together on one completion thread");
+        server.setLatency(200, 0);
+        try {
+            Set<String> threads = ConcurrentHashMap.newKeySet();
+            long start = System.nanoTime();
+            List<CompletableFuture<AsyncResponse>> futures = IntStream.rangeClosed(1, 500)
+                .mapToObj(i -> client.get(server.getBaseUrl() + "/posts/" + (i % 100 + 1))
+                    .thenApply(response -> {
+                        threads.add(Thread.currentThread().getName());
+                        return response.statusCode(200).body("id", equalTo(i % 100 + 1));
+                    }))
+                .collect(Collectors.toList());
+            List<AsyncResponse> responses = AsyncApiClient.awaitAll(futures);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            ExtentReport.log(Status.INFO, responses.size() + " responses in " + elapsedMillis + " ms, " + client);
+
+            assertEquals(responses.size(), 500);
+            // Sequentially this takes 100 s; overlapping requests finish in a few latencies
+            assertTrue(elapsedMillis < 15_000, "Fan-out took " + elapsedMillis + " ms");
+            assertTrue(client.getPeakInFlight() >= 200, "Peak in flight " + client.getPeakInFlight());
+            assertEquals(threads, Set.of("async-client-1"));
+        } finally {
+            server.setLatency(0, 0);
+        }
+    }
+
+    @Test
+    public void testMaxInFlightQueuesTheRest() {
+        ExtentReport.createTest("testMaxInFlightQueuesTheRest",
+            "Requests beyond the in-flight limit wait without a thread and all complete");
+        AsyncApiClient limited = new AsyncApiClient(1, 8, Duration.ofSeconds(5), Duration.ofSeconds(30));
+        server.setLatency(20, 0);
+        try {
+            List<AsyncResponse> responses = AsyncApiClient.awaitAll(IntStream.range(0, 100)
+                .mapToObj(i -> limited.get(server.getBaseUrl() + "/users/1"))
+                .collect(Collectors.toList()));
+
+            assertEquals(responses.stream().filter(r -> r.getStatusCode() == 200).count(), 100);
+            assertEquals(limited.getPeakInFlight(), 8);
+            assertEquals(limited.getInFlight(), 0);
+            assertEquals(limited.getSent(), 100);
+        } finally {
+            server.setLatency(0, 0);
+            limited.shutdown();
+        }
+    }
+
+    @Test
+    public void testChainedCallsUseEarlierResponses() {
+        ExtentReport.createTest("testChainedCallsUseEarlierResponses",
+            "Token generation feeds the bearer header of the next call");
+        AsyncResponse added = AsyncApiClient.await(client
+            .post(server.getBaseUrl() + "/Account/v1/GenerateToken", Map.of("userName", "caro", "password", "Test@123"))
+            .thenApply(login -> login.statusCode(200).body("token", notNullValue()))
+            .thenCompose(login -> client.request("POST", server.getBaseUrl() + "/BookStore/v1/Books")
+                .header("Authorization", "Bearer " + login.jsonPath().getString("token"))
+                .body("{\"userId\":\"u1\",\"collectionOfIsbns\":[{\"isbn\":\"9781593275846\"}]}")
+                .send()));
+
+        added.statusCode(201).time(lessThan(5000L));
+    }
+
+    @Test
+    public void testFanInCombinesResponses() {
+        ExtentReport.createTest("testFanInCombinesResponses",
+            "A user and their posts are fetched in parallel and combined");
+        String base = server.getBaseUrl();
+        AssertionSet post = AssertionSet.builder().body("userId").body("id", equalTo(1)).build();
+
+        CompletableFuture<String> summary = client.get(base + "/users/1")
+            .thenCombine(client.get(base + "/posts?userId=1"), (user, posts) -> {
+                user.statusCode(200);
+                posts.statusCode(200).body("size()", greaterThanOrEqualTo(1));
+                return user.jsonPath().getString("name") + ": " + posts.jsonPath().getList("id").size() + " posts";
+            });
+        AsyncApiClient.await(client.get(base + "/posts/1")).verify(post, 1);
+
+        assertTrue(AsyncApiClient.await(summary).endsWith(" posts"));
+    }
+
+    @Test
+    public void testResentRequestKeepsOneContentType() {
+        ExtentReport.createTest("testResentRequestKeepsOneContentType",
+            "Sending the same request twice sends the default Content-Type once");
+        AsyncApiClient.Request request = client.request("POST", server.getBaseUrl() + "/post").body(Map.of("id", 1));
+
+        AsyncApiClient.await(request.send()).statusCode(200);
+        AsyncApiClient.await(request.send()).statusCode(200)
+            .body("headers.Content-type", equalTo("application/json"))
+            .body("json.id", equalTo(1));
+    }
+
+    @Test
+    public void testFailedChecksSurfaceAsAssertionErrors() {
+        ExtentReport.createTest("testFailedChecksSurfaceAsAssertionErrors",
+            "A check failing inside a stage is rethrown unwrapped by await");
+        CompletableFuture<AsyncResponse> missing = client.get(server.getBaseUrl() + "/posts/999")
+            .thenApply(response -> response.statusCode(200));
+
+        AssertionError error = expectThrows(AssertionError.class, () -> AsyncApiClient.await(missing));
+        assertTrue(error.getMessage().contains("/posts/999 -> 404"), error.getMessage());
+        assertTrue(error.getMessage().contains("expected status code <200>"), error.getMessage());
+
+        AsyncResponse ok = AsyncApiClient.await(client.get(server.getBaseUrl() + "/posts/1"));
+        expectThrows(AssertionError.class, () -> ok.body("userId", equalTo(2)));
+        expectThrows(AssertionError.class,
+            () -> AsyncApiClient.awaitAll(List.of(CompletableFuture.completedFuture(ok), missing)));
+    }
+
+    @Test
+    public void testRequestsAfterShutdownFailAndFreeTheirSlot() {
+        ExtentReport.createTest("testRequestsAfterShutdownFailAndFreeTheirSlot",
+            "A request the stopped client cannot dispatch fails at once and gives back its in-flight slot");
+        AsyncApiClient stopped = new AsyncApiClient(1, 1, Duration.ofSeconds(5), Duration.ofSeconds(30));
+        stopped.shutdown();
+
+        for (int i = 0; i < 3; i++) {
+            CompletableFuture<AsyncResponse> future = stopped.get(server.getBaseUrl() + "/posts/1");
+            assertTrue(future.isCompletedExceptionally(), "request " + i);
+            expectThrows(RejectedExecutionException.class, () -> AsyncApiClient.await(future));
+        }
+        assertEquals(stopped.getInFlight(), 0);
+        assertEquals(stopped.getFailed(), 3);
+    }
+}
@@ -0,0 +1,145 @@
+package userManagement;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.model.Log;
+import org.testng.annotations.Test;
+import utils.AsyncReportWriter;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+public class asyncReportWriterTests {
+
+    @Test
+    public void testBlockingQueueWritesEveryEvent() throws InterruptedException {
+        ExtentReports reports = new ExtentReports();
+        ExtentTest test = reports.createTest("blocking");
+        Object lock = new Object();
+        AtomicInteger flushes = new AtomicInteger();
+        AsyncReportWriter writer = new AsyncReportWriter(16, AsyncReportWriter.Overflow.BLOCK, 1000, 60000,
+                lock, flushes::incrementAndGet);
+
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(writer.submit(test, Status.INFO, "event " + i));
+        }
+        assertTrue(writer.awaitDrained(10, TimeUnit.SECONDS));
+        writer.close();
+
+        assertEquals(test.getModel().getLogs().size(), 10000);
+        assertEquals(writer.getDroppedCount(), 0);
+        assertTrue(writer.getMaxQueueDepth() <= 16);
+        assertTrue(flushes.get() >= 9, "expected incremental flushes during the run, got " + flushes.get());
+        assertEquals(test.getModel().getLogs().get(9999).getDetails(), "event 9999");
+    }
+
+    @Test
+    public void testFlushesOnlyAfterNewEventsAndBacksOffSlowFlushes() throws InterruptedException {
+        ExtentReports reports = new ExtentReports();
+        ExtentTest test = reports.createTest("slow flush");
+        AtomicInteger flushes = new AtomicInteger();
+        // every event asks for a flush, but each one takes 50 ms to render
+        AsyncReportWriter writer = new AsyncReportWriter(1024, AsyncReportWriter.Overflow.BLOCK, 1, 20,
+                new Object(), () -> {
+                    flushes.incrementAndGet();
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (System.nanoTime() < deadline) {
+            writer.submit(test, Status.INFO, "event");
+            Thread.sleep(1);
+        }
+        assertTrue(writer.awaitDrained(10, TimeUnit.SECONDS));
+        Thread.sleep(1500);
+        int afterRun = flushes.get();
+        // a flush every 10 x 50 ms at most, plus the one owed for the last events
+        assertTrue(afterRun >= 2 && afterRun <= 4, "flushes: " + afterRun);
+
+        Thread.sleep(300);
+        assertEquals(flushes.get(), afterRun, "an idle writer must not flush again");
+        writer.close();
+    }
+
+    @Test
+    public void testDropPolicyKeepsQueueBoundedAndKeepsFailures() throws InterruptedException {
+        ExtentReports reports = new ExtentReports();
+        ExtentTest test = reports.createTest("dropping");
+        Object lock = new Object();
+        AsyncReportWriter writer = new AsyncReportWriter(8, AsyncReportWriter.Overflow.DROP, 1000, 60000,
+                lock, () -> { });
+
+        // Hold the model lock so the background thread cannot drain while the queue fills up
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            synchronized (lock) {
+                held.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        holder.start();
+        held.await();
+
+        int accepted = 0;
+        for (int i = 0; i < 100; i++) {
+            if (writer.submit(test, Status.INFO, "info " + i)) {
+                accepted++;
+            }
+        }
+        assertTrue(writer.getDroppedCount() > 0);
+        assertTrue(writer.getQueueDepth() <= 8);
+        assertEquals(writer.getDroppedCount() + accepted, 100);
+
+        release.countDown();
+        holder.join();
+        assertTrue(writer.submit(test, Status.FAIL, "failure is never dropped"));
+        writer.close();
+
+        Log last = test.getModel().getLogs().get(test.getModel().getLogs().size() - 1);
+        assertEquals(last.getStatus(), Status.FAIL);
+        assertEquals(writer.getWrittenCount(), accepted + 1);
+    }
+
+    @Test
+    public void testEventsRacingCloseAreNeverLost() throws InterruptedException {
+        ExtentReports reports = new ExtentReports();
+        ExtentTest test = reports.createTest("closing");
+        AsyncReportWriter writer = new AsyncReportWriter(4, AsyncReportWriter.Overflow.BLOCK, 1000, 60000,
+                new Object(), () -> { });
+
+        Thread[] submitters = new Thread[4];
+        CountDownLatch started = new CountDownLatch(submitters.length);
+        for (int t = 0; t < submitters.length; t++) {
+            submitters[t] = new Thread(() -> {
+                started.countDown();
+                for (int i = 0; i < 2000; i++) {
+                    writer.submit(test, Status.INFO, "event");
+                }
+            });
+            submitters[t].start();
+        }
+        started.await();
+        writer.close();
+        for (Thread submitter : submitters) {
+            submitter.join(10_000);
+            assertFalse(submitter.isAlive(), "submitter blocked after close");
+        }
+
+        assertTrue(writer.awaitDrained(1, TimeUnit.SECONDS));
+        assertEquals(test.getModel().getLogs().size(), 8000);
+        assertEquals(writer.getDroppedCount(), 0);
+    }
+}
@@ -1,6 +1,8 @@
 package userManagement;
 
+import core.AuthTokenFilter;
 import core.BaseTest;
+import core.TokenProvider;
 import org.testng.annotations.Test;
 import utils.ExtentReport;
 import utils.APIEndpoints;
@@ -13,22 +15,25 @@ public class authenticationTests extends BaseTest {
 
     @Test
     public void testBearerTokenAuth() {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("testBearerTokenAuth", 
+        ExtentReport.createTest("testBearerTokenAuth", 
             "Validate Bearer token authentication");
         
+        TokenProvider provider = TokenProvider.forLoginEndpoint(APIEndpoints.getBookstoreUrl("/Account/v1/GenerateToken"));
+        TokenProvider.Credentials credentials = new TokenProvider.Credentials("caro", "Test@123");
         given()
-            .header("Authorization", "Bearer test-token")
+            .filter(new AuthTokenFilter(provider, credentials))
             .when()
             .get(APIEndpoints.getHttpBinUrl("/bearer"))
             .then()
             .statusCode(200)
             .body("authenticated", equalTo(true))
-            .body("token", equalTo("test-token"));
+            .body("token", equalTo(provider.getToken(credentials)));
+        assertEquals(provider.getFetches(), 1);
     }
 
     @Test
     public void testAPIKeyAuth() {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("testAPIKeyAuth", 
+        ExtentReport.createTest("testAPIKeyAuth", 
             "Validate API key authentication");
         
         given()
@@ -42,7 +47,7 @@ public class authenticationTests extends BaseTest {
 
     @Test
     public void testUnauthorizedAccess() {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("testUnauthorizedAccess", 
+        ExtentReport.createTest("testUnauthorizedAccess", 
             "Validate 401 response for unauthorized access");
         
         given()
@@ -54,7 +59,7 @@ public class authenticationTests extends BaseTest {
 
     @Test
     public void testBasicAuthSuccess() {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("testBasicAuthSuccess", 
+        ExtentReport.createTest("testBasicAuthSuccess", 
             "Validate successful basic authentication");
         
         given()
@@ -0,0 +1,142 @@
+package userManagement;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import core.BaseTest;
+import io.restassured.http.ContentType;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import stub.StubServer;
+import utils.BodyTemplate;
+import utils.ExtentReport;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.testng.Assert.*;
+
+public class bodyTemplateTests extends BaseTest {
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final BodyTemplate CREATE_USER =
+        BodyTemplate.load(System.getProperty("user.dir") + "/Resources/TestData/createUserTemplate.json");
+
+    private StubServer server;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = new StubServer(0, 4).start();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    public void testValuesAreEscapedAsJsonStrings() throws IOException {
+        ExtentReport.createTest("testValuesAreEscapedAsJsonStrings",
+            "Quotes, control characters and non-ASCII text survive the byte-level substitution");
+        String tricky = "\"Neo\" \\ C:\\path\nline\ttab \u0001 é 中 \uD83D\uDE80";
+        byte[] body = CREATE_USER.render(tricky, "le\"ader");
+        JsonNode parsed = mapper.readTree(body);
+
+        assertEquals(parsed.get("name").asText(), tricky);
+        assertEquals(parsed.get("job").asText(), "le\"ader");
+        assertEquals(body.length, CREATE_USER.length(tricky, "le\"ader"));
+        assertEquals(mapper.readTree(CREATE_USER.render("\uD83D", "")).get("name").asText(), "\uFFFD");
+        assertEquals(CREATE_USER.getNames(), List.of("name", "job"));
+    }
+
+    @Test
+    public void testRepeatedAndUnquotedPlaceholders() throws IOException {
+        ExtentReport.createTest("testRepeatedAndUnquotedPlaceholders",
+            "A name used twice takes one value, unquoted placeholders take numbers, bad templates are rejected");
+        BodyTemplate template = BodyTemplate.of("{\"id\": {{id}}, \"name\": \"{{ name }}\", \"copy\": \"{{name}}\", \"active\": {{active}}}");
+        JsonNode parsed = mapper.readTree(template.render("42", "trinity", "true"));
+
+        assertEquals(template.getNames(), List.of("id", "name", "active"));
+        assertEquals(parsed.get("id").asInt(), 42);
+        assertEquals(parsed.get("copy").asText(), "trinity");
+        assertTrue(parsed.get("active").asBoolean());
+        assertEquals(new String(BodyTemplate.of("{\"fixed\": 1}").render(), StandardCharsets.UTF_8), "{\"fixed\": 1}");
+        assertThrows(IllegalArgumentException.class, () -> template.render("42", "trinity"));
+        assertThrows(IllegalArgumentException.class, () -> BodyTemplate.of("{\"name\": \"{{name\"}"));
+        assertThrows(IllegalArgumentException.class, () -> BodyTemplate.of("{\"name\": \"{{a b}}\"}"));
+    }
+
+    @Test
+    public void testFilesAreReadOnce() throws IOException {
+        ExtentReport.createTest("testFilesAreReadOnce",
+            "A template file is read on first use and keeps rendering after the file is gone");
+        Path file = Files.createTempFile("template", ".json");
+        Files.write(file, "{\"job\": \"{{job}}\"}".getBytes(StandardCharsets.UTF_8));
+        BodyTemplate template = BodyTemplate.load(file);
+        assertSame(BodyTemplate.load(file.toString()), template);
+        Files.delete(file);
+
+        assertEquals(new String(template.render("QA"), StandardCharsets.UTF_8), "{\"job\": \"QA\"}");
+        assertThrows(UncheckedIOException.class, () -> BodyTemplate.load(file.resolveSibling("missing.json")));
+    }
+
+    @Test
+    public void testRenderingIntoAReusedBuffer() throws IOException {
+        ExtentReport.createTest("testRenderingIntoAReusedBuffer",
+            "Bodies are written back to back into one buffer, which must have room for them");
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        int first = CREATE_USER.render(buffer, "morpheus", "leader");
+        int second = CREATE_USER.render(buffer, "trinity", "pilot");
+
+        assertEquals(buffer.position(), first + second);
+        assertEquals(mapper.readTree(buffer.array(), first, second).get("name").asText(), "trinity");
+        buffer.clear();
+        buffer.limit(20);
+        assertThrows(BufferOverflowException.class, () -> CREATE_USER.render(buffer, "x", "y"));
+        assertEquals(buffer.position(), 0);
+        ByteBuffer direct = ByteBuffer.allocateDirect(64);
+        assertEquals(CREATE_USER.render(direct, "x", "y"), CREATE_USER.length("x", "y"));
+    }
+
+    @Test
+    public void testRenderAllocatesOnlyTheBody() {
+        ExtentReport.createTest("testRenderAllocatesOnlyTheBody",
+            "Heap allocated per render stays at the size of the returned array");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        CharSequence[] values = {"morpheus", "leader"};
+        long sink = 0;
+        for (int i = 0; i < 20000; i++) {
+            sink += CREATE_USER.render(values).length;
+        }
+        long before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        for (int i = 0; i < 10000; i++) {
+            sink += CREATE_USER.render(values).length;
+        }
+        long perRender = (threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before) / 10000;
+
+        int arrayBytes = 16 + (CREATE_USER.length(values) + 7) / 8 * 8;
+        assertTrue(perRender <= arrayBytes + 8, perRender + " bytes per render for a " + arrayBytes + " byte array");
+        assertTrue(sink > 0);
+    }
+
+    @Test
+    public void testCreateUsersFromTemplate() {
+        ExtentReport.createTest("testCreateUsersFromTemplate",
+            "Every request gets its own name and job written into the template bytes");
+        for (int i = 0; i < 50; i++) {
+            given().contentType(ContentType.JSON).body(CREATE_USER.render("user-" + i, "job \"" + i + "\""))
+                .post(server.getBaseUrl() + "/api/users")
+                .then().statusCode(201)
+                .body("name", equalTo("user-" + i))
+                .body("job", equalTo("job \"" + i + "\""));
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package userManagement;
+
+import com.aventstack.extentreports.Status;
+import core.BaseTest;
+import io.restassured.response.Response;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import perf.LatencyRecorder;
+import stub.Cassette;
+import stub.CassetteFilter;
+import stub.StubServer;
+import utils.ExtentReport;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.testng.Assert.*;
+
+public class cassetteTests extends BaseTest {
+    private StubServer server;
+    private String baseUrl;
+    private Path directory;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = new StubServer(0, 4).start();
+        baseUrl = server.getBaseUrl();
+        directory = Files.createTempDirectory("cassettes");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop();
+    }
+
+    private CassetteFilter cassette(String name, CassetteFilter.Mode mode) throws IOException {
+        return new CassetteFilter(directory.resolve(name), mode, CassetteFilter.parseRules("method,host,path,query,body,auth"));
+    }
+
+    @Test
+    public void testReplayServesRecordedResponsesWithoutTheServer() throws IOException {
+        ExtentReport.createTest("testReplayServesRecordedResponsesWithoutTheServer",
+            "Status, headers, cookies and bodies come back from the cassette");
+        CassetteFilter recorder = cassette("replay.cassette", CassetteFilter.Mode.RECORD);
+        given().filter(recorder).get(baseUrl + "/comments").then().statusCode(200);
+        given().filter(recorder).queryParam("page", 2).get(baseUrl + "/api/users").then().statusCode(200);
+        given().filter(recorder).get(baseUrl + "/cookies/set?session=abc").then().statusCode(200);
+        given().filter(recorder).get(baseUrl + "/status/404").then().statusCode(404);
+        recorder.close();
+        long served = server.getRequestCount();
+
+        CassetteFilter replay = cassette("replay.cassette", CassetteFilter.Mode.REPLAY);
+        given().filter(replay).get(baseUrl + "/comments").then()
+            .statusCode(200).contentType(containsString("application/json")).body("size()", is(500));
+        given().filter(replay).queryParam("page", 2).get(baseUrl + "/api/users").then().body("data[2].first_name", is("Tobias"));
+        Response cookies = given().filter(replay).get(baseUrl + "/cookies/set?session=abc");
+        given().filter(replay).get(baseUrl + "/status/404").then().statusCode(404);
+
+        assertEquals(cookies.getCookie("session"), "abc");
+        assertEquals(server.getRequestCount(), served);
+        assertEquals(replay.getHits(), 4);
+        ExtentReport.log(Status.INFO, replay.toString());
+    }
+
+    @Test
+    public void testMatchingRules() throws IOException {
+        ExtentReport.createTest("testMatchingRules", "Query order is ignored; body and credentials select recordings");
+        CassetteFilter recorder = cassette("rules.cassette", CassetteFilter.Mode.RECORD);
+        given().filter(recorder).get(baseUrl + "/comments?postId=1&_sort=id").then().statusCode(200);
+        given().filter(recorder).contentType("application/json").body("{\"title\":\"a\"}").post(baseUrl + "/posts")
+            .then().statusCode(201);
+        given().filter(recorder).auth().basic("user", "passwd").get(baseUrl + "/basic-auth/user/passwd").then().statusCode(200);
+        given().filter(recorder).get(baseUrl + "/basic-auth/user/passwd").then().statusCode(401);
+        recorder.close();
+
+        CassetteFilter replay = cassette("rules.cassette", CassetteFilter.Mode.REPLAY);
+        given().filter(replay).get(baseUrl + "/comments?_sort=id&postId=1").then().statusCode(200).body("size()", is(5));
+        given().filter(replay).get(baseUrl + "/basic-auth/user/passwd").then().statusCode(401);
+        given().filter(replay).auth().basic("user", "passwd").get(baseUrl + "/basic-auth/user/passwd").then().statusCode(200);
+        AssertionError miss = expectThrows(AssertionError.class, () -> given().filter(replay)
+            .contentType("application/json").body("{\"title\":\"b\"}").post(baseUrl + "/posts"));
+
+        assertTrue(miss.getMessage().startsWith("No recorded response for POST " + baseUrl + "/posts body:"), miss.getMessage());
+        assertFalse(new String(Files.readAllBytes(directory.resolve("rules.cassette"))).contains("passwd\""));
+
+        CassetteFilter ignoreBody = new CassetteFilter(directory.resolve("rules.cassette"), CassetteFilter.Mode.REPLAY,
+            EnumSet.of(Cassette.Rule.METHOD, Cassette.Rule.PATH));
+        given().filter(ignoreBody).contentType("application/json").body("{\"title\":\"b\"}").post(baseUrl + "/posts")
+            .then().statusCode(201);
+    }
+
+    @Test
+    public void testRepeatedRequestsReplayInOrder() throws IOException {
+        ExtentReport.createTest("testRepeatedRequestsReplayInOrder", "The n-th call gets the n-th recording, then the last");
+        CassetteFilter recorder = cassette("order.cassette", CassetteFilter.Mode.RECORD);
+        for (int i = 0; i < 2; i++) {
+            given().filter(recorder).contentType("application/json").body("{}").post(baseUrl + "/api/users");
+        }
+        recorder.close();
+
+        CassetteFilter replay = cassette("order.cassette", CassetteFilter.Mode.REPLAY);
+        String first = given().filter(replay).contentType("application/json").body("{}").post(baseUrl + "/api/users").path("id");
+        String second = given().filter(replay).contentType("application/json").body("{}").post(baseUrl + "/api/users").path("id");
+        String third = given().filter(replay).contentType("application/json").body("{}").post(baseUrl + "/api/users").path("id");
+
+        assertNotEquals(second, first);
+        assertEquals(third, second);
+    }
+
+    @Test
+    public void testRecordingMergesWithExistingCassette() throws IOException {
+        ExtentReport.createTest("testRecordingMergesWithExistingCassette",
+            "Re-recording a subset keeps the other recordings and compresses large bodies");
+        CassetteFilter first = cassette("merge.cassette", CassetteFilter.Mode.RECORD);
+        given().filter(first).get(baseUrl + "/posts").then().statusCode(200);
+        given().filter(first).get(baseUrl + "/users").then().statusCode(200);
+        first.close();
+        CassetteFilter second = cassette("merge.cassette", CassetteFilter.Mode.RECORD);
+        given().filter(second).get(baseUrl + "/users/1").then().statusCode(200);
+        second.close();
+
+        Cassette cassette = Cassette.open(directory.resolve("merge.cassette"));
+        long rawBytes = cassette.readAll().values().stream().flatMap(List::stream).mapToLong(i -> i.getBody().length).sum();
+
+        assertEquals(cassette.requests(), 3, cassette.toString());
+        assertTrue(Files.size(directory.resolve("merge.cassette")) < rawBytes,
+            Files.size(directory.resolve("merge.cassette")) + " bytes on disk for " + rawBytes + " body bytes");
+    }
+
+    @Test
+    public void testParallelReplayLookupsAreSubMillisecond() throws IOException {
+        ExtentReport.createTest("testParallelReplayLookupsAreSubMillisecond",
+            "16 threads replay 4000 requests; lookups stay below a millisecond");
+        CassetteFilter recorder = cassette("parallel.cassette", CassetteFilter.Mode.RECORD);
+        for (int id = 1; id <= 100; id++) {
+            given().filter(recorder).get(baseUrl + "/posts/" + id).then().statusCode(200);
+        }
+        recorder.close();
+        Cassette cassette = Cassette.open(directory.resolve("parallel.cassette"));
+        CassetteFilter replay = cassette("parallel.cassette", CassetteFilter.Mode.REPLAY);
+        LatencyRecorder lookups = new LatencyRecorder("cassette lookups");
+
+        ExecutorService callers = Executors.newFixedThreadPool(16);
+        try {
+            List<CompletableFuture<Void>> calls = IntStream.range(0, 4000)
+                .mapToObj(i -> CompletableFuture.runAsync(() -> {
+                    int id = i % 100 + 1;
+                    long start = System.nanoTime();
+                    Cassette.Interaction interaction = cassette.next("GET " + baseUrl + "/posts/" + id);
+                    lookups.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    assertTrue(new String(interaction.getBody()).contains("\"id\" : " + id + ",")
+                        || new String(interaction.getBody()).contains("\"id\":" + id + ","));
+                    if (i % 40 == 0) {
+                        given().filter(replay).get(baseUrl + "/posts/" + id).then().body("id", is(id));
+                    }
+                }, callers))
+                .collect(Collectors.toList());
+            calls.forEach(CompletableFuture::join);
+        } finally {
+            callers.shutdownNow();
+        }
+        lookups.report();
+
+        assertEquals(replay.getHits(), 100);
+        lookups.sla().p99(1).verify();
+    }
+
+    @Test(timeOut = 10_000)
+    public void testTruncatedRecordFailsInsteadOfHanging() throws IOException {
+        ExtentReport.createTest("testTruncatedRecordFailsInsteadOfHanging",
+            "A compressed body cut short is reported as a broken cassette");
+        Path file = directory.resolve("truncated.cassette");
+        byte[] body = String.join(",", Collections.nCopies(500, "\"repeated\"")).getBytes();
+        Cassette.Request request = new Cassette.Request("GET", "http://localhost", "/posts", "", "", "");
+        Cassette.write(file, Map.of(request, List.of(new Cassette.Interaction(200, "", List.of(), body))));
+
+        // header (20 bytes), flags, status, empty status line and header count come before the stored length
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer length = ByteBuffer.allocate(4);
+            channel.read(length, 29);
+            int stored = length.getInt(0);
+            assertTrue(stored < body.length, "the body was stored deflated");
+            length.putInt(0, stored / 2).rewind();
+            channel.write(length, 29);
+        }
+
+        Cassette cassette = Cassette.open(file);
+        UncheckedIOException error = expectThrows(UncheckedIOException.class, () -> cassette.next(request));
+        assertTrue(error.getMessage().contains("Truncated"), error.getMessage());
+    }
+
+    @Test
+    public void testIndexOffsetPastTheEndIsReportedAsCorrupt() throws IOException {
+        ExtentReport.createTest("testIndexOffsetPastTheEndIsReportedAsCorrupt",
+            "An index offset beyond the file fails instead of being truncated to an int");
+        Path file = directory.resolve("offset.cassette");
+        Cassette.Request request = new Cassette.Request("GET", "http://localhost", "/posts", "", "", "");
+        Cassette.write(file, Map.of(request, List.of(new Cassette.Interaction(200, "", List.of(), "[]".getBytes()))));
+
+        // the index offset follows the magic, version and count; 4 GiB + 20 wraps to 20 as an int
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer offset = ByteBuffer.allocate(8).putLong(0, (1L << 32) + 20);
+            channel.write(offset, 12);
+        }
+
+        IOException mapped = expectThrows(IOException.class, () -> Cassette.open(file));
+        IOException read = expectThrows(IOException.class, () -> Cassette.read(file, EnumSet.allOf(Cassette.Rule.class)));
+        assertTrue(mapped.getMessage().contains("Corrupt"), mapped.getMessage());
+        assertTrue(read.getMessage().contains("Corrupt"), read.getMessage());
+    }
+}
@@ -0,0 +1,86 @@
+package userManagement;
+
+import org.testng.annotations.Test;
+import utils.Config;
+import utils.PropertyReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static org.testng.Assert.*;
+
+public class configTests {
+
+    @Test
+    public void testFileValuesAreMergedOverClasspathDefaults() {
+        Config config = Config.get();
+        // classpath config.properties
+        assertEquals(config.getString("report.title"), "API Automation Test Report");
+        // config.properties in the working directory
+        assertEquals(config.getString("server"), "https://reqres.in/api/");
+        assertEquals(PropertyReader.propertyReader("config.properties", "report.name"), "API Test Results");
+        assertEquals(config.getInt("report.queue.capacity", 0), 10000);
+        assertTrue(config.getBoolean("report.async", false));
+        assertEquals(config.getString("missing.key", "fallback"), "fallback");
+    }
+
+    @Test
+    public void testSystemPropertyOverridesFile() throws IOException {
+        Path file = Files.createTempFile("config", ".properties");
+        Files.write(file, "environment=STAGE\nconfigtests.override=file\n".getBytes(StandardCharsets.UTF_8));
+        System.setProperty("configtests.override", "property");
+        System.setProperty("configtests.undefined", "property");
+        try {
+            Config config = Config.load(file);
+            assertEquals(config.getString("environment"), "STAGE");
+            assertEquals(config.getString("configtests.override"), "property");
+            // only keys the files define are overridden; JVM properties stay out of the snapshot
+            assertNull(config.getString("configtests.undefined"));
+            assertNull(config.getString("java.version"));
+        } finally {
+            System.clearProperty("configtests.override");
+            System.clearProperty("configtests.undefined");
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testWatcherSwapsSnapshotWhenFileChanges() throws Exception {
+        Path directory = Files.createTempDirectory("config-watch");
+        Path file = directory.resolve("config.properties");
+        // keep the working-directory values so classes running alongside see the same settings
+        byte[] base = Files.readAllBytes(Paths.get("config.properties"));
+        Files.write(file, concat(base, "\nsoak.rate=10\n"));
+        try {
+            Config before = Config.reload(file);
+            assertEquals(before.getInt("soak.rate", 0), 10);
+            Config.watch(file);
+
+            Files.write(file, concat(base, "\nsoak.rate=20\n"));
+            long deadline = System.currentTimeMillis() + 15000;
+            while (Config.get().getInt("soak.rate", 0) != 20 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(Config.get().getInt("soak.rate", 0), 20);
+            assertTrue(Config.get().getVersion() > before.getVersion());
+            // the previous snapshot is immutable
+            assertEquals(before.getInt("soak.rate", 0), 10);
+        } finally {
+            Config.stopWatching();
+            Config.reload();
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    private static byte[] concat(byte[] base, String extra) {
+        byte[] more = extra.getBytes(StandardCharsets.UTF_8);
+        byte[] all = Arrays.copyOf(base, base.length + more.length);
+        System.arraycopy(more, 0, all, base.length, more.length);
+        return all;
+    }
+}
@@ -1,81 +1,82 @@
 package userManagement;
 
 import core.BaseTest;
+import io.restassured.response.Response;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 import utils.ExtentReport;
 import utils.APIEndpoints;
+import utils.AssertionSet;
+import utils.StreamingDataProvider;
+
+import java.util.Iterator;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
 import static org.testng.Assert.assertEquals;
 
 public class dataDrivenTests extends BaseTest {
+    private static final AssertionSet USER = AssertionSet.builder()
+        .body("id")
+        .body("name")
+        .build();
+
+    private static final AssertionSet POST = AssertionSet.builder()
+        .body("id")
+        .body("userId")
+        .body("title")
+        .build();
 
     @DataProvider(name = "userIds")
-    public Object[][] getUserIds() {
-        return new Object[][] {
-            {1, "Leanne Graham"},
-            {2, "Ervin Howell"},
-            {3, "Clementine Bauch"},
-            {4, "Patricia Lebsack"},
-            {5, "Chelsey Dietrich"}
-        };
+    public Iterator<Object[]> getUserIds() {
+        return StreamingDataProvider.jsonl("Resources/TestData/users.jsonl", "id", "name");
     }
 
     @DataProvider(name = "postIds")
-    public Object[][] getPostIds() {
-        return new Object[][] {
-            {1, 1, "sunt aut facere repellat provident occaecati excepturi optio reprehenderit"},
-            {2, 1, "qui est esse"},
-            {3, 1, "ea molestias quasi exercitationem repellat qui ipsa sit aut"},
-            {4, 1, "eum et est occaecati"},
-            {5, 1, "nesciunt quas odio"}
-        };
+    public Iterator<Object[]> getPostIds() {
+        return StreamingDataProvider.csv("Resources/TestData/posts.csv", Integer.class, Integer.class, String.class);
     }
 
-    @DataProvider(name = "httpStatusCodes")
-    public Object[][] getHttpStatusCodes() {
-        return new Object[][] {
-            {200, "OK"},
-            {201, "Created"},
-            {404, "Not Found"},
-            {500, "Internal Server Error"}
-        };
+    @DataProvider(name = "httpStatusCodes", parallel = true)
+    public Iterator<Object[]> getHttpStatusCodes() {
+        return StreamingDataProvider.csv("Resources/TestData/httpStatusCodes.csv", Integer.class, String.class);
     }
 
     @Test(dataProvider = "userIds")
     public void testMultipleUsers(int userId, String expectedName) {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("testMultipleUsers_" + userId, 
+        ExtentReport.createTest("testMultipleUsers_" + userId, 
             "Validate user data for user ID: " + userId);
         
-        given()
+        Response response = given()
             .when()
             .get(APIEndpoints.getJsonPlaceholderUrl("/users/" + userId))
             .then()
             .statusCode(200)
-            .body("id", equalTo(userId))
-            .body("name", equalTo(expectedName));
+            .extract()
+            .response();
+
+        USER.verify(response, userId, expectedName);
     }
 
     @Test(dataProvider = "postIds")
     public void testMultiplePosts(int postId, int expectedUserId, String expectedTitle) {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("testMultiplePosts_" + postId, 
+        ExtentReport.createTest("testMultiplePosts_" + postId, 
             "Validate post data for post ID: " + postId);
         
-        given()
+        Response response = given()
             .when()
             .get(APIEndpoints.getJsonPlaceholderUrl("/posts/" + postId))
             .then()
             .statusCode(200)
-            .body("id", equalTo(postId))
-            .body("userId", equalTo(expectedUserId))
-            .body("title", equalTo(expectedTitle));
+            .extract()
+            .response();
+
+        POST.verify(response, postId, expectedUserId, expectedTitle);
     }
 
     @Test(dataProvider = "httpStatusCodes")
     public void testHttpStatusCodes(int statusCode, String statusText) {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("testHttpStatusCodes_" + statusCode, 
+        ExtentReport.createTest("testHttpStatusCodes_" + statusCode, 
             "Validate HTTP status code: " + statusCode);
         
         given()
@@ -87,7 +88,7 @@ public class dataDrivenTests extends BaseTest {
 
     @Test
     public void testParameterizedSearch() {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("testParameterizedSearch", 
+        ExtentReport.createTest("testParameterizedSearch", 
             "Test search with different parameters");
         
         String[] searchTerms = {"lorem", "dolor", "ipsum", "amet"};
@@ -105,7 +106,7 @@ public class dataDrivenTests extends BaseTest {
 
     @Test
     public void testBoundaryValues() {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("testBoundaryValues", 
+        ExtentReport.createTest("testBoundaryValues", 
             "Test API with boundary values");
         
         int[] boundaryValues = {0, 1, 100, 101, -1};
@@ -1,39 +1,48 @@
 package userManagement;
 
+import com.aventstack.extentreports.Status;
 import core.BaseTest;
-import io.restassured.response.Response;
+import io.restassured.path.json.JsonPath;
 import org.testng.annotations.Test;
 import utils.ExtentReport;
 import utils.APIEndpoints;
+import utils.FileTransfer;
 
-import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.testng.Assert.*;
 
 public class fileOperationTests extends BaseTest {
 
     @Test
-    public void testFileUpload() {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("testFileUpload", 
+    public void testFileUpload() throws IOException {
+        ExtentReport.createTest("testFileUpload", 
             "Validate file upload functionality");
         
         // Create a temporary test file
-        File testFile = new File("test-upload.txt");
+        Path testFile = Files.createTempFile("test-upload", ".txt");
+        Files.write(testFile, "Uploaded by fileOperationTests".getBytes(StandardCharsets.UTF_8));
         
-        given()
-            .multiPart("file", testFile, "text/plain")
-            .when()
-            .post(APIEndpoints.getHttpBinUrl("/post"))
-            .then()
-            .statusCode(200)
-            .body("files", notNullValue());
+        FileTransfer.Result result = FileTransfer.shared()
+            .uploadMultipart(APIEndpoints.getHttpBinUrl("/post"), "file", testFile, "text/plain");
+        
+        assertEquals(result.getStatusCode(), 200);
+        assertEquals(result.getSentSha256(), FileTransfer.sha256(testFile, 8192));
+        assertEquals(JsonPath.from(result.getPreview()).getString("files.file"), "Uploaded by fileOperationTests");
+        ExtentReport.log(Status.INFO, result.toString());
+        Files.delete(testFile);
     }
 
     @Test
     public void testMultipartFormData() {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("testMultipartFormData", 
+        ExtentReport.createTest("testMultipartFormData", 
             "Validate multipart form data submission");
         
         given()
@@ -50,38 +59,38 @@ public class fileOperationTests extends BaseTest {
     }
 
     @Test
-    public void testFileDownload() {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("testFileDownload", 
+    public void testFileDownload() throws IOException {
+        ExtentReport.createTest("testFileDownload", 
             "Validate file download and content verification");
         
-        Response response = given()
-            .when()
-            .get(APIEndpoints.getHttpBinUrl("/json"))
-            .then()
-            .statusCode(200)
-            .header("Content-Type", containsString("application/json"))
-            .extract().response();
+        Path target = Files.createTempDirectory("download").resolve("slideshow.json");
+        FileTransfer.Result result = FileTransfer.shared().download(APIEndpoints.getHttpBinUrl("/json"), target);
         
-        // Verify response has content
-        assertNotNull(response.getBody().asString());
-        assertTrue(response.getBody().asString().length() > 0);
+        assertEquals(result.getStatusCode(), 200);
+        assertThat(result.getContentType(), containsString("application/json"));
+        // Verify the file has content and the checksum of what was received
+        assertTrue(result.getSize() > 0);
+        assertEquals(Files.size(target), result.getSize());
+        assertEquals(FileTransfer.sha256(target, 8192), result.getSha256());
+        ExtentReport.log(Status.INFO, result.toString());
     }
 
     @Test
-    public void testImageDownload() {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("testImageDownload", 
+    public void testImageDownload() throws IOException {
+        ExtentReport.createTest("testImageDownload", 
             "Validate image file download");
         
-        Response response = given()
-            .when()
-            .get(APIEndpoints.getHttpBinUrl("/image/png"))
-            .then()
-            .statusCode(200)
-            .header("Content-Type", equalTo("image/png"))
-            .extract().response();
+        Path target = Files.createTempDirectory("download").resolve("image.png");
+        FileTransfer.Result result = FileTransfer.shared().download(APIEndpoints.getHttpBinUrl("/image/png"), target);
         
-        // Verify binary content exists
-        byte[] imageBytes = response.getBody().asByteArray();
-        assertTrue(imageBytes.length > 0);
+        assertEquals(result.getStatusCode(), 200);
+        assertEquals(result.getContentType(), "image/png");
+        // Verify the binary content starts with the PNG signature, reading only those bytes
+        byte[] signature = new byte[8];
+        try (InputStream input = Files.newInputStream(target)) {
+            assertEquals(input.readNBytes(signature, 0, 8), 8);
+        }
+        assertEquals(signature, new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'});
+        assertEquals(FileTransfer.sha256(target, 8192), result.getSha256());
     }
-}
\ No newline at end of file
+}
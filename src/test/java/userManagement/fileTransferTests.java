@@ -0,0 +1,181 @@
+package userManagement;
+
+import com.aventstack.extentreports.Status;
+import core.BaseTest;
+import io.restassured.path.json.JsonPath;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import stub.StubServer;
+import utils.ExtentReport;
+import utils.FileTransfer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.*;
+
+public class fileTransferTests extends BaseTest {
+    private StubServer server;
+    private Path directory;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = new StubServer(0, 4).start();
+        directory = Files.createTempDirectory("transfer");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() throws IOException {
+        server.stop();
+        // downloads, uploads and any .part file a failed transfer left behind
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    // SHA-256 of what the stub's /stream-bytes sends for these parameters
+    private static String expectedSha256(long size, long seed, int chunkSize) throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        Random random = new Random(seed);
+        byte[] chunk = new byte[chunkSize];
+        for (long left = size; left > 0; left -= chunk.length) {
+            random.nextBytes(chunk);
+            digest.update(chunk, 0, (int) Math.min(chunk.length, left));
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private Path randomFile(String name, long size) throws IOException {
+        Path file = directory.resolve(name);
+        Random random = new Random(size);
+        byte[] chunk = new byte[65536];
+        try (OutputStream output = Files.newOutputStream(file)) {
+            for (long left = size; left > 0; left -= chunk.length) {
+                random.nextBytes(chunk);
+                output.write(chunk, 0, (int) Math.min(chunk.length, left));
+            }
+        }
+        return file;
+    }
+
+    @Test
+    public void testDownloadChecksumsBytesAsTheyArrive() throws Exception {
+        ExtentReport.createTest("testDownloadChecksumsBytesAsTheyArrive",
+            "A streamed download lands in the target file with the size and SHA-256 of the sent bytes");
+        Path target = directory.resolve("stream.bin");
+        FileTransfer.Result result = FileTransfer.shared()
+            .download(server.getBaseUrl() + "/stream-bytes/5000000?seed=7&chunk_size=4096", target);
+
+        ExtentReport.log(Status.INFO, result.toString());
+        assertTrue(result.isSuccessful());
+        assertEquals(result.getSize(), 5_000_000);
+        assertEquals(result.getSha256(), expectedSha256(5_000_000, 7, 4096));
+        assertEquals(result.getFile(), target.toAbsolutePath());
+        assertEquals(Files.size(target), 5_000_000);
+        assertEquals(FileTransfer.sha256(target, 8192), result.getSha256());
+        assertFalse(Files.exists(directory.resolve("stream.bin.part")));
+        assertEquals(result.getPreview(), "");
+    }
+
+    @Test
+    public void testFailedDownloadLeavesNoFile() throws IOException {
+        ExtentReport.createTest("testFailedDownloadLeavesNoFile",
+            "An error status keeps the existing target and only the start of the error body");
+        Path target = directory.resolve("existing.bin");
+        Files.write(target, "previous".getBytes(StandardCharsets.UTF_8));
+        FileTransfer.Result result = FileTransfer.shared().download(server.getBaseUrl() + "/posts/999", target);
+
+        assertEquals(result.getStatusCode(), 404);
+        assertFalse(result.isSuccessful());
+        assertNull(result.getFile());
+        assertEquals(result.getPreview(), "{}");
+        assertEquals(Files.readAllLines(target), List.of("previous"));
+        assertFalse(Files.exists(directory.resolve("existing.bin.part")));
+    }
+
+    @Test(timeOut = 10_000)
+    public void testChunkSizeBelowOneIsABadRequest() throws IOException {
+        ExtentReport.createTest("testChunkSizeBelowOneIsABadRequest",
+            "The stub answers chunk_size 0 or -1 with 400 instead of looping or failing with 500");
+        for (String chunkSize : new String[]{"0", "-1"}) {
+            Path target = directory.resolve("chunk" + chunkSize + ".bin");
+            FileTransfer.Result result = FileTransfer.shared()
+                .download(server.getBaseUrl() + "/stream-bytes/100?chunk_size=" + chunkSize, target);
+
+            assertEquals(result.getStatusCode(), 400, result.toString());
+            assertTrue(result.getPreview().contains("chunk_size must be at least 1"), result.getPreview());
+            assertFalse(Files.exists(target));
+        }
+    }
+
+    @Test
+    public void testUploadsStreamTheFile() throws IOException {
+        ExtentReport.createTest("testUploadsStreamTheFile",
+            "Raw and multipart uploads send the whole file with the checksum the server computes");
+        Path file = randomFile("upload.bin", 3_000_001);
+        FileTransfer.Result raw = FileTransfer.shared().upload(server.getBaseUrl() + "/upload", file, "application/octet-stream");
+        JsonPath received = JsonPath.from(raw.getPreview());
+
+        ExtentReport.log(Status.INFO, raw.toString());
+        assertEquals(raw.getStatusCode(), 200);
+        assertEquals(raw.getSent(), 3_000_001);
+        assertEquals(raw.getSentSha256(), FileTransfer.sha256(file, 4096));
+        assertEquals(received.getLong("size"), 3_000_001L);
+        assertEquals(received.getString("sha256"), raw.getSentSha256());
+
+        Path text = directory.resolve("notes.txt");
+        Files.write(text, "line one\nline two".getBytes(StandardCharsets.UTF_8));
+        FileTransfer.Result multipart = FileTransfer.shared().uploadMultipart(server.getBaseUrl() + "/post", "notes", text, "text/plain");
+        assertEquals(multipart.getStatusCode(), 200);
+        assertEquals(JsonPath.from(multipart.getPreview()).getString("files.notes"), "line one\nline two");
+        assertTrue(JsonPath.from(multipart.getPreview()).getString("headers.Content-type").startsWith("multipart/form-data; boundary="));
+    }
+
+    @Test
+    public void testHeapStaysFlatForLargeFiles() throws Exception {
+        ExtentReport.createTest("testHeapStaysFlatForLargeFiles",
+            "A JVM with a 32 MB heap downloads and uploads a 256 MB file");
+        long size = 256L << 20;
+        String url = server.getBaseUrl() + "/stream-bytes/" + size + "?seed=3&chunk_size=65536";
+        Path target = directory.resolve("large.bin");
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        String classPath = System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"));
+        List<String> outputs = new ArrayList<>();
+        for (String[] command : new String[][]{{"download", url, target.toString()},
+                                               {"upload", server.getBaseUrl() + "/upload", target.toString()}}) {
+            List<String> arguments = new ArrayList<>(List.of(java, "-Xmx32m", "-cp", classPath, "utils.FileTransfer"));
+            arguments.addAll(List.of(command));
+            Process process = new ProcessBuilder(arguments).redirectErrorStream(true).start();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            assertTrue(process.waitFor(5, TimeUnit.MINUTES));
+            assertEquals(process.exitValue(), 0, output);
+            outputs.add(output);
+            ExtentReport.log(Status.INFO, String.join(" ", command) + ": " + output);
+        }
+
+        String expected = expectedSha256(size, 3, 65536);
+        assertTrue(outputs.get(0).contains(size + " bytes received, sha256 " + expected), outputs.get(0));
+        assertTrue(outputs.get(1).contains(size + " bytes sent (sha256 " + expected + ")"), outputs.get(1));
+        Files.delete(target);
+    }
+}
@@ -12,7 +12,7 @@ public class getErgast extends BaseTest {
 
     @Test(description = "Validate the status code for GET users endpoint", groups = "RegressionSuite")
     public void validateResponseBodyGetPathParam() {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("validateResponseBodyGetPathParam", 
+        ExtentReport.createTest("validateResponseBodyGetPathParam", 
             "Validate 200 Status Code for GET Ergast");
         Response resp = given()
                 .pathParam("raceSeason", 2016)
@@ -15,7 +15,7 @@ import static org.testng.Assert.assertEquals;
 public class getPostmanEcho {
     @Test(groups = "SmokeSuite")
     public void validateWithTestDataFromJson() throws IOException {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("validateWithTestDataFromJson", 
+        ExtentReport.createTest("validateWithTestDataFromJson", 
             "Validate basic authentication with test data from JSON file");
         
         String username = JsonReader.getTestData("username");
@@ -34,7 +34,7 @@ public class getPostmanEcho {
 
     @Test()
     public void validateResponseBodyGetDigestAuth() {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("validateResponseBodyGetDigestAuth", 
+        ExtentReport.createTest("validateResponseBodyGetDigestAuth", 
             "Validate digest authentication response");
 
         Response resp = given()
@@ -50,7 +50,7 @@ public class getPostmanEcho {
 
     @Test()
     public void validateResponseBodyGetBasicAuth() {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("validateResponseBodyGetBasicAuth", 
+        ExtentReport.createTest("validateResponseBodyGetBasicAuth", 
             "Validate basic authentication response");
 
         Response resp = given()
@@ -0,0 +1,154 @@
+package userManagement;
+
+import com.aventstack.extentreports.Status;
+import core.BaseTest;
+import io.restassured.RestAssured;
+import io.restassured.config.RestAssuredConfig;
+import org.apache.http.pool.PoolStats;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import stub.StubServer;
+import utils.ExtentReport;
+import utils.HttpClientPool;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static io.restassured.RestAssured.given;
+import static org.testng.Assert.*;
+
+public class httpClientPoolTests extends BaseTest {
+    private StubServer server;
+    private String baseUrl;
+    private String route;
+    private HttpClientPool pool;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = new StubServer(0, 8).start();
+        baseUrl = server.getBaseUrl();
+        route = URI.create(baseUrl).getHost() + ":" + server.getPort();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void shutdownPool() {
+        server.setLatency(0, 0);
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop();
+    }
+
+    private HttpClientPool pool(int maxPerRoute, Map<String, Integer> routeLimits, Duration idleTimeout) {
+        pool = new HttpClientPool(20, maxPerRoute, routeLimits, Duration.ofSeconds(20), idleTimeout,
+                Duration.ofMillis(100), Duration.ofSeconds(10));
+        return pool;
+    }
+
+    private RestAssuredConfig pooled() {
+        return RestAssured.config().httpClient(pool.httpClientConfig());
+    }
+
+    @Test
+    public void testSequentialRequestsReuseOneConnection() {
+        ExtentReport.createTest("testSequentialRequestsReuseOneConnection",
+            "50 sequential requests keep a single pooled connection alive");
+        pool(10, Collections.emptyMap(), Duration.ofSeconds(30));
+
+        for (int i = 0; i < 50; i++) {
+            given().config(pooled()).get(baseUrl + "/posts/1").then().statusCode(200);
+        }
+
+        PoolStats stats = pool.getStats(route);
+        assertEquals(stats.getLeased(), 0);
+        assertEquals(stats.getAvailable(), 1, pool.toString());
+        assertEquals(pool.getClientCount(), 50);
+    }
+
+    @Test
+    public void testRouteLimitQueuesExcessRequests() {
+        ExtentReport.createTest("testRouteLimitQueuesExcessRequests",
+            "A per-host limit of 2 caps leased connections while 10 slow requests wait");
+        pool(10, Collections.singletonMap(route, 2), Duration.ofSeconds(30));
+        server.setLatency(300, 0);
+        ExecutorService callers = Executors.newFixedThreadPool(10);
+        try {
+            List<CompletableFuture<Integer>> calls = IntStream.range(0, 10)
+                .mapToObj(i -> CompletableFuture.supplyAsync(
+                    () -> given().config(pooled()).get(baseUrl + "/posts/1").statusCode(), callers))
+                .collect(Collectors.toList());
+            calls.forEach(call -> assertEquals(call.join().intValue(), 200));
+        } finally {
+            callers.shutdownNow();
+        }
+        ExtentReport.log(Status.INFO, pool.toString());
+
+        assertEquals(pool.getPeakLeased(), 2, pool.toString());
+        assertTrue(pool.getPeakPending() > 0, pool.toString());
+        assertEquals(pool.getStats(route).getAvailable(), 2);
+    }
+
+    @Test
+    public void testIdleConnectionsAreEvicted() throws InterruptedException {
+        ExtentReport.createTest("testIdleConnectionsAreEvicted", "Connections idle past the timeout are closed");
+        pool(10, Collections.emptyMap(), Duration.ofMillis(200));
+
+        given().config(pooled()).get(baseUrl + "/posts/1").then().statusCode(200);
+        assertEquals(pool.getStats(route).getAvailable(), 1);
+
+        Thread.sleep(800);
+        assertEquals(pool.getStats(route).getAvailable(), 0, pool.toString());
+    }
+
+    @Test
+    public void testCredentialsDoNotLeakBetweenRequests() {
+        ExtentReport.createTest("testCredentialsDoNotLeakBetweenRequests",
+            "Basic auth on one request is not reused by the next request on the same pool");
+        pool(10, Collections.emptyMap(), Duration.ofSeconds(30));
+        String url = baseUrl + "/basic-auth/user/passwd";
+
+        given().config(pooled()).auth().basic("user", "passwd").get(url).then().statusCode(200);
+        given().config(pooled()).get(url).then().statusCode(401);
+    }
+
+    @Test
+    public void testSocketTimeoutReleasesConnection() {
+        ExtentReport.createTest("testSocketTimeoutReleasesConnection",
+            "A timed-out request fails and leaves the pool usable");
+        pool(10, Collections.emptyMap(), Duration.ofSeconds(30));
+        RestAssuredConfig timeout = RestAssured.config()
+            .httpClient(pool.httpClientConfig(Duration.ofSeconds(1), Duration.ofMillis(300)));
+
+        Exception error = expectThrows(Exception.class, () -> given().config(timeout).get(baseUrl + "/delay/2"));
+        assertTrue(error.getMessage().contains("timed out"), error.getMessage());
+
+        assertEquals(pool.getStats(route).getLeased(), 0);
+        given().config(pooled()).get(baseUrl + "/posts/1").then().statusCode(200);
+    }
+
+    @Test
+    public void testSuiteInstallsSharedPool() {
+        ExtentReport.createTest("testSuiteInstallsSharedPool", "BaseTest routes default requests through the shared pool");
+        long before = HttpClientPool.shared().getClientCount();
+
+        given().get(baseUrl + "/posts/1").then().statusCode(200);
+
+        assertEquals(HttpClientPool.shared().getClientCount(), before + 1);
+    }
+}
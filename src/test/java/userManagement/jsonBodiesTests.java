@@ -0,0 +1,134 @@
+package userManagement;
+
+import com.aventstack.extentreports.Status;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import core.BaseTest;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import pojo.CityRequest;
+import pojo.ImmutableCityRequest;
+import pojo.ImmutablePostRequestBody;
+import pojo.PostRequestBody;
+import stub.StubServer;
+import utils.ExtentReport;
+import utils.JsonBodies;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.testng.Assert.*;
+
+public class jsonBodiesTests extends BaseTest {
+    private static final ImmutablePostRequestBody BODY = ImmutablePostRequestBody.builder()
+            .job("leader").name("morpheus").languages("Java", "Python")
+            .city("Raleigh", "30").city("Greensboro", "40")
+            .build();
+
+    private StubServer server;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = new StubServer(0, 4).start();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop();
+    }
+
+    private static PostRequestBody mutableBody() {
+        CityRequest raleigh = new CityRequest();
+        raleigh.setName("Raleigh");
+        raleigh.setTemperature("30");
+        CityRequest greensboro = new CityRequest();
+        greensboro.setName("Greensboro");
+        greensboro.setTemperature("40");
+        PostRequestBody body = new PostRequestBody();
+        body.setJob("leader");
+        body.setName("morpheus");
+        body.setLanguages(Arrays.asList("Java", "Python"));
+        body.setCityRequestBody(Arrays.asList(raleigh, greensboro));
+        return body;
+    }
+
+    @Test
+    public void testWritersAndReadersAreCachedPerType() {
+        ExtentReport.createTest("testWritersAndReadersAreCachedPerType",
+            "One writer and reader per type, producing the same JSON as a fresh mapper");
+        assertSame(JsonBodies.writer(PostRequestBody.class), JsonBodies.writer(PostRequestBody.class));
+        assertSame(JsonBodies.reader(PostRequestBody.class), JsonBodies.reader(PostRequestBody.class));
+        assertNotSame(JsonBodies.writer(PostRequestBody.class), JsonBodies.writer(CityRequest.class));
+
+        byte[] json = JsonBodies.toBytes(mutableBody());
+        PostRequestBody read = JsonBodies.fromBytes(json, PostRequestBody.class);
+
+        assertEquals(read.getCityRequestBody().get(1).getName(), "Greensboro");
+        assertEquals(read.getLanguages(), List.of("Java", "Python"));
+        assertThrows(UncheckedIOException.class,
+            () -> JsonBodies.fromBytes("{\"id\":1}".getBytes(StandardCharsets.UTF_8), PostRequestBody.class));
+    }
+
+    @Test
+    public void testImmutableVariantHasTheSameJson() throws IOException {
+        ExtentReport.createTest("testImmutableVariantHasTheSameJson",
+            "Immutable POJOs serialize like the mutable ones, copy their lists and ignore echoed fields");
+        assertEquals(new String(JsonBodies.toBytes(BODY), StandardCharsets.UTF_8),
+            new ObjectMapper().writeValueAsString(mutableBody()));
+        PostRequestBody nameOnly = new PostRequestBody();
+        nameOnly.setName("a");
+        assertEquals(new String(JsonBodies.toBytes(ImmutablePostRequestBody.builder().name("a").build()), StandardCharsets.UTF_8),
+            new ObjectMapper().writeValueAsString(nameOnly));
+
+        List<String> languages = new ArrayList<>(List.of("Java"));
+        ImmutablePostRequestBody body = new ImmutablePostRequestBody("job", "name", languages, null);
+        languages.add("Python");
+        assertEquals(body.getLanguages(), List.of("Java"));
+        assertThrows(UnsupportedOperationException.class, () -> body.getLanguages().add("Go"));
+
+        ImmutablePostRequestBody echoed = JsonBodies.fromBytes(
+            "{\"name\":\"morpheus\",\"job\":\"leader\",\"languages\":[\"Java\",\"Python\"],\"cityRequestBody\":[{\"name\":\"Raleigh\",\"temperature\":\"30\"},{\"name\":\"Greensboro\",\"temperature\":\"40\"}],\"id\":\"7\",\"createdAt\":\"2024-01-01T00:00:00Z\"}"
+                .getBytes(StandardCharsets.UTF_8), ImmutablePostRequestBody.class);
+        assertEquals(echoed, BODY);
+        assertEquals(echoed.getCityRequestBody().get(0), new ImmutableCityRequest("Raleigh", "30"));
+    }
+
+    @Test
+    public void testPreparedBodyIsSentAsIs() {
+        ExtentReport.createTest("testPreparedBodyIsSentAsIs",
+            "A prepared body is serialized once and reused by every request");
+        JsonBodies.Prepared prepared = JsonBodies.prepare(BODY);
+        assertSame(prepared.getBytes(), prepared.getBytes());
+
+        for (int i = 0; i < 3; i++) {
+            Response response = given().contentType(ContentType.JSON).body(prepared.getBytes())
+                .post(server.getBaseUrl() + "/api/users");
+            assertEquals(response.getStatusCode(), 201);
+            assertEquals(response.as(ImmutablePostRequestBody.class), BODY);
+        }
+        assertEquals(prepared.toString(), new String(JsonBodies.toBytes(BODY), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testRestAssuredMapsBodiesWithTheSharedMapper() {
+        ExtentReport.createTest("testRestAssuredMapsBodiesWithTheSharedMapper",
+            "BaseTest installs the shared mapper for given().body(pojo) and response.as(type)");
+        assertSame(RestAssured.config().getObjectMapperConfig().jackson2ObjectMapperFactory()
+            .create(PostRequestBody.class, "UTF-8"), JsonBodies.mapper());
+
+        Response response = given().contentType(ContentType.JSON).body(mutableBody())
+            .post(server.getBaseUrl() + "/api/users");
+        assertEquals(response.getStatusCode(), 201);
+        ImmutablePostRequestBody created = response.as(ImmutablePostRequestBody.class);
+        assertEquals(created, BODY);
+        ExtentReport.log(Status.INFO, JsonBodies.summary());
+    }
+}
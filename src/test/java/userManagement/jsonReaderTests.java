@@ -0,0 +1,88 @@
+package userManagement;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.json.JSONObject;
+import org.testng.annotations.Test;
+import utils.JsonReader;
+import utils.JsonStreamReader;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.*;
+
+public class jsonReaderTests {
+
+    @Test
+    public void testDefaultTestDataIsParsedOnce() throws IOException {
+        assertEquals(JsonReader.getTestData("username"), "postman");
+        assertEquals(JsonReader.getJsonArrayData("languages", 2), "Python");
+        assertSame(JsonReader.getJsonData(), JsonReader.getJsonData());
+    }
+
+    @Test(invocationCount = 200, threadPoolSize = 16)
+    public void testConcurrentLookupsShareTheCachedDocument() throws IOException {
+        assertEquals(JsonReader.getJsonArray("getErgst").length(), 3);
+        assertEquals(JsonReader.getTestData("password"), "password");
+    }
+
+    @Test
+    public void testCacheIsInvalidatedWhenFileChanges() throws IOException {
+        Path file = Files.createTempFile("testdata", ".json");
+        try {
+            Files.write(file, "{\"env\":\"QA\"}".getBytes(StandardCharsets.UTF_8));
+            JSONObject first = JsonReader.getJsonData(file);
+            assertEquals(JsonReader.getTestData(file, "env"), "QA");
+
+            Files.write(file, "{\"env\":\"PROD\"}".getBytes(StandardCharsets.UTF_8));
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 2000));
+            assertEquals(JsonReader.getTestData(file, "env"), "PROD");
+            assertNotSame(JsonReader.getJsonData(file), first);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testStreamingReadsOnlyTheRequestedSlice() throws IOException {
+        Path file = Files.createTempFile("large-testdata", ".json");
+        int rows = 200_000;
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writer.write("{\"skipped\":{\"nested\":[1,2,3]},\"users\":[");
+                for (int i = 0; i < rows; i++) {
+                    writer.write((i > 0 ? "," : "") + "{\"id\":" + i + ",\"name\":\"user" + i + "\"}");
+                }
+                writer.write("],\"username\":\"streamed\"}");
+            }
+
+            List<JsonNode> slice = JsonStreamReader.readArraySlice(file, "users", 150_000, 3);
+            assertEquals(slice.size(), 3);
+            assertEquals(slice.get(0).get("id").asInt(), 150_000);
+            assertEquals(slice.get(2).get("name").asText(), "user150002");
+            assertEquals(JsonStreamReader.readValue(file, "username").asText(), "streamed");
+            assertNull(JsonStreamReader.readArrayElement(file, "users", rows));
+
+            AtomicLong sum = new AtomicLong();
+            long visited = JsonStreamReader.forEachArrayElement(file, "users", node -> sum.addAndGet(node.get("id").asLong()));
+            assertEquals(visited, rows);
+            assertEquals(sum.get(), (long) rows * (rows - 1) / 2);
+
+            System.setProperty("testdata.cache.max.bytes", "1024");
+            utils.Config.reload();
+            Object element = JsonReader.getJsonArrayData(file, "users", 42);
+            assertEquals(((JSONObject) element).getString("name"), "user42");
+            assertEquals(JsonReader.getTestData(file, "username"), "streamed");
+        } finally {
+            System.clearProperty("testdata.cache.max.bytes");
+            utils.Config.reload();
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -1,7 +1,8 @@
 package userManagement;
 
-import io.restassured.module.jsv.JsonSchemaValidator;
 import org.testng.annotations.Test;
+import utils.APIEndpoints;
+import utils.SchemaRegistry;
 
 import java.io.File;
 
@@ -10,14 +11,14 @@ import static io.restassured.RestAssured.given;
 public class jsonSquemaValidation {
     @Test
     public void jsonSchemaValidation() {
-        File schema = new File("resources/ExpectedSchema.json");
+        File schema = new File("Resources/ExpectedSquema.json");
         given()
                 .when()
-                .get("https://reqres.in/api/users?page=234")
+                .get(APIEndpoints.getReqresUrl("/users?page=2"))
                 .then()
                 .assertThat()
                 .statusCode(200)
-                .body(JsonSchemaValidator.matchesJsonSchema(schema));
+                .body(SchemaRegistry.matchesSchema(schema));
     }
 
 }
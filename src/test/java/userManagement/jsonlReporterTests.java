@@ -0,0 +1,176 @@
+package userManagement;
+
+import com.aventstack.extentreports.Status;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.annotations.Test;
+import utils.JsonlReporter;
+import utils.ReportViewer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.testng.Assert.*;
+
+public class jsonlReporterTests {
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static Path newFile() throws IOException {
+        return Files.createTempDirectory("jsonl").resolve("results.jsonl");
+    }
+
+    // 30 tests; every third one fails and every fifth one that passes is skipped
+    private static Path writeRun() throws IOException {
+        Path file = newFile();
+        try (JsonlReporter report = new JsonlReporter(file, 1000)) {
+            report.info("Environment", "QA");
+            for (int i = 0; i < 30; i++) {
+                long test = report.startTest(i % 2 == 0 ? "testGetUser[" + i + "]" : "testCreateUser[" + i + "]", null);
+                report.log(test, Status.INFO, "Request " + i);
+                report.log(test, i % 3 == 0 ? Status.FAIL : i % 5 == 0 ? Status.SKIP : Status.PASS, "Outcome " + i);
+            }
+        }
+        return file;
+    }
+
+    @Test
+    public void testConcurrentWritersProduceOneObjectPerLine() throws Exception {
+        Path file = newFile();
+        JsonlReporter report = new JsonlReporter(file, 0);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new java.util.ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 250; i++) {
+                        long test = report.startTest("test " + i, "line\nbreak \"quoted\"");
+                        report.log(test, Status.INFO, "<b>step</b> 1");
+                        report.log(test, Status.PASS, "step 2");
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        report.close();
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(lines.size(), 3000);
+        assertEquals(report.getEventCount(), 3000);
+        long tests = 0;
+        for (String line : lines) {
+            JsonNode event = mapper.readTree(line);
+            if (event.get("type").asText().equals("test")) {
+                tests++;
+                assertEquals(event.get("description").asText(), "line\nbreak \"quoted\"");
+            } else {
+                assertTrue(event.get("test").asLong() > 0, line);
+            }
+        }
+        assertEquals(tests, 1000);
+        assertThrows(java.io.UncheckedIOException.class, () -> report.log(1, Status.INFO, "after close"));
+    }
+
+    @Test
+    public void testBufferedLinesAreFlushedWithoutNewEvents() throws Exception {
+        Path file = newFile();
+        try (JsonlReporter report = new JsonlReporter(file, 50)) {
+            long test = report.startTest("idle afterwards", null);
+            report.log(test, Status.PASS, "ok");
+            long deadline = System.currentTimeMillis() + 5000;
+            while (Files.readAllLines(file).size() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(Files.readAllLines(file).size(), 2, "the last lines wait for no further event");
+        }
+    }
+
+    @Test
+    public void testViewerPagesAndFiltersTests() throws IOException {
+        ReportViewer viewer = new ReportViewer(writeRun());
+
+        assertEquals(viewer.count(null, null), 30);
+        assertEquals(viewer.count(Status.FAIL, null), 10);
+        assertEquals(viewer.count(Status.SKIP, null), 4);
+        assertEquals(viewer.count(Status.FAIL, "getuser"), 5);
+        assertEquals(viewer.getStatusCounts().get(Status.PASS).intValue(), 16);
+        assertEquals(viewer.getSystemInfo().get("Environment"), "QA");
+
+        List<ReportViewer.Node> page = viewer.page(1, 4, Status.FAIL, null);
+        assertEquals(page.stream().map(ReportViewer.Node::getName).collect(Collectors.toList()),
+                List.of("testGetUser[12]", "testCreateUser[15]", "testGetUser[18]", "testCreateUser[21]"));
+        assertEquals(viewer.page(2, 4, Status.FAIL, null).size(), 2);
+
+        List<ReportViewer.Step> steps = viewer.steps(page.get(1).getId());
+        assertEquals(steps.size(), 2);
+        assertEquals(steps.get(1).getStatus(), Status.FAIL);
+        assertEquals(steps.get(1).getDetails(), "Outcome 15");
+        assertNull(viewer.steps(999));
+    }
+
+    @Test
+    public void testViewerCatchesUpWithAFileBeingWritten() throws IOException {
+        Path file = newFile();
+        JsonlReporter report = new JsonlReporter(file, 60000);
+        long first = report.startTest("first", null);
+        report.log(first, Status.PASS, "ok");
+        report.flush();
+        ReportViewer viewer = new ReportViewer(file);
+        assertEquals(viewer.count(null, null), 1);
+
+        long second = report.startTest("second", null);
+        report.log(first, Status.FAIL, "late failure of the first test");
+        report.log(second, Status.PASS, "ok");
+        report.close();
+        // a line cut off by a killed run is only indexed once it is complete
+        Files.write(file, "{\"type\":\"test\",\"id\":3,\"na".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        viewer.refresh();
+
+        assertEquals(viewer.count(null, null), 2);
+        assertEquals(viewer.page(0, 10, null, null).get(0).getStatus(), Status.FAIL);
+        assertEquals(viewer.steps(first).size(), 2);
+
+        Files.write(file, "me\":\"third\",\"ts\":0}\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        viewer.refresh();
+        assertEquals(viewer.page(2, 1, null, "").get(0).getName(), "third");
+    }
+
+    @Test
+    public void testViewerServesPagesOverHttp() throws IOException {
+        Path file = writeRun();
+        try (JsonlReporter report = new JsonlReporter(file, 1000)) {
+            report.startTest("<script>alert(1)</script>", null);
+        }
+        ReportViewer viewer = new ReportViewer(file);
+        HttpServer server = viewer.serve(0);
+        try {
+            String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+            given().get(baseUrl + "/?status=FAIL&size=5&q=create").then().statusCode(200)
+                    .body(containsString("testCreateUser[3]"), containsString("page 1 of 1 (5 tests)"),
+                            not(containsString("testGetUser")));
+            given().get(baseUrl + "/?page=1&size=20").then().statusCode(200)
+                    .body(containsString("&lt;script&gt;"), not(containsString("<script>")));
+            given().queryParam("size", 1).queryParam("q", "user[1").get(baseUrl + "/").then().statusCode(200)
+                    .body(containsString("&q=user%5B1\">next</a>"));
+            given().get(baseUrl + "/test/2").then().statusCode(200).body(containsString("Outcome 1"));
+            given().get(baseUrl + "/test/999").then().statusCode(400);
+        } finally {
+            server.stop(0);
+        }
+    }
+}
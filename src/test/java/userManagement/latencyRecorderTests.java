@@ -0,0 +1,123 @@
+package userManagement;
+
+import core.BaseTest;
+import org.testng.annotations.Test;
+import perf.LatencyRecorder;
+import utils.ExtentReport;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+public class latencyRecorderTests extends BaseTest {
+
+    @Test
+    public void testConcurrentRecordingIsLossless() throws InterruptedException {
+        ExtentReport.createTest("testConcurrentRecordingIsLossless",
+            "8 threads record 100k samples each into one recorder");
+        LatencyRecorder latency = new LatencyRecorder("concurrent");
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 1; i <= 100_000; i++) {
+                    latency.record(i, TimeUnit.MICROSECONDS);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        latency.report();
+
+        assertEquals(latency.getCount(), 800_000);
+        assertEquals(latency.getPercentileMillis(50), 50.0, 0.1);
+        assertEquals(latency.getPercentileMillis(99.9), 99.9, 0.1);
+        assertEquals(latency.getMaxMillis(), 100.0, 0.1);
+    }
+
+    @Test
+    public void testRecordersMerge() {
+        ExtentReport.createTest("testRecordersMerge", "Per-thread recorders merge into one histogram");
+        LatencyRecorder fast = new LatencyRecorder("fast");
+        LatencyRecorder slow = new LatencyRecorder("slow");
+        for (int i = 0; i < 990; i++) {
+            fast.record(Duration.ofMillis(10));
+        }
+        for (int i = 0; i < 10; i++) {
+            slow.record(Duration.ofMillis(900));
+        }
+
+        LatencyRecorder all = new LatencyRecorder("all").merge(fast).merge(slow);
+
+        assertEquals(all.getCount(), 1000);
+        assertEquals(all.getPercentileMillis(50), 10.0, 0.05);
+        assertEquals(all.getPercentileMillis(99.5), 900.0, 1);
+        assertEquals(all.getMaxMillis(), 900.0, 1);
+    }
+
+    @Test
+    public void testExpectedIntervalCorrectsCoordinatedOmission() {
+        ExtentReport.createTest("testExpectedIntervalCorrectsCoordinatedOmission",
+            "A one-second stall in a 10 ms loop back-fills the samples the loop failed to send");
+        LatencyRecorder naive = new LatencyRecorder("naive");
+        LatencyRecorder corrected = new LatencyRecorder("corrected");
+        for (int i = 0; i < 1000; i++) {
+            long latency = i == 500 ? 1000 : 1;
+            naive.record(latency, TimeUnit.MILLISECONDS);
+            corrected.recordWithExpectedInterval(latency, 10, TimeUnit.MILLISECONDS);
+        }
+
+        // one slow sample in 1000 hides below p99.9 unless the 99 missed requests are restored
+        assertEquals(naive.getPercentileMillis(99), 1.0, 0.01);
+        assertEquals(corrected.getCount(), 1000 + 99);
+        assertTrue(corrected.getPercentileMillis(99) > 100, corrected.summary());
+        assertEquals(corrected.getMaxMillis(), naive.getMaxMillis());
+    }
+
+    @Test
+    public void testLoadSamplesAreMeasuredFromScheduledStart() {
+        ExtentReport.createTest("testLoadSamplesAreMeasuredFromScheduledStart",
+            "Response time includes the wait between scheduled and actual start");
+        LatencyRecorder responseTime = new LatencyRecorder("response");
+        LatencyRecorder serviceTime = new LatencyRecorder("service", false);
+        long ms = TimeUnit.MILLISECONDS.toNanos(1);
+
+        responseTime.onSample("posts", 0, 500 * ms, 510 * ms, 200, false);
+        serviceTime.onSample("posts", 0, 500 * ms, 510 * ms, 200, false);
+        responseTime.onSample("posts", 0, 0, 5000 * ms, 200, true);
+
+        assertEquals(responseTime.getCount(), 1);
+        assertEquals(responseTime.getMaxMillis(), 510.0, 0.5);
+        assertEquals(serviceTime.getMaxMillis(), 10.0, 0.01);
+        assertEquals(responseTime.getEndpoints().get("posts").getCount(), 1);
+    }
+
+    @Test
+    public void testSlaReportsEveryViolation() {
+        ExtentReport.createTest("testSlaReportsEveryViolation", "All exceeded limits are listed in one failure");
+        LatencyRecorder latency = new LatencyRecorder("sla");
+        for (int i = 1; i <= 1000; i++) {
+            latency.record(i, TimeUnit.MILLISECONDS);
+        }
+
+        latency.sla().p50(600).p95(960).p99(1000).max(1001).verify();
+        AssertionError error = expectThrows(AssertionError.class,
+            () -> latency.sla().p50(400).p95(960).p999(900).max(950).verify());
+
+        String violations = error.getMessage().substring(0, error.getMessage().indexOf(" ["));
+        assertTrue(violations.contains("p50 "), violations);
+        assertTrue(violations.contains("p99.9 "), violations);
+        assertTrue(violations.contains("max "), violations);
+        assertFalse(violations.contains("p95 "), violations);
+    }
+
+    @Test(expectedExceptions = AssertionError.class, expectedExceptionsMessageRegExp = ".*at least 10 samples.*")
+    public void testSlaRejectsEmptyRuns() {
+        new LatencyRecorder("empty").sla().minSamples(10).p99(1).verify();
+    }
+}
@@ -0,0 +1,187 @@
+package userManagement;
+
+import com.aventstack.extentreports.Status;
+import core.BaseTest;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import perf.LoadEngine;
+import perf.LoadResult;
+import stub.StubServer;
+import utils.ExtentReport;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.restassured.RestAssured.given;
+import static org.testng.Assert.*;
+
+public class loadEngineTests extends BaseTest {
+    private StubServer server;
+    private String baseUrl;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = new StubServer(0, 8).start();
+        baseUrl = server.getBaseUrl();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void resetLatency() {
+        server.setLatency(0, 0);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    public void testRateIsHeldWhileResponsesAreSlow() {
+        ExtentReport.createTest("testRateIsHeldWhileResponsesAreSlow",
+            "Arrivals keep their schedule when every response takes 300 ms");
+        server.setLatency(300, 0);
+
+        LoadResult result = LoadEngine.builder()
+            .rate(100)
+            .warmUp(Duration.ofMillis(500))
+            .duration(Duration.ofSeconds(3))
+            .maxConcurrency(128)
+            .endpoint("post", 1, () -> given().get(baseUrl + "/posts/1"))
+            .build()
+            .run();
+        ExtentReport.log(Status.INFO, result.summary());
+
+        assertEquals(result.getOfferedRate(), 100, 5);
+        assertEquals(result.getThroughput(), 100, 15);
+        assertEquals(result.getDropped(), 0);
+        assertEquals(result.getFailed(), 0, String.valueOf(result.getFirstError()));
+        // a closed model with one caller per response would never have more than a handful in flight
+        assertTrue(result.getMaxInFlight() >= 20, "max in flight " + result.getMaxInFlight());
+    }
+
+    @Test
+    public void testDispatcherSustainsThousandsOfRequestsPerSecond() {
+        ExtentReport.createTest("testDispatcherSustainsThousandsOfRequestsPerSecond",
+            "The arrival schedule itself keeps up with 5000 req/s");
+        Response canned = new ResponseBuilder().setStatusCode(200).setBody("{}").build();
+
+        LoadResult result = LoadEngine.builder()
+            .rate(5000)
+            .warmUp(Duration.ofMillis(500))
+            .duration(Duration.ofSeconds(2))
+            .maxConcurrency(64)
+            .endpoint("canned", 1, () -> canned)
+            .build()
+            .run();
+        ExtentReport.log(Status.INFO, result.summary());
+
+        assertEquals(result.getScheduled(), 10000, 50);
+        assertEquals(result.getSucceeded(), result.getScheduled() - result.getDropped());
+        assertTrue(result.getDropped() < 100, "dropped " + result.getDropped());
+    }
+
+    @Test
+    public void testArrivalsBeyondConcurrencyLimitAreDropped() {
+        ExtentReport.createTest("testArrivalsBeyondConcurrencyLimitAreDropped",
+            "Saturated workers drop arrivals instead of delaying the schedule");
+        server.setLatency(500, 0);
+
+        LoadResult result = LoadEngine.builder()
+            .rate(50)
+            .warmUp(Duration.ZERO)
+            .duration(Duration.ofSeconds(2))
+            .maxConcurrency(5)
+            .endpoint("post", 1, () -> given().get(baseUrl + "/posts/1"))
+            .build()
+            .run();
+        ExtentReport.log(Status.INFO, result.summary());
+
+        assertEquals(result.getScheduled(), 100, 5);
+        assertEquals(result.getScheduled(), result.getSent() + result.getDropped());
+        assertTrue(result.getSent() <= 30, "sent " + result.getSent());
+        assertTrue(result.getDropped() >= 60, "dropped " + result.getDropped());
+        assertTrue(result.getMaxInFlight() <= 5);
+    }
+
+    @Test
+    public void testRampSchedulesLinearlyIncreasingArrivals() {
+        ExtentReport.createTest("testRampSchedulesLinearlyIncreasingArrivals",
+            "A 20 to 100 req/s ramp over 2 s schedules about 120 requests");
+
+        LoadResult result = LoadEngine.builder()
+            .ramp(20, 100, Duration.ofSeconds(2))
+            .warmUp(Duration.ZERO)
+            .duration(Duration.ofSeconds(2))
+            .endpoint("post", 1, () -> given().get(baseUrl + "/posts/1"))
+            .build()
+            .run();
+        ExtentReport.log(Status.INFO, result.summary());
+
+        assertEquals(result.getScheduled(), 120, 12);
+        assertEquals(result.getTargetRate(), 100.0);
+    }
+
+    @Test
+    public void testRequestMixFollowsWeights() {
+        ExtentReport.createTest("testRequestMixFollowsWeights",
+            "Endpoints are picked in proportion to their weights; warm-up samples are flagged");
+        RequestSpecification spec = given().baseUri(baseUrl).header("Accept", "application/json");
+        AtomicInteger warmUpSamples = new AtomicInteger();
+
+        LoadResult result = LoadEngine.builder()
+            .rate(200)
+            .warmUp(Duration.ofMillis(500))
+            .duration(Duration.ofSeconds(2))
+            .endpoint("posts", 3, spec, Method.GET, "/posts/1")
+            .endpoint("users", 1, spec, Method.GET, "/users/1")
+            .listener((endpoint, intended, start, end, status, warmUp) -> {
+                if (warmUp) {
+                    warmUpSamples.incrementAndGet();
+                }
+            })
+            .build()
+            .run();
+        ExtentReport.log(Status.INFO, result.summary());
+
+        long posts = result.getEndpoints().get("posts").getSent();
+        long users = result.getEndpoints().get("users").getSent();
+        assertEquals(posts / (double) (posts + users), 0.75, 0.06);
+        assertEquals(result.getStatusCounts().get(200).longValue(), posts + users);
+        assertEquals(warmUpSamples.get(), 100, 5);
+    }
+
+    @Test
+    public void testRequestErrorsAreCounted() {
+        ExtentReport.createTest("testRequestErrorsAreCounted",
+            "4xx responses and exceptions are counted as failures");
+
+        LoadResult result = LoadEngine.builder()
+            .rate(50)
+            .warmUp(Duration.ZERO)
+            .duration(Duration.ofSeconds(1))
+            .endpoint("missing", 1, () -> given().get(baseUrl + "/posts/999999"))
+            .endpoint("broken", 1, () -> {
+                throw new IllegalStateException("boom");
+            })
+            .build()
+            .run();
+
+        assertEquals(result.getSucceeded(), 0);
+        assertEquals(result.getFailed(), result.getSent());
+        assertTrue(result.getStatusCounts().containsKey(404));
+        assertTrue(result.getStatusCounts().containsKey(-1));
+        assertEquals(result.getFirstError().getMessage(), "boom");
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testEngineNeedsAnEndpoint() {
+        LoadEngine.builder().build();
+    }
+}
@@ -1,17 +1,30 @@
 package userManagement;
 
+import com.aventstack.extentreports.Status;
 import core.BaseTest;
+import io.restassured.RestAssured;
 import io.restassured.response.Response;
 import org.testng.annotations.Test;
+import perf.LatencyRecorder;
+import perf.LoadEngine;
+import perf.LoadResult;
+import stub.StubServer;
 import utils.ExtentReport;
 import utils.APIEndpoints;
+import utils.AsyncApiClient;
+import utils.AsyncResponse;
+import utils.HttpClientPool;
+import utils.StreamingJsonAssert;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.lessThan;
 import static org.testng.Assert.*;
 
@@ -19,7 +32,7 @@ public class performanceTests extends BaseTest {
 
     @Test
     public void testResponseTimeUnder2Seconds() {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("testResponseTimeUnder2Seconds", 
+        ExtentReport.createTest("testResponseTimeUnder2Seconds", 
             "Validate API response time is under 2 seconds");
         
         given()
@@ -31,75 +44,74 @@ public class performanceTests extends BaseTest {
     }
 
     @Test
-    public void testConcurrentRequests() {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("testConcurrentRequests", 
+    public void testConcurrentRequests() throws IOException {
+        ExtentReport.createTest("testConcurrentRequests", 
             "Test API with multiple concurrent requests");
         
-        int numberOfRequests = 5;
-        List<CompletableFuture<Response>> futures = new ArrayList<>();
-        
-        // Send concurrent requests
-        for (int i = 0; i < numberOfRequests; i++) {
-            CompletableFuture<Response> future = CompletableFuture.supplyAsync(() ->
-                given()
-                    .when()
-                    .get(APIEndpoints.getJsonPlaceholderUrl("/posts/1"))
-            );
-            futures.add(future);
+        // A short run against the local stub; heavier load belongs in a dedicated load run
+        StubServer server = new StubServer(0, 8).start();
+        try {
+            // Open model: arrivals follow the rate no matter how fast responses come back
+            LatencyRecorder latency = new LatencyRecorder("concurrent");
+            LoadResult result = LoadEngine.builder()
+                .rate(10)
+                .warmUp(Duration.ofMillis(500))
+                .duration(Duration.ofSeconds(3))
+                .endpoint("posts", 3, () -> given().when().get(server.getBaseUrl() + "/posts/1"))
+                .endpoint("users", 1, () -> given().when().get(server.getBaseUrl() + "/users/1"))
+                .listener(latency)
+                .build()
+                .run();
+            ExtentReport.log(Status.INFO, result.summary());
+            latency.report();
+
+            assertEquals(result.getFailed(), 0, "Failed requests: " + result.getStatusCounts());
+            assertEquals(result.getDropped(), 0, "Requests dropped at the concurrency limit");
+            assertTrue(result.getThroughput() >= result.getTargetRate() * 0.5,
+                "Throughput " + result.getThroughput() + " should keep up with the target arrival rate");
+            latency.sla().minSamples(1).p50(1000).p99(3000).p999(5000).max(10000).verify();
+        } finally {
+            server.stop();
         }
-        
-        // Wait for all requests to complete and validate
-        futures.forEach(future -> {
-            try {
-                Response response = future.get();
-                assertEquals(response.getStatusCode(), 200);
-                assertTrue(response.getTimeIn(TimeUnit.MILLISECONDS) < 5000);
-            } catch (Exception e) {
-                fail("Concurrent request failed: " + e.getMessage());
-            }
-        });
     }
 
     @Test
     public void testLoadWithMultipleEndpoints() {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("testLoadWithMultipleEndpoints", 
+        ExtentReport.createTest("testLoadWithMultipleEndpoints", 
             "Test load across multiple API endpoints");
         
         String[] endpoints = {
-            "https://jsonplaceholder.typicode.com/posts/1",
-            "https://jsonplaceholder.typicode.com/users/1",
-            "https://jsonplaceholder.typicode.com/comments/1",
-            "https://jsonplaceholder.typicode.com/albums/1"
+            APIEndpoints.getJsonPlaceholderUrl("/posts/1"),
+            APIEndpoints.getJsonPlaceholderUrl("/users/1"),
+            APIEndpoints.getJsonPlaceholderUrl("/comments/1"),
+            APIEndpoints.getJsonPlaceholderUrl("/albums/1")
         };
         
-        long totalTime = 0;
-        int successCount = 0;
+        // Fan out all endpoints at once and fan in; the test thread only waits for the last response
+        AsyncApiClient client = AsyncApiClient.shared();
+        List<AsyncResponse> responses = AsyncApiClient.awaitAll(Arrays.stream(endpoints)
+            .map(client::get)
+            .collect(Collectors.toList()));
         
-        for (String endpoint : endpoints) {
-            long startTime = System.currentTimeMillis();
-            
-            Response response = given()
-                .when()
-                .get(endpoint);
-            
-            long endTime = System.currentTimeMillis();
-            totalTime += (endTime - startTime);
-            
+        LatencyRecorder latency = new LatencyRecorder("endpoints");
+        int successCount = 0;
+        for (AsyncResponse response : responses) {
+            latency.record(response.getTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
             if (response.getStatusCode() == 200) {
                 successCount++;
             }
         }
+        latency.report();
         
-        double averageTime = totalTime / (double) endpoints.length;
         double successRate = (successCount / (double) endpoints.length) * 100;
         
-        assertTrue(averageTime < 3000, "Average response time should be under 3 seconds");
+        assertTrue(latency.getMeanMillis() < 3000, "Average response time should be under 3 seconds");
         assertEquals(successRate, 100.0, "All requests should be successful");
     }
 
     @Test
     public void testMemoryUsageWithLargeResponse() {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("testMemoryUsageWithLargeResponse", 
+        ExtentReport.createTest("testMemoryUsageWithLargeResponse", 
             "Test API response handling with large data sets");
         
         Runtime runtime = Runtime.getRuntime();
@@ -113,7 +125,7 @@ public class performanceTests extends BaseTest {
         long memoryUsed = memoryAfter - memoryBefore;
         
         assertEquals(response.getStatusCode(), 200);
-        assertTrue(response.jsonPath().getList("").size() > 0);
+        StreamingJsonAssert.assertThatJson(response).hasSize(greaterThan(0)).verify();
         
         // Memory usage should be reasonable (less than 10MB for this test)
         assertTrue(memoryUsed < 10 * 1024 * 1024, 
@@ -122,15 +134,13 @@ public class performanceTests extends BaseTest {
 
     @Test
     public void testTimeoutHandling() {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("testTimeoutHandling", 
+        ExtentReport.createTest("testTimeoutHandling", 
             "Test API timeout handling");
         
         try {
             given()
-                .config(io.restassured.config.RestAssuredConfig.config()
-                    .httpClient(io.restassured.config.HttpClientConfig.httpClientConfig()
-                        .setParam("http.connection.timeout", 1000)
-                        .setParam("http.socket.timeout", 1000)))
+                .config(RestAssured.config()
+                    .httpClient(HttpClientPool.shared().httpClientConfig(Duration.ofSeconds(1), Duration.ofSeconds(1))))
                 .when()
                 .get(APIEndpoints.getHttpBinUrl("/delay/5")) // 5 second delay
                 .then()
@@ -2,15 +2,14 @@ package userManagement;
 
 import core.StatusCode;
 import io.restassured.response.Response;
-import org.apache.commons.io.IOUtils;
 import org.testng.annotations.Test;
 import pojo.CityRequest;
+import pojo.ImmutablePostRequestBody;
 import pojo.PostRequestBody;
 import utils.APIEndpoints;
+import utils.BodyTemplate;
+import utils.JsonBodies;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -19,17 +18,17 @@ import static io.restassured.RestAssured.given;
 import static org.testng.Assert.assertEquals;
 
 public class postUser {
-
-    private static FileInputStream fileInputStream;
-    private static FileInputStream fileInputStreamMethod(String requestBodyFileName) {
-        try {
-            fileInputStream = new FileInputStream(
-                    new File(System.getProperty("user.dir") + "/resources/TestData/" + requestBodyFileName));
-        } catch (FileNotFoundException e) {
-            throw new RuntimeException(e);
-        }
-        return fileInputStream;
-    }
+    // Unchanging bodies serialized once, sent as bytes without object mapping
+    private static final JsonBodies.Prepared PUT_BODY = JsonBodies.prepare(
+            ImmutablePostRequestBody.builder().job("John").name("LeadQA").build());
+    private static final JsonBodies.Prepared POST_BODY = JsonBodies.prepare(ImmutablePostRequestBody.builder()
+            .job("leader").name("morpheus").languages("Java", "Python")
+            .city("Raleigh", "30").city("Greensboro", "40")
+            .build());
+
+    // Body files are read once; the create template gets name and job per request
+    private static final String TEST_DATA = System.getProperty("user.dir") + "/Resources/TestData/";
+    private static final BodyTemplate CREATE_USER = BodyTemplate.load(TEST_DATA + "createUserTemplate.json");
 
     @Test
     public void validatePostWithString() {
@@ -38,7 +37,7 @@ public class postUser {
                 .header("Content-Type", "application/json")
                 .body("{\"name\":\"morpheus\",\"job\":\"leader\"}")
                 .when()
-                .post("https://reqres.in/api/users");
+                .post(APIEndpoints.getReqresUrl("/users"));
         assertEquals(response.getStatusCode(), StatusCode.CREATED.code);
         System.out.println("validatePostWithString executed successfully");
         System.out.println(response.getBody().asString());
@@ -51,7 +50,7 @@ public class postUser {
                 .header("Content-Type", "application/json")
                 .body("{\"name\":\"morpheus\",\"job\":\"leader\"}")
                 .when()
-                .put("https://reqres.in/api/users/2");
+                .put(APIEndpoints.getReqresUrl("/users/2"));
         assertEquals(response.getStatusCode(), StatusCode.SUCCESS.code);
         System.out.println("validatePutWithString executed successfully");
         System.out.println(response.getBody().asString());
@@ -64,18 +63,18 @@ public class postUser {
                 .header("Content-Type", "application/json")
                 .body("{\"name\":\"morpheus\"}")
                 .when()
-                .patch("https://reqres.in/api/users/2");
+                .patch(APIEndpoints.getReqresUrl("/users/2"));
         assertEquals(response.getStatusCode(), StatusCode.SUCCESS.code);
         System.out.println("validatePatchWithString executed successfully");
         System.out.println(response.getBody().asString());
     }
 
     @Test
-    public void validatePostWithJsonFile() throws IOException {
+    public void validatePostWithJsonFile() {
 
         Response response = given()
                 .header("Content-Type", "application/json")
-                .body(IOUtils.toString(fileInputStreamMethod("postRequestBody.json")))
+                .body(CREATE_USER.render("caro", "leader"))
                 .when()
                 .post(APIEndpoints.getReqresUrl("/users"));
         assertEquals(response.getStatusCode(), StatusCode.CREATED.code);
@@ -84,26 +83,26 @@ public class postUser {
     }
 
     @Test
-    public void validatePatchWithJsonFile() throws IOException {
+    public void validatePatchWithJsonFile() {
 
         Response response = given()
                 .header("Content-Type", "application/json")
-                .body(IOUtils.toString(fileInputStreamMethod("patchRequestBody.json")))
+                .body(BodyTemplate.load(TEST_DATA + "patchRequestBody.json").render())
                 .when()
-                .patch("https://reqres.in/api/users/2");
+                .patch(APIEndpoints.getReqresUrl("/users/2"));
         assertEquals(response.getStatusCode(), StatusCode.SUCCESS.code);
         System.out.println("validatePatchWithJsonFile executed successfully");
         System.out.println(response.getBody().asString());
     }
 
     @Test
-    public void validatePutWithJsonFile() throws IOException {
+    public void validatePutWithJsonFile() {
 
         Response response = given()
                 .header("Content-Type", "application/json")
-                .body(IOUtils.toString(fileInputStreamMethod("putRequestBody.json")))
+                .body(BodyTemplate.load(TEST_DATA + "putRequestBody.json").render())
                 .when()
-                .put("https://reqres.in/api/users/2");
+                .put(APIEndpoints.getReqresUrl("/users/2"));
         assertEquals(response.getStatusCode(), StatusCode.SUCCESS.code);
         System.out.println("validatePutWithJsonFile executed successfully");
         System.out.println(response.getBody().asString());
@@ -119,12 +118,25 @@ public class postUser {
                 .header("Content-Type", "application/json")
                 .body(putRequest)
                 .when()
-                .put("https://reqres.in/api/users/2");
+                .put(APIEndpoints.getReqresUrl("/users/2"));
         assertEquals(response.getStatusCode(), StatusCode.SUCCESS.code);
         System.out.println("validatePutWithJsonFile executed successfully");
         System.out.println(response.getBody().asString());
     }
 
+    @Test
+    public void validatePutWithPreparedBody() {
+
+        Response response = given()
+                .header("Content-Type", "application/json")
+                .body(PUT_BODY.getBytes())
+                .when()
+                .put(APIEndpoints.getReqresUrl("/users/2"));
+        assertEquals(response.getStatusCode(), StatusCode.SUCCESS.code);
+        System.out.println("validatePutWithPreparedBody executed successfully");
+        System.out.println(response.getBody().asString());
+    }
+
     @Test
     public void validatePostWithPojoListString() {
 
@@ -140,7 +152,7 @@ public class postUser {
                 .header("Content-Type", "application/json")
                 .body(putRequest)
                 .when()
-                .put("https://reqres.in/api/users/2");
+                .put(APIEndpoints.getReqresUrl("/users/2"));
         assertEquals(response.getStatusCode(), StatusCode.SUCCESS.code);
         System.out.println("validatePutWithJsonFile executed successfully");
         System.out.println(response.getBody().asString());
@@ -154,7 +166,7 @@ public class postUser {
                 .header("Content-Type", "application/json")
                 .body(patchRequest)
                 .when()
-                .patch("https://reqres.in/api/users/2");
+                .patch(APIEndpoints.getReqresUrl("/users/2"));
         assertEquals(response.getStatusCode(), StatusCode.SUCCESS.code);
         System.out.println("validatePatchWithPojo executed successfully");
         System.out.println(response.getBody().asString());
@@ -193,6 +205,19 @@ public class postUser {
         System.out.println(response.getBody().asString());
     }
 
+    @Test
+    public void validatePostWithPreparedListObject() {
+
+        Response response = given()
+                .header("Content-Type", "application/json")
+                .body(POST_BODY.getBytes())
+                .when()
+                .post(APIEndpoints.getReqresUrl("/users"));
+        assertEquals(response.getStatusCode(), StatusCode.CREATED.code);
+        System.out.println("validatePostWithPreparedListObject executed successfully");
+        System.out.println(response.getBody().asString());
+    }
+
     @Test
     public void validatePatchWithResponsePojo() {
         String job = "leader";
@@ -202,7 +227,7 @@ public class postUser {
                 .header("Content-Type", "application/json")
                 .body(patchRequest)
                 .when()
-                .patch("https://reqres.in/api/users/2");
+                .patch(APIEndpoints.getReqresUrl("/users/2"));
         PostRequestBody responseBody = response.as(PostRequestBody.class);
         System.out.println(responseBody.getJob());
         assertEquals(responseBody.getJob(), job);
@@ -0,0 +1,316 @@
+package userManagement;
+
+import com.aventstack.extentreports.Status;
+import core.BaseTest;
+import core.RateLimitFilter;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import stub.CassetteFilter;
+import stub.StubServer;
+import utils.AsyncApiClient;
+import utils.AsyncResponse;
+import utils.ExtentReport;
+import utils.RateLimiter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static io.restassured.RestAssured.given;
+import static org.testng.Assert.*;
+
+public class rateLimiterTests extends BaseTest {
+    private static final String API = "https://api.example.com/users/1";
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private StubServer server;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = new StubServer(0, 4).start();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop();
+    }
+
+    // 10 rps with a burst of 5 on a clock that only moves when told to
+    private static RateLimiter limiter(AtomicLong clock) {
+        return RateLimiter.builder()
+            .rate(10, 1, 20)
+            .burst(5)
+            .increase(2)
+            .decrease(0.5, Duration.ofSeconds(1))
+            .maxWait(Duration.ofSeconds(30))
+            .nanoClock(clock::get)
+            .build();
+    }
+
+    @Test
+    public void testBurstIsFreeThenRequestsAreSpaced() {
+        ExtentReport.createTest("testBurstIsFreeThenRequestsAreSpaced",
+            "The first burst of permits is free, the next ones wait one interval each");
+        AtomicLong clock = new AtomicLong();
+        RateLimiter limiter = limiter(clock);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(limiter.reserve(API), 0);
+        }
+        assertEquals(limiter.reserve(API), 100 * MILLIS);
+        assertEquals(limiter.reserve(API), 200 * MILLIS);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertEquals(limiter.reserve(API), 0);
+
+        RateLimiter.Host host = limiter.host(API);
+        ExtentReport.log(Status.INFO, host.toString());
+        assertEquals(host.getPermits(), 8);
+        assertEquals(host.getWaits(), 2);
+        assertEquals(host.getWaitMillis(), 300);
+    }
+
+    @Test
+    public void testThrottlingHalvesTheRateOncePerCooldown() {
+        ExtentReport.createTest("testThrottlingHalvesTheRateOncePerCooldown",
+            "A burst of 429s cuts the rate once; later ones cut it again, down to the minimum");
+        AtomicLong clock = new AtomicLong();
+        RateLimiter limiter = limiter(clock);
+        RateLimiter.Host host = limiter.host(API);
+
+        assertTrue(limiter.onResponse(API, 429, null));
+        assertTrue(limiter.onResponse(API, 429, null));
+        assertTrue(limiter.onResponse(API, 429, null));
+        assertEquals(host.getRate(), 5.0);
+        assertEquals(host.getThrottleEvents(), 3);
+
+        for (int i = 0; i < 5; i++) {
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            limiter.onResponse(API, 429, null);
+        }
+        assertEquals(host.getRate(), 1.0);
+
+        assertFalse(limiter.onResponse(API, 503, null), "503 without Retry-After is an error, not throttling");
+        assertTrue(limiter.onResponse(API, 503, "1"));
+    }
+
+    @Test
+    public void testSuccessesRaiseTheRateUpToTheMaximum() {
+        ExtentReport.createTest("testSuccessesRaiseTheRateUpToTheMaximum",
+            "Every success adds increase / rate, about increase rps per second of traffic");
+        RateLimiter limiter = limiter(new AtomicLong());
+        RateLimiter.Host host = limiter.host(API);
+
+        for (int i = 0; i < 10; i++) {
+            assertFalse(limiter.onResponse(API, 200, null));
+        }
+        // one second of traffic at 10 rps
+        assertEquals(host.getRate(), 12.0, 0.2);
+
+        for (int i = 0; i < 1000; i++) {
+            limiter.onResponse(API, 404, null);
+        }
+        assertEquals(host.getRate(), 20.0);
+    }
+
+    @Test
+    public void testRetryAfterHoldsBackTheHost() {
+        ExtentReport.createTest("testRetryAfterHoldsBackTheHost",
+            "No permit is free before Retry-After has passed, and long values are capped");
+        AtomicLong clock = new AtomicLong();
+        RateLimiter limiter = limiter(clock);
+
+        limiter.onResponse(API, 429, "2");
+        assertEquals(limiter.reserve(API), TimeUnit.SECONDS.toNanos(2));
+        assertEquals(limiter.reserve("https://other.example.com/posts"), 0, "other hosts are not held back");
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        limiter.onResponse(API, 429, "3600");
+        assertTrue(limiter.reserve(API) <= TimeUnit.SECONDS.toNanos(30));
+
+        assertEquals(RateLimiter.parseRetryAfter("120"), Duration.ofSeconds(120));
+        assertEquals(RateLimiter.parseRetryAfter("Thu, 01 Jan 1970 00:00:00 GMT"), Duration.ZERO);
+        assertNull(RateLimiter.parseRetryAfter("soon"));
+        assertNull(RateLimiter.parseRetryAfter(null));
+    }
+
+    @Test
+    public void testHostsAreKeyedByOriginAndLoopbackIsNotLimited() {
+        ExtentReport.createTest("testHostsAreKeyedByOriginAndLoopbackIsNotLimited",
+            "Buckets are per scheme, host and port; the stub and relative URLs pass through");
+        RateLimiter limiter = limiter(new AtomicLong());
+
+        assertSame(limiter.host("https://API.example.com/users?page=2"), limiter.host(API));
+        assertNotSame(limiter.host("https://api.example.com:8443/users"), limiter.host(API));
+        assertNull(limiter.host(server.getBaseUrl() + "/users"));
+        assertNull(limiter.host("http://localhost:8080/users"));
+        assertNull(limiter.host("/users"));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(limiter.reserve(server.getBaseUrl() + "/users"), 0);
+        }
+        assertEquals(limiter.getHosts().size(), 2);
+    }
+
+    @Test
+    public void testConcurrentReservationsNeverShareAPermit() throws Exception {
+        ExtentReport.createTest("testConcurrentReservationsNeverShareAPermit",
+            "8 threads reserve 80000 permits lock-free; every permit gets its own slot");
+        AtomicLong clock = new AtomicLong();
+        RateLimiter limiter = limiter(clock);
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Long>> sums = IntStream.range(0, 8)
+                .mapToObj(t -> threads.submit(() -> {
+                    long longest = 0;
+                    for (int i = 0; i < 10_000; i++) {
+                        longest = Math.max(longest, limiter.reserve(API));
+                    }
+                    return longest;
+                }))
+                .collect(Collectors.toList());
+            long longest = 0;
+            for (Future<Long> sum : sums) {
+                longest = Math.max(longest, sum.get(30, TimeUnit.SECONDS));
+            }
+
+            RateLimiter.Host host = limiter.host(API);
+            assertEquals(host.getPermits(), 80_000);
+            assertEquals(host.getWaits(), 80_000 - 5);
+            // the clock stands still, so the last permit is due after all the others
+            assertEquals(longest, (80_000 - 5) * 100 * MILLIS);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFilterAdaptsToTheServerQuota() {
+        ExtentReport.createTest("testFilterAdaptsToTheServerQuota",
+            "Requests above a 5 rps quota are slowed down and retried until all succeed");
+        RateLimiter limiter = RateLimiter.builder()
+            .rate(50, 1, 100)
+            .burst(10)
+            .limitLoopback(true)
+            .build();
+        RateLimitFilter filter = new RateLimitFilter(limiter, 3);
+        server.setRateLimit(5);
+        try {
+            long start = System.nanoTime();
+            for (int i = 1; i <= 20; i++) {
+                given().filter(filter)
+                    .when().get(server.getBaseUrl() + "/posts/" + i)
+                    .then().statusCode(200);
+            }
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            RateLimiter.Host host = limiter.getHosts().iterator().next();
+            ExtentReport.log(Status.INFO, "20 requests in " + elapsedMillis + " ms, " + server.getThrottledCount()
+                + " throttled by the server, " + host);
+
+            assertTrue(server.getThrottledCount() > 0, "the initial rate is above the quota");
+            assertEquals(host.getThrottleEvents(), server.getThrottledCount());
+            assertTrue(host.getRate() < 50, "Rate " + host.getRate());
+            // 20 requests at 5 rps need at least three seconds
+            assertTrue(elapsedMillis >= 2_500, "Took " + elapsedMillis + " ms");
+        } finally {
+            server.setRateLimit(0);
+        }
+    }
+
+    @Test
+    public void testAsyncClientWaitsForPermitsWithoutBlocking() {
+        ExtentReport.createTest("testAsyncClientWaitsForPermitsWithoutBlocking",
+            "A fan-out above the rate is spread out by the limiter and returns at once");
+        RateLimiter limiter = RateLimiter.builder()
+            .rate(100, 1, 100)
+            .burst(10)
+            .limitLoopback(true)
+            .build();
+        AsyncApiClient client = new AsyncApiClient(1, 100, Duration.ofSeconds(5), Duration.ofSeconds(30));
+        client.setRateLimiter(limiter);
+        try {
+            long start = System.nanoTime();
+            List<CompletableFuture<AsyncResponse>> futures = IntStream.rangeClosed(1, 60)
+                .mapToObj(i -> client.get(server.getBaseUrl() + "/posts/" + i))
+                .collect(Collectors.toList());
+            long submitMillis = (System.nanoTime() - start) / 1_000_000;
+            List<AsyncResponse> responses = AsyncApiClient.awaitAll(futures);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            ExtentReport.log(Status.INFO, "Submitted in " + submitMillis + " ms, done in " + elapsedMillis + " ms, "
+                + limiter.summary());
+
+            responses.forEach(response -> response.statusCode(200));
+            assertTrue(submitMillis < 300, "Submitting blocked for " + submitMillis + " ms");
+            // beyond the burst, the 60 requests wait for permits at 100 rps
+            assertTrue(elapsedMillis >= 400, "Took " + elapsedMillis + " ms");
+            assertTrue(limiter.getHosts().iterator().next().getWaits() >= 40, limiter.summary());
+        } finally {
+            client.shutdown();
+        }
+    }
+
+    @Test
+    public void testRetriesPassThroughLaterFiltersAndCassettesKeepTheLastAnswer() throws IOException {
+        ExtentReport.createTest("testRetriesPassThroughLaterFiltersAndCassettesKeepTheLastAnswer",
+            "Filters after the limiter see every attempt; a recording holds only the answers after the retries");
+        RateLimiter limiter = RateLimiter.builder()
+            .rate(50, 1, 100)
+            .burst(10)
+            .limitLoopback(true)
+            .build();
+        Path file = Files.createTempDirectory("cassettes").resolve("throttled.cassette");
+        CassetteFilter recorder = new CassetteFilter(file, CassetteFilter.Mode.RECORD,
+            CassetteFilter.parseRules("method,host,path"));
+        AtomicLong attempts = new AtomicLong();
+        OrderedFilter wire = new OrderedFilter() {
+            @Override
+            public int getOrder() {
+                return LOWEST_PRECEDENCE;
+            }
+
+            @Override
+            public Response filter(FilterableRequestSpecification request, FilterableResponseSpecification response,
+                                   FilterContext context) {
+                attempts.incrementAndGet();
+                return context.next(request, response);
+            }
+        };
+        long before = server.getRequestCount();
+        long throttled = server.getThrottledCount();
+        server.setRateLimit(5);
+        try {
+            for (int i = 1; i <= 10; i++) {
+                given().filter(recorder).filter(new RateLimitFilter(limiter, 3)).filter(wire)
+                    .when().get(server.getBaseUrl() + "/posts/" + i)
+                    .then().statusCode(200);
+            }
+        } finally {
+            server.setRateLimit(0);
+        }
+        recorder.close();
+
+        assertTrue(server.getThrottledCount() > throttled, "the initial rate is above the quota");
+        assertEquals(attempts.get(), server.getRequestCount() - before);
+        assertEquals(recorder.getRecorded(), 10);
+        CassetteFilter replay = new CassetteFilter(file, CassetteFilter.Mode.REPLAY,
+            CassetteFilter.parseRules("method,host,path"));
+        for (int i = 1; i <= 10; i++) {
+            given().filter(replay).when().get(server.getBaseUrl() + "/posts/" + i).then().statusCode(200);
+        }
+    }
+}
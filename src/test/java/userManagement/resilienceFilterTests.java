@@ -0,0 +1,240 @@
+package userManagement;
+
+import com.aventstack.extentreports.Status;
+import core.BaseTest;
+import core.ResilienceFilter;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import stub.StubServer;
+import utils.AsyncApiClient;
+import utils.ExtentReport;
+import utils.ReportContext;
+import utils.RetryBudget;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.testng.Assert.*;
+
+public class resilienceFilterTests extends BaseTest {
+    private StubServer server;
+    private AsyncApiClient client;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = new StubServer(0, 4).start();
+        client = new AsyncApiClient(1, 100, Duration.ofSeconds(5), Duration.ofSeconds(30));
+        // first requests of a JVM are slow enough to be hedged
+        given().when().get(server.getBaseUrl() + "/posts/1");
+        AsyncApiClient.await(client.get(server.getBaseUrl() + "/posts/1"));
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void resetServer() {
+        server.slowDownNext(0, 0);
+        server.failNext(0, 0);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        client.shutdown();
+        server.stop();
+    }
+
+    private ResilienceFilter.Builder filter() {
+        return ResilienceFilter.builder()
+            .hedgeAfter(95, 20, 5)
+            .hedgeDelay(Duration.ofSeconds(1), Duration.ofMillis(100))
+            .retries(2, Duration.ofMillis(10), Duration.ofMillis(50))
+            .client(client);
+    }
+
+    @Test
+    public void testSlowResponseIsHedged() {
+        ExtentReport.createTest("testSlowResponseIsHedged",
+            "A request slower than the endpoint's recent p95 is sent again and the faster answer wins");
+        ResilienceFilter filter = filter().build();
+        String url = server.getBaseUrl() + "/posts/1";
+        for (int i = 0; i < 5; i++) {
+            given().filter(filter).when().get(url).then().statusCode(200);
+        }
+        long before = server.getRequestCount();
+
+        server.slowDownNext(1, 3000);
+        long start = System.nanoTime();
+        Response response = given().filter(filter).when().get(url);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        ExtentReport.log(Status.INFO, "Answered in " + elapsedMillis + " ms, " + filter);
+
+        response.then().statusCode(200).body("id", equalTo(1));
+        assertTrue(elapsedMillis < 2000, "Took " + elapsedMillis + " ms");
+        long hedgeMillis = Long.parseLong(response.getHeader(ResilienceFilter.HEDGE_TIME_HEADER));
+        assertTrue(hedgeMillis > 0 && hedgeMillis <= elapsedMillis, hedgeMillis + " of " + elapsedMillis + " ms");
+        assertEquals(server.getRequestCount() - before, 2, "original and hedge");
+        assertEquals(filter.getHedged(), 1);
+        assertEquals(filter.getHedgesWon(), 1);
+        assertEquals(filter.getRequests(), 6);
+    }
+
+    @Test
+    public void testFastResponsesAreNotHedged() {
+        ExtentReport.createTest("testFastResponsesAreNotHedged",
+            "Responses within the hedge delay send no second request");
+        ResilienceFilter filter = filter().hedgeDelay(Duration.ofSeconds(1), Duration.ofMillis(500)).build();
+        List<Integer> seen = new CopyOnWriteArrayList<>();
+        List<Boolean> withContext = new CopyOnWriteArrayList<>();
+        OrderedFilter contexts = new OrderedFilter() {
+            @Override
+            public int getOrder() {
+                return LOWEST_PRECEDENCE;
+            }
+
+            @Override
+            public Response filter(FilterableRequestSpecification request, FilterableResponseSpecification response,
+                                   FilterContext context) {
+                withContext.add(ReportContext.current() != null);
+                return context.next(request, response);
+            }
+        };
+        long before = server.getRequestCount();
+        for (int i = 1; i <= 20; i++) {
+            given().filter(filter).filter(contexts).filter(statuses(seen))
+                .when().get(server.getBaseUrl() + "/users/" + (i % 10 + 1))
+                .then().statusCode(200);
+        }
+
+        assertNotNull(ReportContext.current(), "the test thread has a report context");
+        assertFalse(withContext.contains(true), "attempt threads must not inherit the test's report context");
+        assertEquals(seen.size(), 20);
+        assertEquals(server.getRequestCount() - before, 20);
+        assertEquals(filter.getHedged(), 0);
+        assertEquals(filter.getLatency().getCount(), 20);
+    }
+
+    @Test
+    public void testGatewayErrorsAreRetried() {
+        ExtentReport.createTest("testGatewayErrorsAreRetried",
+            "Two 503 answers are retried after a jittered backoff and the third attempt succeeds");
+        ResilienceFilter filter = filter().build();
+        List<Integer> seen = new CopyOnWriteArrayList<>();
+        server.failNext(2, 503);
+
+        given().filter(filter).filter(statuses(seen)).when().get(server.getBaseUrl() + "/posts/2")
+            .then().statusCode(200).body("id", equalTo(2));
+
+        ExtentReport.log(Status.INFO, filter.toString());
+        assertEquals(filter.getRetried(), 2);
+        assertEquals(filter.getBudget().getWithdrawn(), 2);
+        assertEquals(seen, List.of(503, 503, 200), "every attempt passes the filters after the resilience filter");
+    }
+
+    @Test
+    public void testRetryableHedgeAnswerDoesNotWin() {
+        ExtentReport.createTest("testRetryableHedgeAnswerDoesNotWin",
+            "A hedge answered with 503 loses to the slower original instead of starting a retry");
+        ResilienceFilter filter = filter().build();
+        String url = server.getBaseUrl() + "/posts/4";
+        for (int i = 0; i < 5; i++) {
+            given().filter(filter).when().get(url).then().statusCode(200);
+        }
+        long before = server.getRequestCount();
+
+        server.slowDownNext(1, 1500);
+        // the hedge, not the slowed original, gets the 503
+        CompletableFuture<Void> failHedge = CompletableFuture.runAsync(() -> {
+            while (server.getRequestCount() == before) {
+                Thread.onSpinWait();
+            }
+            server.failNext(1, 503);
+        });
+        given().filter(filter).when().get(url).then().statusCode(200).body("id", equalTo(4));
+        failHedge.join();
+
+        ExtentReport.log(Status.INFO, filter.toString());
+        assertEquals(server.getRequestCount() - before, 2, "original and hedge, no retry");
+        assertEquals(filter.getHedged(), 1);
+        assertEquals(filter.getHedgesWon(), 0);
+        assertEquals(filter.getRetried(), 0);
+    }
+
+    // Records the status of every attempt that reaches the end of the chain
+    private static OrderedFilter statuses(List<Integer> seen) {
+        return new OrderedFilter() {
+            @Override
+            public int getOrder() {
+                return LOWEST_PRECEDENCE;
+            }
+
+            @Override
+            public Response filter(FilterableRequestSpecification request, FilterableResponseSpecification response,
+                                   FilterContext context) {
+                Response actual = context.next(request, response);
+                seen.add(actual.getStatusCode());
+                return actual;
+            }
+        };
+    }
+
+    @Test
+    public void testRetriesStopWhenTheBudgetIsSpent() {
+        ExtentReport.createTest("testRetriesStopWhenTheBudgetIsSpent",
+            "With one token left, a failing endpoint gets one retry and the error is returned");
+        ResilienceFilter filter = filter().budget(new RetryBudget(0, 1)).build();
+        server.failNext(10, 502);
+
+        given().filter(filter).when().get(server.getBaseUrl() + "/posts/3").then().statusCode(502);
+        given().filter(filter).when().get(server.getBaseUrl() + "/posts/3").then().statusCode(502);
+
+        assertEquals(filter.getRetried(), 1);
+        assertEquals(filter.getBudget().getRejected(), 2);
+    }
+
+    @Test
+    public void testNonIdempotentRequestsPassThrough() {
+        ExtentReport.createTest("testNonIdempotentRequestsPassThrough",
+            "A POST is neither retried nor hedged");
+        ResilienceFilter filter = filter().build();
+        server.failNext(1, 503);
+
+        given().filter(filter).contentType("application/json").body("{\"title\":\"foo\"}")
+            .when().post(server.getBaseUrl() + "/posts")
+            .then().statusCode(503);
+
+        assertEquals(filter.getRequests(), 0);
+        assertEquals(filter.getRetried(), 0);
+    }
+
+    @Test
+    public void testBudgetRefillsAsAShareOfRequests() {
+        ExtentReport.createTest("testBudgetRefillsAsAShareOfRequests",
+            "Each request deposits a tenth of a token, up to the maximum");
+        RetryBudget budget = new RetryBudget(0.1, 2);
+
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+        for (int i = 0; i < 10; i++) {
+            budget.onRequest();
+        }
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+        for (int i = 0; i < 100; i++) {
+            budget.onRequest();
+        }
+        assertEquals(budget.getTokens(), 2.0);
+        assertEquals(budget.getRejected(), 2);
+    }
+}
@@ -0,0 +1,131 @@
+package userManagement;
+
+import com.aventstack.extentreports.Status;
+import core.BaseTest;
+import io.restassured.module.jsv.JsonSchemaValidator;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import utils.ExtentReport;
+import utils.SchemaRegistry;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.testng.Assert.*;
+
+public class schemaRegistryTests extends BaseTest {
+    private final File schema = new File("Resources/ExpectedSquema.json");
+    private String usersPage;
+
+    @BeforeClass
+    public void loadFixture() throws IOException {
+        usersPage = new String(Files.readAllBytes(Paths.get("Resources/TestData/usersPage.json")), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testSchemaIsCompiledOnce() {
+        ExtentReport.createTest("testSchemaIsCompiledOnce", "Repeated lookups return the same compiled schema");
+
+        SchemaRegistry.Entry first = SchemaRegistry.fromFile(schema);
+        SchemaRegistry.Entry second = SchemaRegistry.fromFile(new File("./Resources/ExpectedSquema.json"));
+
+        assertSame(second, first);
+        assertSame(SchemaRegistry.fromClasspath("schemas/post-schema.json"),
+            SchemaRegistry.fromClasspath("schemas/post-schema.json"));
+    }
+
+    @Test
+    public void testConcurrentValidationSharesOneSchema() {
+        ExtentReport.createTest("testConcurrentValidationSharesOneSchema",
+            "16 threads validate 2000 bodies against one compiled schema");
+        SchemaRegistry.Entry entry = SchemaRegistry.fromFile(schema);
+        long before = entry.getValidations();
+        ExecutorService callers = Executors.newFixedThreadPool(16);
+        try {
+            List<CompletableFuture<Boolean>> calls = IntStream.range(0, 2000)
+                .mapToObj(i -> CompletableFuture.supplyAsync(
+                    () -> SchemaRegistry.matchesSchema(schema).matches(usersPage), callers))
+                .collect(Collectors.toList());
+            calls.forEach(call -> assertTrue(call.join()));
+        } finally {
+            callers.shutdownNow();
+        }
+        ExtentReport.log(Status.INFO, entry.toString());
+
+        assertSame(SchemaRegistry.fromFile(schema), entry);
+        assertEquals(entry.getValidations() - before, 2000);
+    }
+
+    @Test
+    public void testMismatchListsEveryViolation() {
+        ExtentReport.createTest("testMismatchListsEveryViolation", "The failure names each violated constraint");
+        Matcher<String> matcher = SchemaRegistry.matchesSchema(schema);
+        String invalid = usersPage.replaceFirst("\"page\": 2", "\"page\": \"2\"").replaceFirst("\"id\": 7", "\"id\": \"7\"");
+
+        SchemaRegistry.Entry entry = SchemaRegistry.fromFile(schema);
+        long validations = entry.getValidations();
+        long failures = entry.getFailures();
+        assertFalse(matcher.matches(invalid));
+        StringDescription mismatch = new StringDescription();
+        matcher.describeMismatch(invalid, mismatch);
+        assertEquals(entry.getValidations() - validations, 1, "describing the mismatch validated again");
+        assertEquals(entry.getFailures() - failures, 1);
+
+        assertTrue(mismatch.toString().contains("/page"), mismatch.toString());
+        assertTrue(mismatch.toString().contains("/data/0/id"), mismatch.toString());
+        assertFalse(matcher.matches("not json"));
+    }
+
+    @Test
+    public void testMissingSchemaFailsFast() {
+        ExtentReport.createTest("testMissingSchemaFailsFast", "Unknown schema locations fail when the matcher is created");
+
+        expectThrows(IllegalArgumentException.class, () -> SchemaRegistry.matchesSchemaInClasspath("schemas/missing.json"));
+        expectThrows(IllegalArgumentException.class, () -> SchemaRegistry.matchesSchema(new File("Resources/missing.json")));
+    }
+
+    @Test
+    public void testLoadAndValidationAreTimedSeparately() {
+        ExtentReport.createTest("testLoadAndValidationAreTimedSeparately",
+            "Compiling once is cheaper than RestAssured's compile-per-match for repeated validations");
+        SchemaRegistry.Entry entry = SchemaRegistry.fromFile(schema);
+        Matcher<String> matcher = SchemaRegistry.matchesSchema(schema);
+        JsonSchemaValidator restAssured = JsonSchemaValidator.matchesJsonSchema(schema);
+        for (int i = 0; i < 20; i++) {
+            matcher.matches(usersPage);
+            restAssured.matches(usersPage);
+        }
+
+        long validations = entry.getValidations();
+        double validationMillis = entry.getValidationMillis();
+        long start = System.nanoTime();
+        for (int i = 0; i < 200; i++) {
+            assertTrue(matcher.matches(usersPage));
+        }
+        double registryMillis = (System.nanoTime() - start) / 1_000_000.0;
+        start = System.nanoTime();
+        for (int i = 0; i < 200; i++) {
+            assertTrue(restAssured.matches(usersPage));
+        }
+        double restAssuredMillis = (System.nanoTime() - start) / 1_000_000.0;
+        ExtentReport.log(Status.INFO, String.format("200 validations: registry %.1f ms, RestAssured %.1f ms; %s",
+            registryMillis, restAssuredMillis, entry));
+
+        assertTrue(entry.getLoadMillis() > 0);
+        assertEquals(entry.getValidations() - validations, 200);
+        assertTrue(entry.getValidationMillis() - validationMillis <= registryMillis);
+        assertTrue(registryMillis < restAssuredMillis, registryMillis + " ms vs " + restAssuredMillis + " ms");
+        assertTrue(SchemaRegistry.summary().contains("ExpectedSquema.json"), SchemaRegistry.summary());
+    }
+}
@@ -0,0 +1,137 @@
+package userManagement;
+
+import com.aventstack.extentreports.Status;
+import core.BaseTest;
+import core.ShardPlan;
+import core.ShardRunner;
+import org.testng.annotations.Test;
+import utils.ExtentReport;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.testng.Assert.*;
+
+public class shardingTests extends BaseTest {
+    private static final List<Class<?>> OFFLINE_CLASSES = Arrays.asList(
+        schemaRegistryTests.class, latencyRecorderTests.class, jsonReaderTests.class, streamingDataProviderTests.class);
+
+    private static Map<String, Long> randomDurations(int units, long seed) {
+        Random random = new Random(seed);
+        Map<String, Long> durations = new HashMap<>();
+        for (int i = 0; i < units; i++) {
+            // a few slow classes and many fast ones, like a real suite
+            durations.put("unit" + i, random.nextInt(10) == 0 ? 5000L + random.nextInt(20000) : 50L + random.nextInt(2000));
+        }
+        return durations;
+    }
+
+    @Test
+    public void testLongestFirstAssignmentBalancesShards() {
+        ExtentReport.createTest("testLongestFirstAssignmentBalancesShards",
+            "Every unit lands in one shard and the slowest shard stays within one unit of the mean");
+        Map<String, Long> durations = randomDurations(200, 42);
+        long total = durations.values().stream().mapToLong(Long::longValue).sum();
+        long longest = Collections.max(durations.values());
+
+        ShardPlan plan = ShardPlan.of(durations, 4, 0);
+
+        Set<String> assigned = new HashSet<>();
+        IntStream.range(0, 4).forEach(shard -> plan.getUnits(shard).forEach(unit -> assertTrue(assigned.add(unit), unit)));
+        assertEquals(assigned, durations.keySet());
+        assertTrue(plan.getMakespan() <= total / 4 + longest, plan.toString());
+
+        // the naive split by name, as hand-written suite XMLs do, for comparison
+        List<String> names = durations.keySet().stream().sorted().collect(Collectors.toList());
+        long[] naive = new long[4];
+        for (int i = 0; i < names.size(); i++) {
+            naive[i * 4 / names.size()] += durations.get(names.get(i));
+        }
+        long naiveMakespan = Arrays.stream(naive).max().getAsLong();
+        assertTrue(plan.getMakespan() <= naiveMakespan);
+        ExtentReport.log(Status.INFO, plan + "; naive split makespan " + naiveMakespan / 1000.0 + " s");
+    }
+
+    @Test
+    public void testPlanIsDeterministic() {
+        ExtentReport.createTest("testPlanIsDeterministic", "Forks compute the same plan regardless of map order");
+        Map<String, Long> durations = randomDurations(50, 7);
+        durations.put("tie-a", 1000L);
+        durations.put("tie-b", 1000L);
+        Map<String, Long> reordered = new LinkedHashMap<>();
+        new TreeMap<>(durations).descendingMap().forEach(reordered::put);
+
+        ShardPlan first = ShardPlan.of(durations, 3, 5);
+        ShardPlan second = ShardPlan.of(reordered, 3, 5);
+
+        for (int shard = 0; shard < 3; shard++) {
+            assertEquals(second.getUnits(shard), first.getUnits(shard));
+        }
+        assertEquals(ShardPlan.of(Collections.singletonMap("only", 10L), 3, 5).getUnits(2), List.of("only"));
+        expectThrows(IllegalArgumentException.class, () -> ShardPlan.of(durations, 0, 0));
+    }
+
+    @Test
+    public void testDurationsFileRoundTrip() throws IOException {
+        ExtentReport.createTest("testDurationsFileRoundTrip", "Durations are written sorted and read back");
+        Path file = Files.createTempDirectory("durations").resolve("nested").resolve("test-durations.json");
+        Map<String, Long> durations = Map.of("b.Class#two", 20L, "a.Class#one", 10L);
+
+        assertTrue(ShardPlan.readDurations(file).isEmpty());
+        ShardPlan.writeDurations(file, durations);
+
+        assertEquals(ShardPlan.readDurations(file), durations);
+        String json = Files.readString(file);
+        assertTrue(json.indexOf("a.Class#one") < json.indexOf("b.Class#two"), json);
+    }
+
+    @Test
+    public void testForkedShardsRunEveryMethodOnce() throws Exception {
+        ExtentReport.createTest("testForkedShardsRunEveryMethodOnce",
+            "Two forked JVMs split four classes, run each method once and merge into one report");
+        Path directory = Files.createTempDirectory("shards");
+        Path suite = directory.resolve("suite.xml");
+        Files.writeString(suite, "<!DOCTYPE suite SYSTEM \"http://testng.org/testng-1.0.dtd\">\n"
+            + "<suite name=\"Sharded\"><test name=\"Offline\"><classes>\n"
+            + OFFLINE_CLASSES.stream().map(c -> "<class name=\"" + c.getName() + "\"/>").collect(Collectors.joining("\n"))
+            + "\n</classes></test></suite>\n");
+        Path durations = directory.resolve("test-durations.json");
+
+        ShardRunner.Result result = new ShardRunner(List.of(suite.toString()), 2, directory.resolve("out"), durations,
+            List.of()).run();
+        ExtentReport.log(Status.INFO, result.toString().replace("\n", "<br>"));
+
+        Set<String> expected = OFFLINE_CLASSES.stream()
+            .flatMap(c -> Arrays.stream(c.getDeclaredMethods()))
+            .filter(m -> m.isAnnotationPresent(Test.class))
+            .map(m -> m.getDeclaringClass().getName() + "#" + m.getName())
+            .collect(Collectors.toSet());
+        Set<String> first = result.getShards().get(0).getMethods();
+        Set<String> second = result.getShards().get(1).getMethods();
+        assertFalse(first.isEmpty(), result.toString());
+        assertFalse(second.isEmpty(), result.toString());
+        assertTrue(Collections.disjoint(first, second), result.toString());
+        Set<String> all = new HashSet<>(first);
+        all.addAll(second);
+        assertEquals(all, expected);
+        assertTrue(result.isSuccessful(), result.toString());
+        assertTrue(Files.size(result.getReport()) > 0);
+        assertEquals(result.getDurations(), directory.resolve("out").resolve("test-durations.json"));
+        Map<String, Long> recorded = ShardPlan.readDurations(result.getDurations());
+        assertTrue(recorded.keySet().containsAll(expected), recorded.toString());
+        assertFalse(Files.exists(durations), "the planning input is only replaced when asked to");
+    }
+}
@@ -0,0 +1,155 @@
+package userManagement;
+
+import core.BaseTest;
+import org.testng.ITestContext;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import utils.Config;
+import utils.StreamingDataProvider;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+public class streamingDataProviderTests extends BaseTest {
+    private static final int ROWS = 1_000_000;
+    private static final int FILE_ROWS = 5;
+    private static final Set<String> threads = ConcurrentHashMap.newKeySet();
+    private static final AtomicInteger running = new AtomicInteger();
+    private static final AtomicInteger maxRunning = new AtomicInteger();
+    private static CountDownLatch together;
+    private int poolSize;
+    private Path jsonl;
+    private Path csv;
+
+    @BeforeClass
+    public void writeDataFiles(ITestContext context) throws IOException {
+        poolSize = context.getSuite().getXmlSuite().getDataProviderThreadCount();
+        together = new CountDownLatch(Math.min(poolSize, FILE_ROWS));
+        jsonl = Files.createTempFile("rows", ".jsonl");
+        try (BufferedWriter writer = Files.newBufferedWriter(jsonl, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < ROWS; i++) {
+                writer.write("{\"id\":" + i + ",\"name\":\"user" + i + "\",\"active\":" + (i % 2 == 0) + "}\n");
+            }
+        }
+        csv = Files.createTempFile("rows", ".csv");
+        Files.write(csv, ("id,title,score\n"
+                + "1,plain,1.5\n"
+                + "2,\"with, comma\",2.5\n"
+                + "3,\"with \"\"quotes\"\"\",3.5\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteDataFiles() throws IOException {
+        Files.deleteIfExists(jsonl);
+        Files.deleteIfExists(csv);
+    }
+
+    @Test
+    public void testMillionRowFileIsStreamedLazily() throws IOException {
+        Path copy = Files.createTempFile("rows", ".jsonl");
+        try {
+            Files.copy(jsonl, copy, StandardCopyOption.REPLACE_EXISTING);
+            Iterator<Object[]> rows = StreamingDataProvider.jsonl(copy, "id", "name", "active");
+            assertEquals(rows.next()[0], 0);
+            // only read up to the first row so far, so a row appended now is still delivered
+            Files.write(copy, ("{\"id\":" + ROWS + ",\"name\":\"late\",\"active\":true}\n")
+                    .getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            long count = 1;
+            long idSum = 0;
+            Object[] last = null;
+            while (rows.hasNext()) {
+                last = rows.next();
+                idSum += (Integer) last[0];
+                count++;
+            }
+            assertEquals(count, ROWS + 1);
+            assertEquals(idSum, (long) ROWS * (ROWS + 1) / 2);
+            assertEquals(last[1], "late");
+            assertFalse(rows.hasNext());
+        } finally {
+            Files.deleteIfExists(copy);
+        }
+    }
+
+    @Test
+    public void testCsvCellsAreTypedAndUnquoted() {
+        Iterator<Object[]> rows = StreamingDataProvider.csv(csv, Integer.class, String.class, Double.class);
+        assertEquals(rows.next(), new Object[] {1, "plain", 1.5});
+        assertEquals(rows.next(), new Object[] {2, "with, comma", 2.5});
+        assertEquals(rows.next(), new Object[] {3, "with \"quotes\"", 3.5});
+        assertFalse(rows.hasNext());
+    }
+
+    @Test
+    public void testShardsPartitionRowsByIndex() {
+        int shards = 3;
+        BitSet seen = new BitSet(ROWS);
+        try {
+            for (int shard = 0; shard < shards; shard++) {
+                System.setProperty("data.shard.index", String.valueOf(shard));
+                System.setProperty("data.shard.count", String.valueOf(shards));
+                Config.reload();
+                Iterator<Object[]> rows = StreamingDataProvider.jsonl(jsonl, "id");
+                while (rows.hasNext()) {
+                    int id = (Integer) rows.next()[0];
+                    assertEquals(id % shards, shard);
+                    assertFalse(seen.get(id), "row " + id + " delivered to two shards");
+                    seen.set(id);
+                }
+            }
+        } finally {
+            System.clearProperty("data.shard.index");
+            System.clearProperty("data.shard.count");
+            Config.reload();
+        }
+        assertEquals(seen.cardinality(), ROWS);
+    }
+
+    @DataProvider(name = "fileRows", parallel = true)
+    public Iterator<Object[]> getFileRows() {
+        return StreamingDataProvider.csv("Resources/TestData/posts.csv", Integer.class, Integer.class, String.class);
+    }
+
+    @Test(dataProvider = "fileRows")
+    public void testParallelFileBackedProvider(int postId, int userId, String title) throws InterruptedException {
+        threads.add(Thread.currentThread().getName());
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+            // hold each row until as many rows run at once as the pool allows
+            together.countDown();
+            together.await(10, TimeUnit.SECONDS);
+            assertTrue(postId >= 1 && postId <= FILE_ROWS);
+            assertEquals(userId, 1);
+            assertFalse(title.isEmpty());
+        } finally {
+            running.decrementAndGet();
+        }
+    }
+
+    @Test(dependsOnMethods = "testParallelFileBackedProvider")
+    public void testDataProviderPoolIsConfigured() {
+        int configured = Config.get().getInt("dataprovider.thread.count", 0);
+        if (configured > 0) {
+            assertEquals(poolSize, configured);
+        }
+        assertEquals(maxRunning.get(), Math.min(poolSize, FILE_ROWS),
+                "rows running at once on " + threads);
+        assertFalse(threads.contains(Thread.currentThread().getName()), "rows ran on the test thread");
+    }
+}
@@ -0,0 +1,134 @@
+package userManagement;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import core.BaseTest;
+import io.restassured.response.Response;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import stub.StubServer;
+import utils.ExtentReport;
+import utils.StreamingJsonAssert;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.testng.Assert.*;
+
+public class streamingJsonAssertTests extends BaseTest {
+    private StubServer server;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = new StubServer(0, 4).start();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    public void testChecksRunInOnePass() {
+        ExtentReport.createTest("testChecksRunInOnePass", "Size, items, field and element checks on /comments");
+        Response response = given().get(server.getBaseUrl() + "/comments");
+
+        int size = StreamingJsonAssert.assertThatJson(response)
+            .hasSize(500)
+            .hasItems("email", "Eliseo@gardner.biz", "user500@example.biz")
+            .everyItem("postId", allOf(greaterThan(0), lessThanOrEqualTo(100)))
+            .everyItem("has a body", comment -> comment.hasNonNull("body"))
+            .verify();
+
+        assertEquals(size, 500);
+    }
+
+    @Test
+    public void testFailuresAreReportedTogether() {
+        ExtentReport.createTest("testFailuresAreReportedTogether", "Every failed check is listed in one error");
+        Response response = given().get(server.getBaseUrl() + "/comments");
+
+        AssertionError error = expectThrows(AssertionError.class, () -> StreamingJsonAssert.assertThatJson(response)
+            .hasSize(499)
+            .hasItem("email", "nobody@example.biz")
+            .everyItem("id", lessThan(3))
+            .verify());
+
+        assertTrue(error.getMessage().contains("expected size <499> but was 500"), error.getMessage());
+        assertTrue(error.getMessage().contains("no item with email [nobody@example.biz]"), error.getMessage());
+        assertTrue(error.getMessage().contains("498 of 500 did not, e.g. [2]=3, [3]=4"), error.getMessage());
+    }
+
+    @Test
+    public void testNestedArrayAndFieldLookup() throws IOException {
+        ExtentReport.createTest("testNestedArrayAndFieldLookup", "ReqRes users under \"data\", numbers compared by value");
+        byte[] page = Files.readAllBytes(Paths.get("Resources/TestData/usersPage.json"));
+
+        StreamingJsonAssert.assertThatJson(page).at("data").hasSize(6).hasItem("id", 12L).verify();
+        JsonNode byron = StreamingJsonAssert.assertThatJson(page).at("data").findFirst("id", 10);
+
+        assertEquals(byron.get("first_name").asText(), "Byron");
+        assertNull(StreamingJsonAssert.assertThatJson(page).at("data").findFirst("id", 99));
+        expectThrows(AssertionError.class, () -> StreamingJsonAssert.assertThatJson(page).at("support").hasSize(0).verify());
+        expectThrows(AssertionError.class, () -> StreamingJsonAssert.assertThatJson(page).at("meta").hasSize(0).verify());
+    }
+
+    @Test
+    public void testItemChecksStopAtTheMatch() {
+        ExtentReport.createTest("testItemChecksStopAtTheMatch",
+            "hasItem stops reading once found; the malformed tail is never parsed");
+        byte[] truncated = "[{\"id\":1},{\"id\":2},{\"id\":".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(StreamingJsonAssert.assertThatJson(truncated).hasItem("id", 2).verify(), 2);
+        expectThrows(UncheckedIOException.class, () -> StreamingJsonAssert.assertThatJson(truncated).hasSize(3).verify());
+    }
+
+    @Test
+    public void testStreamsLargeFiles() throws IOException {
+        ExtentReport.createTest("testStreamsLargeFiles", "An input stream is read once and closed");
+        try (InputStream rows = Files.newInputStream(Paths.get("Resources/TestData/usersPage.json"))) {
+            assertEquals(StreamingJsonAssert.assertThatJson(rows).at("data")
+                .everyItem("email", endsWith("@reqres.in")).verify(), 6);
+        }
+    }
+
+    @Test
+    public void testVerifyCanRunAgain() {
+        ExtentReport.createTest("testVerifyCanRunAgain",
+            "A second verify() checks the body again instead of reusing the first pass's state");
+        byte[] items = "[{\"id\":1,\"name\":\"a\"},{\"id\":2,\"name\":\"b\"}]".getBytes(StandardCharsets.UTF_8);
+        StreamingJsonAssert missing = StreamingJsonAssert.assertThatJson(items).hasItems("id", 1, 3);
+        StreamingJsonAssert names = StreamingJsonAssert.assertThatJson(items).everyItem("name", equalTo("a"));
+
+        for (int i = 0; i < 2; i++) {
+            AssertionError error = expectThrows(AssertionError.class, missing::verify);
+            assertTrue(error.getMessage().contains("no item with id [3]"), error.getMessage());
+            error = expectThrows(AssertionError.class, names::verify);
+            assertTrue(error.getMessage().contains("1 of 2 did not, e.g. [1]=b"), error.getMessage());
+        }
+        StreamingJsonAssert found = StreamingJsonAssert.assertThatJson(items).hasItems("id", 1, 2);
+        assertEquals(found.verify(), 2);
+        assertEquals(found.verify(), 2);
+    }
+
+    @Test
+    public void testNumbersMatchWhateverTheirBoxedType() {
+        ExtentReport.createTest("testNumbersMatchWhateverTheirBoxedType",
+            "Integer, Long, BigInteger and decimal expectations match parsed numbers by value");
+        byte[] items = "[{\"id\":5},{\"id\":3000000000},{\"id\":2.50},{\"id\":123456789012345678901234}]"
+            .getBytes(StandardCharsets.UTF_8);
+
+        StreamingJsonAssert.assertThatJson(items)
+            .hasItems("id", 5, 5L, 5.0, 3000000000L, 2.5, new BigInteger("123456789012345678901234"))
+            .verify();
+        assertNotNull(StreamingJsonAssert.assertThatJson(items).findFirst("id", 5L));
+        expectThrows(AssertionError.class, () -> StreamingJsonAssert.assertThatJson(items).hasItem("id", 6L).verify());
+    }
+}
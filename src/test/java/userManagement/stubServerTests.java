@@ -0,0 +1,108 @@
+package userManagement;
+
+import io.restassured.response.Response;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import stub.StubServer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.testng.Assert.*;
+
+public class stubServerTests {
+    private StubServer server;
+    private String baseUrl;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = new StubServer(0, 4).start();
+        baseUrl = server.getBaseUrl();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    public void testJsonPlaceholderRoutes() {
+        given().get(baseUrl + "/posts").then().statusCode(200).body("size()", equalTo(100)).header("Cache-Control", notNullValue());
+        given().get(baseUrl + "/posts/1").then().statusCode(200).body("userId", equalTo(1)).body("title", startsWith("sunt aut facere"));
+        given().get(baseUrl + "/posts/999999").then().statusCode(404);
+        given().get(baseUrl + "/comments").then().statusCode(200).body("size()", equalTo(500));
+        given().get(baseUrl + "/comments?postId=1").then().body("size()", equalTo(5)).body("email[0]", equalTo("Eliseo@gardner.biz"));
+        given().get(baseUrl + "/users/3").then().body("name", equalTo("Clementine Bauch")).body("address.geo.lat", isA(String.class));
+        given().get(baseUrl + "/todos/1").then().body("title", equalTo("delectus aut autem"));
+        given().queryParam("q", "dolor").get(baseUrl + "/posts").then().body("size()", greaterThan(0));
+    }
+
+    @Test
+    public void testReqresRoutes() {
+        given().queryParam("page", 2).get(baseUrl + "/api/users").then().statusCode(200)
+                .body("data", hasSize(6))
+                .body("data[2].email", equalTo("tobias.funke@reqres.in"));
+        given().contentType("application/json").body("{\"name\":\"morpheus\",\"job\":\"leader\"}")
+                .post(baseUrl + "/api/users").then().statusCode(201)
+                .body("name", equalTo("morpheus")).body("createdAt", notNullValue());
+        given().contentType("application/json").body("{\"job\":\"zion resident\"}")
+                .patch(baseUrl + "/api/users/2").then().statusCode(200).body("job", equalTo("zion resident"));
+        given().delete(baseUrl + "/api/users/2").then().statusCode(204);
+    }
+
+    @Test
+    public void testHttpBinRoutes() {
+        given().get(baseUrl + "/status/418").then().statusCode(418);
+        given().get(baseUrl + "/bearer").then().statusCode(401);
+        given().header("Authorization", "Bearer abc").get(baseUrl + "/bearer").then()
+                .statusCode(200).body("authenticated", equalTo(true)).body("token", equalTo("abc"));
+        given().auth().preemptive().basic("user", "passwd").get(baseUrl + "/basic-auth/user/passwd").then()
+                .statusCode(200).body("user", equalTo("user"));
+        given().auth().basic("postman", "password").get(baseUrl + "/basic-auth").then().statusCode(200);
+        given().queryParam("api_key", "k").get(baseUrl + "/get").then().body("args.api_key", equalTo("k"));
+        given().multiPart("name", "John Doe").multiPart("file", "a.txt", "hello".getBytes(), "text/plain")
+                .post(baseUrl + "/post").then().statusCode(200)
+                .body("form.name", equalTo("John Doe")).body("files.file", equalTo("hello"));
+        given().get(baseUrl + "/json").then().header("Content-Type", containsString("application/json"));
+        Response png = given().get(baseUrl + "/image/png");
+        assertEquals(png.getContentType(), "image/png");
+        assertEquals(png.asByteArray()[1], (byte) 'P');
+    }
+
+    @Test
+    public void testDelayedResponsesDoNotOccupyHandlerThreads() {
+        // 64 one-second delays on 4 handler threads finish in about one second, not sixteen
+        ExecutorService clients = Executors.newFixedThreadPool(64);
+        try {
+            long start = System.nanoTime();
+            List<CompletableFuture<Integer>> calls = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                calls.add(CompletableFuture.supplyAsync(() -> given().get(baseUrl + "/delay/1").statusCode(), clients));
+            }
+            calls.forEach(call -> assertEquals(call.join().intValue(), 200));
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(elapsed < 5000, "delayed responses were serialized: " + elapsed + " ms");
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConfiguredLatencyIsApplied() {
+        server.setLatency(200, 0);
+        try {
+            long time = given().get(baseUrl + "/posts/1").then().statusCode(200).extract().time();
+            assertTrue(time >= 200, "expected at least 200 ms, got " + time);
+        } finally {
+            server.setLatency(0, 0);
+        }
+    }
+}
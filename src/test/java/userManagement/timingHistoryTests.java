@@ -0,0 +1,156 @@
+package userManagement;
+
+import com.aventstack.extentreports.Status;
+import core.BaseTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import perf.RegressionDetector;
+import perf.TimingFilter;
+import perf.TimingHistory;
+import stub.StubServer;
+import utils.ExtentReport;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static io.restassured.RestAssured.given;
+import static org.testng.Assert.*;
+
+public class timingHistoryTests extends BaseTest {
+    private static final RegressionDetector DETECTOR = new RegressionDetector(0.01, 3.5, 1.2, 5, 5);
+
+    private StubServer server;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = new StubServer(0, 4).start();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop();
+    }
+
+    private static double[] normal(Random random, int count, double mean, double deviation) {
+        double[] samples = new double[count];
+        for (int i = 0; i < count; i++) {
+            samples[i] = mean + random.nextGaussian() * deviation;
+        }
+        return samples;
+    }
+
+    @Test
+    public void testMannWhitneySeparatesShiftFromNoise() {
+        ExtentReport.createTest("testMannWhitneySeparatesShiftFromNoise",
+            "A 30% slowdown is significant, a rerun of the same distribution is not");
+        Random random = new Random(1);
+        double[] baseline = normal(random, 50, 100, 10);
+
+        double shifted = RegressionDetector.mannWhitneyGreater(baseline, normal(random, 20, 130, 10));
+        double same = RegressionDetector.mannWhitneyGreater(baseline, normal(random, 20, 100, 10));
+        // every current sample above every baseline sample: U = n1 * n2
+        double separated = RegressionDetector.mannWhitneyGreater(new double[]{1, 2, 3, 4, 5}, new double[]{6, 7, 8});
+
+        assertTrue(shifted < 1e-6, "p=" + shifted);
+        assertTrue(same > 0.05, "p=" + same);
+        assertEquals(separated, 0.0184, 0.001);
+        assertNotNull(DETECTOR.compare("shifted", baseline, normal(random, 20, 130, 10)));
+        assertNull(DETECTOR.compare("same", baseline, normal(random, 20, 100, 10)));
+    }
+
+    @Test
+    public void testOutliersNeitherHideNorFakeRegressions() {
+        ExtentReport.createTest("testOutliersNeitherHideNorFakeRegressions",
+            "Median and MAD based checks ignore a few extreme baseline samples");
+        double[] baseline = {100, 102, 98, 101, 99, 103, 97, 100, 2000, 3000};
+
+        assertNull(DETECTOR.compare("normal", baseline, new double[]{104}));
+        assertNull(DETECTOR.compare("outlier in this run", baseline, new double[]{100, 101, 99, 2500}));
+        RegressionDetector.Regression slower = DETECTOR.compare("slower", baseline, new double[]{160});
+        assertNotNull(slower);
+        assertEquals(slower.getTest(), "robust-z");
+        assertEquals(slower.getBaselineMedian(), 100.5);
+        assertTrue(slower.toString().startsWith("slower: median 100.5 ms -> 160.0 ms (+59%, robust-z"), slower.toString());
+    }
+
+    @Test
+    public void testSmallOrUnderpoweredChangesAreIgnored() {
+        ExtentReport.createTest("testSmallOrUnderpoweredChangesAreIgnored",
+            "Shifts below the ratio or delta limits, and baselines that are too small, are not reported");
+        Random random = new Random(2);
+        double[] baseline = normal(random, 50, 100, 1);
+
+        assertNull(DETECTOR.compare("10% slower", baseline, normal(random, 20, 110, 1)));
+        assertNull(DETECTOR.compare("2 ms slower", normal(random, 50, 2, 0.1), normal(random, 20, 4, 0.1)));
+        assertNull(DETECTOR.compare("short baseline", new double[]{100, 100, 100}, new double[]{500}));
+        assertNull(DETECTOR.compare("faster", baseline, normal(random, 20, 50, 1)));
+    }
+
+    @Test
+    public void testHistoryComparesRunsOfTheSameProfile() throws IOException {
+        ExtentReport.createTest("testHistoryComparesRunsOfTheSameProfile",
+            "Runs are appended as JSON lines, compared per profile and pruned to the newest runs");
+        Path file = Files.createTempDirectory("timing").resolve("history.jsonl");
+        Random random = new Random(3);
+        for (int run = 0; run < 6; run++) {
+            TimingHistory history = new TimingHistory(file, "QA", 10, 8, 100, DETECTOR);
+            history.recordTest("userManagement.getUser#validateGetResponseBody", 100 + random.nextGaussian() * 3);
+            for (double latency : normal(random, 10, 40, 2)) {
+                history.recordRequest("GET reqres.in/api/users/{id}", latency);
+            }
+            assertTrue(history.finish().isEmpty());
+        }
+
+        TimingHistory slower = new TimingHistory(file, "QA", 10, 8, 100, DETECTOR);
+        slower.recordTest("userManagement.getUser#validateGetResponseBody", 180);
+        for (double latency : normal(random, 10, 70, 2)) {
+            slower.recordRequest("GET reqres.in/api/users/{id}", latency);
+        }
+        List<RegressionDetector.Regression> regressions = slower.finish();
+        TimingHistory otherProfile = new TimingHistory(file, "QA/stub", 10, 8, 100, DETECTOR);
+        otherProfile.recordTest("userManagement.getUser#validateGetResponseBody", 500);
+        TimingHistory pruned = new TimingHistory(file, "QA", 10, 8, 100, DETECTOR);
+        pruned.recordTest("userManagement.getUser#validateGetResponseBody", 100);
+
+        ExtentReport.log(Status.INFO, slower + ": " + regressions);
+        assertEquals(regressions.size(), 2, regressions.toString());
+        assertEquals(regressions.get(0).getKey(), "userManagement.getUser#validateGetResponseBody");
+        assertEquals(regressions.get(1).getTest(), "mann-whitney");
+        assertSame(slower.finish(), regressions);
+        assertTrue(otherProfile.finish().isEmpty());
+        pruned.finish();
+        assertEquals(Files.readAllLines(file).size(), 8);
+    }
+
+    @Test
+    public void testFilterTimesRequestsPerEndpoint() throws IOException {
+        ExtentReport.createTest("testFilterTimesRequestsPerEndpoint",
+            "Stub latency injected after five fast runs is flagged for the endpoint");
+        Path file = Files.createTempDirectory("timing").resolve("history.jsonl");
+        String baseUrl = server.getBaseUrl();
+        assertEquals(TimingHistory.requestKey("get", baseUrl + "/posts/12?x=1"), "GET 127.0.0.1/posts/{id}");
+        assertEquals(TimingHistory.requestKey("GET", "https://reqres.in/api/users"), "GET reqres.in/api/users");
+        for (int run = 0; run <= 5; run++) {
+            server.setLatency(run == 5 ? 60 : 0, 0);
+            TimingHistory history = new TimingHistory(file, "QA/stub", 10, 100, 100, DETECTOR);
+            TimingFilter filter = new TimingFilter(history);
+            for (int id = 1; id <= 5; id++) {
+                given().filter(filter).get(baseUrl + "/posts/" + id).then().statusCode(200);
+                given().filter(filter).get(baseUrl + "/users").then().statusCode(200);
+            }
+            List<RegressionDetector.Regression> regressions = history.finish();
+            if (run < 5) {
+                assertTrue(regressions.isEmpty(), regressions.toString());
+            } else {
+                ExtentReport.log(Status.INFO, regressions.toString());
+                assertEquals(regressions.size(), 2, regressions.toString());
+                assertTrue(regressions.stream().anyMatch(r -> r.getKey().equals("GET 127.0.0.1/posts/{id}")));
+            }
+        }
+        server.setLatency(0, 0);
+    }
+}
@@ -0,0 +1,254 @@
+package userManagement;
+
+import com.aventstack.extentreports.Status;
+import core.AuthTokenFilter;
+import core.BaseTest;
+import core.TokenProvider;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import stub.StubServer;
+import utils.ExtentReport;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.testng.Assert.*;
+
+public class tokenProviderTests extends BaseTest {
+    private static final TokenProvider.Credentials CARO = new TokenProvider.Credentials("caro", "Test@123");
+    private static final String BOOK = "{\"userId\":\"6fdcd89a-7efd-407e-b5ae-7d873cb9c16f\",\"collectionOfIsbns\":[{\"isbn\":\"9781593275846\"}]}";
+
+    private StubServer server;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = new StubServer(0, 4).start();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop();
+    }
+
+    // Clock the tests move by hand
+    private static final class ManualClock extends Clock {
+        private volatile Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+
+    private static Set<String> callConcurrently(TokenProvider provider, int threads) {
+        ExecutorService callers = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<CompletableFuture<String>> calls = IntStream.range(0, threads)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return provider.getToken(CARO);
+                }, callers))
+                .collect(Collectors.toList());
+            start.countDown();
+            return calls.stream().map(CompletableFuture::join).collect(Collectors.toSet());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConcurrentCallersShareOneRefresh() {
+        ExtentReport.createTest("testConcurrentCallersShareOneRefresh",
+            "32 threads find no valid token; exactly one token request is sent each time");
+        ManualClock clock = new ManualClock();
+        AtomicInteger issued = new AtomicInteger();
+        TokenProvider provider = new TokenProvider(credentials -> {
+            Thread.sleep(200);
+            return new TokenProvider.Token("token-" + issued.incrementAndGet(), clock.instant().plusSeconds(300));
+        }, Duration.ofSeconds(30), clock);
+
+        Set<String> first = callConcurrently(provider, 32);
+        clock.advance(Duration.ofSeconds(301));
+        Set<String> second = callConcurrently(provider, 32);
+
+        assertEquals(first, Set.of("token-1"));
+        assertEquals(second, Set.of("token-2"));
+        assertEquals(provider.getFetches(), 2);
+        ExtentReport.log(Status.INFO, provider.toString());
+    }
+
+    @Test
+    public void testValidTokenIsServedFromCache() {
+        ExtentReport.createTest("testValidTokenIsServedFromCache", "Tokens are cached per credential until they expire");
+        ManualClock clock = new ManualClock();
+        AtomicInteger issued = new AtomicInteger();
+        TokenProvider provider = new TokenProvider(credentials -> new TokenProvider.Token(
+            credentials.getUsername() + "-" + issued.incrementAndGet(), clock.instant().plusSeconds(300)),
+            Duration.ofSeconds(30), clock);
+        TokenProvider.Credentials other = new TokenProvider.Credentials("other", "secret");
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(provider.getToken(CARO), "caro-1");
+        }
+        assertEquals(provider.getToken(other), "other-2");
+        clock.advance(Duration.ofSeconds(269));
+        assertEquals(provider.getToken(CARO), "caro-1");
+
+        assertEquals(provider.getFetches(), 2);
+        assertEquals(provider.getHits(), 100);
+        assertEquals(provider.getTokens().keySet(), Set.of(CARO, other));
+    }
+
+    @Test
+    public void testTokenNearExpiryIsRefreshedInTheBackground() throws InterruptedException {
+        ExtentReport.createTest("testTokenNearExpiryIsRefreshedInTheBackground",
+            "Inside the refresh-ahead window callers keep the old token while one refresh runs");
+        ManualClock clock = new ManualClock();
+        AtomicInteger issued = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        TokenProvider provider = new TokenProvider(credentials -> {
+            if (issued.get() > 0) {
+                release.await();
+            }
+            return new TokenProvider.Token("token-" + issued.incrementAndGet(), clock.instant().plusSeconds(300));
+        }, Duration.ofSeconds(30), clock);
+        provider.getToken(CARO);
+        clock.advance(Duration.ofSeconds(280));
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals(provider.getToken(CARO), "token-1");
+        }
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!provider.getToken(CARO).equals("token-2") && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(provider.getToken(CARO), "token-2");
+        assertEquals(provider.getFetches(), 2);
+    }
+
+    @Test
+    public void testFailedRefreshIsReportedAndRetried() {
+        ExtentReport.createTest("testFailedRefreshIsReportedAndRetried",
+            "A failing token request fails the callers; the next call tries again");
+        AtomicInteger attempts = new AtomicInteger();
+        TokenProvider provider = new TokenProvider(credentials -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("login service unavailable");
+            }
+            return new TokenProvider.Token("token", Instant.MAX);
+        }, Duration.ofSeconds(30), Clock.systemUTC());
+
+        IllegalStateException failure = expectThrows(IllegalStateException.class, () -> provider.getToken(CARO));
+
+        assertEquals(failure.getMessage(), "login service unavailable");
+        assertEquals(provider.getToken(CARO), "token");
+        assertEquals(provider.getFailures(), 1);
+    }
+
+    @Test
+    public void testFilterAuthorizesAndReplacesRejectedTokens() {
+        ExtentReport.createTest("testFilterAuthorizesAndReplacesRejectedTokens",
+            "Parallel bookstore calls share one token; a revoked token is replaced once and the call retried");
+        String baseUrl = server.getBaseUrl();
+        AuthTokenFilter auth = new AuthTokenFilter(
+            TokenProvider.forLoginEndpoint(baseUrl + "/Account/v1/GenerateToken"), CARO);
+        ExecutorService callers = Executors.newFixedThreadPool(16);
+        Set<Integer> statuses = ConcurrentHashMap.newKeySet();
+        try {
+            IntStream.range(0, 64)
+                .mapToObj(i -> CompletableFuture.runAsync(() -> statuses.add(given().filter(auth)
+                    .contentType("application/json").body(BOOK).post(baseUrl + "/BookStore/v1/Books").getStatusCode()), callers))
+                .collect(Collectors.toList())
+                .forEach(CompletableFuture::join);
+        } finally {
+            callers.shutdownNow();
+        }
+        server.revokeTokens();
+
+        given().filter(auth).contentType("application/json").body(BOOK).post(baseUrl + "/BookStore/v1/Books")
+            .then().statusCode(201).body("books[0].isbn", is("9781593275846"));
+        given().contentType("application/json").body(BOOK).post(baseUrl + "/BookStore/v1/Books")
+            .then().statusCode(401);
+
+        assertEquals(statuses, Set.of(201));
+        assertEquals(server.getTokensIssued(), 2);
+        ExtentReport.log(Status.INFO, auth.getProvider().toString());
+    }
+
+    @Test
+    public void testRetryPassesThroughLaterFilters() {
+        ExtentReport.createTest("testRetryPassesThroughLaterFilters",
+            "Filters ordered after the auth filter, like the cassette and timing, see the 401 and the retry");
+        String baseUrl = server.getBaseUrl();
+        AuthTokenFilter auth = new AuthTokenFilter(
+            TokenProvider.forLoginEndpoint(baseUrl + "/Account/v1/GenerateToken"), CARO);
+        List<Integer> seen = new CopyOnWriteArrayList<>();
+        OrderedFilter last = new OrderedFilter() {
+            @Override
+            public int getOrder() {
+                return LOWEST_PRECEDENCE;
+            }
+
+            @Override
+            public Response filter(FilterableRequestSpecification request, FilterableResponseSpecification response,
+                                   FilterContext context) {
+                Response actual = context.next(request, response);
+                seen.add(actual.getStatusCode());
+                return actual;
+            }
+        };
+        auth.getProvider().getToken(CARO);
+        server.revokeTokens();
+
+        given().filter(auth).filter(last).contentType("application/json").body(BOOK)
+            .post(baseUrl + "/BookStore/v1/Books")
+            .then().statusCode(201);
+
+        assertEquals(seen, List.of(401, 201));
+    }
+}
@@ -10,7 +10,7 @@ import java.io.File;
 import java.util.concurrent.TimeUnit;
 
 import static io.restassured.RestAssured.given;
-import static io.restassured.module.jsv.JsonSchemaValidator.matchesJsonSchemaInClasspath;
+import static utils.SchemaRegistry.matchesSchemaInClasspath;
 import static org.hamcrest.Matchers.*;
 import static org.testng.Assert.*;
 
@@ -18,7 +18,7 @@ public class validationTests extends BaseTest {
 
     @Test
     public void testJSONSchemaValidation() {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("testJSONSchemaValidation", 
+        ExtentReport.createTest("testJSONSchemaValidation", 
             "Validate response against JSON schema");
         
         given()
@@ -26,12 +26,12 @@ public class validationTests extends BaseTest {
             .get(APIEndpoints.getJsonPlaceholderUrl("/posts/1"))
             .then()
             .statusCode(200)
-            .body(matchesJsonSchemaInClasspath("schemas/post-schema.json"));
+            .body(matchesSchemaInClasspath("schemas/post-schema.json"));
     }
 
     @Test
     public void testResponseTimeValidation() {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("testResponseTimeValidation", 
+        ExtentReport.createTest("testResponseTimeValidation", 
             "Validate API response time is within acceptable limits");
         
         Response response = given()
@@ -49,7 +49,7 @@ public class validationTests extends BaseTest {
 
     @Test
     public void testErrorHandling404() {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("testErrorHandling404", 
+        ExtentReport.createTest("testErrorHandling404", 
             "Validate proper 404 error handling");
         
         given()
@@ -61,7 +61,7 @@ public class validationTests extends BaseTest {
 
     @Test
     public void testErrorHandling400() {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("testErrorHandling400", 
+        ExtentReport.createTest("testErrorHandling400", 
             "Validate 400 bad request error handling");
         
         given()
@@ -75,7 +75,7 @@ public class validationTests extends BaseTest {
 
     @Test
     public void testDataTypeValidation() {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("testDataTypeValidation", 
+        ExtentReport.createTest("testDataTypeValidation", 
             "Validate response data types and structure");
         
         given()
@@ -92,7 +92,7 @@ public class validationTests extends BaseTest {
 
     @Test
     public void testHeaderValidation() {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("testHeaderValidation", 
+        ExtentReport.createTest("testHeaderValidation", 
             "Validate response headers");
         
         given()
@@ -106,7 +106,7 @@ public class validationTests extends BaseTest {
 
     @Test
     public void testArraySizeValidation() {
-        ExtentReport.extentlog = ExtentReport.extentreport.createTest("testArraySizeValidation", 
+        ExtentReport.createTest("testArraySizeValidation", 
             "Validate array response size and content");
         
         given()
@@ -0,0 +1,221 @@
+package userManagement;
+
+import core.VirtualThreadExecutor;
+import core.VirtualThreadExecutorFactory;
+import org.testng.IDynamicGraph;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+import org.testng.internal.DynamicGraph;
+import org.testng.thread.IThreadWorkerFactory;
+import org.testng.thread.IWorker;
+import utils.ReportContext;
+import utils.VirtualThreads;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.testng.Assert.*;
+
+/**
+ * Runs synthetic method graphs through {@link VirtualThreadExecutor}; skipped below Java 21.
+ */
+public class virtualThreadExecutorTests {
+
+    // Worker for one graph node that sleeps like a test waiting on a response
+    private static class SleepingWorker implements IWorker<String> {
+        private final String node;
+        private final long sleepMillis;
+        private final Runnable body;
+
+        SleepingWorker(String node, long sleepMillis, Runnable body) {
+            this.node = node;
+            this.sleepMillis = sleepMillis;
+            this.body = body;
+        }
+
+        @Override
+        public void run() {
+            body.run();
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public List<String> getTasks() {
+            return List.of(node);
+        }
+
+        @Override
+        public long getTimeOut() {
+            return 0;
+        }
+
+        @Override
+        public int getPriority() {
+            return 0;
+        }
+
+        @Override
+        public int compareTo(IWorker<String> other) {
+            return 0;
+        }
+    }
+
+    private static void requireVirtualThreads() {
+        if (!VirtualThreads.isAvailable()) {
+            throw new SkipException(VirtualThreads.unavailableReason());
+        }
+    }
+
+    private static DynamicGraph<String> graph(int nodes) {
+        DynamicGraph<String> graph = new DynamicGraph<>();
+        for (int i = 0; i < nodes; i++) {
+            graph.addNode("m" + i);
+        }
+        return graph;
+    }
+
+    private static IThreadWorkerFactory<String> workers(long sleepMillis, Consumer<String> body) {
+        return nodes -> nodes.stream()
+                .map(node -> (IWorker<String>) new SleepingWorker(node, sleepMillis, () -> body.accept(node)))
+                .collect(Collectors.toList());
+    }
+
+    private static boolean isVirtual(Thread thread) {
+        try {
+            return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
+    @Test
+    public void testThousandBlockedInvocationsRunTogether() throws InterruptedException {
+        requireVirtualThreads();
+        AtomicInteger virtual = new AtomicInteger();
+        DynamicGraph<String> graph = graph(1000);
+        VirtualThreadExecutor<String> executor = new VirtualThreadExecutor<>("thousand", graph,
+                workers(200, node -> {
+                    if (isVirtual(Thread.currentThread())) {
+                        virtual.incrementAndGet();
+                    }
+                }), null, new Semaphore(1000));
+
+        long start = System.nanoTime();
+        executor.run();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(graph.getNodeCountWithStatus(IDynamicGraph.Status.FINISHED), 1000);
+        assertEquals(virtual.get(), 1000);
+        assertEquals(executor.getWorkers(), 1000);
+        // 1000 x 200 ms one after another would take 200 s
+        assertTrue(elapsedMillis < 10_000, "Took " + elapsedMillis + " ms");
+        assertTrue(executor.getPeakConcurrent() >= 500, "Peak " + executor.getPeakConcurrent());
+    }
+
+    @Test
+    public void testSemaphoreCapsConcurrency() throws InterruptedException {
+        requireVirtualThreads();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        IThreadWorkerFactory<String> counting = nodes -> nodes.stream()
+                .map(node -> (IWorker<String>) new SleepingWorker(node, 20, () -> { }) {
+                    @Override
+                    public void run() {
+                        peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        try {
+                            super.run();
+                        } finally {
+                            running.decrementAndGet();
+                        }
+                    }
+                })
+                .collect(Collectors.toList());
+        VirtualThreadExecutor<String> executor = new VirtualThreadExecutor<>("capped", graph(100), counting, null,
+                new Semaphore(5));
+
+        executor.run();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(executor.getWorkers(), 100);
+        assertEquals(peak.get(), 5);
+        assertEquals(executor.getPeakConcurrent(), 5);
+    }
+
+    @Test
+    public void testDependentMethodsWaitForTheirDependencies() throws InterruptedException {
+        requireVirtualThreads();
+        Map<String, Long> finished = new ConcurrentHashMap<>();
+        Map<String, Long> started = new ConcurrentHashMap<>();
+        DynamicGraph<String> graph = new DynamicGraph<>();
+        for (String node : List.of("login", "createUser", "getUser", "deleteUser", "health")) {
+            graph.addNode(node);
+        }
+        graph.addEdge(0, "createUser", "login");
+        graph.addEdge(0, "getUser", "createUser");
+        graph.addEdge(0, "deleteUser", "getUser");
+        IThreadWorkerFactory<String> factory = nodes -> nodes.stream()
+                .map(node -> (IWorker<String>) new SleepingWorker(node, 30, () -> started.put(node, System.nanoTime())) {
+                    @Override
+                    public void run() {
+                        super.run();
+                        finished.put(node, System.nanoTime());
+                    }
+                })
+                .collect(Collectors.toList());
+        VirtualThreadExecutor<String> executor = new VirtualThreadExecutor<>("chain", graph, factory, null,
+                new Semaphore(10));
+
+        executor.run();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(finished.keySet(), Set.of("login", "createUser", "getUser", "deleteUser", "health"));
+        assertTrue(started.get("createUser") >= finished.get("login"));
+        assertTrue(started.get("getUser") >= finished.get("createUser"));
+        assertTrue(started.get("deleteUser") >= finished.get("getUser"));
+        assertTrue(started.get("health") < finished.get("login"), "independent method should not wait");
+    }
+
+    @Test
+    public void testWorkersDoNotInheritTheReportContext() throws InterruptedException {
+        requireVirtualThreads();
+        Map<String, Object> seen = new ConcurrentHashMap<>();
+        // a chain, so every worker after the first is started by a worker that still holds its context
+        DynamicGraph<String> chain = graph(50);
+        for (int i = 1; i < 50; i++) {
+            chain.addEdge(0, "m" + i, "m" + (i - 1));
+        }
+        ReportContext.open("scheduler", null);
+        try {
+            VirtualThreadExecutor<String> executor = new VirtualThreadExecutor<>("context", chain,
+                    workers(1, node -> {
+                        ReportContext inherited = ReportContext.current();
+                        seen.put(node, inherited == null ? "none" : inherited);
+                        ReportContext.open(node, null);
+                    }), null, new Semaphore(8));
+            executor.run();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        } finally {
+            ReportContext.close();
+        }
+
+        assertEquals(seen.size(), 50);
+        assertEquals(Set.copyOf(seen.values()), Set.of("none"));
+    }
+
+    @Test
+    public void testPlatformModeIsTheDefault() {
+        assertFalse(VirtualThreadExecutorFactory.isVirtualMode());
+    }
+}